@@ -0,0 +1,176 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.AdaptiveConcurrencyController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Simulation of the adaptive concurrency limit against a synthetic backend, which serves
+ * {@code capacity} requests concurrently with a base latency, and the latency grows linearly with
+ * the in-flight requests beyond the capacity (i.e. requests queue up).</p>
+ *
+ * <p>In {@code shifting} backend mode, the base latency alternates between 2 ms and 6 ms every iteration.
+ * The concurrency limit, the tracked no-load RT (0 for the static limit) and the average RT at the end
+ * of each iteration are reported as the {@code limit}, {@code noLoadRt} and {@code avgRt} counters:
+ * the adaptive limit should converge to about {@code capacity * rtTolerance + sqrt(limit)} (e.g. ~20 for
+ * the capacity of 8) and re-converge after each shift with a near no-load RT, while the static limit keeps
+ * requests queued with a much higher RT. The {@code admitted} count of each iteration is the goodput.</p>
+ *
+ * @author agent
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 8, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AdaptiveConcurrencyBenchmark {
+
+    private static final int MAX_LIMIT = 64;
+
+    @Param({"static", "adaptive"})
+    private String controllerType;
+
+    @Param({"steady", "shifting"})
+    private String backend;
+
+    @Param({"8"})
+    private int capacity;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicBoolean reporterElected = new AtomicBoolean();
+    private volatile long baseLatencyNanos = TimeUnit.MILLISECONDS.toNanos(2);
+    private int iteration;
+
+    private StatisticNode node;
+    private TrafficShapingController controller;
+
+    @Setup
+    public void prepare() {
+        node = new StatisticNode();
+        if ("adaptive".equals(controllerType)) {
+            controller = new AdaptiveConcurrencyController(MAX_LIMIT);
+        } else {
+            controller = new DefaultController(MAX_LIMIT, RuleConstant.FLOW_GRADE_THREAD);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void shiftBackend() {
+        if ("shifting".equals(backend)) {
+            long latencyMs = iteration % 2 == 0 ? 2 : 6;
+            baseLatencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        }
+        iteration++;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SimulationCounters {
+        public long admitted;
+        public long rejected;
+        /**
+         * Gauges sampled by a single reporter thread (always 0 in other threads), so that
+         * the sums of all threads are the sampled values.
+         */
+        public long limit;
+        public double noLoadRt;
+        public long avgRt;
+
+        private boolean reporter;
+
+        @Setup(Level.Trial)
+        public void elect(AdaptiveConcurrencyBenchmark benchmark) {
+            reporter = benchmark.reporterElected.compareAndSet(false, true);
+        }
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            admitted = 0;
+            rejected = 0;
+            limit = 0;
+            noLoadRt = 0;
+            avgRt = 0;
+        }
+    }
+
+    private void sample(SimulationCounters counters) {
+        if (controller instanceof AdaptiveConcurrencyController) {
+            AdaptiveConcurrencyController adaptive = (AdaptiveConcurrencyController)controller;
+            counters.limit = adaptive.getLimit();
+            counters.noLoadRt = adaptive.getNoLoadRt();
+        } else {
+            counters.limit = MAX_LIMIT;
+        }
+        counters.avgRt = node.avgRt();
+    }
+
+    private void doRequest(SimulationCounters counters) {
+        if (!controller.canPass(node, 1)) {
+            node.increaseBlockQps(1);
+            counters.rejected++;
+            // Back off as a rejected client would do.
+            LockSupport.parkNanos(baseLatencyNanos);
+            return;
+        }
+        node.increaseThreadNum();
+        node.addPassRequest(1);
+        long start = System.nanoTime();
+        int current = inflight.incrementAndGet();
+        try {
+            long latency = baseLatencyNanos * Math.max(current, capacity) / capacity;
+            LockSupport.parkNanos(latency);
+        } finally {
+            inflight.decrementAndGet();
+        }
+        node.addRtAndSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+        node.decreaseThreadNum();
+        counters.admitted++;
+        if (counters.reporter) {
+            sample(counters);
+        }
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void test64Clients(SimulationCounters counters) {
+        doRequest(counters);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the overhead of different clock modes of {@link TimeUtil},
+ * both reading the time alone and a whole {@link SphU#entry(String)} / {@link Entry#exit()} round
+ * (which reads the time several times).
+ *
+ * @author agent
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+
+    /**
+     * Each parameter combination runs in a separate fork, so the clock mode takes effect
+     * before {@link TimeUtil} is initialized.
+     */
+    @Param({"ticker", "nano", "system"})
+    private String mode;
+
+    private Clock clock;
+
+    @Setup
+    public void prepare() {
+        SentinelConfig.setConfig(SentinelConfig.CLOCK_MODE, mode);
+        clock = TimeUtil.getClock();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long testSingleThreadReadMillis() {
+        return clock.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long test8ThreadsReadMillis() {
+        return clock.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testSingleThreadEntryExit() {
+        doEntryExit();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void test8ThreadsEntryExit() {
+        doEntryExit();
+    }
+
+    private void doEntryExit() {
+        Entry e = null;
+        try {
+            e = SphU.entry("benchmark-clock");
+        } catch (BlockException ex) {
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+}
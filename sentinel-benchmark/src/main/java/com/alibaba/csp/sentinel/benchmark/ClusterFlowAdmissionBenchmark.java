@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Admission accuracy vs. throughput of cluster flow token checking, where all threads
+ * (i.e. Netty workers) request tokens of a single flow rule.</p>
+ *
+ * <p>The {@code admitted} counter is reported as a rate (per second), which should be compared with
+ * the {@code threshold}: the legacy check-then-add mode over-admits under concurrency,
+ * while the reserve mode (CAS against the budget of current bucket) should not exceed the threshold.</p>
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ClusterFlowAdmissionBenchmark {
+
+    @Param({"false", "true"})
+    private boolean reserve;
+
+    @Param({"10000"})
+    private double threshold;
+
+    private ClusterMetric metric;
+
+    @Setup
+    public void prepare() {
+        metric = new ClusterMetric(10, 1000);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class AdmissionCounters {
+        public long admitted;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            admitted = 0;
+            rejected = 0;
+        }
+    }
+
+    private void doAcquire(AdmissionCounters counters) {
+        boolean pass;
+        if (reserve) {
+            pass = metric.tryAcquirePass(1, threshold) >= 0;
+        } else {
+            // Legacy mode: check the average first, then add the pass count.
+            pass = threshold - metric.getAvg(ClusterFlowEvent.PASS) - 1 >= 0;
+            if (pass) {
+                metric.add(ClusterFlowEvent.PASS, 1);
+            }
+        }
+        if (pass) {
+            counters.admitted++;
+        } else {
+            counters.rejected++;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testSingleThread(AdmissionCounters counters) {
+        doAcquire(counters);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void test8Threads(AdmissionCounters counters) {
+        doAcquire(counters);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void test32Threads(AdmissionCounters counters) {
+        doAcquire(counters);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.NettyTransportServer;
+import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
+import com.alibaba.csp.sentinel.init.InitExecutor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Round-trip throughput of cluster flow requests between a token client and a token server
+ * on the loopback interface, with NIO transport and native epoll transport (Linux only,
+ * fallback to NIO if unavailable).</p>
+ *
+ * <p>The flow rule is absent, so the server-side checking is trivial and the transport
+ * (syscalls, flushes and wake-ups) dominates the cost.</p>
+ *
+ * @author agent
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ClusterTransportBenchmark {
+
+    private static final int PORT = 18730;
+    private static final long FLOW_ID = 111L;
+
+    @Param({ClusterConstants.TRANSPORT_TYPE_NIO, ClusterConstants.TRANSPORT_TYPE_EPOLL})
+    private String transportType;
+
+    private NettyTransportServer server;
+    private NettyTransportClient client;
+
+    @Setup
+    public void prepare() throws Exception {
+        InitExecutor.doInit();
+        ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig()
+            .setPort(PORT)
+            .setIdleSeconds(600)
+            .setTransportType(transportType));
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig()
+            .setRequestTimeout(1000)
+            .setTransportType(transportType));
+
+        server = new NettyTransportServer(PORT);
+        server.start();
+        for (int i = 0; i < 100 && server.getCurrentState() != ServerConstants.SERVER_STATUS_STARTED; i++) {
+            Thread.sleep(100);
+        }
+        client = new NettyTransportClient("127.0.0.1", PORT);
+        client.start();
+        for (int i = 0; i < 100 && !client.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        if (!client.isReady()) {
+            throw new IllegalStateException("Token client is not ready");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.stop();
+        server.stop();
+    }
+
+    private ClusterResponse doRequest() throws Exception {
+        FlowRequestData data = new FlowRequestData().setFlowId(FLOW_ID).setCount(1);
+        return client.sendRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ClusterResponse testSingleThread() throws Exception {
+        return doRequest();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ClusterResponse test8Threads() throws Exception {
+        return doRequest();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public ClusterResponse test32Threads() throws Exception {
+        return doRequest();
+    }
+}
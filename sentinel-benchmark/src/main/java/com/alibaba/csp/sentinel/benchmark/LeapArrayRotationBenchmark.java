@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.MetricsLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention benchmark for bucket rotation of {@link com.alibaba.csp.sentinel.slots.statistic.base.LeapArray}.
+ * All threads hammer a single shared leap array (i.e. one hot resource). The window length is kept short
+ * so that the window boundary (where deprecated buckets get rotated) is crossed frequently.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayRotationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean lockFree;
+
+    @Param({"1", "500"})
+    private int windowLengthInMs;
+
+    private MetricsLeapArray leapArray;
+
+    @Setup
+    public void prepare() {
+        int sampleCount = 2;
+        leapArray = new MetricsLeapArray(sampleCount, sampleCount * windowLengthInMs, lockFree);
+    }
+
+    private void doAddPass() {
+        leapArray.currentWindow().value().addPass(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testSingleThreadAddPass() {
+        doAddPass();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void test8ThreadsAddPass() {
+        doAddPass();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void test32ThreadsAddPass() {
+        doAddPass();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void test64ThreadsAddPass() {
+        doAddPass();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.StripedMetricBucket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link MetricBucket} implementations: {@code LongAdder}-based buckets
+ * (stripes = 0) and {@link StripedMetricBucket}.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricBucketBenchmark {
+
+    @Param({"0", "4", "16"})
+    private int stripes;
+
+    private MetricBucket bucket;
+
+    @Setup
+    public void prepare() {
+        bucket = stripes > 0 ? new StripedMetricBucket(stripes) : new MetricBucket();
+    }
+
+    private long doAddAndSum() {
+        // Simulate a typical entry-exit: pass + success + rt, then read pass.
+        bucket.addPass(1);
+        bucket.addSuccess(1);
+        bucket.addRT(5);
+        return bucket.pass();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long testSingleThread() {
+        return doAddAndSum();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long test4Threads() {
+        return doAddAndSum();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long test16Threads() {
+        return doAddAndSum();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MetricBucket testAllocate() {
+        return stripes > 0 ? new StripedMetricBucket(stripes) : new MetricBucket();
+    }
+}
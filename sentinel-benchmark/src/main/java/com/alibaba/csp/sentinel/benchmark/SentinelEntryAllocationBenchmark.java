@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation benchmark for the hot path of {@link SphU#entry(String)}. Run with the GC profiler
+ * to see the allocation rate per operation ({@code gc.alloc.rate.norm}), e.g.
+ * {@code java -jar benchmarks.jar SentinelEntryAllocationBenchmark -prof gc}.
+ *
+ * @author agent
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SentinelEntryAllocationBenchmark {
+
+    /**
+     * Each parameter combination runs in a separate fork, so the config takes effect
+     * before any Sentinel class reads it.
+     */
+    @Param({"false", "true"})
+    private boolean recycle;
+
+    @Setup
+    public void prepare() {
+        SentinelConfig.setConfig(SentinelConfig.ENTRY_RECYCLE, String.valueOf(recycle));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testSingleThreadEntryExit() {
+        doEntryExit();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void test4ThreadsEntryExit() {
+        doEntryExit();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testSingleThreadNestedEntryExit() {
+        Entry e0 = null;
+        try {
+            e0 = SphU.entry("benchmark-alloc-outer");
+            doEntryExit();
+        } catch (BlockException e) {
+        } finally {
+            if (e0 != null) {
+                e0.exit();
+            }
+        }
+    }
+
+    private void doEntryExit() {
+        Entry e = null;
+        try {
+            e = SphU.entry("benchmark-alloc");
+        } catch (BlockException ex) {
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+}
@@ -16,12 +16,15 @@
 package com.alibaba.csp.sentinel.cluster.client;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
 import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultFuture;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
@@ -32,6 +35,7 @@ import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -45,6 +49,8 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private ClusterTransportClient transportClient;
+    private TokenRequestBatcher requestBatcher;
+    private TokenLeaseHolder leaseHolder;
     private TokenServerDescriptor serverDescriptor;
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
@@ -78,6 +84,8 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
         try {
             this.transportClient = new NettyTransportClient(host, port);
+            this.requestBatcher = new TokenRequestBatcher(transportClient);
+            this.leaseHolder = new TokenLeaseHolder(transportClient);
             this.serverDescriptor = new TokenServerDescriptor(host, port);
             RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
         } catch (Exception ex) {
@@ -95,6 +103,8 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             }
             // Replace with new, even if the new client is not ready.
             this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
+            this.requestBatcher = new TokenRequestBatcher(transportClient);
+            this.leaseHolder = new TokenLeaseHolder(transportClient);
             this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
             startClientIfScheduled();
             RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
@@ -151,6 +161,12 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
+        if (ClusterClientConfigManager.isLeaseEnabled() && !prioritized) {
+            return requestTokenFromLease(flowId, acquireCount);
+        }
+        if (ClusterClientConfigManager.isBatchEnabled()) {
+            return awaitResult(requestTokenAsync(flowId, acquireCount, prioritized));
+        }
         FlowRequestData data = new FlowRequestData().setCount(acquireCount)
             .setFlowId(flowId).setPriority(prioritized);
         ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
@@ -164,6 +180,82 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public TokenResultFuture requestTokenAsync(Long flowId, int acquireCount, boolean prioritized) {
+        if (notValidRequest(flowId, acquireCount)) {
+            return TokenResultFuture.completed(badRequest());
+        }
+        ClusterTransportClient transportClient = this.transportClient;
+        if (transportClient == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return TokenResultFuture.completed(clientFail());
+        }
+        if (ClusterClientConfigManager.isLeaseEnabled() && !prioritized) {
+            // Only the valid lease is used here, as renewing the lease is blocking.
+            TokenResult leaseResult = leaseHolder.tryAcquireLocal(flowId, acquireCount);
+            if (leaseResult != null) {
+                return TokenResultFuture.completed(leaseResult);
+            }
+        }
+        final TokenResultFuture future = new TokenResultFuture();
+        future.addListener(new TokenResultFuture.Listener() {
+            @Override
+            public void onComplete(TokenResult result) {
+                logForResult(result);
+            }
+        });
+        if (ClusterClientConfigManager.isBatchEnabled()) {
+            requestBatcher.submit(flowId, acquireCount, prioritized, future);
+            return future;
+        }
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(prioritized);
+        transportClient.sendRequestAsync(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data),
+            new ClusterResponseCallback() {
+                @Override
+                public void onResponse(ClusterResponse response) {
+                    future.complete(toTokenResult(response));
+                }
+
+                @Override
+                public void onFailure(Throwable ex) {
+                    ClusterClientStatLogUtil.log(ex.getMessage());
+                    future.complete(clientFail());
+                }
+            });
+        return future;
+    }
+
+    private TokenResult requestTokenFromLease(Long flowId, int acquireCount) {
+        if (transportClient == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return clientFail();
+        }
+        try {
+            TokenResult result = leaseHolder.acquire(flowId, acquireCount);
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return clientFail();
+        }
+    }
+
+    private TokenResult awaitResult(TokenResultFuture future) {
+        try {
+            // Queued requests may wait for the in-flight round of the same flow, so at most two timeouts.
+            return future.get(ClusterClientConfigManager.getRequestTimeout() * 2L, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            ClusterClientStatLogUtil.log(ClusterErrorMessages.REQUEST_TIME_OUT);
+            return clientFail();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return clientFail();
+        }
+    }
+
     @Override
     public TokenResult requestParamToken(Long flowId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
@@ -201,6 +293,10 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             return clientFail();
         }
         ClusterResponse response = transportClient.sendRequest(request);
+        return toTokenResult(response);
+    }
+
+    static TokenResult toTokenResult(ClusterResponse response) {
         TokenResult result = new TokenResult(response.getStatus());
         if (response.getData() != null) {
             FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.cluster.client;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -29,10 +30,13 @@ import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromiseHolder;
+import com.alibaba.csp.sentinel.cluster.codec.netty.FrameCodecs;
 import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransports;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -45,12 +49,10 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
 
 /**
  * Netty transport client implementation for Sentinel cluster transport.
@@ -68,8 +70,8 @@ public class NettyTransportClient implements ClusterTransportClient {
     private final String host;
     private final int port;
 
-    private Channel channel;
-    private NioEventLoopGroup eventLoopGroup;
+    private volatile Channel channel;
+    private EventLoopGroup eventLoopGroup;
     private TokenClientHandler clientHandler;
 
     private final AtomicInteger idGenerator = new AtomicInteger(0);
@@ -87,9 +89,10 @@ public class NettyTransportClient implements ClusterTransportClient {
 
     private Bootstrap initClientBootstrap() {
         Bootstrap b = new Bootstrap();
-        eventLoopGroup = new NioEventLoopGroup();
+        boolean epoll = NettyTransports.shouldUseEpoll(ClusterClientConfigManager.getTransportType());
+        eventLoopGroup = NettyTransports.newEventLoopGroup(epoll, 0);
         b.group(eventLoopGroup)
-            .channel(NioSocketChannel.class)
+            .channel(NettyTransports.channelClass(epoll))
             .option(ChannelOption.TCP_NODELAY, true)
             .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
@@ -99,9 +102,12 @@ public class NettyTransportClient implements ClusterTransportClient {
                     clientHandler = new TokenClientHandler(currentState, disconnectCallback);
 
                     ChannelPipeline pipeline = ch.pipeline();
-                    pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    // Coalesce the flushes of requests written in the same event loop iteration.
+                    pipeline.addLast(NettyTransports.newFlushConsolidationHandler());
+                    // Legacy frames (protocol v1) will be upgraded after the ping handshake if possible.
+                    pipeline.addLast(FrameCodecs.newLegacyFrameDecoder());
                     pipeline.addLast(new NettyResponseDecoder());
-                    pipeline.addLast(new LengthFieldPrepender(2));
+                    pipeline.addLast(FrameCodecs.newLegacyFramePrepender());
                     pipeline.addLast(new NettyRequestEncoder());
                     pipeline.addLast(clientHandler);
                 }
@@ -212,15 +218,20 @@ public class NettyTransportClient implements ClusterTransportClient {
         if (!validRequest(request)) {
             throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
         }
+        Channel channel = this.channel;
+        if (channel == null) {
+            throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+        }
         int xid = getCurrentId();
         try {
             request.setId(xid);
 
-            channel.writeAndFlush(request);
-
+            // Register the promise before writing, otherwise a fast response may arrive before the registration.
             ChannelPromise promise = channel.newPromise();
             TokenClientPromiseHolder.putPromise(xid, promise);
 
+            channel.writeAndFlush(request);
+
             if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
                 throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
             }
@@ -243,27 +254,63 @@ public class NettyTransportClient implements ClusterTransportClient {
         return idGenerator.incrementAndGet();
     }
 
-    /*public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
-        // Uncomment this when min target JDK is 1.8.
+    @Override
+    public void sendRequestAsync(ClusterRequest request, final ClusterResponseCallback callback) {
+        AssertUtil.notNull(callback, "callback cannot be null");
+        Channel channel = this.channel;
+        if (!isReady() || channel == null) {
+            callback.onFailure(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+            return;
+        }
         if (!validRequest(request)) {
-            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad request"));
+            callback.onFailure(new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST));
+            return;
         }
-        int xid = getCurrentId();
+        final int xid = getCurrentId();
         request.setId(xid);
 
-        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
-        channel.writeAndFlush(request)
-            .addListener(f -> {
-                if (f.isSuccess()) {
-                    future.complete(someResult);
-                } else if (f.cause() != null) {
-                    future.completeExceptionally(f.cause());
+        final ChannelPromise promise = channel.newPromise();
+        TokenClientPromiseHolder.putPromise(xid, promise);
+        final ScheduledFuture<?> timeoutFuture;
+        try {
+            // The timeout task runs in the I/O thread, so no extra thread is needed for the waiters.
+            timeoutFuture = channel.eventLoop().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    promise.tryFailure(new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT));
+                }
+            }, ClusterClientConfigManager.getRequestTimeout(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // The event loop has been shut down (i.e. disconnected).
+            TokenClientPromiseHolder.remove(xid);
+            callback.onFailure(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+            return;
+        }
+        promise.addListener(new GenericFutureListener<ChannelFuture>() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                timeoutFuture.cancel(false);
+                SimpleEntry<ChannelPromise, ClusterResponse> entry = TokenClientPromiseHolder.getEntry(xid);
+                TokenClientPromiseHolder.remove(xid);
+                if (future.isSuccess() && entry != null && entry.getValue() != null) {
+                    callback.onResponse(entry.getValue());
+                } else if (future.cause() != null) {
+                    callback.onFailure(future.cause());
                 } else {
-                    future.cancel(false);
+                    callback.onFailure(new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS));
                 }
-            });
-        return future;
-    }*/
+            }
+        });
+        channel.writeAndFlush(request).addListener(new GenericFutureListener<ChannelFuture>() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (!future.isSuccess()) {
+                    promise.tryFailure(future.cause() != null ? future.cause()
+                        : new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS));
+                }
+            }
+        });
+    }
 
     private static final int MAX_ID = 999_999_999;
 }
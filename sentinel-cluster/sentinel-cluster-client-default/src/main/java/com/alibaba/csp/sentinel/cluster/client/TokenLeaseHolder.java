@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseResponseData;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Holder of token leases for cluster flow rules. A lease is a block of tokens granted by the token server
+ * which is valid for a short time (one bucket of the cluster metric), so requests can be served locally
+ * until the lease runs out or expires. The token server sizes the lease from its remaining budget, and
+ * the error of the global threshold is bounded by the max lease ratio of the token server.
+ * </p>
+ * <p>
+ * If the token server rejects the lease, the rejection is also held for the valid time,
+ * so blocked requests do not go to the token server either.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class TokenLeaseHolder {
+
+    private final ClusterTransportClient transportClient;
+    private final ConcurrentMap<Long, FlowLease> leaseMap = new ConcurrentHashMap<>();
+
+    TokenLeaseHolder(ClusterTransportClient transportClient) {
+        this.transportClient = transportClient;
+    }
+
+    /**
+     * Try to acquire tokens from current lease without renewing.
+     *
+     * @return the token result if current lease is valid, otherwise null
+     */
+    TokenResult tryAcquireLocal(long flowId, int acquireCount) {
+        FlowLease lease = leaseMap.get(flowId);
+        if (lease == null) {
+            return null;
+        }
+        return lease.tryAcquire(acquireCount, TimeUtil.currentTimeMillis());
+    }
+
+    /**
+     * Acquire tokens from current lease, or renew the lease from the token server if the lease
+     * has run out or expired.
+     */
+    TokenResult acquire(long flowId, int acquireCount) throws Exception {
+        FlowLease lease = getLease(flowId);
+        TokenResult result = lease.tryAcquire(acquireCount, TimeUtil.currentTimeMillis());
+        if (result != null) {
+            return result;
+        }
+        synchronized (lease) {
+            // The lease may have been renewed by another thread.
+            result = lease.tryAcquire(acquireCount, TimeUtil.currentTimeMillis());
+            if (result != null) {
+                return result;
+            }
+            return renew(lease, flowId, acquireCount);
+        }
+    }
+
+    private TokenResult renew(FlowLease lease, long flowId, int acquireCount) throws Exception {
+        FlowRequestData data = new FlowRequestData().setFlowId(flowId).setCount(acquireCount);
+        ClusterResponse response = transportClient.sendRequest(
+            new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data));
+        int status = response.getStatus();
+        if (!(response.getData() instanceof FlowLeaseResponseData)
+            || (status != TokenResultStatus.OK && status != TokenResultStatus.BLOCKED)) {
+            return new TokenResult(status);
+        }
+        FlowLeaseResponseData leaseData = (FlowLeaseResponseData)response.getData();
+        long expireTime = TimeUtil.currentTimeMillis() + leaseData.getValidInMs();
+        if (status == TokenResultStatus.BLOCKED) {
+            lease.reject(expireTime);
+            return new TokenResult(TokenResultStatus.BLOCKED);
+        }
+        int remaining = leaseData.getGrantedCount() - acquireCount;
+        lease.grant(remaining, expireTime);
+        return new TokenResult(TokenResultStatus.OK).setRemaining(remaining);
+    }
+
+    private FlowLease getLease(long flowId) {
+        FlowLease lease = leaseMap.get(flowId);
+        if (lease == null) {
+            FlowLease newLease = new FlowLease();
+            lease = leaseMap.putIfAbsent(flowId, newLease);
+            if (lease == null) {
+                lease = newLease;
+            }
+        }
+        return lease;
+    }
+
+    private static final class FlowLease {
+        private final AtomicInteger tokens = new AtomicInteger(0);
+        private volatile long expireTime = 0;
+        private volatile boolean rejected = false;
+
+        TokenResult tryAcquire(int acquireCount, long now) {
+            if (now >= expireTime) {
+                return null;
+            }
+            if (rejected) {
+                return new TokenResult(TokenResultStatus.BLOCKED);
+            }
+            while (true) {
+                int current = tokens.get();
+                if (current < acquireCount) {
+                    return null;
+                }
+                if (tokens.compareAndSet(current, current - acquireCount)) {
+                    return new TokenResult(TokenResultStatus.OK).setRemaining(current - acquireCount);
+                }
+            }
+        }
+
+        void grant(int count, long expireTime) {
+            // Update the tokens before the expire time, so that the new tokens will not be
+            // regarded as rejected or expired.
+            tokens.set(count);
+            rejected = false;
+            this.expireTime = expireTime;
+        }
+
+        void reject(long expireTime) {
+            tokens.set(0);
+            rejected = true;
+            this.expireTime = expireTime;
+        }
+    }
+}
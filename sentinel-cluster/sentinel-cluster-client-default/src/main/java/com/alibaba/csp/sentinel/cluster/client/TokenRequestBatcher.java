@@ -0,0 +1,244 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultFuture;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.log.ClusterClientStatLogUtil;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+
+/**
+ * <p>
+ * Coalesces concurrent flow requests for the same flow ID into batches.
+ * </p>
+ * <p>
+ * For each flow ID, there is at most one round of requests on the wire. Requests arriving during the round
+ * are queued, and will be sent together in batches (of {@link ClusterClientConfigManager#getMaxBatchSize()})
+ * once all responses of the round are received. So a request is sent immediately when there is no
+ * concurrent request, and under high concurrency the amount of frames per flow ID is bounded by the RTT
+ * rather than the amount of requests. No timer is involved.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class TokenRequestBatcher {
+
+    private static final Throwable CLIENT_NOT_READY = new IllegalStateException("cluster client not ready");
+
+    private final ClusterTransportClient transportClient;
+    private final ConcurrentMap<Long, FlowBatch> batchMap = new ConcurrentHashMap<>();
+
+    TokenRequestBatcher(ClusterTransportClient transportClient) {
+        this.transportClient = transportClient;
+    }
+
+    void submit(long flowId, int acquireCount, boolean prioritized, TokenResultFuture future) {
+        FlowBatch batch = getBatch(flowId);
+        batch.queue.offer(new PendingRequest(acquireCount, prioritized, future));
+        if (batch.sending.compareAndSet(false, true)) {
+            flush(batch);
+        }
+    }
+
+    private FlowBatch getBatch(long flowId) {
+        FlowBatch batch = batchMap.get(flowId);
+        if (batch == null) {
+            FlowBatch newBatch = new FlowBatch(flowId);
+            batch = batchMap.putIfAbsent(flowId, newBatch);
+            if (batch == null) {
+                batch = newBatch;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Send all queued requests of the flow. Only the owner of the sending flag can flush.
+     * The flush is never re-entered: if it's requested again while flushing (e.g. the chunks
+     * failed synchronously), the outer loop will flush again instead.
+     */
+    private void flush(FlowBatch batch) {
+        if (batch.flushRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            flushOnce(batch);
+        } while (batch.flushRequests.decrementAndGet() != 0);
+    }
+
+    private void flushOnce(FlowBatch batch) {
+        while (true) {
+            List<PendingRequest> pending = drain(batch.queue);
+            if (!pending.isEmpty()) {
+                if (transportClient.isReady()) {
+                    sendAll(batch, pending);
+                    return;
+                }
+                // Fail all queued requests at once, and then go on with the requests queued meanwhile.
+                failChunk(pending, CLIENT_NOT_READY);
+                continue;
+            }
+            batch.sending.set(false);
+            // Requests may be queued after draining but before the flag is reset.
+            if (batch.queue.isEmpty() || !batch.sending.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private List<PendingRequest> drain(Queue<PendingRequest> queue) {
+        List<PendingRequest> list = new ArrayList<>();
+        PendingRequest request;
+        while ((request = queue.poll()) != null) {
+            list.add(request);
+        }
+        return list;
+    }
+
+    private void sendAll(FlowBatch batch, List<PendingRequest> pending) {
+        int maxBatchSize = ClusterClientConfigManager.getMaxBatchSize();
+        int size = pending.size();
+        batch.inFlight.set((size + maxBatchSize - 1) / maxBatchSize);
+        for (int i = 0; i < size; i += maxBatchSize) {
+            sendChunk(batch, pending.subList(i, Math.min(i + maxBatchSize, size)));
+        }
+    }
+
+    private void sendChunk(final FlowBatch batch, final List<PendingRequest> chunk) {
+        ClusterRequest<?> request;
+        if (chunk.size() == 1) {
+            PendingRequest r = chunk.get(0);
+            request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestData()
+                .setFlowId(batch.flowId).setCount(r.acquireCount).setPriority(r.prioritized));
+        } else {
+            List<FlowRequestData> items = new ArrayList<>(chunk.size());
+            for (PendingRequest r : chunk) {
+                items.add(new FlowRequestData().setFlowId(batch.flowId)
+                    .setCount(r.acquireCount).setPriority(r.prioritized));
+            }
+            request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_BATCH_FLOW,
+                new BatchFlowRequestData().setFlowId(batch.flowId).setRequests(items));
+        }
+        ClusterResponseCallback callback = new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                try {
+                    completeChunk(chunk, response);
+                } finally {
+                    onChunkDone(batch);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                try {
+                    failChunk(chunk, ex);
+                } finally {
+                    onChunkDone(batch);
+                }
+            }
+        };
+        try {
+            transportClient.sendRequestAsync(request, callback);
+        } catch (Throwable ex) {
+            callback.onFailure(ex);
+        }
+    }
+
+    private void onChunkDone(FlowBatch batch) {
+        if (batch.inFlight.decrementAndGet() == 0) {
+            flush(batch);
+        }
+    }
+
+    private void completeChunk(List<PendingRequest> chunk, ClusterResponse response) {
+        if (chunk.size() == 1) {
+            chunk.get(0).future.complete(DefaultClusterTokenClient.toTokenResult(response));
+            return;
+        }
+        List<TokenResult> results = null;
+        if (response.getData() instanceof BatchFlowTokenResponseData) {
+            results = ((BatchFlowTokenResponseData)response.getData()).getResults();
+        }
+        if (results == null || results.size() != chunk.size()) {
+            int status = response.getStatus() == ClusterConstants.RESPONSE_STATUS_OK
+                ? TokenResultStatus.FAIL : response.getStatus();
+            for (PendingRequest r : chunk) {
+                r.future.complete(new TokenResult(status));
+            }
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            chunk.get(i).future.complete(results.get(i));
+        }
+    }
+
+    private void failChunk(List<PendingRequest> chunk, Throwable ex) {
+        ClusterClientStatLogUtil.log(ex.getMessage());
+        for (PendingRequest r : chunk) {
+            r.future.complete(new TokenResult(TokenResultStatus.FAIL));
+        }
+    }
+
+    private static final class FlowBatch {
+        private final long flowId;
+        private final Queue<PendingRequest> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        /**
+         * Amount of frames of current round that have not been responded.
+         */
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        /**
+         * Amount of pending flush requests, which makes the flush iterative rather than recursive.
+         */
+        private final AtomicInteger flushRequests = new AtomicInteger(0);
+
+        private FlowBatch(long flowId) {
+            this.flowId = flowId;
+        }
+    }
+
+    private static final class PendingRequest {
+        private final int acquireCount;
+        private final boolean prioritized;
+        private final TokenResultFuture future;
+
+        private PendingRequest(int acquireCount, boolean prioritized, TokenResultFuture future) {
+            this.acquireCount = acquireCount;
+            this.prioritized = prioritized;
+            this.future = future;
+        }
+    }
+}
@@ -48,6 +48,8 @@ public class DefaultResponseEntityDecoder implements ResponseEntityDecoder<ByteB
             EntityDecoder<ByteBuf, ?> decoder = ResponseDataDecodeRegistry.getDecoder(type);
             if (decoder == null) {
                 RecordLog.warn("Unknown type of response data decoder: {0}", type);
+                // Discard the rest of the frame.
+                source.skipBytes(source.readableBytes());
                 return null;
             }
 
@@ -57,6 +59,8 @@ public class DefaultResponseEntityDecoder implements ResponseEntityDecoder<ByteB
             } else {
                 data = decoder.decode(source);
             }
+            // Each frame contains exactly one entity, so unknown trailing data (e.g. from newer peers) is discarded.
+            source.skipBytes(source.readableBytes());
 
             return new ClusterResponse<>(xid, type, status, data);
         }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Writer for {@link BatchFlowRequestData}. The flow ID is shared by all requests in the batch.</p>
+ * <p>Layout: |flow ID(8)|amount(2)|count(4)|priority(1)|...|count(4)|priority(1)|</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class BatchFlowRequestDataWriter implements EntityWriter<BatchFlowRequestData, ByteBuf> {
+
+    @Override
+    public void writeTo(BatchFlowRequestData entity, ByteBuf target) {
+        List<FlowRequestData> requests = entity.getRequests();
+        target.writeLong(entity.getFlowId());
+        target.writeShort(requests.size());
+        for (FlowRequestData request : requests) {
+            target.writeInt(request.getCount());
+            target.writeBoolean(request.isPriority());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+
+/**
+ * Parameter flow request data of protocol v2, with the parameter dictionary of the connection.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class InternedParamFlowRequestData extends ParamFlowRequestData {
+
+    private final ParamDictionary dictionary;
+
+    public InternedParamFlowRequestData(ParamFlowRequestData data, ParamDictionary dictionary) {
+        this.dictionary = dictionary;
+        setFlowId(data.getFlowId());
+        setCount(data.getCount());
+        setParams(data.getParams());
+    }
+
+    public ParamDictionary getDictionary() {
+        return dictionary;
+    }
+}
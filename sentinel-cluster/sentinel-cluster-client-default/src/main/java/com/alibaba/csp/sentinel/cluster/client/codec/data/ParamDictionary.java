@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+
+/**
+ * <p>Dictionary of interned string parameters of a connection (protocol v2).</p>
+ *
+ * <p>The first occurrence of a parameter is sent with its content and the assigned ID,
+ * and later occurrences are sent with the ID only. Since the dictionary is bound to the connection
+ * and only accessed in its I/O thread, it's not thread-safe.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class ParamDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final int maxSize;
+
+    public ParamDictionary() {
+        this(ClusterConstants.MAX_PARAM_DICTIONARY_SIZE);
+    }
+
+    public ParamDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param value string parameter
+     * @return ID of the interned parameter, or null if absent
+     */
+    public Integer getId(String value) {
+        return ids.get(value);
+    }
+
+    /**
+     * Intern the parameter if the dictionary is not full.
+     *
+     * @param value string parameter
+     * @return assigned ID, or -1 if the dictionary is full
+     */
+    public int register(String value) {
+        if (ids.size() >= maxSize) {
+            return -1;
+        }
+        int id = ids.size();
+        ids.put(value, id);
+        return id;
+    }
+
+    public boolean isFull() {
+        return ids.size() >= maxSize;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -15,36 +15,90 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.codec.data;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.codec.netty.Varints;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 
 import io.netty.buffer.ByteBuf;
 
 /**
+ * <p>Writer of parameter flow request data. Parameters that exceed {@code maxParamSize} (in bytes) will be dropped,
+ * so that the request fits in a frame.</p>
+ *
+ * <p>For {@link InternedParamFlowRequestData} (protocol v2), short string parameters will be interned
+ * to the dictionary of the connection:</p>
+ * <pre>
+ * first occurrence: |type flag(1)|id(varint)|length(varint)|content(UTF-8)|
+ * later occurrence: |type flag(1)|id(varint)|
+ * </pre>
+ *
  * @author jialiang.linjl
  * @author Eric Zhao
  * @since 1.4.0
  */
 public class ParamFlowRequestDataWriter implements EntityWriter<ParamFlowRequestData, ByteBuf> {
 
+    private final int maxParamSize;
+
+    public ParamFlowRequestDataWriter() {
+        this(PARAM_MAX_SIZE);
+    }
+
+    /**
+     * @param maxParamSize max transport size (in bytes) of all parameters
+     * @since 1.4.2
+     */
+    public ParamFlowRequestDataWriter(int maxParamSize) {
+        this.maxParamSize = maxParamSize;
+    }
+
     @Override
     public void writeTo(ParamFlowRequestData entity, ByteBuf target) {
         target.writeLong(entity.getFlowId());
         target.writeInt(entity.getCount());
 
-        Collection<Object> params = entity.getParams();
+        ParamDictionary dictionary = null;
+        if (entity instanceof InternedParamFlowRequestData) {
+            dictionary = ((InternedParamFlowRequestData)entity).getDictionary();
+        }
 
-        // Write parameter amount.
-        int amount = calculateParamAmount(params);
-        target.writeInt(amount);
+        // Reserve for parameter amount, which will be set after the parameters are written.
+        int amountIndex = target.writerIndex();
+        target.writeInt(0);
 
-        // Serialize parameters with type flag.
-        for (Object param : entity.getParams()) {
-            encodeValue(param, target);
+        int amount = 0;
+        int size = 0;
+        Collection<Object> params = entity.getParams();
+        if (params != null) {
+            // Serialize parameters with type flag.
+            for (Object param : params) {
+                int s;
+                if (param instanceof String) {
+                    s = encodeString((String)param, dictionary, target, maxParamSize - size);
+                } else {
+                    s = calculateParamTransportSize(param);
+                    if (s == 0) {
+                        // Unexpected type, drop.
+                        continue;
+                    }
+                    if (size + s <= maxParamSize) {
+                        encodeValue(param, target);
+                    } else {
+                        s = -1;
+                    }
+                }
+                if (s < 0) {
+                    break;
+                }
+                size += s;
+                amount++;
+            }
         }
+        target.setInt(amountIndex, amount);
     }
 
     private void encodeValue(Object param, ByteBuf target) {
@@ -52,8 +106,6 @@ public class ParamFlowRequestDataWriter implements EntityWriter<ParamFlowRequest
         if (param instanceof Integer || int.class.isInstance(param)) {
             target.writeByte(ClusterConstants.PARAM_TYPE_INTEGER);
             target.writeInt((Integer)param);
-        } else if (param instanceof String) {
-            encodeString((String)param, target);
         } else if (boolean.class.isInstance(param) || param instanceof Boolean) {
             target.writeByte(ClusterConstants.PARAM_TYPE_BOOLEAN);
             target.writeBoolean((Boolean)param);
@@ -72,29 +124,50 @@ public class ParamFlowRequestDataWriter implements EntityWriter<ParamFlowRequest
         } else if (short.class.isInstance(param) || param instanceof Short) {
             target.writeByte(ClusterConstants.PARAM_TYPE_SHORT);
             target.writeShort((Short)param);
-        } else {
-            // Unexpected type, drop.
         }
     }
 
-    private void encodeString(String param, ByteBuf target) {
-        target.writeByte(ClusterConstants.PARAM_TYPE_STRING);
-        byte[] tmpChars = param.getBytes();
-        target.writeInt(tmpChars.length);
-        target.writeBytes(tmpChars);
-    }
-
-    private int calculateParamAmount(/*@NonEmpty*/ Collection<Object> params) {
-        int size = 0;
-        int length = 0;
-        for (Object param : params) {
-            int s = calculateParamTransportSize(param);
-            if (size + s > PARAM_MAX_SIZE) {
-                break;
+    /**
+     * Encode the string parameter if it fits in the rest space.
+     *
+     * @return transport size of the parameter, or -1 if it does not fit (nothing will be written)
+     */
+    private int encodeString(String param, ParamDictionary dictionary, ByteBuf target, int restSize) {
+        if (dictionary != null) {
+            Integer id = dictionary.getId(param);
+            if (id != null) {
+                int size = 1 + Varints.varintSize(id);
+                if (size > restSize) {
+                    return -1;
+                }
+                target.writeByte(ClusterConstants.PARAM_TYPE_STRING_REF);
+                Varints.writeVarint(target, id);
+                return size;
+            }
+        }
+        byte[] bytes = param.getBytes(StandardCharsets.UTF_8);
+        if (dictionary != null && !dictionary.isFull() && bytes.length <= ClusterConstants.MAX_INTERNED_PARAM_LENGTH) {
+            // Layout: |type flag(1)|id(varint)|length(varint)|string content|
+            int size = 1 + Varints.varintSize(dictionary.size()) + Varints.varintSize(bytes.length) + bytes.length;
+            if (size > restSize) {
+                return -1;
             }
-            length++;
+            int id = dictionary.register(param);
+            target.writeByte(ClusterConstants.PARAM_TYPE_STRING_DEF);
+            Varints.writeVarint(target, id);
+            Varints.writeVarint(target, bytes.length);
+            target.writeBytes(bytes);
+            return size;
         }
-        return length;
+        // Layout for string: |type flag(1)|length(4)|string content|
+        int size = 1 + 4 + bytes.length;
+        if (size > restSize) {
+            return -1;
+        }
+        target.writeByte(ClusterConstants.PARAM_TYPE_STRING);
+        target.writeInt(bytes.length);
+        target.writeBytes(bytes);
+        return size;
     }
 
     private int calculateParamTransportSize(Object value) {
@@ -102,11 +175,6 @@ public class ParamFlowRequestDataWriter implements EntityWriter<ParamFlowRequest
         // size = original size + type flag (1)
         if (value instanceof Integer || int.class.isInstance(value)) {
             return 5;
-        } else if (value instanceof String) {
-            // Layout for string: |type flag(1)|length(4)|string content|
-            String tmpValue = (String)value;
-            byte[] tmpChars = tmpValue.getBytes();
-            return 1 + 4 + tmpChars.length;
         } else if (boolean.class.isInstance(value) || value instanceof Boolean) {
             return 2;
         } else if (long.class.isInstance(value) || value instanceof Long) {
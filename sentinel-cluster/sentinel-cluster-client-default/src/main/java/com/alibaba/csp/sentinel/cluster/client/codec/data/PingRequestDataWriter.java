@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.codec.data;
 
+import java.nio.charset.StandardCharsets;
+
 import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -31,7 +33,7 @@ public class PingRequestDataWriter implements EntityWriter<String, ByteBuf> {
         if (StringUtil.isBlank(entity) || target == null) {
             return;
         }
-        byte[] bytes = entity.getBytes();
+        byte[] bytes = entity.getBytes(StandardCharsets.UTF_8);
         target.writeInt(bytes.length);
         target.writeBytes(bytes);
     }
@@ -15,21 +15,33 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.codec.data;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.response.data.PingResponseData;
 
 import io.netty.buffer.ByteBuf;
 
 /**
+ * <p>Decoder of ping response data: {@code |connected count(1)|protocol version(1, optional)|}.</p>
+ *
+ * <p>The protocol version is absent if the server does not support protocol negotiation.</p>
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class PingResponseDataDecoder implements EntityDecoder<ByteBuf, Integer> {
+public class PingResponseDataDecoder implements EntityDecoder<ByteBuf, PingResponseData> {
 
     @Override
-    public Integer decode(ByteBuf source) {
+    public PingResponseData decode(ByteBuf source) {
+        PingResponseData data = new PingResponseData().setConnectedCount(-1);
+        if (source.readableBytes() >= 1) {
+            data.setConnectedCount(source.readByte());
+        }
         if (source.readableBytes() >= 1) {
-            return (int) source.readByte();
+            data.setProtocolVersion(source.readByte());
+        } else {
+            data.setProtocolVersion(ClusterConstants.PROTOCOL_VERSION_1);
         }
-        return -1;
+        return data;
     }
 }
@@ -15,10 +15,15 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.codec.netty;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
 import com.alibaba.csp.sentinel.cluster.client.codec.ClientEntityCodecProvider;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.InternedParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.ParamDictionary;
 import com.alibaba.csp.sentinel.cluster.codec.request.RequestEntityWriter;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.buffer.ByteBuf;
@@ -26,11 +31,17 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
+ * <p>Request encoder of a connection. After protocol v2 is negotiated, parameter flow requests will be sent
+ * as {@link ClusterConstants#MSG_TYPE_PARAM_FLOW_V2} with the parameter dictionary of the connection.</p>
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
 public class NettyRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
 
+    private volatile int protocolVersion = ClusterConstants.PROTOCOL_VERSION_1;
+    private final ParamDictionary paramDictionary = new ParamDictionary();
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ClusterRequest request, ByteBuf out) throws Exception {
         RequestEntityWriter<Request, ByteBuf> requestEntityWriter = ClientEntityCodecProvider.getRequestEntityWriter();
@@ -39,6 +50,27 @@ public class NettyRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
             return;
         }
 
+        if (protocolVersion >= ClusterConstants.PROTOCOL_VERSION_2
+            && request.getType() == ClientConstants.TYPE_PARAM_FLOW
+            && request.getData() instanceof ParamFlowRequestData) {
+            request = new ClusterRequest<>(request.getId(), ClientConstants.TYPE_PARAM_FLOW_V2,
+                new InternedParamFlowRequestData((ParamFlowRequestData)request.getData(), paramDictionary));
+        }
+
         requestEntityWriter.writeTo(request, out);
     }
+
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    /**
+     * Set the negotiated protocol version. This should be invoked in the I/O thread of the channel.
+     *
+     * @param protocolVersion negotiated protocol version
+     * @since 1.4.2
+     */
+    public void setProtocolVersion(int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
 }
@@ -23,6 +23,34 @@ public class ClusterClientConfig {
 
     private Integer requestTimeout;
 
+    /**
+     * Whether to coalesce concurrent flow requests for the same flow ID into batches.
+     * The token server should support batch requests (since 1.4.2).
+     *
+     * @since 1.4.2
+     */
+    private Boolean batchEnabled;
+    /**
+     * Max amount of requests in a batch.
+     *
+     * @since 1.4.2
+     */
+    private Integer maxBatchSize;
+    /**
+     * Whether to lease tokens of cluster flow rules from the token server and consume them locally.
+     * The error bound of lease mode is configured in the token server.
+     *
+     * @since 1.4.2
+     */
+    private Boolean leaseEnabled;
+    /**
+     * Netty transport type (auto, nio or epoll). Auto mode picks native epoll if available.
+     * The new transport type will take effect when the client reconnects.
+     *
+     * @since 1.4.2
+     */
+    private String transportType;
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -32,10 +60,50 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public Boolean getBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public ClusterClientConfig setBatchEnabled(Boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+        return this;
+    }
+
+    public Integer getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public ClusterClientConfig setMaxBatchSize(Integer maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public Boolean getLeaseEnabled() {
+        return leaseEnabled;
+    }
+
+    public ClusterClientConfig setLeaseEnabled(Boolean leaseEnabled) {
+        this.leaseEnabled = leaseEnabled;
+        return this;
+    }
+
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public ClusterClientConfig setTransportType(String transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", batchEnabled=" + batchEnabled +
+            ", maxBatchSize=" + maxBatchSize +
+            ", leaseEnabled=" + leaseEnabled +
+            ", transportType='" + transportType + '\'' +
             '}';
     }
 }
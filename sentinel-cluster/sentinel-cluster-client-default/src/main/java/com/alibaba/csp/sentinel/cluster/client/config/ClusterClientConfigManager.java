@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransports;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
@@ -41,6 +42,11 @@ public final class ClusterClientConfigManager {
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
 
+    private static volatile boolean batchEnabled = false;
+    private static volatile int maxBatchSize = ClusterConstants.DEFAULT_MAX_BATCH_SIZE;
+    private static volatile boolean leaseEnabled = false;
+    private static volatile String transportType = ClusterConstants.DEFAULT_TRANSPORT_TYPE;
+
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
     private static final PropertyListener<ClusterClientAssignConfig> ASSIGN_PROPERTY_LISTENER
@@ -170,6 +176,18 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        if (config.getBatchEnabled() != null) {
+            batchEnabled = config.getBatchEnabled();
+        }
+        if (config.getMaxBatchSize() != null) {
+            maxBatchSize = config.getMaxBatchSize();
+        }
+        if (config.getLeaseEnabled() != null) {
+            leaseEnabled = config.getLeaseEnabled();
+        }
+        if (config.getTransportType() != null) {
+            transportType = config.getTransportType();
+        }
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
@@ -191,7 +209,13 @@ public final class ClusterClientConfigManager {
     }
 
     public static boolean isValidClientConfig(ClusterClientConfig config) {
-        return config != null && config.getRequestTimeout() > 0;
+        return config != null && config.getRequestTimeout() > 0
+            && (config.getMaxBatchSize() == null || isValidMaxBatchSize(config.getMaxBatchSize()))
+            && (config.getTransportType() == null || NettyTransports.isValidTransportType(config.getTransportType()));
+    }
+
+    private static boolean isValidMaxBatchSize(int maxBatchSize) {
+        return maxBatchSize > 0 && maxBatchSize <= ClusterConstants.MAX_BATCH_SIZE;
     }
 
     public static String getServerHost() {
@@ -210,5 +234,21 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    public static boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public static int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public static boolean isLeaseEnabled() {
+        return leaseEnabled;
+    }
+
+    public static String getTransportType() {
+        return transportType;
+    }
+
     private ClusterClientConfigManager() {}
 }
@@ -20,9 +20,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
+import com.alibaba.csp.sentinel.cluster.codec.netty.FrameCodecs;
 import com.alibaba.csp.sentinel.cluster.registry.ConfigSupplierRegistry;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.PingResponseData;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -39,6 +42,11 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
 
+    /**
+     * Requests will not be sent until the ping handshake (protocol negotiation) completes.
+     */
+    private volatile boolean handshakeCompleted = false;
+
     public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
@@ -46,6 +54,7 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        handshakeCompleted = false;
         currentState.set(ClientConstants.CLIENT_STATUS_STARTED);
         fireClientPing(ctx);
         RecordLog.info("[TokenClientHandler] Client handler active, remote address: " + getRemoteAddress(ctx));
@@ -67,20 +76,37 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private void fireClientPing(ChannelHandlerContext ctx) {
         // Data body: namespace of the client.
-        ClusterRequest<String> ping = new ClusterRequest<String>().setId(0)
+        // The ID of ping request carries the max protocol version supported by the client,
+        // which is ignored by legacy servers (legacy clients always use 0).
+        ClusterRequest<String> ping = new ClusterRequest<String>().setId(ClusterConstants.MAX_PROTOCOL_VERSION)
             .setType(ClusterConstants.MSG_TYPE_PING)
             .setData(ConfigSupplierRegistry.getNamespaceSupplier().get());
         ctx.writeAndFlush(ping);
     }
 
     private void handlePingResponse(ChannelHandlerContext ctx, ClusterResponse response) {
+        int protocolVersion = ClusterConstants.PROTOCOL_VERSION_1;
         if (response.getStatus() == ClusterConstants.RESPONSE_STATUS_OK) {
-            int count = (int) response.getData();
-            RecordLog.info("[TokenClientHandler] Client ping OK (target server: {0}, connected count: {1})",
-                getRemoteAddress(ctx), count);
+            PingResponseData data = (PingResponseData) response.getData();
+            if (data != null) {
+                protocolVersion = Math.min(data.getProtocolVersion(), ClusterConstants.MAX_PROTOCOL_VERSION);
+            }
+            RecordLog.info("[TokenClientHandler] Client ping OK (target server: {0}, connected count: {1}, "
+                    + "protocol version: {2})", getRemoteAddress(ctx), data == null ? -1 : data.getConnectedCount(),
+                protocolVersion);
         } else {
             RecordLog.warn("[TokenClientHandler] Client ping failed (target server: {0})", getRemoteAddress(ctx));
         }
+        if (protocolVersion >= ClusterConstants.PROTOCOL_VERSION_2) {
+            // The server has switched to protocol v2 right after the ping response, and no other request
+            // has been sent before the handshake completes, so it's safe to upgrade the pipeline here.
+            FrameCodecs.upgradeToVarintFrames(ctx.pipeline());
+            NettyRequestEncoder encoder = ctx.pipeline().get(NettyRequestEncoder.class);
+            if (encoder != null) {
+                encoder.setProtocolVersion(protocolVersion);
+            }
+        }
+        handshakeCompleted = true;
     }
 
     @Override
@@ -114,6 +140,6 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
     }
 
     public boolean hasStarted() {
-        return getCurrentState() == ClientConstants.CLIENT_STATUS_STARTED;
+        return getCurrentState() == ClientConstants.CLIENT_STATUS_STARTED && handshakeCompleted;
     }
 }
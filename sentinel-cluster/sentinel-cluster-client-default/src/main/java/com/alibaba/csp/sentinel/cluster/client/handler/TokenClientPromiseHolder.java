@@ -54,8 +54,8 @@ public final class TokenClientPromiseHolder {
                 return false;
             }
             entry.setValue(response);
-            promise.setSuccess();
-            return true;
+            // The promise may have been failed concurrently (e.g. time out).
+            return promise.trySuccess();
         }
         return false;
     }
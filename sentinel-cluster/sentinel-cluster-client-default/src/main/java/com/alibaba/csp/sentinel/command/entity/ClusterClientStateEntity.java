@@ -31,6 +31,11 @@ public class ClusterClientStateEntity {
 
     private Integer requestTimeout;
 
+    private Boolean batchEnabled;
+    private Integer maxBatchSize;
+    private Boolean leaseEnabled;
+    private String transportType;
+
     public String getServerHost() {
         return serverHost;
     }
@@ -58,6 +63,42 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public Boolean getBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public ClusterClientStateEntity setBatchEnabled(Boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+        return this;
+    }
+
+    public Integer getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public ClusterClientStateEntity setMaxBatchSize(Integer maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public Boolean getLeaseEnabled() {
+        return leaseEnabled;
+    }
+
+    public ClusterClientStateEntity setLeaseEnabled(Boolean leaseEnabled) {
+        this.leaseEnabled = leaseEnabled;
+        return this;
+    }
+
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public ClusterClientStateEntity setTransportType(String transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+
     public Integer getClientState() {
         return clientState;
     }
@@ -68,7 +109,11 @@ public class ClusterClientStateEntity {
     }
 
     public ClusterClientConfig toClientConfig() {
-        return new ClusterClientConfig().setRequestTimeout(requestTimeout);
+        return new ClusterClientConfig().setRequestTimeout(requestTimeout)
+            .setBatchEnabled(batchEnabled)
+            .setMaxBatchSize(maxBatchSize)
+            .setLeaseEnabled(leaseEnabled)
+            .setTransportType(transportType);
     }
 
     public ClusterClientAssignConfig toAssignConfig() {
@@ -84,6 +129,10 @@ public class ClusterClientStateEntity {
             ", serverPort=" + serverPort +
             ", clientState=" + clientState +
             ", requestTimeout=" + requestTimeout +
+            ", batchEnabled=" + batchEnabled +
+            ", maxBatchSize=" + maxBatchSize +
+            ", leaseEnabled=" + leaseEnabled +
+            ", transportType='" + transportType + '\'' +
             '}';
     }
 }
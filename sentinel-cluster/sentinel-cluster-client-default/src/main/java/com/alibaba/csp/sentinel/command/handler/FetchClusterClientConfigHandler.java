@@ -37,7 +37,11 @@ public class FetchClusterClientConfigHandler implements CommandHandler<String> {
         ClusterClientStateEntity stateVO = new ClusterClientStateEntity()
             .setServerHost(ClusterClientConfigManager.getServerHost())
             .setServerPort(ClusterClientConfigManager.getServerPort())
-            .setRequestTimeout(ClusterClientConfigManager.getRequestTimeout());
+            .setRequestTimeout(ClusterClientConfigManager.getRequestTimeout())
+            .setBatchEnabled(ClusterClientConfigManager.isBatchEnabled())
+            .setMaxBatchSize(ClusterClientConfigManager.getMaxBatchSize())
+            .setLeaseEnabled(ClusterClientConfigManager.isLeaseEnabled())
+            .setTransportType(ClusterClientConfigManager.getTransportType());
         if (TokenClientProvider.isClientSpiAvailable()) {
             stateVO.setClientState(TokenClientProvider.getClient().getState());
         } else {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseResponseData;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class TokenLeaseHolderTest {
+
+    private Clock originClock;
+    private ManualClock clock;
+
+    @Before
+    public void setUp() {
+        originClock = TimeUtil.getClock();
+        clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        TimeUtil.setClock(originClock);
+    }
+
+    @Test
+    public void testServeRequestsFromLease() throws Exception {
+        LeaseTransportClient transportClient = new LeaseTransportClient();
+        TokenLeaseHolder holder = new TokenLeaseHolder(transportClient);
+        long flowId = 2001L;
+
+        assertNull(holder.tryAcquireLocal(flowId, 1));
+        transportClient.respond(TokenResultStatus.OK, 10, 100);
+        TokenResult result = holder.acquire(flowId, 1);
+        assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+        assertEquals(9, result.getRemaining());
+        assertEquals(1, transportClient.requests.size());
+        ClusterRequest request = transportClient.requests.get(0);
+        assertEquals(ClusterConstants.MSG_TYPE_FLOW_LEASE, request.getType());
+        assertEquals(1, ((FlowRequestData)request.getData()).getCount());
+
+        // Served locally until the lease runs out.
+        for (int i = 0; i < 9; i++) {
+            assertEquals(TokenResultStatus.OK, (int)holder.acquire(flowId, 1).getStatus());
+        }
+        assertEquals(1, transportClient.requests.size());
+        assertNull(holder.tryAcquireLocal(flowId, 1));
+
+        transportClient.respond(TokenResultStatus.OK, 5, 100);
+        assertEquals(TokenResultStatus.OK, (int)holder.acquire(flowId, 1).getStatus());
+        assertEquals(2, transportClient.requests.size());
+
+        // The lease expires after the valid time.
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        assertNull(holder.tryAcquireLocal(flowId, 1));
+    }
+
+    @Test
+    public void testHoldRejection() throws Exception {
+        LeaseTransportClient transportClient = new LeaseTransportClient();
+        TokenLeaseHolder holder = new TokenLeaseHolder(transportClient);
+        long flowId = 2002L;
+
+        transportClient.respond(TokenResultStatus.BLOCKED, 0, 100);
+        assertEquals(TokenResultStatus.BLOCKED, (int)holder.acquire(flowId, 1).getStatus());
+        // Blocked locally during the valid time of the rejection.
+        clock.advance(99, TimeUnit.MILLISECONDS);
+        assertEquals(TokenResultStatus.BLOCKED, (int)holder.acquire(flowId, 1).getStatus());
+        assertEquals(1, transportClient.requests.size());
+
+        clock.advance(1, TimeUnit.MILLISECONDS);
+        transportClient.respond(TokenResultStatus.NO_RULE_EXISTS, 0, 0);
+        assertEquals(TokenResultStatus.NO_RULE_EXISTS, (int)holder.acquire(flowId, 1).getStatus());
+        assertEquals(2, transportClient.requests.size());
+    }
+
+    private static class LeaseTransportClient implements ClusterTransportClient {
+
+        private final List<ClusterRequest> requests = new ArrayList<>();
+        private final Queue<ClusterResponse> responses = new LinkedList<>();
+
+        void respond(int status, int grantedCount, int validInMs) {
+            responses.offer(new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW_LEASE, status,
+                new FlowLeaseResponseData().setGrantedCount(grantedCount).setValidInMs(validInMs)));
+        }
+
+        @Override
+        public ClusterResponse sendRequest(ClusterRequest request) {
+            requests.add(request);
+            return responses.poll();
+        }
+
+        @Override
+        public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void stop() {}
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+    }
+}
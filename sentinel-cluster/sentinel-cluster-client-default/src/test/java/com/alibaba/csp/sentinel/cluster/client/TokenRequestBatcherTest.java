@@ -0,0 +1,195 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultFuture;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class TokenRequestBatcherTest {
+
+    @Test
+    public void testCoalesceRequestsDuringInFlightRound() {
+        RecordingTransportClient transportClient = new RecordingTransportClient();
+        TokenRequestBatcher batcher = new TokenRequestBatcher(transportClient);
+        long flowId = 1001L;
+
+        // No concurrent request, sent immediately as a normal flow request.
+        TokenResultFuture first = new TokenResultFuture();
+        batcher.submit(flowId, 1, false, first);
+        assertEquals(1, transportClient.requests.size());
+        assertEquals(ClusterConstants.MSG_TYPE_FLOW, transportClient.requests.get(0).getType());
+
+        // Requests during the in-flight round are queued.
+        TokenResultFuture second = new TokenResultFuture();
+        TokenResultFuture third = new TokenResultFuture();
+        batcher.submit(flowId, 2, false, second);
+        batcher.submit(flowId, 3, true, third);
+        assertEquals(1, transportClient.requests.size());
+
+        transportClient.respond(0, new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW, TokenResultStatus.OK,
+            new FlowTokenResponseData().setRemainingCount(9)));
+        assertEquals(9, first.getNow(null).getRemaining());
+
+        // Queued requests are sent in one batch frame.
+        assertEquals(2, transportClient.requests.size());
+        ClusterRequest batchRequest = transportClient.requests.get(1);
+        assertEquals(ClusterConstants.MSG_TYPE_BATCH_FLOW, batchRequest.getType());
+        BatchFlowRequestData data = (BatchFlowRequestData)batchRequest.getData();
+        assertEquals(flowId, data.getFlowId());
+        List<FlowRequestData> items = data.getRequests();
+        assertEquals(2, items.size());
+        assertEquals(2, items.get(0).getCount());
+        assertTrue(items.get(1).isPriority());
+        assertFalse(second.isDone());
+
+        transportClient.respond(1, new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_BATCH_FLOW,
+            ClusterConstants.RESPONSE_STATUS_OK, new BatchFlowTokenResponseData().setResults(Arrays.asList(
+            new TokenResult(TokenResultStatus.OK), new TokenResult(TokenResultStatus.BLOCKED)))));
+        assertEquals(TokenResultStatus.OK, (int)second.getNow(null).getStatus());
+        assertEquals(TokenResultStatus.BLOCKED, (int)third.getNow(null).getStatus());
+
+        // Idle again, new request should be sent immediately.
+        batcher.submit(flowId, 1, false, new TokenResultFuture());
+        assertEquals(3, transportClient.requests.size());
+    }
+
+    @Test
+    public void testFailedRound() {
+        RecordingTransportClient transportClient = new RecordingTransportClient();
+        TokenRequestBatcher batcher = new TokenRequestBatcher(transportClient);
+        long flowId = 1002L;
+
+        TokenResultFuture first = new TokenResultFuture();
+        TokenResultFuture second = new TokenResultFuture();
+        batcher.submit(flowId, 1, false, first);
+        batcher.submit(flowId, 1, false, second);
+
+        transportClient.fail(0, new RuntimeException("request time out"));
+        assertEquals(TokenResultStatus.FAIL, (int)first.getNow(null).getStatus());
+        assertFalse(second.isDone());
+
+        // Unexpected batch response, all requests in the batch should fail.
+        transportClient.respond(1, new ClusterResponse<>(0, ClusterConstants.MSG_TYPE_FLOW,
+            ClusterConstants.RESPONSE_STATUS_BAD, null));
+        assertEquals(TokenResultStatus.FAIL, (int)second.getNow(null).getStatus());
+    }
+
+    @Test
+    public void testFailAllWhenClientNotReady() {
+        RecordingTransportClient transportClient = new RecordingTransportClient();
+        transportClient.ready = false;
+        TokenRequestBatcher batcher = new TokenRequestBatcher(transportClient);
+
+        TokenResultFuture future = new TokenResultFuture();
+        batcher.submit(1003L, 1, false, future);
+        assertEquals(TokenResultStatus.FAIL, (int)future.getNow(null).getStatus());
+        assertTrue(transportClient.requests.isEmpty());
+
+        // Recovered, the batch should not be stuck.
+        transportClient.ready = true;
+        batcher.submit(1003L, 1, false, new TokenResultFuture());
+        assertEquals(1, transportClient.requests.size());
+    }
+
+    @Test
+    public void testSynchronousFailuresDoNotOverflowStack() {
+        final long flowId = 1004L;
+        final int rounds = 100000;
+        final List<TokenResultFuture> futures = new ArrayList<>();
+        final TokenRequestBatcher[] batcher = new TokenRequestBatcher[1];
+        RecordingTransportClient transportClient = new RecordingTransportClient() {
+            @Override
+            public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+                super.sendRequestAsync(request, callback);
+                if (futures.size() < rounds) {
+                    // Another request arrives on the same stack, and then the request fails synchronously.
+                    TokenResultFuture future = new TokenResultFuture();
+                    futures.add(future);
+                    batcher[0].submit(flowId, 1, false, future);
+                }
+                callback.onFailure(new RuntimeException("connection reset"));
+            }
+        };
+        batcher[0] = new TokenRequestBatcher(transportClient);
+
+        TokenResultFuture first = new TokenResultFuture();
+        futures.add(first);
+        batcher[0].submit(flowId, 1, false, first);
+
+        assertEquals(rounds, transportClient.requests.size());
+        for (TokenResultFuture future : futures) {
+            assertEquals(TokenResultStatus.FAIL, (int)future.getNow(null).getStatus());
+        }
+    }
+
+    private static class RecordingTransportClient implements ClusterTransportClient {
+
+        private final List<ClusterRequest> requests = new ArrayList<>();
+        private final List<ClusterResponseCallback> callbacks = new ArrayList<>();
+        private volatile boolean ready = true;
+
+        @Override
+        public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+            requests.add(request);
+            callbacks.add(callback);
+        }
+
+        void respond(int index, ClusterResponse response) {
+            callbacks.get(index).onResponse(response);
+        }
+
+        void fail(int index, Throwable ex) {
+            callbacks.get(index).onFailure(ex);
+        }
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void stop() {}
+
+        @Override
+        public ClusterResponse sendRequest(ClusterRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.netty.Varints;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ParamFlowRequestDataWriterTest {
+
+    @Test
+    public void testDropParamsExceedingMaxSize() {
+        ParamFlowRequestDataWriter writer = new ParamFlowRequestDataWriter(12);
+        ParamFlowRequestData data = new ParamFlowRequestData().setFlowId(1L).setCount(1)
+            .setParams(Arrays.<Object>asList(1, new Object(), 2, 3L));
+        ByteBuf buf = Unpooled.buffer();
+        writer.writeTo(data, buf);
+
+        assertEquals(1L, buf.readLong());
+        assertEquals(1, buf.readInt());
+        // Unsupported type is skipped, and the long value (9 bytes) exceeds the max size.
+        assertEquals(2, buf.readInt());
+        assertEquals(ClusterConstants.PARAM_TYPE_INTEGER, buf.readByte());
+        assertEquals(1, buf.readInt());
+        assertEquals(ClusterConstants.PARAM_TYPE_INTEGER, buf.readByte());
+        assertEquals(2, buf.readInt());
+        assertFalse(buf.isReadable());
+    }
+
+    @Test
+    public void testInternStringParams() {
+        ParamFlowRequestDataWriter writer = new ParamFlowRequestDataWriter(1000);
+        ParamDictionary dictionary = new ParamDictionary();
+        String value = "中文-param";
+        ParamFlowRequestData data = new ParamFlowRequestData().setFlowId(2L).setCount(1)
+            .setParams(Collections.<Object>singletonList(value));
+
+        ByteBuf first = Unpooled.buffer();
+        writer.writeTo(new InternedParamFlowRequestData(data, dictionary), first);
+        first.skipBytes(12);
+        assertEquals(1, first.readInt());
+        assertEquals(ClusterConstants.PARAM_TYPE_STRING_DEF, first.readByte());
+        assertEquals(0, Varints.readVarint(first));
+        byte[] bytes = new byte[Varints.readVarint(first)];
+        first.readBytes(bytes);
+        assertEquals(value, new String(bytes, StandardCharsets.UTF_8));
+
+        ByteBuf second = Unpooled.buffer();
+        writer.writeTo(new InternedParamFlowRequestData(data, dictionary), second);
+        second.skipBytes(12);
+        assertEquals(1, second.readInt());
+        assertEquals(ClusterConstants.PARAM_TYPE_STRING_REF, second.readByte());
+        assertEquals(0, Varints.readVarint(second));
+        assertFalse(second.isReadable());
+        assertEquals(1, dictionary.size());
+    }
+}
@@ -24,6 +24,24 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PING = 0;
     public static final int MSG_TYPE_FLOW = 1;
     public static final int MSG_TYPE_PARAM_FLOW = 2;
+    /**
+     * Batch of flow requests for the same flow ID.
+     *
+     * @since 1.4.2
+     */
+    public static final int MSG_TYPE_BATCH_FLOW = 3;
+    /**
+     * Lease of flow tokens, which will be consumed in the client locally.
+     *
+     * @since 1.4.2
+     */
+    public static final int MSG_TYPE_FLOW_LEASE = 4;
+    /**
+     * Parameter flow request of protocol v2, which may carry interned parameters.
+     *
+     * @since 1.4.2
+     */
+    public static final int MSG_TYPE_PARAM_FLOW_V2 = 5;
 
     public static final int RESPONSE_STATUS_BAD = -1;
     public static final int RESPONSE_STATUS_OK = 0;
@@ -36,10 +54,65 @@ public final class ClusterConstants {
     public static final int PARAM_TYPE_SHORT = 5;
     public static final int PARAM_TYPE_BOOLEAN = 6;
     public static final int PARAM_TYPE_STRING = 7;
+    /**
+     * String parameter registered to the dictionary of the connection (protocol v2 only).
+     */
+    public static final int PARAM_TYPE_STRING_DEF = 8;
+    /**
+     * Reference to a string parameter in the dictionary of the connection (protocol v2 only).
+     */
+    public static final int PARAM_TYPE_STRING_REF = 9;
+
+    /**
+     * Legacy protocol: frames with 2-byte length field (limited to {@link #MAX_FRAME_LENGTH_V1}).
+     */
+    public static final int PROTOCOL_VERSION_1 = 1;
+    /**
+     * Protocol with varint frame length and per-connection parameter dictionaries.
+     * It's negotiated in the ping handshake.
+     */
+    public static final int PROTOCOL_VERSION_2 = 2;
+    public static final int MAX_PROTOCOL_VERSION = PROTOCOL_VERSION_2;
+
+    public static final int MAX_FRAME_LENGTH_V1 = 1024;
+    public static final int MAX_FRAME_LENGTH_V2 = 64 * 1024;
+
+    /**
+     * Max amount of interned parameters per connection.
+     */
+    public static final int MAX_PARAM_DICTIONARY_SIZE = 4096;
+    /**
+     * Max length (in bytes) of a string parameter that could be interned.
+     */
+    public static final int MAX_INTERNED_PARAM_LENGTH = 127;
+
+    /**
+     * Use native epoll transport if available, otherwise NIO.
+     *
+     * @since 1.4.2
+     */
+    public static final String TRANSPORT_TYPE_AUTO = "auto";
+    /**
+     * @since 1.4.2
+     */
+    public static final String TRANSPORT_TYPE_NIO = "nio";
+    /**
+     * Native epoll transport (Linux only), which falls back to NIO if it's not available.
+     *
+     * @since 1.4.2
+     */
+    public static final String TRANSPORT_TYPE_EPOLL = "epoll";
+    public static final String DEFAULT_TRANSPORT_TYPE = TRANSPORT_TYPE_AUTO;
 
     public static final int DEFAULT_CLUSTER_SERVER_PORT = 18730;
     public static final int DEFAULT_REQUEST_TIMEOUT = 20;
     public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10 * 1000;
 
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    /**
+     * Upper bound of requests in a batch, so that the batch response fits in a frame.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
     private ClusterConstants() {}
 }
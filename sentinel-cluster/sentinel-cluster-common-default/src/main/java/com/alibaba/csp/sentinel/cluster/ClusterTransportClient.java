@@ -17,9 +17,10 @@ package com.alibaba.csp.sentinel.cluster;
 
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponseCallback;
 
 /**
- * Synchronous transport client for distributed flow control.
+ * Transport client for distributed flow control.
  *
  * @author Eric Zhao
  * @since 1.4.0
@@ -49,6 +50,16 @@ public interface ClusterTransportClient {
      */
     ClusterResponse sendRequest(ClusterRequest request) throws Exception;
 
+    /**
+     * Send request to remote server without blocking. The callback will be invoked exactly once,
+     * when the response arrives or the request fails (e.g. time out or client not ready).
+     *
+     * @param request  Sentinel cluster request
+     * @param callback callback of the response
+     * @since 1.4.2
+     */
+    void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback);
+
     /**
      * Check whether the client has been started and ready for sending requests.
      *
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.codec.netty;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+
+/**
+ * Frame codecs of the cluster transport protocols.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class FrameCodecs {
+
+    public static LengthFieldBasedFrameDecoder newLegacyFrameDecoder() {
+        return new LengthFieldBasedFrameDecoder(ClusterConstants.MAX_FRAME_LENGTH_V1, 0, 2, 0, 2);
+    }
+
+    public static LengthFieldPrepender newLegacyFramePrepender() {
+        return new LengthFieldPrepender(2);
+    }
+
+    /**
+     * <p>Replace the legacy (2-byte length) frame codecs in the pipeline with varint frame codecs of protocol v2.</p>
+     *
+     * <p>This should be invoked in the I/O thread, when no more legacy frames are expected from the peer,
+     * and all legacy frames to the peer have been encoded.</p>
+     *
+     * @param pipeline the channel pipeline
+     */
+    public static void upgradeToVarintFrames(ChannelPipeline pipeline) {
+        pipeline.replace(LengthFieldBasedFrameDecoder.class, null,
+            new VarintFrameDecoder(ClusterConstants.MAX_FRAME_LENGTH_V2));
+        pipeline.replace(LengthFieldPrepender.class, null, new ProtobufVarint32LengthFieldPrepender());
+    }
+
+    private FrameCodecs() {}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.codec.netty;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+
+/**
+ * <p>Frame decoder of protocol v2. Each frame is prefixed with its length in varint:</p>
+ * <pre>
+ * +------------------+---------+
+ * | length(varint)   | data... |
+ * +------------------+---------+
+ * </pre>
+ *
+ * <p>Unlike the protobuf varint decoder of Netty, frames larger than {@code maxFrameLength} are rejected
+ * and the channel will be closed (as the stream cannot be recovered).</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class VarintFrameDecoder extends ByteToMessageDecoder {
+
+    private final int maxFrameLength;
+
+    public VarintFrameDecoder(int maxFrameLength) {
+        AssertUtil.isTrue(maxFrameLength > 0, "maxFrameLength should be positive");
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        int readerIndex = in.readerIndex();
+        int length = Varints.readVarint(in);
+        if (length < 0) {
+            return;
+        }
+        if (length > maxFrameLength) {
+            in.skipBytes(in.readableBytes());
+            ctx.close();
+            throw new TooLongFrameException("frame length exceeds " + maxFrameLength + ": " + length);
+        }
+        if (in.readableBytes() < length) {
+            in.readerIndex(readerIndex);
+            return;
+        }
+        out.add(in.readRetainedSlice(length));
+    }
+}
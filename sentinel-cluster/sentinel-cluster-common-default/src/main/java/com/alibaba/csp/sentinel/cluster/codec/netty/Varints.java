@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.codec.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.CorruptedFrameException;
+
+/**
+ * Helpers for unsigned varint (base 128, little-endian groups, as used in protobuf) encoding of 32-bit integers.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class Varints {
+
+    /**
+     * Max bytes of an encoded 32-bit varint.
+     */
+    public static final int MAX_VARINT_SIZE = 5;
+
+    public static void writeVarint(ByteBuf target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned varint from the source.
+     *
+     * @param source source buffer
+     * @return the decoded value, or -1 if the source does not contain a complete varint
+     * (the reader index will be restored in this case)
+     * @throws CorruptedFrameException if the varint is malformed (longer than 5 bytes or negative)
+     */
+    public static int readVarint(ByteBuf source) {
+        int readerIndex = source.readerIndex();
+        int result = 0;
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            if (!source.isReadable()) {
+                source.readerIndex(readerIndex);
+                return -1;
+            }
+            byte b = source.readByte();
+            result |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                if (result < 0) {
+                    throw new CorruptedFrameException("negative varint: " + result);
+                }
+                return result;
+            }
+        }
+        throw new CorruptedFrameException("malformed varint: exceeds " + MAX_VARINT_SIZE + " bytes");
+    }
+
+    public static int varintSize(int value) {
+        if ((value & (0xFFFFFFFF << 7)) == 0) {
+            return 1;
+        }
+        if ((value & (0xFFFFFFFF << 14)) == 0) {
+            return 2;
+        }
+        if ((value & (0xFFFFFFFF << 21)) == 0) {
+            return 3;
+        }
+        if ((value & (0xFFFFFFFF << 28)) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
+    private Varints() {}
+}
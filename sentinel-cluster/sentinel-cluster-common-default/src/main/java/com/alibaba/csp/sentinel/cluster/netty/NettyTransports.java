@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.netty;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+/**
+ * <p>Selection of Netty transports for the cluster token server and client.</p>
+ *
+ * <p>Native epoll transport is used when it's required (or in auto mode) and available, which needs
+ * the {@code netty-transport-native-epoll} dependency on Linux. Otherwise NIO transport is used.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class NettyTransports {
+
+    /**
+     * Max flushes to consolidate before an explicit flush, which is the default value of Netty.
+     */
+    private static final int EXPLICIT_FLUSH_AFTER_FLUSHES = 256;
+
+    private static final boolean EPOLL_AVAILABLE = checkEpollAvailable();
+
+    private static boolean checkEpollAvailable() {
+        try {
+            return EpollTransports.isAvailable();
+        } catch (Throwable ex) {
+            // The native transport is absent (NoClassDefFoundError) or cannot be loaded.
+            return false;
+        }
+    }
+
+    public static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    /**
+     * Decide whether native epoll transport should be used for provided transport type.
+     *
+     * @param transportType transport type, see {@link ClusterConstants#TRANSPORT_TYPE_AUTO}
+     * @return true if epoll should be used, otherwise NIO should be used
+     */
+    public static boolean shouldUseEpoll(String transportType) {
+        if (ClusterConstants.TRANSPORT_TYPE_NIO.equals(transportType)) {
+            return false;
+        }
+        if (!EPOLL_AVAILABLE) {
+            if (ClusterConstants.TRANSPORT_TYPE_EPOLL.equals(transportType)) {
+                RecordLog.warn("[NettyTransports] Native epoll transport is not available, fallback to NIO");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public static boolean isValidTransportType(String transportType) {
+        return ClusterConstants.TRANSPORT_TYPE_AUTO.equals(transportType)
+            || ClusterConstants.TRANSPORT_TYPE_NIO.equals(transportType)
+            || ClusterConstants.TRANSPORT_TYPE_EPOLL.equals(transportType);
+    }
+
+    /**
+     * @param epoll   whether to use native epoll transport
+     * @param threads amount of threads; 0 indicates the default amount of Netty
+     * @return the new event loop group
+     */
+    public static EventLoopGroup newEventLoopGroup(boolean epoll, int threads) {
+        return epoll ? EpollTransports.newEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    public static Class<? extends ServerChannel> serverChannelClass(boolean epoll) {
+        return epoll ? EpollTransports.serverChannelClass() : NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends Channel> channelClass(boolean epoll) {
+        return epoll ? EpollTransports.channelClass() : NioSocketChannel.class;
+    }
+
+    /**
+     * Enable {@code SO_REUSEPORT} for the server channels (epoll only), so that multiple server channels
+     * (acceptors) could be bound to the same port, and the kernel balances the connections among them.
+     *
+     * @param bootstrap server bootstrap with native epoll transport
+     */
+    public static void enableReusePort(ServerBootstrap bootstrap) {
+        EpollTransports.enableReusePort(bootstrap);
+    }
+
+    /**
+     * Create a handler that consolidates the flushes of responses (or requests), so that the writes
+     * in the same read loop or event loop iteration are flushed with a single syscall.
+     * It should be the first handler of the pipeline.
+     *
+     * @return new flush consolidation handler
+     */
+    public static FlushConsolidationHandler newFlushConsolidationHandler() {
+        return new FlushConsolidationHandler(EXPLICIT_FLUSH_AFTER_FLUSHES, true);
+    }
+
+    private NettyTransports() {}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+/**
+ * Response data of a flow token lease.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class FlowLeaseResponseData {
+
+    /**
+     * Amount of tokens granted to the client.
+     */
+    private int grantedCount;
+    /**
+     * Valid time of the lease (or the rejection if no token is granted).
+     */
+    private int validInMs;
+
+    public int getGrantedCount() {
+        return grantedCount;
+    }
+
+    public FlowLeaseResponseData setGrantedCount(int grantedCount) {
+        this.grantedCount = grantedCount;
+        return this;
+    }
+
+    public int getValidInMs() {
+        return validInMs;
+    }
+
+    public FlowLeaseResponseData setValidInMs(int validInMs) {
+        this.validInMs = validInMs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLeaseResponseData{" +
+            "grantedCount=" + grantedCount +
+            ", validInMs=" + validInMs +
+            '}';
+    }
+}
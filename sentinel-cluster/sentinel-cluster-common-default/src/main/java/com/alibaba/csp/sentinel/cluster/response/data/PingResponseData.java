@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+
+/**
+ * Response data of the client ping (handshake).
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class PingResponseData {
+
+    /**
+     * Connected client count of the namespace.
+     */
+    private int connectedCount;
+    /**
+     * Protocol version agreed by the server.
+     */
+    private int protocolVersion = ClusterConstants.PROTOCOL_VERSION_1;
+
+    public int getConnectedCount() {
+        return connectedCount;
+    }
+
+    public PingResponseData setConnectedCount(int connectedCount) {
+        this.connectedCount = connectedCount;
+        return this;
+    }
+
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public PingResponseData setProtocolVersion(int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PingResponseData{" +
+            "connectedCount=" + connectedCount +
+            ", protocolVersion=" + protocolVersion +
+            '}';
+    }
+}
@@ -64,13 +64,11 @@ final class ClusterFlowChecker {
             return new TokenResult(TokenResultStatus.FAIL);
         }
 
-        double latestQps = metric.getAvg(ClusterFlowEvent.PASS_REQUEST);
         double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
-        double nextRemaining = globalThreshold - latestQps - acquireCount;
+        // Check and reserve the tokens in a single atomic step, so concurrent requests won't over-admit.
+        double nextRemaining = metric.tryAcquirePass(acquireCount, globalThreshold);
 
         if (nextRemaining >= 0) {
-            // TODO: checking logic and metric operation should be separated.
-            metric.add(ClusterFlowEvent.PASS, acquireCount);
             metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
             if (prioritized) {
                 // Add prioritized pass.
@@ -111,6 +109,64 @@ final class ClusterFlowChecker {
         }
     }
 
+    /**
+     * <p>Acquire a lease of tokens, which will be consumed in the client locally.</p>
+     * <p>
+     * The lease is sized from the remaining budget of current window, and is bounded by
+     * {@link ClusterServerConfigManager#getMaxLeaseRatio(String)} of the global threshold (shared by
+     * all connected clients). The whole lease is reserved against the global threshold up front, and the
+     * leased tokens are regarded as passed once granted, so the global threshold is never exceeded.
+     * </p>
+     * <p>
+     * The error is under-admission only: leased tokens that are not used by the client within the lease
+     * (valid for one bucket) are wasted until they roll out of the window. As a client holds at most
+     * one lease at a time, it wastes at most {@code maxLeaseRatio / connectedCount} of the global threshold
+     * per bucket, i.e. all clients waste at most {@code maxLeaseRatio} of the threshold per bucket, and
+     * {@code maxLeaseRatio * sampleCount} of the threshold per window in the worst case (all clients
+     * leave their leases unused in every bucket).
+     * </p>
+     *
+     * @param rule         valid cluster flow rule
+     * @param acquireCount the minimum amount of tokens to lease
+     * @return the lease result, whose remaining count is the amount of granted tokens
+     * and wait time is the valid time of the lease (also for blocked result)
+     */
+    static TokenResult acquireClusterLease(/*@Valid*/ FlowRule rule, int acquireCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+        String namespace = ClusterFlowRuleManager.getNamespace(id);
+        int validInMs = rule.getClusterConfig().getWindowIntervalMs() / rule.getClusterConfig().getSampleCount();
+
+        double latestQps = metric.getAvg(ClusterFlowEvent.PASS);
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        double remaining = globalThreshold - latestQps;
+        int connectedCount = Math.max(1, ClusterFlowRuleManager.getConnectedCount(id));
+        int maxLease = (int)(globalThreshold * ClusterServerConfigManager.getMaxLeaseRatio(namespace) / connectedCount);
+        int granted = (int)Math.min(remaining, Math.max(acquireCount, maxLease));
+
+        // The lease is sized from a snapshot, so it's reserved atomically against the budget again.
+        if (granted >= acquireCount && metric.tryAcquirePass(granted, globalThreshold) >= 0) {
+            // The leased tokens have been counted as passed, and the lease is one pass request.
+            metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+            return new TokenResult(TokenResultStatus.OK)
+                .setRemaining(granted)
+                .setWaitInMs(validInMs);
+        }
+        metric.add(ClusterFlowEvent.BLOCK, acquireCount);
+        metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
+        ClusterServerStatLogUtil.log("flow|block|" + id, acquireCount);
+        ClusterServerStatLogUtil.log("flow|block_request|" + id, 1);
+        return blockedResult().setWaitInMs(validInMs);
+    }
+
     private static TokenResult blockedResult() {
         return new TokenResult(TokenResultStatus.BLOCKED)
             .setRemaining(0)
@@ -47,6 +47,27 @@ public class DefaultTokenService implements TokenService {
         return ClusterFlowChecker.acquireClusterToken(rule, acquireCount, prioritized);
     }
 
+    /**
+     * Request a lease of tokens, which will be consumed in the client locally.
+     *
+     * @param ruleId       the unique rule ID
+     * @param acquireCount the minimum amount of tokens to lease
+     * @return the lease result, whose remaining count is the amount of granted tokens
+     * and wait time is the valid time of the lease
+     * @since 1.4.2
+     */
+    public TokenResult requestTokenLease(Long ruleId, int acquireCount) {
+        if (notValidRequest(ruleId, acquireCount)) {
+            return badRequest();
+        }
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.acquireClusterLease(rule, acquireCount);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(ruleId, acquireCount) || params == null || params.isEmpty()) {
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 
 /**
@@ -24,6 +26,11 @@ import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 public class ClusterMetricBucket {
 
     private final LongAdder[] counters;
+    /**
+     * The pass count is kept in an atomic counter rather than a {@link LongAdder},
+     * so that tokens could be reserved against a budget via CAS.
+     */
+    private final AtomicLong passCount = new AtomicLong();
 
     public ClusterMetricBucket() {
         ClusterFlowEvent[] events = ClusterFlowEvent.values();
@@ -37,14 +44,43 @@ public class ClusterMetricBucket {
         for (ClusterFlowEvent event : ClusterFlowEvent.values()) {
             counters[event.ordinal()].reset();
         }
+        passCount.set(0);
     }
 
     public long get(ClusterFlowEvent event) {
+        if (event == ClusterFlowEvent.PASS) {
+            return passCount.get();
+        }
         return counters[event.ordinal()].sum();
     }
 
     public ClusterMetricBucket add(ClusterFlowEvent event, long count) {
-        counters[event.ordinal()].add(count);
+        if (event == ClusterFlowEvent.PASS) {
+            passCount.addAndGet(count);
+        } else {
+            counters[event.ordinal()].add(count);
+        }
         return this;
     }
+
+    /**
+     * Atomically add pass count only if the pass count after adding does not exceed provided budget.
+     *
+     * @param count  pass count to add
+     * @param budget max pass count of the bucket
+     * @return pass count of the bucket after adding; -1 if the budget is insufficient
+     * @since 1.4.2
+     */
+    public long tryAddPass(long count, double budget) {
+        while (true) {
+            long current = passCount.get();
+            long next = current + count;
+            if (next > budget) {
+                return -1;
+            }
+            if (passCount.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
 }
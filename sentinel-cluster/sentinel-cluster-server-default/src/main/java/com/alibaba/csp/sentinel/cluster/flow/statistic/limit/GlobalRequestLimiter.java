@@ -54,6 +54,25 @@ public final class GlobalRequestLimiter {
         return limiter.tryPass();
     }
 
+    /**
+     * Check whether the request of provided namespace could be accepted by the I/O thread before it's
+     * dispatched to the processing queue. The request will be rejected early if the processing queue
+     * of the namespace is saturated, or the namespace has already exceeded its max allowed QPS
+     * (only checked here, the QPS will be recorded when the request is processed).
+     *
+     * @param namespace      namespace of the request
+     * @param queueSaturated whether the processing queue of the namespace is saturated
+     * @return true if the request could be accepted, otherwise false
+     * @since 1.4.2
+     */
+    public static boolean tryAcceptEarly(String namespace, boolean queueSaturated) {
+        if (queueSaturated) {
+            return false;
+        }
+        RequestLimiter limiter = getRequestLimiter(namespace);
+        return limiter == null || limiter.canPass();
+    }
+
     public static double getCurrentQps(String namespace) {
         RequestLimiter limiter = getRequestLimiter(namespace);
         if (limiter == null) {
@@ -19,6 +19,7 @@ import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 /**
@@ -71,6 +72,36 @@ public class ClusterMetric {
         return getSum(event) / metric.getIntervalInSecond();
     }
 
+    /**
+     * <p>Try to acquire pass tokens of the sliding window in a single atomic step (check and add).</p>
+     * <p>
+     * The pass count of previous buckets is stable, so the budget of current bucket is
+     * {@code threshold * intervalInSec - previousPass}, and tokens are reserved from current bucket
+     * via CAS against the budget. Thus concurrent acquirers cannot over-admit based on a stale sum.
+     * </p>
+     *
+     * @param acquireCount tokens to acquire
+     * @param threshold    QPS threshold of the sliding window
+     * @return remaining QPS after acquiring; negative value if there are no sufficient tokens
+     * @since 1.4.2
+     */
+    public double tryAcquirePass(int acquireCount, double threshold) {
+        WindowWrap<ClusterMetricBucket> current = metric.currentWindow();
+        long previousPass = 0;
+        List<WindowWrap<ClusterMetricBucket>> windows = metric.list();
+        for (WindowWrap<ClusterMetricBucket> window : windows) {
+            if (window != current) {
+                previousPass += window.value().get(ClusterFlowEvent.PASS);
+            }
+        }
+        double intervalInSec = metric.getIntervalInSecond();
+        long currentPass = current.value().tryAddPass(acquireCount, threshold * intervalInSec - previousPass);
+        if (currentPass < 0) {
+            return -1;
+        }
+        return threshold - (previousPass + currentPass) / intervalInSec;
+    }
+
     /**
      * Try to pre-occupy upcoming buckets.
      *
@@ -19,11 +19,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.cluster.codec.netty.FrameCodecs;
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransports;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyRequestDecoder;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyResponseEncoder;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.Connection;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
 import com.alibaba.csp.sentinel.cluster.server.handler.TokenServerHandler;
+import com.alibaba.csp.sentinel.cluster.server.processor.DirectRequestExecutor;
+import com.alibaba.csp.sentinel.cluster.server.processor.NamespaceRequestExecutor;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestExecutor;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.bootstrap.ServerBootstrap;
@@ -32,11 +38,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -57,8 +60,9 @@ public class NettyTransportServer implements ClusterTokenServer {
 
     private final int port;
 
-    private NioEventLoopGroup bossGroup;
-    private NioEventLoopGroup workerGroup;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private volatile RequestExecutor requestExecutor;
 
     private final ConnectionPool connectionPool = new ConnectionPool();
 
@@ -75,22 +79,30 @@ public class NettyTransportServer implements ClusterTokenServer {
             return;
         }
 
-        ServerBootstrap b = new ServerBootstrap();
-        this.bossGroup = new NioEventLoopGroup(1);
-        this.workerGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
+        final RequestExecutor requestExecutor = newRequestExecutor();
+        this.requestExecutor = requestExecutor;
+        final boolean epoll = NettyTransports.shouldUseEpoll(ClusterServerConfigManager.getTransportType());
+        // Multiple acceptors (SO_REUSEPORT) are only supported with native epoll transport.
+        final int acceptors = epoll ? Math.max(1, ClusterServerConfigManager.getAcceptorThreads()) : 1;
+        final ServerBootstrap b = new ServerBootstrap();
+        this.bossGroup = NettyTransports.newEventLoopGroup(epoll, acceptors);
+        this.workerGroup = NettyTransports.newEventLoopGroup(epoll, DEFAULT_EVENT_LOOP_THREADS);
         b.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(NettyTransports.serverChannelClass(epoll))
             .option(ChannelOption.SO_BACKLOG, 128)
             .handler(new LoggingHandler(LogLevel.INFO))
             .childHandler(new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
                     ChannelPipeline p = ch.pipeline();
-                    p.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    // Coalesce the flushes of responses written in the same read loop.
+                    p.addLast(NettyTransports.newFlushConsolidationHandler());
+                    // Legacy frames (protocol v1) will be upgraded after the ping handshake if possible.
+                    p.addLast(FrameCodecs.newLegacyFrameDecoder());
                     p.addLast(new NettyRequestDecoder());
-                    p.addLast(new LengthFieldPrepender(2));
+                    p.addLast(FrameCodecs.newLegacyFramePrepender());
                     p.addLast(new NettyResponseEncoder());
-                    p.addLast(new TokenServerHandler(connectionPool));
+                    p.addLast(new TokenServerHandler(connectionPool, requestExecutor));
                 }
             })
             .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
@@ -99,6 +111,9 @@ public class NettyTransportServer implements ClusterTokenServer {
             .childOption(ChannelOption.SO_TIMEOUT, 10)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childOption(ChannelOption.SO_RCVBUF, 32 * 1024);
+        if (acceptors > 1) {
+            NettyTransports.enableReusePort(b);
+        }
         b.bind(port).addListener(new GenericFutureListener<ChannelFuture>() {
             @Override
             public void operationComplete(ChannelFuture future) {
@@ -106,6 +121,7 @@ public class NettyTransportServer implements ClusterTokenServer {
                     RecordLog.info("[NettyTransportServer] Token server start failed (port=" + port + "), failedTimes: " + failedTimes.get(),
                         future.cause());
                     currentState.compareAndSet(SERVER_STATUS_STARTING, SERVER_STATUS_OFF);
+                    requestExecutor.shutdown();
                     int failCount = failedTimes.incrementAndGet();
                     if (failCount > MAX_RETRY_TIMES) {
                         return;
@@ -118,13 +134,37 @@ public class NettyTransportServer implements ClusterTokenServer {
                         RecordLog.info("[NettyTransportServer] Failed to start token server when retrying", e);
                     }
                 } else {
-                    RecordLog.info("[NettyTransportServer] Token server started success at port " + port);
+                    RecordLog.info("[NettyTransportServer] Token server started success at port " + port
+                        + " (epoll=" + epoll + ", acceptors=" + acceptors + ")");
+                    for (int i = 1; i < acceptors; i++) {
+                        bindAdditionalAcceptor(b);
+                    }
                     currentState.compareAndSet(SERVER_STATUS_STARTING, SERVER_STATUS_STARTED);
                 }
             }
         });
     }
 
+    private void bindAdditionalAcceptor(ServerBootstrap b) {
+        b.bind(port).addListener(new GenericFutureListener<ChannelFuture>() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (future.cause() != null) {
+                    RecordLog.warn("[NettyTransportServer] Failed to bind additional acceptor (port=" + port + ")",
+                        future.cause());
+                }
+            }
+        });
+    }
+
+    private RequestExecutor newRequestExecutor() {
+        int processorThreads = ClusterServerConfigManager.getProcessorThreads();
+        if (processorThreads <= 0) {
+            return new DirectRequestExecutor();
+        }
+        return new NamespaceRequestExecutor(processorThreads, ClusterServerConfigManager.getProcessorQueueSize());
+    }
+
     @Override
     public void stop() {
         // If still initializing, wait for ready.
@@ -140,6 +180,7 @@ public class NettyTransportServer implements ClusterTokenServer {
             try {
                 bossGroup.shutdownGracefully();
                 workerGroup.shutdownGracefully();
+                requestExecutor.shutdown();
                 connectionPool.shutdownAll();
 
                 failedTimes.set(0);
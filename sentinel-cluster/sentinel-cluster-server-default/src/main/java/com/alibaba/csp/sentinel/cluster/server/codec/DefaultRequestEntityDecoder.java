@@ -47,6 +47,8 @@ public class DefaultRequestEntityDecoder implements RequestEntityDecoder<ByteBuf
             EntityDecoder<ByteBuf, ?> dataDecoder = RequestDataDecodeRegistry.getDecoder(type);
             if (dataDecoder == null) {
                 RecordLog.warn("Unknown type of request data decoder: {0}", type);
+                // Discard the rest of the frame.
+                source.skipBytes(source.readableBytes());
                 return null;
             }
 
@@ -56,6 +58,8 @@ public class DefaultRequestEntityDecoder implements RequestEntityDecoder<ByteBuf
             } else {
                 data = dataDecoder.decode(source);
             }
+            // Each frame contains exactly one entity, so unknown trailing data (e.g. from newer peers) is discarded.
+            source.skipBytes(source.readableBytes());
 
             return new ClusterRequest<>(xid, type, data);
         }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+/**
+ * String parameter interned to the dictionary of the connection (protocol v2).
+ * It will be resolved to the original string before the request is processed.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class InternedParam {
+
+    private final int id;
+    /**
+     * Content of the parameter, or null if it's a reference to the existing parameter in the dictionary.
+     */
+    private final String value;
+
+    public InternedParam(int id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isReference() {
+        return value == null;
+    }
+
+    @Override
+    public String toString() {
+        return "InternedParam{" +
+            "id=" + id +
+            ", value='" + value + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Dictionary of interned string parameters of a connection (protocol v2).</p>
+ *
+ * <p>The dictionary is bound to the connection and only accessed in its I/O thread, so it's not thread-safe.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class ParamDictionary {
+
+    private final Map<Integer, String> values = new HashMap<>();
+
+    /**
+     * Resolve all interned parameters of the request data to the original strings.
+     * Unresolvable references will be dropped.
+     *
+     * @param data parameter flow request data
+     */
+    public void resolve(ParamFlowRequestData data) {
+        Collection<Object> params = data.getParams();
+        if (params == null || params.isEmpty()) {
+            return;
+        }
+        List<Object> resolved = new ArrayList<>(params.size());
+        for (Object param : params) {
+            if (!(param instanceof InternedParam)) {
+                resolved.add(param);
+                continue;
+            }
+            InternedParam interned = (InternedParam) param;
+            if (interned.isReference()) {
+                String value = values.get(interned.getId());
+                if (value == null) {
+                    RecordLog.warn("[ParamDictionary] Unknown interned parameter ID: {0}", interned.getId());
+                } else {
+                    resolved.add(value);
+                }
+            } else {
+                if (values.size() < ClusterConstants.MAX_PARAM_DICTIONARY_SIZE) {
+                    values.put(interned.getId(), interned.getValue());
+                }
+                resolved.add(interned.getValue());
+            }
+        }
+        data.setParams(resolved);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
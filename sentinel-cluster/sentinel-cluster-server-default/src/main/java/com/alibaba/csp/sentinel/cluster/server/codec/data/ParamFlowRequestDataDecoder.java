@@ -15,11 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.codec.data;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.codec.netty.Varints;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 
 import io.netty.buffer.ByteBuf;
@@ -42,7 +44,10 @@ public class ParamFlowRequestDataDecoder implements EntityDecoder<ByteBuf, Param
             if (amount > 0) {
                 List<Object> params = new ArrayList<>(amount);
                 for (int i = 0; i < amount; i++) {
-                    decodeParam(source, params);
+                    if (!decodeParam(source, params)) {
+                        // The rest of data cannot be recognized.
+                        break;
+                    }
                 }
 
                 requestData.setParams(params);
@@ -63,8 +68,24 @@ public class ParamFlowRequestDataDecoder implements EntityDecoder<ByteBuf, Param
                 int length = source.readInt();
                 byte[] bytes = new byte[length];
                 source.readBytes(bytes);
-                // TODO: take care of charset?
-                params.add(new String(bytes));
+                params.add(new String(bytes, StandardCharsets.UTF_8));
+                return true;
+            case ClusterConstants.PARAM_TYPE_STRING_DEF:
+                int id = Varints.readVarint(source);
+                int defLength = Varints.readVarint(source);
+                if (id < 0 || defLength < 0 || source.readableBytes() < defLength) {
+                    return false;
+                }
+                byte[] defBytes = new byte[defLength];
+                source.readBytes(defBytes);
+                params.add(new InternedParam(id, new String(defBytes, StandardCharsets.UTF_8)));
+                return true;
+            case ClusterConstants.PARAM_TYPE_STRING_REF:
+                int refId = Varints.readVarint(source);
+                if (refId < 0) {
+                    return false;
+                }
+                params.add(new InternedParam(refId, null));
                 return true;
             case ClusterConstants.PARAM_TYPE_BOOLEAN:
                 params.add(source.readBoolean());
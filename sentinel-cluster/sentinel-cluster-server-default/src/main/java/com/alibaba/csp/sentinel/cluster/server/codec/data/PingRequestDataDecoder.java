@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.codec.data;
 
+import java.nio.charset.StandardCharsets;
+
 import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
 
 import io.netty.buffer.ByteBuf;
@@ -32,7 +34,7 @@ public class PingRequestDataDecoder implements EntityDecoder<ByteBuf, String> {
             if (length > 0 && source.readableBytes() > 0) {
                 byte[] bytes = new byte[length];
                 source.readBytes(bytes);
-                return new String(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
             }
         }
         return null;
@@ -15,22 +15,31 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.codec.data;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
-import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.cluster.response.data.PingResponseData;
 
 import io.netty.buffer.ByteBuf;
 
 /**
+ * <p>Writer of ping response data: {@code |connected count(1)|protocol version(1, optional)|}.</p>
+ *
+ * <p>The protocol version is only written when a newer protocol is negotiated,
+ * as legacy clients cannot handle the extra data.</p>
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class PingResponseDataWriter implements EntityWriter<Integer, ByteBuf> {
+public class PingResponseDataWriter implements EntityWriter<PingResponseData, ByteBuf> {
 
     @Override
-    public void writeTo(Integer entity, ByteBuf target) {
+    public void writeTo(PingResponseData entity, ByteBuf target) {
         if (entity == null || target == null) {
             return;
         }
-        target.writeByte(entity);
+        target.writeByte(entity.getConnectedCount());
+        if (entity.getProtocolVersion() > ClusterConstants.PROTOCOL_VERSION_1) {
+            target.writeByte(entity.getProtocolVersion());
+        }
     }
 }
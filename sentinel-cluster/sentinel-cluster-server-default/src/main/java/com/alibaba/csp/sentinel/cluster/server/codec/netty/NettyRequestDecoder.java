@@ -17,9 +17,13 @@ package com.alibaba.csp.sentinel.cluster.server.codec.netty;
 
 import java.util.List;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.request.RequestEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.server.codec.ServerEntityCodecProvider;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.ParamDictionary;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.buffer.ByteBuf;
@@ -32,6 +36,11 @@ import io.netty.handler.codec.ByteToMessageDecoder;
  */
 public class NettyRequestDecoder extends ByteToMessageDecoder {
 
+    /**
+     * Interned parameters of the connection (protocol v2).
+     */
+    private final ParamDictionary paramDictionary = new ParamDictionary();
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         RequestEntityDecoder<ByteBuf, Request> requestDecoder = ServerEntityCodecProvider.getRequestEntityDecoder();
@@ -44,7 +53,20 @@ public class NettyRequestDecoder extends ByteToMessageDecoder {
         // TODO: handle decode error here.
         Request request = requestDecoder.decode(in);
         if (request != null) {
-            out.add(request);
+            out.add(resolveInternedParams(request));
+        }
+    }
+
+    private Request resolveInternedParams(Request request) {
+        if (request.getType() != ClusterConstants.MSG_TYPE_PARAM_FLOW_V2 || !(request instanceof ClusterRequest)) {
+            return request;
+        }
+        ClusterRequest<?> clusterRequest = (ClusterRequest<?>) request;
+        Object data = clusterRequest.getData();
+        if (data instanceof ParamFlowRequestData) {
+            paramDictionary.resolve((ParamFlowRequestData) data);
         }
+        // Processed as a common parameter flow request after the parameters are resolved.
+        return new ClusterRequest<>(clusterRequest.getId(), ClusterConstants.MSG_TYPE_PARAM_FLOW, data);
     }
 }
@@ -45,6 +45,7 @@ public class FetchClusterServerConfigHandler implements CommandHandler<String> {
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount(namespace))
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio(namespace))
+            .setMaxLeaseRatio(ClusterServerConfigManager.getMaxLeaseRatio(namespace))
             .setIntervalMs(ClusterServerConfigManager.getIntervalMs(namespace))
             .setSampleCount(ClusterServerConfigManager.getSampleCount(namespace));
         JSONObject config = new JSONObject()
@@ -55,10 +56,15 @@ public class FetchClusterServerConfigHandler implements CommandHandler<String> {
     private CommandResponse<String> globalConfigResult() {
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setProcessorThreads(ClusterServerConfigManager.getProcessorThreads())
+            .setProcessorQueueSize(ClusterServerConfigManager.getProcessorQueueSize())
+            .setTransportType(ClusterServerConfigManager.getTransportType())
+            .setAcceptorThreads(ClusterServerConfigManager.getAcceptorThreads());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
+            .setMaxLeaseRatio(ClusterServerConfigManager.getMaxLeaseRatio())
             .setIntervalMs(ClusterServerConfigManager.getIntervalMs())
             .setSampleCount(ClusterServerConfigManager.getSampleCount());
         JSONObject config = new JSONObject()
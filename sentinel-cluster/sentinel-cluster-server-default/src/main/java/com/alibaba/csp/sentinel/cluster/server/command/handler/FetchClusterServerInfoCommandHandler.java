@@ -23,6 +23,8 @@ import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionGroup;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestQueueMetric;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestQueueStatistics;
 import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
@@ -51,19 +53,26 @@ public class FetchClusterServerInfoCommandHandler implements CommandHandler<Stri
 
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setProcessorThreads(ClusterServerConfigManager.getProcessorThreads())
+            .setProcessorQueueSize(ClusterServerConfigManager.getProcessorQueueSize())
+            .setTransportType(ClusterServerConfigManager.getTransportType())
+            .setAcceptorThreads(ClusterServerConfigManager.getAcceptorThreads());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
+            .setMaxLeaseRatio(ClusterServerConfigManager.getMaxLeaseRatio())
             .setIntervalMs(ClusterServerConfigManager.getIntervalMs())
             .setSampleCount(ClusterServerConfigManager.getSampleCount())
             .setMaxAllowedQps(ClusterServerConfigManager.getMaxAllowedQps());
 
         JSONArray requestLimitData = buildRequestLimitData(namespaceSet);
+        JSONArray requestQueueData = buildRequestQueueData(namespaceSet);
 
         info.fluentPut("port", ClusterServerConfigManager.getPort())
             .fluentPut("connection", connectionGroups)
             .fluentPut("requestLimitData", requestLimitData)
+            .fluentPut("requestQueueData", requestQueueData)
             .fluentPut("transport", transportConfig)
             .fluentPut("flow", flowConfig)
             .fluentPut("namespaceSet", namespaceSet)
@@ -83,5 +92,23 @@ public class FetchClusterServerInfoCommandHandler implements CommandHandler<Stri
         }
         return array;
     }
-}
 
+    private JSONArray buildRequestQueueData(Set<String> namespaceSet) {
+        JSONArray array = new JSONArray();
+        for (String namespace : namespaceSet) {
+            RequestQueueMetric metric = RequestQueueStatistics.getMetric(namespace);
+            if (metric == null) {
+                continue;
+            }
+            array.add(new JSONObject()
+                .fluentPut("namespace", namespace)
+                .fluentPut("queueSize", metric.getQueueSize())
+                .fluentPut("processedCount", metric.getProcessedCount())
+                .fluentPut("rejectedCount", metric.getRejectedCount())
+                .fluentPut("avgQueueTimeMicros", metric.getAvgQueueTimeMicros())
+                .fluentPut("maxQueueTimeMicros", metric.getMaxQueueTimeMicros())
+            );
+        }
+        return array;
+    }
+}
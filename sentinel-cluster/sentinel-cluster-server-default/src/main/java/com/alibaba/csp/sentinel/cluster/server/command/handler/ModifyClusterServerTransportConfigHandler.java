@@ -43,9 +43,22 @@ public class ModifyClusterServerTransportConfigHandler implements CommandHandler
         try {
             int port = Integer.valueOf(portValue);
             int idleSeconds = Integer.valueOf(idleSecondsValue);
+            // Processor and Netty transport config is optional, keep current values if absent.
+            int processorThreads = parseOrDefault(request.getParam("processorThreads"),
+                ClusterServerConfigManager.getProcessorThreads());
+            int processorQueueSize = parseOrDefault(request.getParam("processorQueueSize"),
+                ClusterServerConfigManager.getProcessorQueueSize());
+            String transportType = request.getParam("transportType");
+            if (StringUtil.isBlank(transportType)) {
+                transportType = ClusterServerConfigManager.getTransportType();
+            }
+            int acceptorThreads = parseOrDefault(request.getParam("acceptorThreads"),
+                ClusterServerConfigManager.getAcceptorThreads());
 
             ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig()
-                .setPort(port).setIdleSeconds(idleSeconds));
+                .setPort(port).setIdleSeconds(idleSeconds)
+                .setProcessorThreads(processorThreads).setProcessorQueueSize(processorQueueSize)
+                .setTransportType(transportType).setAcceptorThreads(acceptorThreads));
             return CommandResponse.ofSuccess("success");
         } catch (NumberFormatException e) {
             return CommandResponse.ofFailure(new IllegalArgumentException("invalid parameter"));
@@ -53,4 +66,11 @@ public class ModifyClusterServerTransportConfigHandler implements CommandHandler
             return CommandResponse.ofFailure(new IllegalArgumentException("unexpected error"));
         }
     }
+
+    private int parseOrDefault(String value, int defaultValue) {
+        if (StringUtil.isBlank(value)) {
+            return defaultValue;
+        }
+        return Integer.valueOf(value);
+    }
 }
@@ -29,6 +29,7 @@ import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterParamMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.limit.GlobalRequestLimiter;
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransports;
 import com.alibaba.csp.sentinel.cluster.registry.ConfigSupplierRegistry;
 import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -50,6 +51,10 @@ public final class ClusterServerConfigManager {
      */
     private static volatile int port = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
     private static volatile int idleSeconds = ServerTransportConfig.DEFAULT_IDLE_SECONDS;
+    private static volatile int processorThreads = ServerTransportConfig.DEFAULT_PROCESSOR_THREADS;
+    private static volatile int processorQueueSize = ServerTransportConfig.DEFAULT_PROCESSOR_QUEUE_SIZE;
+    private static volatile String transportType = ClusterConstants.DEFAULT_TRANSPORT_TYPE;
+    private static volatile int acceptorThreads = ServerTransportConfig.DEFAULT_ACCEPTOR_THREADS;
     private static volatile Set<String> namespaceSet = Collections.singleton(ServerConstants.DEFAULT_NAMESPACE);
 
     /**
@@ -57,6 +62,7 @@ public final class ClusterServerConfigManager {
      */
     private static volatile double exceedCount = ServerFlowConfig.DEFAULT_EXCEED_COUNT;
     private static volatile double maxOccupyRatio = ServerFlowConfig.DEFAULT_MAX_OCCUPY_RATIO;
+    private static volatile double maxLeaseRatio = ServerFlowConfig.DEFAULT_MAX_LEASE_RATIO;
     private static volatile int intervalMs = ServerFlowConfig.DEFAULT_INTERVAL_MS;
     private static volatile int sampleCount = ServerFlowConfig.DEFAULT_SAMPLE_COUNT;
     private static volatile double maxAllowedQps = ServerFlowConfig.DEFAULT_MAX_ALLOWED_QPS;
@@ -226,6 +232,19 @@ public final class ClusterServerConfigManager {
             if (config.getIdleSeconds() != idleSeconds) {
                 idleSeconds = config.getIdleSeconds();
             }
+            // Processor and Netty transport config will take effect when the token server (re)starts.
+            if (config.getProcessorThreads() != processorThreads) {
+                processorThreads = config.getProcessorThreads();
+            }
+            if (config.getProcessorQueueSize() > 0 && config.getProcessorQueueSize() != processorQueueSize) {
+                processorQueueSize = config.getProcessorQueueSize();
+            }
+            if (config.getTransportType() != null) {
+                transportType = config.getTransportType();
+            }
+            if (config.getAcceptorThreads() > 0) {
+                acceptorThreads = config.getAcceptorThreads();
+            }
             updateTokenServer(config);
         }
     }
@@ -268,6 +287,9 @@ public final class ClusterServerConfigManager {
             if (config.getMaxOccupyRatio() != maxOccupyRatio) {
                 maxOccupyRatio = config.getMaxOccupyRatio();
             }
+            if (config.getMaxLeaseRatio() != maxLeaseRatio) {
+                maxLeaseRatio = config.getMaxLeaseRatio();
+            }
             if (config.getMaxAllowedQps() != maxAllowedQps) {
                 maxAllowedQps = config.getMaxAllowedQps();
                 GlobalRequestLimiter.applyMaxQpsChange(maxAllowedQps);
@@ -289,12 +311,13 @@ public final class ClusterServerConfigManager {
     }
 
     public static boolean isValidTransportConfig(ServerTransportConfig config) {
-        return config != null && config.getPort() > 0 && config.getPort() <= 65535;
+        return config != null && config.getPort() > 0 && config.getPort() <= 65535
+            && (config.getTransportType() == null || NettyTransports.isValidTransportType(config.getTransportType()));
     }
 
     public static boolean isValidFlowConfig(ServerFlowConfig config) {
         return config != null && config.getMaxOccupyRatio() >= 0 && config.getExceedCount() >= 0
-            && config.getMaxAllowedQps() >= 0;
+            && config.getMaxAllowedQps() >= 0 && config.getMaxLeaseRatio() >= 0 && config.getMaxLeaseRatio() <= 1;
     }
 
     public static double getExceedCount(String namespace) {
@@ -315,6 +338,15 @@ public final class ClusterServerConfigManager {
         return maxOccupyRatio;
     }
 
+    public static double getMaxLeaseRatio(String namespace) {
+        AssertUtil.notEmpty(namespace, "namespace cannot be empty");
+        ServerFlowConfig config = NAMESPACE_CONF.get(namespace);
+        if (config != null) {
+            return config.getMaxLeaseRatio();
+        }
+        return maxLeaseRatio;
+    }
+
     public static int getIntervalMs(String namespace) {
         AssertUtil.notEmpty(namespace, "namespace cannot be empty");
         ServerFlowConfig config = NAMESPACE_CONF.get(namespace);
@@ -360,6 +392,10 @@ public final class ClusterServerConfigManager {
         return maxOccupyRatio;
     }
 
+    public static double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
     public static Set<String> getNamespaceSet() {
         return namespaceSet;
     }
@@ -372,6 +408,22 @@ public final class ClusterServerConfigManager {
         return idleSeconds;
     }
 
+    public static int getProcessorThreads() {
+        return processorThreads;
+    }
+
+    public static int getProcessorQueueSize() {
+        return processorQueueSize;
+    }
+
+    public static String getTransportType() {
+        return transportType;
+    }
+
+    public static int getAcceptorThreads() {
+        return acceptorThreads;
+    }
+
     public static int getIntervalMs() {
         return intervalMs;
     }
@@ -25,6 +25,10 @@ public class ServerFlowConfig {
 
     public static final double DEFAULT_EXCEED_COUNT = 1.0d;
     public static final double DEFAULT_MAX_OCCUPY_RATIO = 1.0d;
+    /**
+     * @since 1.4.2
+     */
+    public static final double DEFAULT_MAX_LEASE_RATIO = 0.1d;
 
     public static final int DEFAULT_INTERVAL_MS = 1000;
     public static final int DEFAULT_SAMPLE_COUNT= 10;
@@ -34,6 +38,15 @@ public class ServerFlowConfig {
 
     private double exceedCount = DEFAULT_EXCEED_COUNT;
     private double maxOccupyRatio = DEFAULT_MAX_OCCUPY_RATIO;
+    /**
+     * Max ratio of the global threshold that can be leased to clients at the same time. In lease mode the
+     * global threshold is never exceeded, and this is also the error bound of under-admission: unused
+     * leased tokens waste at most this ratio of the threshold per bucket (shared by all connected clients,
+     * see {@code ClusterFlowChecker#acquireClusterLease}).
+     *
+     * @since 1.4.2
+     */
+    private double maxLeaseRatio = DEFAULT_MAX_LEASE_RATIO;
     private int intervalMs = DEFAULT_INTERVAL_MS;
     private int sampleCount = DEFAULT_SAMPLE_COUNT;
 
@@ -69,6 +82,15 @@ public class ServerFlowConfig {
         return this;
     }
 
+    public double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    public ServerFlowConfig setMaxLeaseRatio(double maxLeaseRatio) {
+        this.maxLeaseRatio = maxLeaseRatio;
+        return this;
+    }
+
     public int getIntervalMs() {
         return intervalMs;
     }
@@ -102,6 +124,7 @@ public class ServerFlowConfig {
             "namespace='" + namespace + '\'' +
             ", exceedCount=" + exceedCount +
             ", maxOccupyRatio=" + maxOccupyRatio +
+            ", maxLeaseRatio=" + maxLeaseRatio +
             ", intervalMs=" + intervalMs +
             ", sampleCount=" + sampleCount +
             ", maxAllowedQps=" + maxAllowedQps +
@@ -24,9 +24,47 @@ import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 public class ServerTransportConfig {
 
     public static final int DEFAULT_IDLE_SECONDS = 600;
+    /**
+     * @since 1.4.2
+     */
+    public static final int DEFAULT_PROCESSOR_THREADS = 0;
+    /**
+     * @since 1.4.2
+     */
+    public static final int DEFAULT_PROCESSOR_QUEUE_SIZE = 1024;
+    /**
+     * @since 1.4.2
+     */
+    public static final int DEFAULT_ACCEPTOR_THREADS = 1;
 
     private int port;
     private int idleSeconds;
+    /**
+     * Worker threads for processing requests of each namespace. If the value is not positive,
+     * requests will be processed in the I/O threads directly.
+     *
+     * @since 1.4.2
+     */
+    private int processorThreads = DEFAULT_PROCESSOR_THREADS;
+    /**
+     * Max pending requests of each namespace, exceeding requests will be rejected in the I/O threads.
+     *
+     * @since 1.4.2
+     */
+    private int processorQueueSize = DEFAULT_PROCESSOR_QUEUE_SIZE;
+    /**
+     * Netty transport type (auto, nio or epoll). Auto mode picks native epoll if available.
+     *
+     * @since 1.4.2
+     */
+    private String transportType = ClusterConstants.DEFAULT_TRANSPORT_TYPE;
+    /**
+     * Amount of acceptors (server channels bound to the same port with {@code SO_REUSEPORT}).
+     * Multiple acceptors are only supported with native epoll transport.
+     *
+     * @since 1.4.2
+     */
+    private int acceptorThreads = DEFAULT_ACCEPTOR_THREADS;
 
     public ServerTransportConfig() {
         this(ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT, DEFAULT_IDLE_SECONDS);
@@ -55,11 +93,51 @@ public class ServerTransportConfig {
         return this;
     }
 
+    public int getProcessorThreads() {
+        return processorThreads;
+    }
+
+    public ServerTransportConfig setProcessorThreads(int processorThreads) {
+        this.processorThreads = processorThreads;
+        return this;
+    }
+
+    public int getProcessorQueueSize() {
+        return processorQueueSize;
+    }
+
+    public ServerTransportConfig setProcessorQueueSize(int processorQueueSize) {
+        this.processorQueueSize = processorQueueSize;
+        return this;
+    }
+
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public ServerTransportConfig setTransportType(String transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+
+    public int getAcceptorThreads() {
+        return acceptorThreads;
+    }
+
+    public ServerTransportConfig setAcceptorThreads(int acceptorThreads) {
+        this.acceptorThreads = acceptorThreads;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerTransportConfig{" +
             "port=" + port +
             ", idleSeconds=" + idleSeconds +
+            ", processorThreads=" + processorThreads +
+            ", processorQueueSize=" + processorQueueSize +
+            ", transportType='" + transportType + '\'' +
+            ", acceptorThreads=" + acceptorThreads +
             '}';
     }
 }
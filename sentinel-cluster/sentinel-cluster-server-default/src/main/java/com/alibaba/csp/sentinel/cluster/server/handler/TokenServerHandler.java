@@ -16,12 +16,25 @@
 package com.alibaba.csp.sentinel.cluster.server.handler;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.codec.netty.FrameCodecs;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.PingResponseData;
+import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
+import com.alibaba.csp.sentinel.cluster.server.processor.DirectRequestExecutor;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestExecutor;
 import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
 import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessorProvider;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -29,6 +42,7 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
 
 /**
  * Netty server handler for Sentinel token server.
@@ -38,10 +52,21 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
  */
 public class TokenServerHandler extends ChannelInboundHandlerAdapter {
 
+    /**
+     * Namespace of the client, which is carried by the ping request.
+     */
+    private static final AttributeKey<String> NAMESPACE_KEY = AttributeKey.valueOf("sentinel-cluster-namespace");
+
     private final ConnectionPool globalConnectionPool;
+    private final RequestExecutor requestExecutor;
 
     public TokenServerHandler(ConnectionPool globalConnectionPool) {
+        this(globalConnectionPool, new DirectRequestExecutor());
+    }
+
+    public TokenServerHandler(ConnectionPool globalConnectionPool, RequestExecutor requestExecutor) {
         this.globalConnectionPool = globalConnectionPool;
+        this.requestExecutor = requestExecutor;
     }
 
     @Override
@@ -76,12 +101,60 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
                 RecordLog.warn("[TokenServerHandler] No processor for request type: " + request.getType());
                 writeBadResponse(ctx, request);
             } else {
-                ClusterResponse<?> response = processor.processRequest(request);
-                writeResponse(ctx, response);
+                dispatchRequest(ctx, request, processor);
             }
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void dispatchRequest(final ChannelHandlerContext ctx, final ClusterRequest request,
+                                 final RequestProcessor processor) {
+        String namespace = ctx.channel().attr(NAMESPACE_KEY).get();
+        boolean accepted = requestExecutor.execute(namespace, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ClusterResponse<?> response = processor.processRequest(request);
+                    writeResponse(ctx, response);
+                } catch (Throwable ex) {
+                    RecordLog.warn("[TokenServerHandler] Unexpected error when processing request", ex);
+                }
+            }
+        });
+        if (!accepted) {
+            writeRejectedResponse(ctx, request);
+        }
+    }
+
+    /**
+     * Respond to the request rejected by the processing stage with {@link TokenResultStatus#TOO_MANY_REQUEST}.
+     */
+    private void writeRejectedResponse(ChannelHandlerContext ctx, ClusterRequest request) {
+        Object data;
+        switch (request.getType()) {
+            case ClusterConstants.MSG_TYPE_FLOW:
+            case ClusterConstants.MSG_TYPE_PARAM_FLOW:
+                data = new FlowTokenResponseData();
+                break;
+            case ClusterConstants.MSG_TYPE_FLOW_LEASE:
+                data = new FlowLeaseResponseData();
+                break;
+            case ClusterConstants.MSG_TYPE_BATCH_FLOW:
+                int amount = ((BatchFlowRequestData)request.getData()).getRequests().size();
+                List<TokenResult> results = new ArrayList<>(amount);
+                for (int i = 0; i < amount; i++) {
+                    results.add(new TokenResult(TokenResultStatus.TOO_MANY_REQUEST));
+                }
+                data = new BatchFlowTokenResponseData().setResults(results);
+                break;
+            default:
+                writeBadResponse(ctx, request);
+                return;
+        }
+        writeResponse(ctx, new ClusterResponse<>(request.getId(), request.getType(),
+            TokenResultStatus.TOO_MANY_REQUEST, data));
+    }
+
     private void writeBadResponse(ChannelHandlerContext ctx, ClusterRequest request) {
         ClusterResponse<?> response = new ClusterResponse<>(request.getId(), request.getType(),
             ClusterConstants.RESPONSE_STATUS_BAD, null);
@@ -99,11 +172,35 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
         }
         String namespace = (String)request.getData();
         String clientAddress = getRemoteAddress(ctx);
+        ctx.channel().attr(NAMESPACE_KEY).set(namespace);
         // Add the remote namespace to connection manager.
         int curCount = ConnectionManager.addConnection(namespace, clientAddress).getConnectedCount();
         int status = ClusterConstants.RESPONSE_STATUS_OK;
-        ClusterResponse<Integer> response = new ClusterResponse<>(request.getId(), request.getType(), status, curCount);
+        int protocolVersion = negotiateProtocolVersion(request.getId());
+        PingResponseData data = new PingResponseData()
+            .setConnectedCount(curCount)
+            .setProtocolVersion(protocolVersion);
+        ClusterResponse<PingResponseData> response = new ClusterResponse<>(request.getId(), request.getType(),
+            status, data);
         writeResponse(ctx, response);
+
+        if (protocolVersion >= ClusterConstants.PROTOCOL_VERSION_2) {
+            // The ping response has been encoded with legacy frame (as we're in the I/O thread),
+            // and the client won't send other requests until it receives the response,
+            // so it's safe to upgrade the pipeline here.
+            FrameCodecs.upgradeToVarintFrames(ctx.pipeline());
+        }
+    }
+
+    /**
+     * The ID of ping request carries the max protocol version supported by the client
+     * (legacy clients always use 0).
+     */
+    private int negotiateProtocolVersion(int clientVersion) {
+        if (clientVersion < ClusterConstants.PROTOCOL_VERSION_2) {
+            return ClusterConstants.PROTOCOL_VERSION_1;
+        }
+        return Math.min(clientVersion, ClusterConstants.MAX_PROTOCOL_VERSION);
     }
 
     private String getRemoteAddress(ChannelHandlerContext ctx) {
@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+/**
+ * Process requests in the caller (I/O) thread directly.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class DirectRequestExecutor implements RequestExecutor {
+
+    @Override
+    public boolean execute(String namespace, Runnable task) {
+        task.run();
+        return true;
+    }
+
+    @Override
+    public void shutdown() {}
+}
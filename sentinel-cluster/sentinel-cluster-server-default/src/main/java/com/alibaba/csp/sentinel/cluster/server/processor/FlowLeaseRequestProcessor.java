@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.flow.DefaultTokenService;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseResponseData;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+
+/**
+ * @author agent
+ * @since 1.4.2
+ */
+@RequestType(ClusterConstants.MSG_TYPE_FLOW_LEASE)
+public class FlowLeaseRequestProcessor implements RequestProcessor<FlowRequestData, FlowLeaseResponseData> {
+
+    @Override
+    public ClusterResponse<FlowLeaseResponseData> processRequest(ClusterRequest<FlowRequestData> request) {
+        TokenService tokenService = TokenServiceProvider.getService();
+        if (!(tokenService instanceof DefaultTokenService)) {
+            // Lease is only supported by the default token service.
+            return new ClusterResponse<>(request.getId(), request.getType(), TokenResultStatus.NOT_AVAILABLE,
+                new FlowLeaseResponseData());
+        }
+
+        long flowId = request.getData().getFlowId();
+        int count = request.getData().getCount();
+        TokenResult result = ((DefaultTokenService)tokenService).requestTokenLease(flowId, count);
+
+        int grantedCount = result.getStatus() == TokenResultStatus.OK ? result.getRemaining() : 0;
+        return new ClusterResponse<>(request.getId(), request.getType(), result.getStatus(),
+            new FlowLeaseResponseData()
+                .setGrantedCount(grantedCount)
+                .setValidInMs(result.getWaitInMs())
+        );
+    }
+}
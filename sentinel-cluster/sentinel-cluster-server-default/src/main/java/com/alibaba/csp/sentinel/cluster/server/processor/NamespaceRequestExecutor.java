@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.limit.GlobalRequestLimiter;
+import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.log.ClusterServerStatLogUtil;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Process requests in dedicated executors of each namespace, so that a noisy namespace (e.g. with
+ * expensive parameter flow checks) won't delay the token responses of other namespaces in the I/O threads.</p>
+ *
+ * <p>Each namespace has the same amount of worker threads and its own bounded queue, so namespaces are
+ * scheduled fairly regardless of the load of others. Requests of a saturated namespace are rejected
+ * early in the I/O thread. Namespaces out of the server namespace set share the executor of
+ * the default namespace.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class NamespaceRequestExecutor implements RequestExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final int threadsPerNamespace;
+    private final int queueSize;
+
+    private final Map<String, ThreadPoolExecutor> executorMap = new ConcurrentHashMap<>();
+    private volatile boolean shutdown = false;
+
+    public NamespaceRequestExecutor(int threadsPerNamespace, int queueSize) {
+        AssertUtil.isTrue(threadsPerNamespace > 0, "threadsPerNamespace should be positive");
+        AssertUtil.isTrue(queueSize > 0, "queueSize should be positive");
+        this.threadsPerNamespace = threadsPerNamespace;
+        this.queueSize = queueSize;
+    }
+
+    @Override
+    public boolean execute(String namespace, final Runnable task) {
+        namespace = resolveNamespace(namespace);
+        ThreadPoolExecutor executor = getOrCreateExecutor(namespace);
+        if (executor == null) {
+            return false;
+        }
+        final RequestQueueMetric metric = RequestQueueStatistics.getOrCreateMetric(namespace);
+        boolean saturated = executor.getQueue().remainingCapacity() == 0;
+        if (!GlobalRequestLimiter.tryAcceptEarly(namespace, saturated)) {
+            onRejected(namespace, metric);
+            return false;
+        }
+
+        final long enqueueTime = System.nanoTime();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    metric.addQueueTime(System.nanoTime() - enqueueTime);
+                    task.run();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // The queue has been filled by concurrent I/O threads, or the executor has been shut down.
+            onRejected(namespace, metric);
+            return false;
+        }
+    }
+
+    private void onRejected(String namespace, RequestQueueMetric metric) {
+        metric.addRejected();
+        ClusterServerStatLogUtil.log("queue|reject|" + namespace);
+    }
+
+    private String resolveNamespace(String namespace) {
+        Set<String> namespaceSet = ClusterServerConfigManager.getNamespaceSet();
+        if (namespace == null || !namespaceSet.contains(namespace)) {
+            return ServerConstants.DEFAULT_NAMESPACE;
+        }
+        return namespace;
+    }
+
+    private ThreadPoolExecutor getOrCreateExecutor(String namespace) {
+        ThreadPoolExecutor executor = executorMap.get(namespace);
+        if (executor == null) {
+            synchronized (this) {
+                if (shutdown) {
+                    return null;
+                }
+                executor = executorMap.get(namespace);
+                if (executor == null) {
+                    executor = new ThreadPoolExecutor(threadsPerNamespace, threadsPerNamespace,
+                        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+                        new NamedThreadFactory("sentinel-cluster-processor-" + namespace, true));
+                    // Idle namespaces won't hold the threads.
+                    executor.allowCoreThreadTimeOut(true);
+                    RequestQueueStatistics.getOrCreateMetric(namespace).bindQueue(executor.getQueue());
+                    executorMap.put(namespace, executor);
+                    RecordLog.info("[NamespaceRequestExecutor] Request executor created for namespace <{0}>, "
+                        + "threads: {1}, queueSize: {2}", namespace, threadsPerNamespace, queueSize);
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        for (Map.Entry<String, ThreadPoolExecutor> entry : executorMap.entrySet()) {
+            entry.getValue().shutdown();
+            RequestQueueStatistics.getOrCreateMetric(entry.getKey()).bindQueue(null);
+        }
+        executorMap.clear();
+    }
+}
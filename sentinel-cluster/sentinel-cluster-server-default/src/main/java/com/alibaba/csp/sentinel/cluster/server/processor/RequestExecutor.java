@@ -0,0 +1,40 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+/**
+ * The processing stage of cluster requests, which decides in which thread the
+ * {@link RequestProcessor} runs.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public interface RequestExecutor {
+
+    /**
+     * Execute the processing task of a request from provided namespace.
+     *
+     * @param namespace namespace of the request
+     * @param task      the processing task
+     * @return true if the task has been accepted, or false if it's rejected (e.g. the queue is saturated)
+     */
+    boolean execute(String namespace, Runnable task);
+
+    /**
+     * Release the resources of the executor.
+     */
+    void shutdown();
+}
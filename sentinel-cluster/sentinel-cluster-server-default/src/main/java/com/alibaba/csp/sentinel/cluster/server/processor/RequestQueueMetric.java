@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+
+/**
+ * Statistics of the processing queue of a namespace.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class RequestQueueMetric {
+
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalQueueTimeMicros = new LongAdder();
+    private final AtomicLong maxQueueTimeMicros = new AtomicLong();
+
+    /**
+     * The processing queue of current running executor.
+     */
+    private volatile Queue<?> queue;
+
+    void bindQueue(Queue<?> queue) {
+        this.queue = queue;
+    }
+
+    public void addQueueTime(long queueTimeNanos) {
+        long queueTimeMicros = queueTimeNanos / 1000;
+        processedCount.increment();
+        totalQueueTimeMicros.add(queueTimeMicros);
+        long max = maxQueueTimeMicros.get();
+        while (queueTimeMicros > max && !maxQueueTimeMicros.compareAndSet(max, queueTimeMicros)) {
+            max = maxQueueTimeMicros.get();
+        }
+    }
+
+    public void addRejected() {
+        rejectedCount.increment();
+    }
+
+    public long getProcessedCount() {
+        return processedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public double getAvgQueueTimeMicros() {
+        long processed = processedCount.sum();
+        return processed == 0 ? 0 : (double)totalQueueTimeMicros.sum() / processed;
+    }
+
+    public long getMaxQueueTimeMicros() {
+        return maxQueueTimeMicros.get();
+    }
+
+    public int getQueueSize() {
+        Queue<?> queue = this.queue;
+        return queue == null ? 0 : queue.size();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Holder of namespace-scope {@link RequestQueueMetric}.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class RequestQueueStatistics {
+
+    private static final Map<String, RequestQueueMetric> METRIC_MAP = new ConcurrentHashMap<>();
+
+    public static RequestQueueMetric getOrCreateMetric(String namespace) {
+        AssertUtil.notEmpty(namespace, "namespace cannot be empty");
+        RequestQueueMetric metric = METRIC_MAP.get(namespace);
+        if (metric == null) {
+            synchronized (METRIC_MAP) {
+                metric = METRIC_MAP.get(namespace);
+                if (metric == null) {
+                    metric = new RequestQueueMetric();
+                    METRIC_MAP.put(namespace, metric);
+                }
+            }
+        }
+        return metric;
+    }
+
+    public static RequestQueueMetric getMetric(String namespace) {
+        if (namespace == null) {
+            return null;
+        }
+        return METRIC_MAP.get(namespace);
+    }
+
+    private RequestQueueStatistics() {}
+}
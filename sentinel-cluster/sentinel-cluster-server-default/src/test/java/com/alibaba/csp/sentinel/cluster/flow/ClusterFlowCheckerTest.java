@@ -15,14 +15,18 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import java.util.Collections;
+
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 
-import org.junit.Ignore;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -72,6 +76,34 @@ public class ClusterFlowCheckerTest {
         ClusterMetricStatistics.removeMetric(flowId);
     }
 
+    @Test
+    public void testAcquireClusterLeaseCountsOnePassRequest() {
+        String namespace = "lease-test";
+        long flowId = 98766L;
+        FlowRule clusterRule = new FlowRule("def")
+            .setCount(100)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Collections.singletonList(clusterRule));
+        try {
+            ClusterMetric metric = ClusterMetricStatistics.getMetric(flowId);
+            assertNotNull(metric);
+
+            TokenResult result = ClusterFlowChecker.acquireClusterLease(clusterRule, 1);
+            assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+            // Bounded by the default max lease ratio of the global threshold.
+            assertEquals(10, result.getRemaining());
+            assertEquals(10, metric.getSum(ClusterFlowEvent.PASS));
+            assertEquals(1, metric.getSum(ClusterFlowEvent.PASS_REQUEST));
+        } finally {
+            ClusterFlowRuleManager.loadRules(namespace, Collections.<FlowRule>emptyList());
+            ClusterFlowRuleManager.removeProperty(namespace);
+        }
+    }
+
     private TokenResult tryAcquire(FlowRule clusterRule, boolean occupy) {
         return ClusterFlowChecker.acquireClusterToken(clusterRule, 1, occupy);
     }
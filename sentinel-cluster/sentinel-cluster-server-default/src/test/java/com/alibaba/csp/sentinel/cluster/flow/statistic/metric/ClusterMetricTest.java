@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterMetricTest {
+
+    @Test
+    public void testTryAcquirePass() {
+        // A single bucket of one minute, so that the window won't slide during the test.
+        ClusterMetric metric = new ClusterMetric(1, 60 * 1000);
+        double threshold = 1;
+
+        assertEquals(0.5, metric.tryAcquirePass(30, threshold), 0.01);
+        assertEquals(0, metric.tryAcquirePass(30, threshold), 0.01);
+        assertTrue(metric.tryAcquirePass(1, threshold) < 0);
+        assertEquals(60, metric.getSum(ClusterFlowEvent.PASS));
+    }
+
+    @Test
+    public void testTryAcquirePassConcurrently() throws Exception {
+        ClusterMetric metric = new ClusterMetric(1, 60 * 1000);
+        final double threshold = 10;
+        final int threadCount = 16;
+        final int acquirePerThread = 200;
+        final ClusterMetric target = metric;
+        final AtomicInteger passCount = new AtomicInteger();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch finishLatch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        for (int j = 0; j < acquirePerThread; j++) {
+                            if (target.tryAcquirePass(1, threshold) >= 0) {
+                                passCount.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        finishLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        startLatch.countDown();
+        finishLatch.await();
+
+        // Exactly the budget of the window (threshold * intervalInSec) is admitted.
+        assertEquals(600, passCount.get());
+        assertEquals(600, metric.getSum(ClusterFlowEvent.PASS));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.netty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.netty.Varints;
+import com.alibaba.csp.sentinel.cluster.codec.netty.VarintFrameDecoder;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.ParamFlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.RequestDataDecodeRegistry;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class NettyRequestDecoderTest {
+
+    @Test
+    public void testDecodeInternedParamsWithVarintFrames() {
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_PARAM_FLOW_V2,
+            new ParamFlowRequestDataDecoder());
+        EmbeddedChannel channel = new EmbeddedChannel(
+            new VarintFrameDecoder(ClusterConstants.MAX_FRAME_LENGTH_V2), new NettyRequestDecoder());
+
+        byte[] value = "中文-param".getBytes(StandardCharsets.UTF_8);
+        ByteBuf def = newParamFlowRequest(1);
+        def.writeByte(ClusterConstants.PARAM_TYPE_STRING_DEF);
+        Varints.writeVarint(def, 7);
+        Varints.writeVarint(def, value.length);
+        def.writeBytes(value);
+        ByteBuf ref = newParamFlowRequest(2);
+        ref.writeByte(ClusterConstants.PARAM_TYPE_STRING_REF);
+        Varints.writeVarint(ref, 7);
+        ref.writeByte(ClusterConstants.PARAM_TYPE_STRING_REF);
+        // Unknown reference will be dropped.
+        Varints.writeVarint(ref, 8);
+
+        // Write both frames in a single buffer, and the last byte separately.
+        ByteBuf frames = Unpooled.buffer();
+        writeFrame(frames, def);
+        writeFrame(frames, ref);
+        channel.writeInbound(frames.readRetainedSlice(frames.readableBytes() - 1));
+        assertEquals(1, channel.inboundMessages().size());
+        channel.writeInbound(frames);
+        assertEquals(2, channel.inboundMessages().size());
+
+        for (int i = 0; i < 2; i++) {
+            ClusterRequest<?> request = channel.readInbound();
+            assertEquals(i + 1, request.getId());
+            assertEquals(ClusterConstants.MSG_TYPE_PARAM_FLOW, request.getType());
+            ParamFlowRequestData data = (ParamFlowRequestData) request.getData();
+            assertEquals(Arrays.<Object>asList(new String(value, StandardCharsets.UTF_8)),
+                new ArrayList<>(data.getParams()));
+        }
+        assertNull(channel.readInbound());
+        channel.finish();
+    }
+
+    private ByteBuf newParamFlowRequest(int xid) {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(xid);
+        buf.writeByte(ClusterConstants.MSG_TYPE_PARAM_FLOW_V2);
+        buf.writeLong(1L);
+        buf.writeInt(1);
+        buf.writeInt(xid);
+        return buf;
+    }
+
+    private void writeFrame(ByteBuf target, ByteBuf frame) {
+        Varints.writeVarint(target, frame.readableBytes());
+        target.writeBytes(frame);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class NamespaceRequestExecutorTest {
+
+    private Set<String> originNamespaceSet;
+
+    @Before
+    public void setUp() {
+        originNamespaceSet = ClusterServerConfigManager.getNamespaceSet();
+        ClusterServerConfigManager.setNamespaceSet(new HashSet<>(Arrays.asList(
+            ServerConstants.DEFAULT_NAMESPACE, "ns-a", "ns-b")));
+    }
+
+    @After
+    public void tearDown() {
+        ClusterServerConfigManager.setNamespaceSet(originNamespaceSet);
+    }
+
+    @Test
+    public void testSaturatedNamespaceIsIsolated() throws Exception {
+        NamespaceRequestExecutor executor = new NamespaceRequestExecutor(1, 1);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        try {
+            // Occupy the only worker of namespace A, then fill its queue.
+            assertTrue(executor.execute("ns-a", new Runnable() {
+                @Override
+                public void run() {
+                    startedLatch.countDown();
+                    awaitQuietly(blockLatch);
+                }
+            }));
+            assertTrue(startedLatch.await(1, TimeUnit.SECONDS));
+            assertTrue(executor.execute("ns-a", new Runnable() {
+                @Override
+                public void run() {}
+            }));
+            // Saturated, so rejected early.
+            assertFalse(executor.execute("ns-a", new Runnable() {
+                @Override
+                public void run() {}
+            }));
+            assertEquals(1, RequestQueueStatistics.getMetric("ns-a").getRejectedCount());
+            assertEquals(1, RequestQueueStatistics.getMetric("ns-a").getQueueSize());
+
+            // Namespace B is not affected.
+            final CountDownLatch latchB = new CountDownLatch(1);
+            assertTrue(executor.execute("ns-b", new Runnable() {
+                @Override
+                public void run() {
+                    latchB.countDown();
+                }
+            }));
+            assertTrue(latchB.await(1, TimeUnit.SECONDS));
+        } finally {
+            blockLatch.countDown();
+            executor.shutdown();
+        }
+        assertFalse(executor.execute("ns-b", new Runnable() {
+            @Override
+            public void run() {}
+        }));
+    }
+
+    @Test
+    public void testUnknownNamespaceUsesDefault() throws Exception {
+        NamespaceRequestExecutor executor = new NamespaceRequestExecutor(1, 4);
+        final CountDownLatch latch = new CountDownLatch(2);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+        try {
+            assertTrue(executor.execute("unknown-ns", task));
+            assertTrue(executor.execute(null, task));
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            assertNull(RequestQueueStatistics.getMetric("unknown-ns"));
+            assertNotNull(RequestQueueStatistics.getMetric(ServerConstants.DEFAULT_NAMESPACE));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ignore) {
+        }
+    }
+}
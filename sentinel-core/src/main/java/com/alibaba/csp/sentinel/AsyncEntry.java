@@ -31,6 +31,11 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    /**
+     * Deferred pacing wait of the entry, in nanoseconds.
+     */
+    private long waitInNanos = 0;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
         super(resourceWrapper, chain, context);
     }
@@ -61,6 +66,22 @@ public class AsyncEntry extends CtEntry {
         return asyncContext;
     }
 
+    /**
+     * Get the time that the caller should wait before the actual asynchronous invocation.
+     * This is only non-zero when the entry is created via {@link SphU#asyncEntryNonBlocking(String)},
+     * in which case the pacing of traffic shaping (e.g. rate limiter) is handed over to the caller.
+     *
+     * @return the time to wait in nanoseconds
+     * @since 1.4.2
+     */
+    public long getWaitInNanos() {
+        return waitInNanos;
+    }
+
+    void setWaitInNanos(long waitInNanos) {
+        this.waitInNanos = waitInNanos;
+    }
+
     /**
      * The async context should not be initialized until the node for current resource has been set to current entry.
      */
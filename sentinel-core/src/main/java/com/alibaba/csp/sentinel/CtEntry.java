@@ -36,6 +36,11 @@ class CtEntry extends Entry {
     protected ProcessorSlot<Object> chain;
     protected Context context;
 
+    /**
+     * Whether the entry should be returned to {@link CtEntryRecycler} after exit.
+     */
+    boolean recyclable = false;
+
     CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
         super(resourceWrapper);
         this.chain = chain;
@@ -44,6 +49,20 @@ class CtEntry extends Entry {
         setUpEntryFor(context);
     }
 
+    /**
+     * Re-initialize a recycled entry for a new invocation.
+     */
+    CtEntry reuseFor(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        reset(resourceWrapper);
+        this.parent = null;
+        this.child = null;
+        this.chain = chain;
+        this.context = context;
+
+        setUpEntryFor(context);
+        return this;
+    }
+
     private void setUpEntryFor(Context context) {
         // The entry should not be associated to NullContext.
         if (context instanceof NullContext) {
@@ -95,6 +114,9 @@ class CtEntry extends Entry {
                 }
                 // Clean the reference of context in current entry to avoid duplicate exit.
                 clearEntryContext();
+                if (recyclable) {
+                    CtEntryRecycler.recycle(this);
+                }
             }
         }
     }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+
+/**
+ * <p>Thread-local pool of {@link CtEntry} so that the hot path of {@link CtSph} does not allocate entries.</p>
+ * <p>
+ * The pool is disabled by default, and can be turned on via {@link SentinelConfig#ENTRY_RECYCLE}.
+ * When enabled, an entry is returned to the pool of the exiting thread as soon as it exits normally,
+ * so the entry MUST NOT be used any more after {@link Entry#exit()}.
+ * {@link AsyncEntry} will never be recycled.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class CtEntryRecycler {
+
+    /**
+     * Max amount of pooled entries per thread (i.e. the usual max depth of nested entries).
+     */
+    static final int MAX_POOL_SIZE_PER_THREAD = 16;
+
+    private static volatile boolean enabled = SentinelConfig.entryRecycleEnabled();
+
+    private static final ThreadLocal<EntryStack> POOL = new ThreadLocal<EntryStack>() {
+        @Override
+        protected EntryStack initialValue() {
+            return new EntryStack();
+        }
+    };
+
+    static CtEntry obtain(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        if (!enabled) {
+            return new CtEntry(resourceWrapper, chain, context);
+        }
+        CtEntry entry = POOL.get().pop();
+        if (entry == null) {
+            entry = new CtEntry(resourceWrapper, chain, context);
+            entry.recyclable = true;
+            return entry;
+        }
+        return entry.reuseFor(resourceWrapper, chain, context);
+    }
+
+    static void recycle(CtEntry entry) {
+        if (enabled) {
+            POOL.get().push(entry);
+        }
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Only for internal test.
+     */
+    static void setEnabled(boolean enabled) {
+        CtEntryRecycler.enabled = enabled;
+    }
+
+    private static final class EntryStack {
+        private final CtEntry[] entries = new CtEntry[MAX_POOL_SIZE_PER_THREAD];
+        private int size = 0;
+
+        CtEntry pop() {
+            if (size == 0) {
+                return null;
+            }
+            CtEntry entry = entries[--size];
+            entries[size] = null;
+            return entry;
+        }
+
+        void push(CtEntry entry) {
+            if (size < entries.length) {
+                entries[size++] = entry;
+            }
+        }
+    }
+
+    private CtEntryRecycler() {}
+}
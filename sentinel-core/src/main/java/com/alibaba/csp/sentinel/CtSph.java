@@ -16,8 +16,10 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.context.Context;
@@ -31,6 +33,7 @@ import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingWaiter;
 
 /**
  * {@inheritDoc}
@@ -48,11 +51,23 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
+    private static final Map<ResourceWrapper, ProcessorSlotChain> chainMap
+        = new ConcurrentHashMap<ResourceWrapper, ProcessorSlotChain>();
 
+    /**
+     * The lock is only used for creating new slot chains.
+     */
     private static final Object LOCK = new Object();
 
+    /**
+     * Cached string resource wrappers of inbound and outbound resources, so that entering
+     * a resource by name does not need to create a new wrapper every time.
+     */
+    private static final ConcurrentMap<String, StringResourceWrapper> inResourceCache
+        = new ConcurrentHashMap<String, StringResourceWrapper>();
+    private static final ConcurrentMap<String, StringResourceWrapper> outResourceCache
+        = new ConcurrentHashMap<String, StringResourceWrapper>();
+
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
         entry.initAsyncContext();
@@ -119,7 +134,7 @@ public class CtSph implements Sph {
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
             // so here init the entry only. No rule checking will be done.
-            return new CtEntry(resourceWrapper, null, context);
+            return CtEntryRecycler.obtain(resourceWrapper, null, context);
         }
 
         if (context == null) {
@@ -129,7 +144,7 @@ public class CtSph implements Sph {
 
         // Global switch is close, no rule checking will do.
         if (!Constants.ON) {
-            return new CtEntry(resourceWrapper, null, context);
+            return CtEntryRecycler.obtain(resourceWrapper, null, context);
         }
 
         ProcessorSlot<Object> chain = lookProcessChain(resourceWrapper);
@@ -139,10 +154,10 @@ public class CtSph implements Sph {
          * so no rule checking will be done.
          */
         if (chain == null) {
-            return new CtEntry(resourceWrapper, null, context);
+            return CtEntryRecycler.obtain(resourceWrapper, null, context);
         }
 
-        Entry e = new CtEntry(resourceWrapper, chain, context);
+        Entry e = CtEntryRecycler.obtain(resourceWrapper, chain, context);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
         } catch (BlockException e1) {
@@ -183,8 +198,9 @@ public class CtSph implements Sph {
      * {@link ProcessorSlotChain} globally, no matter in witch {@link Context}.<p/>
      *
      * <p>
-     * Note that total {@link ProcessorSlot} count must not exceed {@link Constants#MAX_SLOT_CHAIN_SIZE},
-     * otherwise null will return.
+     * Note that total {@link ProcessorSlot} count must not exceed {@link Constants#MAX_SLOT_CHAIN_SIZE}.
+     * When the limit is reached, idle resources will be evicted first if idle resource eviction is enabled
+     * (see {@link IdleResourceEvictor}). If there is still no room, null will return.
      * </p>
      *
      * @param resourceWrapper target resource
@@ -197,22 +213,35 @@ public class CtSph implements Sph {
                 chain = chainMap.get(resourceWrapper);
                 if (chain == null) {
                     // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
+                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE
+                        && !IdleResourceEvictor.getInstance().evictIdleResourcesWhenFull()) {
                         return null;
                     }
 
                     chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
+                    chainMap.put(resourceWrapper, chain);
                 }
             }
         }
         return chain;
     }
 
+    /**
+     * Remove the slot chains (and cached resource wrappers) of provided resources.
+     *
+     * @param resources resources to remove
+     * @since 1.4.2
+     */
+    static void removeChains(Collection<ResourceWrapper> resources) {
+        synchronized (LOCK) {
+            for (ResourceWrapper resource : resources) {
+                chainMap.remove(resource);
+                inResourceCache.remove(resource.getName());
+                outResourceCache.remove(resource.getName());
+            }
+        }
+    }
+
     /**
      * Get current size of created slot chains.
      *
@@ -241,6 +270,34 @@ public class CtSph implements Sph {
         return chainMap;
     }
 
+    /**
+     * Get the cached {@link StringResourceWrapper} of provided name and type. A new wrapper will be
+     * created (and cached if the cache is not full) if absent.
+     *
+     * @param name resource name
+     * @param type entry type of the resource
+     * @return the resource wrapper
+     * @since 1.4.2
+     */
+    static StringResourceWrapper stringResource(String name, EntryType type) {
+        if (name == null || type == null) {
+            return new StringResourceWrapper(name, type);
+        }
+        ConcurrentMap<String, StringResourceWrapper> cache = type == EntryType.IN ? inResourceCache : outResourceCache;
+        StringResourceWrapper resource = cache.get(name);
+        if (resource == null) {
+            resource = new StringResourceWrapper(name, type);
+            // Resources exceeding the size limit have no slot chain, so there is no need to cache them.
+            if (cache.size() < Constants.MAX_SLOT_CHAIN_SIZE) {
+                StringResourceWrapper old = cache.putIfAbsent(name, resource);
+                if (old != null) {
+                    resource = old;
+                }
+            }
+        }
+        return resource;
+    }
+
     /**
      * This class is used for skip context name checking.
      */
@@ -252,7 +309,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = stringResource(name, EntryType.OUT);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -270,7 +327,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -282,7 +339,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -294,7 +351,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = stringResource(name, EntryType.OUT);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -306,19 +363,48 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, count, args);
     }
 
     @Override
     public AsyncEntry asyncEntry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return asyncEntryInternal(resource, count, args);
     }
 
+    /**
+     * Create a protected asynchronous resource, whose pacing wait (e.g. of rate limiter) will not block
+     * current thread. Instead the wait time is carried by the entry (see {@link AsyncEntry#getWaitInNanos()}),
+     * and the caller should schedule the actual invocation after the wait time.
+     *
+     * @param name  the unique name for the protected resource
+     * @param type  the resource is an inbound or an outbound method. This is used
+     *              to mark whether it can be blocked when the system is unstable
+     * @param count the count that the resource requires
+     * @param args  the parameters of the method. It can also be counted by setting hot parameter rule
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.4.2
+     */
+    public AsyncEntry asyncEntryNonBlocking(String name, EntryType type, int count, Object... args)
+        throws BlockException {
+        // Pacing waits during rule checking are recorded rather than blocking current thread.
+        PacingWaiter.beginDeferred();
+        AsyncEntry entry;
+        long waitInNanos;
+        try {
+            entry = asyncEntry(name, type, count, args);
+        } finally {
+            waitInNanos = PacingWaiter.endDeferred();
+        }
+        entry.setWaitInNanos(waitInNanos);
+        return entry;
+    }
+
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entryWithPriority(resource, count, prioritized);
     }
 }
@@ -66,6 +66,20 @@ public abstract class Entry {
         this.createTime = TimeUtil.currentTimeMillis();
     }
 
+    /**
+     * Reset the entry to the initial state of given resource, so that the entry can be reused.
+     *
+     * @param resourceWrapper the new resource
+     * @since 1.4.2
+     */
+    void reset(ResourceWrapper resourceWrapper) {
+        this.resourceWrapper = resourceWrapper;
+        this.createTime = TimeUtil.currentTimeMillis();
+        this.curNode = null;
+        this.originNode = null;
+        this.error = null;
+    }
+
     public ResourceWrapper getResourceWrapper() {
         return resourceWrapper;
     }
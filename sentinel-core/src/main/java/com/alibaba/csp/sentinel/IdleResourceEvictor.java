@@ -0,0 +1,200 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.EntranceNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Evicts idle resources so that the amount of slot chains will not be stuck at
+ * {@link Constants#MAX_SLOT_CHAIN_SIZE} (e.g. when resource names are derived from URLs).
+ * </p>
+ * <p>
+ * A resource is regarded as idle when there is no running thread and no request in the recent minute
+ * (according to its {@link ClusterNode}). Once a resource has been idle for the configured time
+ * ({@link SentinelConfig#RESOURCE_IDLE_EVICT_MINUTES}), its {@link com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain},
+ * {@link ClusterNode} and {@link DefaultNode}s in the invocation tree will be removed.
+ * The resource will get brand new ones if it's accessed again. Idle origin nodes of active resources
+ * are evicted as well (see {@link ClusterNode#evictIdleOriginNodes()}).
+ * </p>
+ * <p>
+ * Idle checking is done by a background task periodically, and also when the slot chain limit is reached.
+ * Nothing is done on the hot path of entries.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class IdleResourceEvictor implements Runnable {
+
+    private static final long CHECK_INTERVAL_SEC = 30;
+    /**
+     * Minimal interval of eviction triggered by full slot chain map, to avoid
+     * scanning all resources for every new resource when nothing can be evicted.
+     */
+    private static final long MIN_FORCE_EVICT_INTERVAL_MS = 1000;
+
+    private static final IdleResourceEvictor INSTANCE = new IdleResourceEvictor(
+        TimeUnit.MINUTES.toMillis(SentinelConfig.resourceIdleEvictMinutes()));
+
+    private static ScheduledExecutorService scheduler = null;
+
+    static {
+        if (INSTANCE.isEnabled()) {
+            scheduler = Executors.newScheduledThreadPool(1,
+                new NamedThreadFactory("sentinel-idle-resource-evict-task", true));
+            scheduler.scheduleAtFixedRate(INSTANCE, CHECK_INTERVAL_SEC, CHECK_INTERVAL_SEC, TimeUnit.SECONDS);
+            RecordLog.info("[IdleResourceEvictor] Idle resource eviction enabled, idle timeout: "
+                + SentinelConfig.resourceIdleEvictMinutes() + " min");
+        }
+    }
+
+    private final long idleTimeoutMs;
+    /**
+     * The time when the resource is first found idle.
+     */
+    private final Map<ResourceWrapper, Long> idleSince = new ConcurrentHashMap<ResourceWrapper, Long>();
+
+    private volatile long lastForceEvictTime = 0;
+
+    IdleResourceEvictor(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    static IdleResourceEvictor getInstance() {
+        return INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return idleTimeoutMs > 0;
+    }
+
+    @Override
+    public void run() {
+        try {
+            int count = evictIdleResources(TimeUtil.currentTimeMillis());
+            if (count > 0) {
+                RecordLog.info("[IdleResourceEvictor] Evicted " + count + " idle resources");
+            }
+        } catch (Throwable ex) {
+            RecordLog.warn("[IdleResourceEvictor] Unexpected error when evicting idle resources", ex);
+        }
+    }
+
+    /**
+     * Try to evict idle resources when the slot chain map is full.
+     *
+     * @return true if there is room for new slot chains after eviction
+     */
+    boolean evictIdleResourcesWhenFull() {
+        if (!isEnabled()) {
+            return false;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        if (now - lastForceEvictTime < MIN_FORCE_EVICT_INTERVAL_MS) {
+            return false;
+        }
+        lastForceEvictTime = now;
+        evictIdleResources(now);
+        return CtSph.entrySize() < Constants.MAX_SLOT_CHAIN_SIZE;
+    }
+
+    /**
+     * Check all resources and evict the ones that have been idle for enough time.
+     *
+     * @param now current time in milliseconds
+     * @return amount of evicted resources
+     */
+    int evictIdleResources(long now) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        Map<ResourceWrapper, ClusterNode> clusterNodeMap = ClusterBuilderSlot.getClusterNodeMap();
+        List<ResourceWrapper> toEvict = new ArrayList<ResourceWrapper>();
+        for (ResourceWrapper resource : CtSph.getChainMap().keySet()) {
+            ClusterNode node = clusterNodeMap.get(resource);
+            if (node != null && (node.curThreadNum() > 0 || node.totalRequest() > 0)) {
+                idleSince.remove(resource);
+                // Origins of an active resource may be idle (e.g. when client IPs are used as origins).
+                node.evictIdleOriginNodes();
+                continue;
+            }
+            Long since = idleSince.get(resource);
+            if (since == null) {
+                idleSince.put(resource, now);
+            } else if (now - since >= idleTimeoutMs) {
+                toEvict.add(resource);
+            }
+        }
+        // Clean up the records of resources that have already gone.
+        for (ResourceWrapper resource : idleSince.keySet()) {
+            if (!CtSph.getChainMap().containsKey(resource)) {
+                idleSince.remove(resource);
+            }
+        }
+        if (toEvict.isEmpty()) {
+            return 0;
+        }
+
+        CtSph.removeChains(toEvict);
+        Set<ResourceWrapper> evicted = new HashSet<ResourceWrapper>(toEvict);
+        for (ResourceWrapper resource : toEvict) {
+            ClusterBuilderSlot.removeClusterNode(resource);
+            idleSince.remove(resource);
+        }
+        removeFromInvocationTree(Constants.ROOT, evicted, new IdentityHashMap<Node, Boolean>());
+        return toEvict.size();
+    }
+
+    private void removeFromInvocationTree(DefaultNode parent, Set<ResourceWrapper> evicted,
+                                          Map<Node, Boolean> visited) {
+        if (visited.put(parent, Boolean.TRUE) != null) {
+            return;
+        }
+        for (Node child : parent.getChildList()) {
+            if (!(child instanceof DefaultNode)) {
+                continue;
+            }
+            DefaultNode node = (DefaultNode)child;
+            // Entrance nodes belong to contexts rather than resources, so they are never removed.
+            if (!(node instanceof EntranceNode) && evicted.contains(node.getId())) {
+                parent.removeChild(node);
+            } else {
+                removeFromInvocationTree(node, evicted, visited);
+            }
+        }
+    }
+}
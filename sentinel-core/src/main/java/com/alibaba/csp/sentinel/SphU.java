@@ -243,6 +243,39 @@ public class SphU {
         return Env.sph.asyncEntry(name, type, count, args);
     }
 
+    /**
+     * Checking all {@link Rule}s about the asynchronous resource, without blocking current thread
+     * for pacing (e.g. queueing of rate limiter). The caller should schedule the actual invocation
+     * after {@link AsyncEntry#getWaitInNanos()}.
+     *
+     * @param name the unique name of the protected resource
+     * @throws BlockException if the block criteria is met, eg. when any rule's threshold is exceeded
+     * @since 1.4.2
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name) throws BlockException {
+        return asyncEntryNonBlocking(name, EntryType.OUT, 1, OBJECTS0);
+    }
+
+    /**
+     * Checking all {@link Rule}s about the asynchronous resource, without blocking current thread
+     * for pacing (e.g. queueing of rate limiter). The caller should schedule the actual invocation
+     * after {@link AsyncEntry#getWaitInNanos()}.
+     *
+     * @param name  the unique name for the protected resource
+     * @param type  the resource is an inbound or an outbound method. This is used
+     *              to mark whether it can be blocked when the system is unstable,
+     *              only inbound traffic could be blocked by {@link SystemRule}
+     * @param count tokens required
+     * @param args  extra parameters
+     * @throws BlockException if the block criteria is met, eg. when any rule's threshold is exceeded
+     * @since 1.4.2
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, EntryType type, int count, Object... args)
+        throws BlockException {
+        // The non-blocking entry is only provided by CtSph, so that the Sph interface stays compatible.
+        return ((CtSph)Env.sph).asyncEntryNonBlocking(name, type, count, args);
+    }
+
     /**
      * Checking all {@link Rule}s related the resource. The entry is prioritized.
      *
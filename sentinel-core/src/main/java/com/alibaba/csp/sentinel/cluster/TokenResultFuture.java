@@ -0,0 +1,172 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Future of an asynchronous token request.</p>
+ * <p>
+ * The future is always completed with a {@link TokenResult} (failures are represented by
+ * {@link TokenResultStatus#FAIL}), so {@link #get()} never throws {@link java.util.concurrent.ExecutionException}.
+ * Listeners are invoked in the thread that completes the future (usually the I/O thread of the token client),
+ * so they should never block.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class TokenResultFuture implements Future<TokenResult> {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private volatile TokenResult result;
+
+    private List<Listener> listeners = null;
+
+    /**
+     * Create a future that has already been completed with given result.
+     *
+     * @param result the token result
+     * @return completed future
+     */
+    public static TokenResultFuture completed(TokenResult result) {
+        TokenResultFuture future = new TokenResultFuture();
+        future.complete(result);
+        return future;
+    }
+
+    /**
+     * Complete the future with given result. Only the first completion takes effect.
+     *
+     * @param result the token result
+     * @return true if the future is completed by this call, otherwise false
+     */
+    public boolean complete(TokenResult result) {
+        AssertUtil.notNull(result, "token result cannot be null");
+        List<Listener> toNotify;
+        synchronized (this) {
+            if (this.result != null) {
+                return false;
+            }
+            this.result = result;
+            toNotify = listeners;
+            listeners = null;
+        }
+        latch.countDown();
+        if (toNotify != null) {
+            for (Listener listener : toNotify) {
+                notifyListener(listener, result);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a listener which will be notified when the future is completed.
+     * If the future has already been completed, the listener will be notified immediately.
+     *
+     * @param listener the listener
+     * @return this future
+     */
+    public TokenResultFuture addListener(Listener listener) {
+        AssertUtil.notNull(listener, "listener cannot be null");
+        synchronized (this) {
+            if (result == null) {
+                if (listeners == null) {
+                    listeners = new ArrayList<Listener>(2);
+                }
+                listeners.add(listener);
+                return this;
+            }
+        }
+        notifyListener(listener, result);
+        return this;
+    }
+
+    /**
+     * Get the result if the future has been completed, otherwise return given value.
+     *
+     * @param valueIfAbsent the value to return if not completed
+     * @return the result if completed, otherwise {@code valueIfAbsent}
+     */
+    public TokenResult getNow(TokenResult valueIfAbsent) {
+        TokenResult r = result;
+        return r == null ? valueIfAbsent : r;
+    }
+
+    /**
+     * Token requests cannot be cancelled, so this method does nothing.
+     *
+     * @return always false
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return result != null;
+    }
+
+    @Override
+    public TokenResult get() throws InterruptedException {
+        latch.await();
+        return result;
+    }
+
+    @Override
+    public TokenResult get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return result;
+    }
+
+    private static void notifyListener(Listener listener, TokenResult result) {
+        try {
+            listener.onComplete(result);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenResultFuture] Unexpected error in listener of token result", ex);
+        }
+    }
+
+    /**
+     * Listener of the completion of a {@link TokenResultFuture}.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked when the token result is available.
+         *
+         * @param result the token result
+         */
+        void onComplete(TokenResult result);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
+import com.alibaba.csp.sentinel.cluster.TokenResultFuture;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 
@@ -53,4 +54,17 @@ public interface ClusterTokenClient extends TokenService {
      * @return state of the cluster token client
      */
     int getState();
+
+    /**
+     * Request tokens from remote token server asynchronously. The caller will not be blocked,
+     * and the returned future will be completed when the response arrives or the request fails
+     * (e.g. time out, in which case the status of the result is {@link com.alibaba.csp.sentinel.cluster.TokenResultStatus#FAIL}).
+     *
+     * @param flowId       the unique flow ID
+     * @param acquireCount token count to acquire
+     * @param prioritized  whether the request is prioritized
+     * @return future of the token result
+     * @since 1.4.2
+     */
+    TokenResultFuture requestTokenAsync(Long flowId, int acquireCount, boolean prioritized);
 }
\ No newline at end of file
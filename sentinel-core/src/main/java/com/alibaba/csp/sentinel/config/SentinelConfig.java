@@ -39,14 +39,34 @@ public class SentinelConfig {
     public static final String CHARSET = "csp.sentinel.charset";
     public static final String SINGLE_METRIC_FILE_SIZE = "csp.sentinel.metric.file.single.size";
     public static final String TOTAL_METRIC_FILE_COUNT = "csp.sentinel.metric.file.total.count";
+    public static final String METRIC_FILE_FORMAT = "csp.sentinel.metric.file.format";
     public static final String COLD_FACTOR = "csp.sentinel.flow.cold.factor";
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
+    public static final String STATISTIC_LOCK_FREE_ROTATION = "csp.sentinel.statistic.lock.free.rotation";
+    public static final String STATISTIC_BUCKET_STRIPES = "csp.sentinel.statistic.bucket.stripes";
+    public static final String STATISTIC_RT_HISTOGRAM = "csp.sentinel.statistic.rt.histogram";
+    public static final String ENTRY_RECYCLE = "csp.sentinel.entry.recycle";
+    public static final String RESOURCE_IDLE_EVICT_MINUTES = "csp.sentinel.resource.idle.evict.minutes";
+    public static final String CLOCK_MODE = "csp.sentinel.clock.mode";
+    public static final String FLOW_OCCUPY_TIMEOUT = "csp.sentinel.flow.occupy.timeout";
+    public static final String SYSTEM_STATUS_INTERVAL = "csp.sentinel.system.status.interval";
+    public static final String ORIGIN_NODE_MAX_COUNT = "csp.sentinel.origin.node.max.count";
 
     static final String DEFAULT_CHARSET = "UTF-8";
     static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
     static final int DEFAULT_TOTAL_METRIC_FILE_COUNT = 6;
+    static final String DEFAULT_METRIC_FILE_FORMAT = "text";
     static final int DEFAULT_COLD_FACTOR = 3;
     static final int DEFAULT_STATISTIC_MAX_RT = 4900;
+    static final boolean DEFAULT_STATISTIC_LOCK_FREE_ROTATION = false;
+    static final int DEFAULT_STATISTIC_BUCKET_STRIPES = 0;
+    static final boolean DEFAULT_STATISTIC_RT_HISTOGRAM = false;
+    static final boolean DEFAULT_ENTRY_RECYCLE = false;
+    static final int DEFAULT_RESOURCE_IDLE_EVICT_MINUTES = 0;
+    static final String DEFAULT_CLOCK_MODE = "ticker";
+    static final int DEFAULT_FLOW_OCCUPY_TIMEOUT = 500;
+    static final int DEFAULT_SYSTEM_STATUS_INTERVAL = 200;
+    static final int DEFAULT_ORIGIN_NODE_MAX_COUNT = 1000;
 
     static {
         initialize();
@@ -58,8 +78,18 @@ public class SentinelConfig {
         SentinelConfig.setConfig(CHARSET, DEFAULT_CHARSET);
         SentinelConfig.setConfig(SINGLE_METRIC_FILE_SIZE, String.valueOf(DEFAULT_SINGLE_METRIC_FILE_SIZE));
         SentinelConfig.setConfig(TOTAL_METRIC_FILE_COUNT, String.valueOf(DEFAULT_TOTAL_METRIC_FILE_COUNT));
+        SentinelConfig.setConfig(METRIC_FILE_FORMAT, DEFAULT_METRIC_FILE_FORMAT);
         SentinelConfig.setConfig(COLD_FACTOR, String.valueOf(DEFAULT_COLD_FACTOR));
         SentinelConfig.setConfig(STATISTIC_MAX_RT, String.valueOf(DEFAULT_STATISTIC_MAX_RT));
+        SentinelConfig.setConfig(STATISTIC_LOCK_FREE_ROTATION, String.valueOf(DEFAULT_STATISTIC_LOCK_FREE_ROTATION));
+        SentinelConfig.setConfig(STATISTIC_BUCKET_STRIPES, String.valueOf(DEFAULT_STATISTIC_BUCKET_STRIPES));
+        SentinelConfig.setConfig(STATISTIC_RT_HISTOGRAM, String.valueOf(DEFAULT_STATISTIC_RT_HISTOGRAM));
+        SentinelConfig.setConfig(ENTRY_RECYCLE, String.valueOf(DEFAULT_ENTRY_RECYCLE));
+        SentinelConfig.setConfig(RESOURCE_IDLE_EVICT_MINUTES, String.valueOf(DEFAULT_RESOURCE_IDLE_EVICT_MINUTES));
+        SentinelConfig.setConfig(CLOCK_MODE, DEFAULT_CLOCK_MODE);
+        SentinelConfig.setConfig(FLOW_OCCUPY_TIMEOUT, String.valueOf(DEFAULT_FLOW_OCCUPY_TIMEOUT));
+        SentinelConfig.setConfig(SYSTEM_STATUS_INTERVAL, String.valueOf(DEFAULT_SYSTEM_STATUS_INTERVAL));
+        SentinelConfig.setConfig(ORIGIN_NODE_MAX_COUNT, String.valueOf(DEFAULT_ORIGIN_NODE_MAX_COUNT));
     }
 
     private static void loadProps() {
@@ -159,6 +189,18 @@ public class SentinelConfig {
         }
     }
 
+    /**
+     * Get the format of metric log files written by current process. Metric readers recognize
+     * files of both formats, whatever the configured format is.
+     *
+     * @return {@code text} (pipe-delimited lines) or {@code binary} (see
+     * {@link com.alibaba.csp.sentinel.node.metric.MetricWriter})
+     * @since 1.4.2
+     */
+    public static String metricFileFormat() {
+        return props.get(METRIC_FILE_FORMAT);
+    }
+
     public static int coldFactor() {
         try {
             int coldFactor = Integer.parseInt(props.get(COLD_FACTOR));
@@ -184,4 +226,135 @@ public class SentinelConfig {
             return DEFAULT_STATISTIC_MAX_RT;
         }
     }
+
+    /**
+     * Whether the sliding window buckets of metric statistics are rotated in lock-free mode.
+     *
+     * @return true if lock-free rotation is enabled
+     * @since 1.4.2
+     */
+    public static boolean statisticLockFreeRotation() {
+        return Boolean.parseBoolean(props.get(STATISTIC_LOCK_FREE_ROTATION));
+    }
+
+    /**
+     * Get the stripe count of striped metric buckets. A non-positive value indicates that
+     * the default {@code LongAdder}-based metric buckets will be used.
+     *
+     * @return stripe count of striped metric buckets
+     * @since 1.4.2
+     */
+    public static int statisticBucketStripes() {
+        try {
+            return Integer.parseInt(props.get(STATISTIC_BUCKET_STRIPES));
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse statisticBucketStripes fail, use default value: "
+                + DEFAULT_STATISTIC_BUCKET_STRIPES, throwable);
+            return DEFAULT_STATISTIC_BUCKET_STRIPES;
+        }
+    }
+
+    /**
+     * Whether the metric buckets keep latency histograms of response time, which are required
+     * by RT percentiles (about 330 bytes per bucket, i.e. about 20 KB per node). Disabled by default,
+     * so the RT percentiles are always 0 unless it's enabled explicitly.
+     *
+     * @return true if RT histograms are enabled
+     * @since 1.4.2
+     */
+    public static boolean statisticRtHistogram() {
+        return Boolean.parseBoolean(props.get(STATISTIC_RT_HISTOGRAM));
+    }
+
+    /**
+     * Whether entries and default contexts are recycled in thread-local pools after exit.
+     * When enabled, an {@code Entry} MUST NOT be used any more once it has exited.
+     *
+     * @return true if entry recycling is enabled
+     * @since 1.4.2
+     */
+    public static boolean entryRecycleEnabled() {
+        return Boolean.parseBoolean(props.get(ENTRY_RECYCLE));
+    }
+
+    /**
+     * Get the idle time (in minutes) after which an unused resource (its slot chain and nodes)
+     * will be evicted. A non-positive value indicates that idle resources will never be evicted.
+     *
+     * @return idle time in minutes before eviction
+     * @since 1.4.2
+     */
+    public static int resourceIdleEvictMinutes() {
+        try {
+            return Integer.parseInt(props.get(RESOURCE_IDLE_EVICT_MINUTES));
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse resourceIdleEvictMinutes fail, use default value: "
+                + DEFAULT_RESOURCE_IDLE_EVICT_MINUTES, throwable);
+            return DEFAULT_RESOURCE_IDLE_EVICT_MINUTES;
+        }
+    }
+
+    /**
+     * Get the mode of the time source (see {@link com.alibaba.csp.sentinel.util.TimeUtil}),
+     * which is only used when no custom clock is provided via SPI.
+     *
+     * @return the clock mode, {@code ticker}, {@code nano} or {@code system}
+     * @since 1.4.2
+     */
+    public static String clockMode() {
+        return props.get(CLOCK_MODE);
+    }
+
+    /**
+     * Get the max time (in milliseconds) that a prioritized request may wait for the upcoming windows
+     * when it occupies (borrows) their tokens. A non-positive value disables occupying.
+     *
+     * @return max occupy timeout in milliseconds
+     * @since 1.4.2
+     */
+    public static int flowOccupyTimeout() {
+        try {
+            return Integer.parseInt(props.get(FLOW_OCCUPY_TIMEOUT));
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse flowOccupyTimeout fail, use default value: "
+                + DEFAULT_FLOW_OCCUPY_TIMEOUT, throwable);
+            return DEFAULT_FLOW_OCCUPY_TIMEOUT;
+        }
+    }
+
+    /**
+     * Get the interval (in milliseconds) of sampling system status (load, CPU usage and the derived
+     * inbound statistics) for system rules.
+     *
+     * @return positive sampling interval in milliseconds
+     * @since 1.4.2
+     */
+    public static int systemStatusIntervalMs() {
+        try {
+            int interval = Integer.parseInt(props.get(SYSTEM_STATUS_INTERVAL));
+            return interval > 0 ? interval : DEFAULT_SYSTEM_STATUS_INTERVAL;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse systemStatusInterval fail, use default value: "
+                + DEFAULT_SYSTEM_STATUS_INTERVAL, throwable);
+            return DEFAULT_SYSTEM_STATUS_INTERVAL;
+        }
+    }
+
+    /**
+     * Get the max count of origin nodes held by a single {@link com.alibaba.csp.sentinel.node.ClusterNode}.
+     * Statistics of the origins beyond the limit are aggregated in an overflow node, except for
+     * the origins declared in flow rules. A non-positive value indicates no limit.
+     *
+     * @return max count of origin nodes per resource
+     * @since 1.4.2
+     */
+    public static int originNodeMaxCount() {
+        try {
+            return Integer.parseInt(props.get(ORIGIN_NODE_MAX_COUNT));
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse originNodeMaxCount fail, use default value: "
+                + DEFAULT_ORIGIN_NODE_MAX_COUNT, throwable);
+            return DEFAULT_ORIGIN_NODE_MAX_COUNT;
+        }
+    }
 }
@@ -23,6 +23,7 @@ import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
 import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
@@ -57,6 +58,14 @@ public class ContextUtil {
     private static final ReentrantLock LOCK = new ReentrantLock();
     private static final Context NULL_CONTEXT = new NullContext();
 
+    /**
+     * Holds the exited default context of current thread for reuse, only used when
+     * {@link SentinelConfig#ENTRY_RECYCLE} is enabled.
+     */
+    private static final ThreadLocal<Context> recycledDefaultContextHolder = new ThreadLocal<Context>();
+
+    private static volatile boolean recycleDefaultContext = SentinelConfig.entryRecycleEnabled();
+
     static {
         // Cache the entrance node for default context.
         initDefaultContext();
@@ -150,7 +159,7 @@ public class ContextUtil {
                     }
                 }
             }
-            context = new Context(node, name);
+            context = newContext(node, name);
             context.setOrigin(origin);
             contextHolder.set(context);
         }
@@ -158,6 +167,26 @@ public class ContextUtil {
         return context;
     }
 
+    private static Context newContext(DefaultNode node, String name) {
+        if (recycleDefaultContext && Constants.CONTEXT_DEFAULT_NAME.equals(name)) {
+            Context recycled = recycledDefaultContextHolder.get();
+            if (recycled != null) {
+                recycledDefaultContextHolder.set(null);
+                // The entrance node might have been changed when the context map was reset.
+                if (recycled.getEntranceNode() == node && recycled.getCurEntry() == null) {
+                    return recycled;
+                }
+            }
+        }
+        return new Context(node, name);
+    }
+
+    private static void recycleContext(Context context) {
+        if (recycleDefaultContext && !context.isAsync() && isDefaultContext(context)) {
+            recycledDefaultContextHolder.set(context);
+        }
+    }
+
     private static boolean shouldWarn = true;
 
     private static void setNullContext() {
@@ -201,6 +230,7 @@ public class ContextUtil {
         Context context = contextHolder.get();
         if (context != null && context.getCurEntry() == null) {
             contextHolder.set(null);
+            recycleContext(context);
         }
     }
 
@@ -238,6 +268,16 @@ public class ContextUtil {
         return contextHolder.get();
     }
 
+    /**
+     * Only for internal test.
+     */
+    static void setRecycleDefaultContext(boolean recycle) {
+        recycleDefaultContext = recycle;
+        if (!recycle) {
+            recycledDefaultContextHolder.remove();
+        }
+    }
+
     /**
      * <p>
      * Replace current context with the provided context.
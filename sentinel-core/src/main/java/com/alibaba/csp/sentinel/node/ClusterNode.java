@@ -15,12 +15,20 @@
  */
 package com.alibaba.csp.sentinel.node;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * <p>
@@ -36,6 +44,14 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * origin.<br/>
  * Note that 'origin' usually is Service Consumer's app name.
  * </p>
+ * <p>
+ * The amount of origin nodes is bounded ({@link SentinelConfig#ORIGIN_NODE_MAX_COUNT}), as origins may be
+ * unbounded (e.g. client IPs). When the limit is reached, idle origin nodes (no running thread and
+ * no request in the recent minute, lasting for {@link #ORIGIN_IDLE_GRACE_MS}) will be evicted, and the origins that still cannot get a node share
+ * an aggregated overflow node, unless the origin is declared in {@code limitApp} of flow rules.
+ * Thus rules of {@link com.alibaba.csp.sentinel.slots.block.RuleConstant#LIMIT_APP_OTHER} apply to the
+ * overflowed origins as a whole.
+ * </p>
  *
  * @author qinan.qn
  * @author jialiang.linjl
@@ -43,14 +59,45 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 public class ClusterNode extends StatisticNode {
 
     /**
-     * The longer the application runs, the more stable this mapping will
-     * become. so we don't concurrent map but a lock. as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * Minimal interval of evicting idle origin nodes when the origin nodes are full, to avoid
+     * scanning all origin nodes for every request of the overflowed origins.
+     */
+    private static final long MIN_EVICT_INTERVAL_MS = 1000;
+    /**
+     * Minimal time (in ms) that an origin node should stay idle before being evicted, so that a node
+     * that has just been created (and has not been recorded by the statistic slot yet) won't be evicted.
      */
-    private Map<String, StatisticNode> originCountMap = new HashMap<String, StatisticNode>();
+    static final long ORIGIN_IDLE_GRACE_MS = 10 * 1000;
+
+    private final ConcurrentMap<String, StatisticNode> originCountMap
+        = new ConcurrentHashMap<String, StatisticNode>();
+    private final AtomicInteger originCount = new AtomicInteger(0);
+    private final int maxOriginCount;
+
+    /**
+     * Aggregated node of the origins beyond {@link #maxOriginCount}, created on demand.
+     */
+    private volatile StatisticNode overflowNode;
+    private final AtomicLong lastEvictTime = new AtomicLong(0);
+    /**
+     * The time when the origin node is first found idle.
+     */
+    private final ConcurrentMap<StatisticNode, Long> idleSince = new ConcurrentHashMap<StatisticNode, Long>();
 
     private final ReentrantLock lock = new ReentrantLock();
 
+    public ClusterNode() {
+        this(SentinelConfig.originNodeMaxCount());
+    }
+
+    /**
+     * @param maxOriginCount max count of origin nodes, non-positive value indicates no limit
+     * @since 1.4.2
+     */
+    public ClusterNode(int maxOriginCount) {
+        this.maxOriginCount = maxOriginCount;
+    }
+
     /**
      * <p>Get {@link Node} of the specific origin. Usually the origin is the Service Consumer's app name.</p>
      * <p>If the origin node for given origin is absent, then a new {@link StatisticNode}
@@ -61,29 +108,111 @@ public class ClusterNode extends StatisticNode {
      * @return the {@link Node} of the specific origin
      */
     public Node getOrCreateOriginNode(String origin) {
+        return getOrCreateOriginNode(origin, null);
+    }
+
+    /**
+     * <p>Get {@link Node} of the specific origin. If the origin node for given origin is absent, then
+     * a new {@link StatisticNode} for the origin will be created and returned.</p>
+     * <p>If the origin nodes are full (even after evicting idle ones), the shared overflow node will be
+     * returned, unless the origin is declared in {@code limitApp} of the flow rules of the resource.</p>
+     *
+     * @param origin       the caller's name
+     * @param resourceName name of the resource, which is used to find out the origins declared in flow rules
+     * @return the {@link Node} of the specific origin, or the overflow node
+     * @since 1.4.2
+     */
+    public Node getOrCreateOriginNode(String origin, String resourceName) {
         StatisticNode statisticNode = originCountMap.get(origin);
-        if (statisticNode == null) {
+        if (statisticNode != null) {
+            return statisticNode;
+        }
+        if (!hasRoomForOrigin()
+            && (resourceName == null || !FlowRuleManager.isLimitedOrigin(origin, resourceName))) {
+            return getOrCreateOverflowNode();
+        }
+        // The node is absent, create a new node for the origin.
+        StatisticNode newNode = new StatisticNode();
+        statisticNode = originCountMap.putIfAbsent(origin, newNode);
+        if (statisticNode != null) {
+            return statisticNode;
+        }
+        originCount.incrementAndGet();
+        return newNode;
+    }
+
+    private boolean hasRoomForOrigin() {
+        if (maxOriginCount <= 0 || originCount.get() < maxOriginCount) {
+            return true;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long last = lastEvictTime.get();
+        if (now - last >= MIN_EVICT_INTERVAL_MS && lastEvictTime.compareAndSet(last, now)) {
+            evictIdleOriginNodes();
+        }
+        return originCount.get() < maxOriginCount;
+    }
+
+    private StatisticNode getOrCreateOverflowNode() {
+        StatisticNode node = overflowNode;
+        if (node == null) {
             try {
                 lock.lock();
-                statisticNode = originCountMap.get(origin);
-                if (statisticNode == null) {
-                    // The node is absent, create a new node for the origin.
-                    statisticNode = new StatisticNode();
-                    HashMap<String, StatisticNode> newMap = new HashMap<String, StatisticNode>(
-                        originCountMap.size() + 1);
-                    newMap.putAll(originCountMap);
-                    newMap.put(origin, statisticNode);
-                    originCountMap = newMap;
+                node = overflowNode;
+                if (node == null) {
+                    node = new StatisticNode();
+                    overflowNode = node;
                 }
             } finally {
                 lock.unlock();
             }
         }
-        return statisticNode;
+        return node;
+    }
+
+    /**
+     * Evict idle origin nodes, which have no running thread and no request in the recent minute, and have
+     * been found idle for at least {@link #ORIGIN_IDLE_GRACE_MS}. Evicted origins will get brand new nodes
+     * if they come again.
+     *
+     * @return count of evicted origin nodes
+     * @since 1.4.2
+     */
+    public int evictIdleOriginNodes() {
+        long now = TimeUtil.currentTimeMillis();
+        int count = 0;
+        for (Map.Entry<String, StatisticNode> e : originCountMap.entrySet()) {
+            StatisticNode node = e.getValue();
+            if (node.curThreadNum() > 0 || node.totalRequest() > 0) {
+                idleSince.remove(node);
+                continue;
+            }
+            Long since = idleSince.putIfAbsent(node, now);
+            if (since != null && now - since >= ORIGIN_IDLE_GRACE_MS && originCountMap.remove(e.getKey(), node)) {
+                idleSince.remove(node);
+                originCount.decrementAndGet();
+                count++;
+            }
+        }
+        if (idleSince.size() > originCountMap.size()) {
+            // Clean up the records of nodes that have already gone (evicted concurrently).
+            idleSince.keySet().retainAll(new HashSet<StatisticNode>(originCountMap.values()));
+        }
+        return count;
+    }
+
+    /**
+     * Get the aggregated node of the overflowed origins.
+     *
+     * @return the overflow node, or null if no origin has overflowed
+     * @since 1.4.2
+     */
+    public StatisticNode getOverflowOriginNode() {
+        return overflowNode;
     }
 
-    public synchronized Map<String, StatisticNode> getOriginCountMap() {
-        return originCountMap;
+    public Map<String, StatisticNode> getOriginCountMap() {
+        return Collections.unmodifiableMap(originCountMap);
     }
 
     /**
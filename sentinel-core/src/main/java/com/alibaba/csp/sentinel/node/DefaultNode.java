@@ -102,6 +102,25 @@ public class DefaultNode extends StatisticNode {
         this.childList = new HashSet<Node>();
     }
 
+    /**
+     * Remove the given child node from the invocation tree.
+     *
+     * @param node the child node to remove
+     * @since 1.4.2
+     */
+    public void removeChild(Node node) {
+        if (node == null || !childList.contains(node)) {
+            return;
+        }
+        synchronized (this) {
+            if (childList.contains(node)) {
+                Set<Node> newSet = new HashSet<Node>(childList);
+                newSet.remove(node);
+                childList = newSet;
+            }
+        }
+    }
+
     public Set<Node> getChildList() {
         return childList;
     }
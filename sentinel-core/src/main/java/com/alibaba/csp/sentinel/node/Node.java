@@ -97,6 +97,15 @@ public interface Node {
      */
     long minRt();
 
+    /**
+     * Get response time at given percentile (e.g. 50, 90, 99 and 99.9) in current time window.
+     *
+     * @param percentile percentile in (0, 100]
+     * @return response time at the percentile
+     * @since 1.4.2
+     */
+    long percentileRt(double percentile);
+
     /**
      * Get current active thread count.
      */
@@ -154,6 +163,51 @@ public interface Node {
      */
     void decreaseThreadNum();
 
+    /**
+     * Try to occupy latter time windows' tokens. If occupying successfully, a value less than
+     * {@code occupyTimeout} will be returned, which indicates the time to wait before the occupied window comes.
+     *
+     * @param currentTime  current time in milliseconds
+     * @param acquireCount tokens count to acquire
+     * @param threshold    QPS threshold
+     * @return time to wait in milliseconds; a value not less than {@code occupyTimeout} indicates failure
+     * @since 1.4.2
+     */
+    long tryOccupyNext(long currentTime, int acquireCount, double threshold);
+
+    /**
+     * Get current waiting request count (that have occupied upcoming windows).
+     *
+     * @return current waiting request count
+     * @since 1.4.2
+     */
+    long waitingRequests();
+
+    /**
+     * Add request that occupied the window at provided future time.
+     *
+     * @param futureTime   the start time of the occupied window
+     * @param acquireCount tokens count
+     * @since 1.4.2
+     */
+    void addWaitingRequest(long futureTime, int acquireCount);
+
+    /**
+     * Add occupied pass count, which represents pass requests that borrow the latter windows' tokens.
+     *
+     * @param acquireCount tokens count
+     * @since 1.4.2
+     */
+    void addOccupiedPass(int acquireCount);
+
+    /**
+     * Get occupied pass QPS.
+     *
+     * @return current occupied pass QPS
+     * @since 1.4.2
+     */
+    double occupiedPassQps();
+
     /**
      * Reset the internal counter. Reset is needed when {@link IntervalProperty#INTERVAL} or
      * {@link SampleCountProperty#SAMPLE_COUNT} is changed.
@@ -20,10 +20,13 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricSnapshot;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
 import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.OccupiableBucketLeapArray;
 
 /**
  * <p>The statistic node keep three kinds of real-time statistics metrics:</p>
@@ -92,8 +95,7 @@ public class StatisticNode implements Node {
      * Holds statistics of the recent {@code INTERVAL} seconds. The {@code INTERVAL} is divided into time spans
      * by given {@code sampleCount}.
      */
-    private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
-        IntervalProperty.INTERVAL);
+    private transient volatile Metric rollingCounterInSecond = newSecondMetric();
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
@@ -131,6 +133,31 @@ public class StatisticNode implements Node {
         return metrics;
     }
 
+    /**
+     * <p>Fetch metrics of the complete seconds that have not been fetched yet into the snapshot.</p>
+     * <p>
+     * Different from {@link #metrics()}, buckets are looked up by second directly, so usually only one bucket
+     * is visited per fetch, and only non-empty seconds are filled into the reusable nodes of the snapshot.
+     * Every second is fetched only once (statistics of a past second never change). The fetch progress is
+     * shared with {@link #metrics()}, and the fetch operation is thread-safe under a single-thread scheduler pool.
+     * </p>
+     *
+     * @param resource resource name of the metrics
+     * @param snapshot the snapshot to fill metrics into
+     * @since 1.4.2
+     */
+    public void fetchMetrics(String resource, MetricSnapshot snapshot) {
+        long currentTime = snapshot.currentTime();
+        for (long time = Math.max(lastFetchTime + 1000, snapshot.firstTime()); time < currentTime; time += 1000) {
+            MetricNode node = snapshot.candidate();
+            if (rollingCounterInMinute.fillDetail(time, node)) {
+                node.setResource(resource);
+                snapshot.commit();
+            }
+        }
+        lastFetchTime = Math.max(lastFetchTime, currentTime - 1000);
+    }
+
     private boolean isNodeInTime(MetricNode node, long currentTime) {
         return node.getTimestamp() > lastFetchTime && node.getTimestamp() < currentTime;
     }
@@ -142,7 +169,13 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        rollingCounterInSecond = newSecondMetric();
+    }
+
+    private static Metric newSecondMetric() {
+        // Upcoming buckets could be occupied by prioritized requests.
+        return new ArrayMetric(new OccupiableBucketLeapArray(SampleCountProperty.SAMPLE_COUNT,
+            IntervalProperty.INTERVAL, SentinelConfig.statisticLockFreeRotation()));
     }
 
     @Override
@@ -221,6 +254,11 @@ public class StatisticNode implements Node {
         return rollingCounterInSecond.minRt();
     }
 
+    @Override
+    public long percentileRt(double percentile) {
+        return rollingCounterInSecond.percentileRt(percentile);
+    }
+
     @Override
     public int curThreadNum() {
         return curThreadNum.get();
@@ -264,6 +302,67 @@ public class StatisticNode implements Node {
         curThreadNum.decrementAndGet();
     }
 
+    @Override
+    public long tryOccupyNext(long currentTime, int acquireCount, double threshold) {
+        int occupyTimeout = SentinelConfig.flowOccupyTimeout();
+        int interval = IntervalProperty.INTERVAL;
+        double maxCount = threshold * interval / 1000;
+        long currentBorrow = rollingCounterInSecond.waiting();
+        if (currentBorrow >= maxCount) {
+            return occupyTimeout;
+        }
+
+        int windowLength = interval / SampleCountProperty.SAMPLE_COUNT;
+        long earliestTime = currentTime - currentTime % windowLength + windowLength - interval;
+
+        int idx = 0;
+        /*
+         * Note: here {@code currentPass} may be less than it really is NOW, because time difference
+         * since call rollingCounterInSecond.pass(). So in high concurrency, the following code may
+         * lead more tokens be borrowed.
+         */
+        long currentPass = rollingCounterInSecond.pass();
+        while (earliestTime < currentTime) {
+            long waitInMs = idx * windowLength + windowLength - currentTime % windowLength;
+            if (waitInMs >= occupyTimeout) {
+                break;
+            }
+            // The pass count of the earliest window will be released when the window to occupy comes.
+            long windowPass = rollingCounterInSecond.getWindowPass(earliestTime);
+            if (currentPass + currentBorrow + acquireCount - windowPass <= maxCount) {
+                return waitInMs;
+            }
+            earliestTime += windowLength;
+            currentPass -= windowPass;
+            idx++;
+        }
+
+        return occupyTimeout;
+    }
+
+    @Override
+    public long waitingRequests() {
+        return rollingCounterInSecond.waiting();
+    }
+
+    @Override
+    public void addWaitingRequest(long futureTime, int acquireCount) {
+        rollingCounterInSecond.addWaiting(futureTime, acquireCount);
+    }
+
+    @Override
+    public void addOccupiedPass(int acquireCount) {
+        rollingCounterInSecond.addOccupiedPass(acquireCount);
+        rollingCounterInMinute.addOccupiedPass(acquireCount);
+        // The pass count of the second-level metric will be added when the occupied window comes.
+        rollingCounterInMinute.addPass(acquireCount);
+    }
+
+    @Override
+    public double occupiedPassQps() {
+        return rollingCounterInSecond.occupiedPass() / rollingCounterInSecond.getWindowIntervalInSec();
+    }
+
     @Override
     public void debug() {
         rollingCounterInSecond.debugQps();
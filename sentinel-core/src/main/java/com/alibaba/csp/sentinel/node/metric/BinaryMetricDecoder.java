@@ -0,0 +1,237 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes metric nodes from a binary metric file (see {@link BinaryMetricFormat}) through a {@link MetricFileWindow}.
+ * An incomplete record at the tail (which is being written) is treated as the end of file. The decoder
+ * should be closed after use.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class BinaryMetricDecoder implements Closeable {
+
+    /**
+     * Results of decoding a record.
+     */
+    private static final int DECODED = 1;
+    private static final int INCOMPLETE = 0;
+    private static final int UNKNOWN = -1;
+
+    private final Charset charset;
+    private final MetricFileWindow window;
+    private ByteBuffer data;
+    private final Map<Integer, String> resources = new HashMap<Integer, String>();
+
+    private long timestamp;
+
+    /**
+     * Position, entry count and cursor of current second record, and index of current entry.
+     */
+    private int recordStart;
+    private int recordCount;
+    private int recordCursor;
+    private int entry;
+
+    BinaryMetricDecoder(String fileName, Charset charset) throws IOException {
+        this(fileName, charset, MetricFileWindow.MAP_SUPPORTED);
+    }
+
+    BinaryMetricDecoder(String fileName, Charset charset, boolean mapped) throws IOException {
+        this.charset = charset;
+        this.window = MetricFileWindow.open(fileName, 0, mapped);
+        this.data = window.data();
+        try {
+            while (data.remaining() < BinaryMetricFormat.HEADER_SIZE && fill()) {
+            }
+            if (data.remaining() < BinaryMetricFormat.HEADER_SIZE || data.getInt() != BinaryMetricFormat.MAGIC) {
+                throw new IOException("Not a binary metric file: " + fileName);
+            }
+            int version = data.getInt();
+            if (version != BinaryMetricFormat.VERSION) {
+                throw new IOException("Unsupported binary metric file version " + version + ": " + fileName);
+            }
+            this.timestamp = data.getLong();
+        } catch (IOException ex) {
+            window.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Move to the record at given offset (from the index file). Preceding records are skipped
+     * (without decoding the entries) to restore the resource names and the timestamp base.
+     *
+     * @param offset offset of a record in the file
+     * @throws IOException if any error occurs when reading the file
+     */
+    void seek(long offset) throws IOException {
+        while (window.fileOffset() + data.position() < offset && readRecord()) {
+            recordCursor = recordCount;
+        }
+    }
+
+    /**
+     * Decode the next metric node.
+     *
+     * @return next metric node, or null if reaching the end of file
+     * @throws IOException if any error occurs when reading the file
+     */
+    MetricNode next() throws IOException {
+        while (nextEntry()) {
+            String resource = resource();
+            if (resource == null) {
+                // Should not happen unless the file is corrupted.
+                continue;
+            }
+            MetricNode node = new MetricNode();
+            node.setTimestamp(timestamp);
+            node.setResource(resource);
+            node.setPassQps(counter(BinaryMetricFormat.COLUMN_PASS));
+            node.setBlockQps(counter(BinaryMetricFormat.COLUMN_BLOCK));
+            node.setSuccessQps(counter(BinaryMetricFormat.COLUMN_SUCCESS));
+            node.setExceptionQps(counter(BinaryMetricFormat.COLUMN_EXCEPTION));
+            node.setRt(counter(BinaryMetricFormat.COLUMN_RT));
+            node.setRt50(counter(BinaryMetricFormat.COLUMN_RT50));
+            node.setRt90(counter(BinaryMetricFormat.COLUMN_RT90));
+            node.setRt99(counter(BinaryMetricFormat.COLUMN_RT99));
+            node.setRt999(counter(BinaryMetricFormat.COLUMN_RT999));
+            return node;
+        }
+        return null;
+    }
+
+    /**
+     * Move to the next metric entry without decoding it, so that the columns of the entry
+     * can be read directly via {@link #timestamp()}, {@link #resource()} and {@link #counter(int)}.
+     *
+     * @return true if there is a next entry, false if reaching the end of file
+     * @throws IOException if any error occurs when reading the file
+     */
+    boolean nextEntry() throws IOException {
+        while (recordCursor >= recordCount) {
+            if (!readRecord()) {
+                return false;
+            }
+        }
+        entry = recordCursor++;
+        return true;
+    }
+
+    long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return resource name of current entry, or null if the resource id is unknown
+     */
+    String resource() {
+        return resources.get(counter(BinaryMetricFormat.COLUMN_RESOURCE));
+    }
+
+    int counter(int column) {
+        return data.getInt(recordStart + (column * recordCount + entry) * 4);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window.close();
+    }
+
+    /**
+     * Read the next record. The entries of a second record are not decoded here, only its position
+     * is recorded. More bytes are read into the window when the record is incomplete.
+     *
+     * @return true if a complete record has been read, otherwise false
+     * @throws IOException if any error occurs when reading the file
+     */
+    private boolean readRecord() throws IOException {
+        while (true) {
+            int start = data.position();
+            int result = decodeRecord();
+            if (result == DECODED) {
+                return true;
+            }
+            data.position(start);
+            if (result == UNKNOWN) {
+                return false;
+            }
+            // The bytes before the record (including the entries of last record) are discarded.
+            if (!fill()) {
+                // Incomplete record at the tail, regarded as the end of file.
+                return false;
+            }
+        }
+    }
+
+    private int decodeRecord() {
+        if (data.remaining() < 1) {
+            return INCOMPLETE;
+        }
+        byte type = data.get();
+        if (type == BinaryMetricFormat.RECORD_RESOURCE) {
+            if (data.remaining() < BinaryMetricFormat.RESOURCE_RECORD_HEADER_SIZE - 1) {
+                return INCOMPLETE;
+            }
+            int id = data.getInt();
+            int length = data.getInt();
+            if (length < 0) {
+                return UNKNOWN;
+            }
+            if (data.remaining() < length) {
+                return INCOMPLETE;
+            }
+            byte[] name = new byte[length];
+            data.get(name);
+            resources.put(id, new String(name, charset));
+            return DECODED;
+        } else if (type == BinaryMetricFormat.RECORD_SECOND) {
+            if (data.remaining() < BinaryMetricFormat.SECOND_RECORD_HEADER_SIZE - 1) {
+                return INCOMPLETE;
+            }
+            int delta = data.getInt();
+            int count = data.getInt();
+            if (count < 0) {
+                return UNKNOWN;
+            }
+            if (data.remaining() < (long)count * BinaryMetricFormat.ENTRY_SIZE) {
+                return INCOMPLETE;
+            }
+            timestamp += delta;
+            recordStart = data.position();
+            recordCount = count;
+            recordCursor = 0;
+            data.position(recordStart + count * BinaryMetricFormat.ENTRY_SIZE);
+            return DECODED;
+        }
+        // Unknown record (the file is corrupted), regarded as the end of file.
+        return UNKNOWN;
+    }
+
+    private boolean fill() throws IOException {
+        boolean more = window.fill();
+        data = window.data();
+        return more;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes metric nodes into the binary metric file (see {@link BinaryMetricFormat}). Records are encoded
+ * into a reusable direct buffer and then written to the file channel, so no intermediate strings
+ * are created except for the names of resources that first appear in the file.
+ * <p>The encoder is not thread-safe, and is guarded by {@link MetricWriter}.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class BinaryMetricEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final Charset charset;
+    private final Map<String, Integer> resourceIds = new HashMap<String, Integer>();
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private int[] ids = new int[64];
+
+    private FileChannel channel;
+    private long lastTimestamp;
+
+    BinaryMetricEncoder(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Start encoding into a new (empty) metric file. The header will be written immediately.
+     *
+     * @param channel       channel of the new metric file
+     * @param baseTimestamp base timestamp of the file
+     */
+    void reset(FileChannel channel, long baseTimestamp) throws IOException {
+        this.channel = channel;
+        this.lastTimestamp = baseTimestamp;
+        resourceIds.clear();
+        buffer.clear();
+        buffer.putInt(BinaryMetricFormat.MAGIC).putInt(BinaryMetricFormat.VERSION).putLong(baseTimestamp);
+        flush();
+    }
+
+    /**
+     * Encode metric nodes of the same second as one record, preceded by the resource records
+     * of newly met resources.
+     *
+     * @param timestamp timestamp of the metric nodes
+     * @param nodes     metric nodes to encode
+     */
+    void encode(long timestamp, List<MetricNode> nodes) throws IOException {
+        int count = nodes.size();
+        if (ids.length < count) {
+            ids = new int[Math.max(count, ids.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            ids[i] = intern(nodes.get(i).getResource());
+        }
+
+        ensureRemaining(BinaryMetricFormat.SECOND_RECORD_HEADER_SIZE + BinaryMetricFormat.ENTRY_SIZE * count);
+        buffer.put(BinaryMetricFormat.RECORD_SECOND).putInt((int)(timestamp - lastTimestamp)).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(ids[i]);
+        }
+        for (int column = BinaryMetricFormat.COLUMN_PASS; column < BinaryMetricFormat.COLUMN_COUNT; column++) {
+            for (int i = 0; i < count; i++) {
+                buffer.putInt(BinaryMetricFormat.counterOf(nodes.get(i), column));
+            }
+        }
+        lastTimestamp = timestamp;
+        flush();
+    }
+
+    private int intern(String resource) throws IOException {
+        Integer id = resourceIds.get(resource);
+        if (id != null) {
+            return id;
+        }
+        id = resourceIds.size();
+        byte[] name = resource.getBytes(charset);
+        ensureRemaining(BinaryMetricFormat.RESOURCE_RECORD_HEADER_SIZE + name.length);
+        buffer.put(BinaryMetricFormat.RECORD_RESOURCE).putInt(id).putInt(name.length).put(name);
+        resourceIds.put(resource, id);
+        return id;
+    }
+
+    private void ensureRemaining(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        flush();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * <p>Layout of the binary metric file, which is an alternative of the pipe-delimited text format
+ * (see {@link MetricNode#toFatString()}).</p>
+ * <p>
+ * A binary metric file starts with a header of {@code magic(int) | version(int) | baseTimestamp(long)},
+ * followed by records of two kinds:
+ * <ul>
+ * <li>resource record: {@code RECORD_RESOURCE(byte) | resourceId(int) | nameLength(int) | name(bytes)},
+ * which interns a resource name to an id within the file;</li>
+ * <li>second record: {@code RECORD_SECOND(byte) | timestampDelta(int) | count(int) | columns},
+ * where the timestamp delta is relative to the previous second record (or the base timestamp
+ * in header), and the columns are {@link #COLUMN_COUNT} arrays of {@code count} fixed-width ints
+ * (resource id, pass, block, success, exception, rt, rt50, rt90, rt99, rt999).</li>
+ * </ul>
+ * A resource record always precedes the first second record that refers to it. The offsets recorded
+ * in the index file always point to the beginning of a record.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class BinaryMetricFormat {
+
+    /**
+     * "SMBF", which never starts a line of the text format (the first char of a text line is a digit).
+     */
+    static final int MAGIC = 0x534D4246;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    static final byte RECORD_RESOURCE = 1;
+    static final byte RECORD_SECOND = 2;
+
+    static final int RESOURCE_RECORD_HEADER_SIZE = 9;
+    static final int SECOND_RECORD_HEADER_SIZE = 9;
+
+    static final int COLUMN_RESOURCE = 0;
+    static final int COLUMN_PASS = 1;
+    static final int COLUMN_BLOCK = 2;
+    static final int COLUMN_SUCCESS = 3;
+    static final int COLUMN_EXCEPTION = 4;
+    static final int COLUMN_RT = 5;
+    static final int COLUMN_RT50 = 6;
+    static final int COLUMN_RT90 = 7;
+    static final int COLUMN_RT99 = 8;
+    static final int COLUMN_RT999 = 9;
+    static final int COLUMN_COUNT = 10;
+
+    /**
+     * Size of a single metric entry in bytes, i.e. one int of every column.
+     */
+    static final int ENTRY_SIZE = COLUMN_COUNT * 4;
+
+    /**
+     * Check whether the provided metric file is of the binary format.
+     *
+     * @param fileName name of the metric file
+     * @return true if the file starts with the binary header, otherwise false
+     */
+    static boolean isBinaryFile(String fileName) {
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(fileName, "r");
+            return file.length() >= HEADER_SIZE && file.readInt() == MAGIC;
+        } catch (IOException ex) {
+            return false;
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the value of given counter column from the metric node. Counters are stored as fixed-width
+     * ints, so values exceeding {@link Integer#MAX_VALUE} are saturated.
+     */
+    static int counterOf(MetricNode node, int column) {
+        long value;
+        switch (column) {
+            case COLUMN_PASS:
+                value = node.getPassQps();
+                break;
+            case COLUMN_BLOCK:
+                value = node.getBlockQps();
+                break;
+            case COLUMN_SUCCESS:
+                value = node.getSuccessQps();
+                break;
+            case COLUMN_EXCEPTION:
+                value = node.getExceptionQps();
+                break;
+            case COLUMN_RT:
+                value = node.getRt();
+                break;
+            case COLUMN_RT50:
+                value = node.getRt50();
+                break;
+            case COLUMN_RT90:
+                value = node.getRt90();
+                break;
+            case COLUMN_RT99:
+                value = node.getRt99();
+                break;
+            case COLUMN_RT999:
+                value = node.getRt999();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown counter column: " + column);
+        }
+        return (int)Math.min(value, Integer.MAX_VALUE);
+    }
+
+    private BinaryMetricFormat() {}
+}
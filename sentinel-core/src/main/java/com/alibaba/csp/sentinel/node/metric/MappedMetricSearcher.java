@@ -0,0 +1,426 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * <p>A lock-free metric searcher over memory-mapped metric files, which supports many concurrent readers.
+ * The files are only mapped on Linux, and read into reused buffers on other systems (see
+ * {@link MetricFileWindow}).</p>
+ * <p>
+ * Different from {@link MetricSearcher}, the start position is located by binary searching the index
+ * files (see {@link MetricIndex}), and metrics are appended to the target in thin format (see
+ * {@link MetricNode#toThinString()}) straight from the file bytes, without building {@link MetricNode}s.
+ * Lines of text metric files are copied without parsing the counters. Both text and binary
+ * (see {@link BinaryMetricFormat}) metric files are supported.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class MappedMetricSearcher {
+
+    /**
+     * Avoid OOM in any cases.
+     */
+    private static final int MAX_LINES_RETURN = 100000;
+
+    private final String baseDir;
+    private final String baseFileName;
+    private final Charset charset;
+
+    /**
+     * @param baseDir      directory of the metric files
+     * @param baseFileName base name of the metric files, e.g. {@code app-metrics.log}
+     */
+    public MappedMetricSearcher(String baseDir, String baseFileName) {
+        this(baseDir, baseFileName, Charset.forName(SentinelConfig.charset()));
+    }
+
+    public MappedMetricSearcher(String baseDir, String baseFileName, Charset charset) {
+        if (baseDir == null) {
+            throw new IllegalArgumentException("baseDir can't be null");
+        }
+        if (baseFileName == null) {
+            throw new IllegalArgumentException("baseFileName can't be null");
+        }
+        if (charset == null) {
+            throw new IllegalArgumentException("charset can't be null");
+        }
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.baseFileName = baseFileName;
+        this.charset = charset;
+    }
+
+    /**
+     * Append about {@code recommendLines} lines of metrics from {@code beginTimeMs} to the target, one metric
+     * per line. Metrics of the same second are atomic, so more lines than {@code recommendLines}
+     * may be appended.
+     *
+     * @param beginTimeMs    the min timestamp of metrics
+     * @param recommendLines the recommended count of lines
+     * @param sb             the target to append metrics to
+     * @return count of lines appended, or -1 if there are no metrics at or after {@code beginTimeMs}
+     * @throws Exception if any error occurs when reading metric files
+     */
+    public int appendMetrics(long beginTimeMs, int recommendLines, StringBuilder sb) throws Exception {
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        for (int i = 0; i < fileNames.size(); i++) {
+            long offset = findOffset(fileNames.get(i), beginTimeMs / 1000);
+            if (offset < 0) {
+                continue;
+            }
+            int lines = 0;
+            long lastSecond = -1;
+            for (int j = i; j < fileNames.size(); j++) {
+                MetricCursor cursor = openCursor(fileNames.get(j), j == i ? offset : 0, null);
+                if (cursor == null) {
+                    continue;
+                }
+                try {
+                    while (cursor.next()) {
+                        long second = cursor.timestamp() / 1000;
+                        if (lines >= recommendLines && second != lastSecond) {
+                            return lines;
+                        }
+                        cursor.appendThinString(sb);
+                        sb.append('\n');
+                        lines++;
+                        lastSecond = second;
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+            return lines;
+        }
+        return -1;
+    }
+
+    /**
+     * Append metrics between [beginTimeMs, endTimeMs] (both side inclusive) to the target, one metric per line.
+     * When identity is null, metrics of all resources will be appended, otherwise only metrics of the specific
+     * resource will be appended.
+     *
+     * @param beginTimeMs the min timestamp of metrics
+     * @param endTimeMs   the max timestamp of metrics
+     * @param identity    resource name, nullable
+     * @param sb          the target to append metrics to
+     * @return count of lines appended, or -1 if there are no metrics at or after {@code beginTimeMs}
+     * @throws Exception if any error occurs when reading metric files
+     */
+    public int appendMetricsByTimeAndResource(long beginTimeMs, long endTimeMs, String identity,
+                                              StringBuilder sb) throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        for (int i = 0; i < fileNames.size(); i++) {
+            long offset = findOffset(fileNames.get(i), beginSecond);
+            if (offset < 0) {
+                continue;
+            }
+            int lines = 0;
+            for (int j = i; j < fileNames.size(); j++) {
+                MetricCursor cursor = openCursor(fileNames.get(j), j == i ? offset : 0, identity);
+                if (cursor == null) {
+                    continue;
+                }
+                try {
+                    while (cursor.next()) {
+                        long second = cursor.timestamp() / 1000;
+                        if (second < beginSecond || second > endSecond) {
+                            return lines;
+                        }
+                        if (cursor.matches()) {
+                            cursor.appendThinString(sb);
+                            sb.append('\n');
+                            if (++lines >= MAX_LINES_RETURN) {
+                                return lines;
+                            }
+                        }
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+            return lines;
+        }
+        return -1;
+    }
+
+    /**
+     * @return offset of the first metric at or after given second in the metric file, or -1 if absent
+     */
+    private long findOffset(String metricFileName, long beginSecond) throws Exception {
+        MetricFileWindow window;
+        try {
+            window = MetricIndex.open(MetricWriter.formIndexFileName(metricFileName));
+        } catch (FileNotFoundException ex) {
+            // The index file does not exist, or has just been removed by the writer.
+            return -1;
+        }
+        try {
+            ByteBuffer index = window.data();
+            int pos = MetricIndex.search(index, 0, beginSecond);
+            return pos < 0 ? -1 : MetricIndex.offsetAt(index, pos);
+        } finally {
+            window.close();
+        }
+    }
+
+    /**
+     * @return cursor of the metric file from given offset, or null if the file has just been removed
+     */
+    private MetricCursor openCursor(String fileName, long offset, String identity) throws Exception {
+        try {
+            if (BinaryMetricFormat.isBinaryFile(fileName)) {
+                BinaryMetricDecoder decoder = new BinaryMetricDecoder(fileName, charset);
+                try {
+                    decoder.seek(offset);
+                } catch (IOException ex) {
+                    decoder.close();
+                    throw ex;
+                }
+                return new BinaryCursor(decoder, identity);
+            }
+            return new TextCursor(MetricFileWindow.open(fileName, offset), charset, identity);
+        } catch (FileNotFoundException ex) {
+            return null;
+        }
+    }
+
+    private abstract static class MetricCursor implements Closeable {
+
+        /**
+         * @return true if moved to the next metric, false if reaching the end of file
+         * @throws IOException if any error occurs when reading the file
+         */
+        abstract boolean next() throws IOException;
+
+        abstract long timestamp();
+
+        /**
+         * @return true if the resource of current metric matches the identity to search
+         */
+        abstract boolean matches();
+
+        abstract void appendThinString(StringBuilder sb);
+    }
+
+    /**
+     * Cursor over lines of text metric file (see {@link MetricNode#toFatString()}). Only the timestamp
+     * and the resource name are recognized, and the remaining bytes are copied as is.
+     * An incomplete line at the tail (which is being written) or a malformed line is skipped.
+     */
+    private static final class TextCursor extends MetricCursor {
+
+        private final MetricFileWindow window;
+        private ByteBuffer data;
+        private final Charset charset;
+        private final byte[] identity;
+
+        private int position;
+        private long timestamp;
+        private int lineStart;
+        private int lineEnd;
+        private int timestampEnd;
+        private int resourceStart;
+        private int resourceEnd;
+
+        TextCursor(MetricFileWindow window, Charset charset, String identity) {
+            this.window = window;
+            this.data = window.data();
+            this.charset = charset;
+            this.identity = identity == null ? null : identity.getBytes(charset);
+        }
+
+        @Override
+        boolean next() throws IOException {
+            while (true) {
+                int end = indexOf((byte)'\n', position, data.limit());
+                if (end < 0) {
+                    // Read more bytes after the consumed lines.
+                    data.position(position);
+                    boolean more = window.fill();
+                    data = window.data();
+                    position = data.position();
+                    if (!more) {
+                        return false;
+                    }
+                    continue;
+                }
+                lineStart = position;
+                lineEnd = end;
+                position = end + 1;
+                if (parseLine()) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Line format: {@code timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|...}
+         */
+        private boolean parseLine() {
+            timestampEnd = indexOf((byte)'|', lineStart, lineEnd);
+            if (timestampEnd <= lineStart) {
+                return false;
+            }
+            long value = 0;
+            for (int i = lineStart; i < timestampEnd; i++) {
+                byte b = data.get(i);
+                if (b < '0' || b > '9') {
+                    return false;
+                }
+                value = value * 10 + (b - '0');
+            }
+            int dateEnd = indexOf((byte)'|', timestampEnd + 1, lineEnd);
+            if (dateEnd < 0) {
+                return false;
+            }
+            resourceStart = dateEnd + 1;
+            resourceEnd = indexOf((byte)'|', resourceStart, lineEnd);
+            if (resourceEnd < 0) {
+                return false;
+            }
+            timestamp = value;
+            return true;
+        }
+
+        private int indexOf(byte b, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (data.get(i) == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        long timestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window.close();
+        }
+
+        @Override
+        boolean matches() {
+            if (identity == null) {
+                return true;
+            }
+            if (resourceEnd - resourceStart != identity.length) {
+                return false;
+            }
+            for (int i = 0; i < identity.length; i++) {
+                if (data.get(resourceStart + i) != identity[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void appendThinString(StringBuilder sb) {
+            // Thin string is the fat string without the formatted date.
+            appendBytes(sb, lineStart, timestampEnd);
+            appendBytes(sb, resourceStart - 1, lineEnd);
+        }
+
+        private void appendBytes(StringBuilder sb, int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte b = data.get(i);
+                if (b < 0) {
+                    // Non-ASCII bytes, decode the remaining bytes.
+                    byte[] bytes = new byte[to - i];
+                    for (int j = 0; j < bytes.length; j++) {
+                        bytes[j] = data.get(i + j);
+                    }
+                    sb.append(new String(bytes, charset));
+                    return;
+                }
+                sb.append((char)b);
+            }
+        }
+    }
+
+    private static final class BinaryCursor extends MetricCursor {
+
+        private final BinaryMetricDecoder decoder;
+        private final String identity;
+
+        BinaryCursor(BinaryMetricDecoder decoder, String identity) {
+            this.decoder = decoder;
+            this.identity = identity;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            while (decoder.nextEntry()) {
+                // Skip entries of unknown resources, which should not happen unless the file is corrupted.
+                if (decoder.resource() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        long timestamp() {
+            return decoder.timestamp();
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoder.close();
+        }
+
+        @Override
+        boolean matches() {
+            if (identity == null) {
+                return true;
+            }
+            String resource = decoder.resource();
+            // Resource names in the text format (and thin strings) have "|" replaced with "_".
+            return identity.equals(resource)
+                || (resource.indexOf('|') >= 0 && identity.equals(resource.replace('|', '_')));
+        }
+
+        @Override
+        void appendThinString(StringBuilder sb) {
+            sb.append(decoder.timestamp()).append('|');
+            String resource = decoder.resource();
+            for (int i = 0; i < resource.length(); i++) {
+                char c = resource.charAt(i);
+                sb.append(c == '|' ? '_' : c);
+            }
+            for (int column = BinaryMetricFormat.COLUMN_PASS; column < BinaryMetricFormat.COLUMN_COUNT; column++) {
+                sb.append('|').append(decoder.counter(column));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * <p>A read-only window over a metric (or index) file from given position to the current end of file.</p>
+ * <p>
+ * On Linux the range is memory-mapped, and the mapping is left for GC. On other systems a mapped file
+ * can't be deleted until the mapping is garbage collected (which breaks {@code MetricWriter#removeMoreFiles}),
+ * so the bytes are read via {@link FileChannel#read(ByteBuffer, long)} into a reused heap buffer chunk by chunk
+ * (see {@link #fill()}), and the file is closed in {@link #close()}.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class MetricFileWindow implements Closeable {
+
+    static final boolean MAP_SUPPORTED = System.getProperty("os.name", "").toLowerCase().startsWith("linux");
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Larger buffers (e.g. grown for reading a large index file) are not kept for reuse.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Reused heap buffer of current thread, which is taken by the open window (so nested windows
+     * never share a buffer) and returned when the window is closed.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER = new ThreadLocal<ByteBuffer>();
+
+    private final RandomAccessFile file;
+    private ByteBuffer data;
+    /**
+     * Position in file of the limit of {@link #data}.
+     */
+    private long filePosition;
+
+    private MetricFileWindow(RandomAccessFile file, ByteBuffer data, long filePosition) {
+        this.file = file;
+        this.data = data;
+        this.filePosition = filePosition;
+    }
+
+    static MetricFileWindow open(String fileName, long position) throws IOException {
+        return open(fileName, position, MAP_SUPPORTED);
+    }
+
+    /**
+     * @param fileName name of the file
+     * @param position position in file to start from
+     * @param mapped   whether to map the file, or read the file into heap buffer
+     * @return the window, whose {@link #data()} may be empty until {@link #fill()} if not mapped
+     */
+    static MetricFileWindow open(String fileName, long position, boolean mapped) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        if (mapped) {
+            try {
+                FileChannel channel = file.getChannel();
+                long size = Math.max(0, channel.size() - position);
+                // The mapping remains valid after the channel is closed.
+                return new MetricFileWindow(null, channel.map(MapMode.READ_ONLY, position, size), position + size);
+            } finally {
+                file.close();
+            }
+        }
+        ByteBuffer buffer = BUFFER.get();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        } else {
+            BUFFER.remove();
+        }
+        buffer.clear();
+        buffer.limit(0);
+        return new MetricFileWindow(file, buffer, position);
+    }
+
+    /**
+     * The bytes in the window. The content and the absolute positions are only valid until next {@link #fill()}.
+     */
+    ByteBuffer data() {
+        return data;
+    }
+
+    /**
+     * @return position in file of the beginning of {@link #data()}
+     */
+    long fileOffset() {
+        return filePosition - data.limit();
+    }
+
+    /**
+     * Discard the bytes before the position of {@link #data()}, move the remaining bytes to the beginning
+     * and read more bytes of the file after them (the buffer grows if it's full of remaining bytes).
+     *
+     * @return true if more bytes are read, false if reaching the end of file (the remaining bytes have been
+     * moved as well) or the window is mapped
+     * @throws IOException if any error occurs when reading the file
+     */
+    boolean fill() throws IOException {
+        if (file == null) {
+            return false;
+        }
+        if (data.position() == 0 && data.limit() == data.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(data.capacity() * 2);
+            larger.put(data);
+            data = larger;
+        } else {
+            data.compact();
+        }
+        int count = file.getChannel().read(data, filePosition);
+        data.flip();
+        if (count <= 0) {
+            return false;
+        }
+        filePosition += count;
+        return true;
+    }
+
+    /**
+     * Read the bytes to the current end of file into the window.
+     */
+    void fillToEnd() throws IOException {
+        // The position stays at the beginning, so no byte is discarded.
+        while (fill()) {
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file == null) {
+            return;
+        }
+        if (data.capacity() <= MAX_REUSED_BUFFER_SIZE) {
+            BUFFER.set(data);
+        }
+        file.close();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities of the metric index file, which consists of fixed-width {@code second(long) | offset(long)}
+ * entries in ascending order of seconds (see {@link MetricWriter}). The index file may be followed by
+ * a pre-allocated zero-filled tail, which is regarded as the end of index.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class MetricIndex {
+
+    static final int ENTRY_SIZE = 16;
+
+    /**
+     * Open the whole index file and read it into the window.
+     *
+     * @param idxFileName name of the index file
+     * @return the window, which should be closed after use
+     * @throws IOException if any error occurs when reading the index file
+     */
+    static MetricFileWindow open(String idxFileName) throws IOException {
+        MetricFileWindow index = MetricFileWindow.open(idxFileName, 0);
+        try {
+            index.fillToEnd();
+        } catch (IOException ex) {
+            index.close();
+            throw ex;
+        }
+        return index;
+    }
+
+    /**
+     * Binary search the first entry whose second is not less than {@code second}.
+     *
+     * @param index   the index
+     * @param fromPos position of the entry to search from
+     * @param second  the second to search
+     * @return position of the entry found, or -1 if all seconds in the index are less than given second
+     */
+    static int search(ByteBuffer index, int fromPos, long second) {
+        int low = fromPos / ENTRY_SIZE;
+        int high = index.limit() / ENTRY_SIZE;
+        int end = high;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long midSecond = secondAt(index, mid * ENTRY_SIZE);
+            // Zero entries (of the pre-allocated tail) are regarded as infinity.
+            if (midSecond > 0 && midSecond < second) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < end && secondAt(index, low * ENTRY_SIZE) > 0) {
+            return low * ENTRY_SIZE;
+        }
+        return -1;
+    }
+
+    static long secondAt(ByteBuffer index, int pos) {
+        return index.getLong(pos);
+    }
+
+    static long offsetAt(ByteBuffer index, int pos) {
+        return index.getLong(pos + 8);
+    }
+
+    private MetricIndex() {}
+}
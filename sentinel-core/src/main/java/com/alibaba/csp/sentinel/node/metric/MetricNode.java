@@ -34,6 +34,14 @@ public class MetricNode {
     private long exceptionQps;
     private long rt;
 
+    /**
+     * Response time at percentile 50, 90, 99 and 99.9.
+     */
+    private long rt50;
+    private long rt90;
+    private long rt99;
+    private long rt999;
+
     private String resource;
 
     public long getTimestamp() {
@@ -84,6 +92,38 @@ public class MetricNode {
         this.rt = rt;
     }
 
+    public long getRt50() {
+        return rt50;
+    }
+
+    public void setRt50(long rt50) {
+        this.rt50 = rt50;
+    }
+
+    public long getRt90() {
+        return rt90;
+    }
+
+    public void setRt90(long rt90) {
+        this.rt90 = rt90;
+    }
+
+    public long getRt99() {
+        return rt99;
+    }
+
+    public void setRt99(long rt99) {
+        this.rt99 = rt99;
+    }
+
+    public long getRt999() {
+        return rt999;
+    }
+
+    public void setRt999(long rt999) {
+        this.rt999 = rt999;
+    }
+
     public String getResource() {
         return resource;
     }
@@ -101,6 +141,10 @@ public class MetricNode {
             ", successQps=" + successQps +
             ", exceptionQps=" + exceptionQps +
             ", rt=" + rt +
+            ", rt50=" + rt50 +
+            ", rt90=" + rt90 +
+            ", rt99=" + rt99 +
+            ", rt999=" + rt999 +
             ", resource='" + resource + '\'' +
             '}';
     }
@@ -109,8 +153,9 @@ public class MetricNode {
      * To formatting string. All "|" in {@link #resource} will be replaced with "_", format is:
      * <br/>
      * <code>
-     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt
+     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt|rt50|rt90|rt99|rt999
      * </code>
+     * <p>The RT percentiles are appended at the tail, so parsers of the legacy format still work.</p>
      *
      * @return string format of this.
      */
@@ -124,6 +169,7 @@ public class MetricNode {
         sb.append(successQps).append("|");
         sb.append(exceptionQps).append("|");
         sb.append(rt);
+        appendPercentiles(sb);
         return sb.toString();
     }
 
@@ -143,6 +189,7 @@ public class MetricNode {
         node.setSuccessQps(Long.parseLong(strs[4]));
         node.setExceptionQps(Long.parseLong(strs[5]));
         node.setRt(Long.parseLong(strs[6]));
+        parsePercentiles(node, strs, 7);
         return node;
     }
 
@@ -150,7 +197,7 @@ public class MetricNode {
      * To formatting string. All "|" in {@link MetricNode#resource} will be replaced with "_", format is:
      * <br/>
      * <code>
-     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt\n
+     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|rt50|rt90|rt99|rt999\n
      * </code>
      *
      * @return string format of this.
@@ -168,6 +215,7 @@ public class MetricNode {
         sb.append(getSuccessQps()).append("|");
         sb.append(getExceptionQps()).append("|");
         sb.append(getRt());
+        appendPercentiles(sb);
         sb.append('\n');
         return sb.toString();
     }
@@ -189,7 +237,26 @@ public class MetricNode {
         node.setSuccessQps(Long.parseLong(strs[5]));
         node.setExceptionQps(Long.parseLong(strs[6]));
         node.setRt(Long.parseLong(strs[7]));
+        parsePercentiles(node, strs, 8);
         return node;
     }
 
+    private void appendPercentiles(StringBuilder sb) {
+        sb.append("|").append(rt50);
+        sb.append("|").append(rt90);
+        sb.append("|").append(rt99);
+        sb.append("|").append(rt999);
+    }
+
+    private static void parsePercentiles(MetricNode node, String[] strs, int offset) {
+        // Lines of the legacy format do not carry RT percentiles.
+        if (strs.length < offset + 4) {
+            return;
+        }
+        node.setRt50(Long.parseLong(strs[offset].trim()));
+        node.setRt90(Long.parseLong(strs[offset + 1].trim()));
+        node.setRt99(Long.parseLong(strs[offset + 2].trim()));
+        node.setRt999(Long.parseLong(strs[offset + 3].trim()));
+    }
+
 }
@@ -16,9 +16,9 @@
 package com.alibaba.csp.sentinel.node.metric;
 
 import java.io.DataInputStream;
-import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -27,7 +27,7 @@ import com.alibaba.csp.sentinel.config.SentinelConfig;
 /**
  * 从指定目录下找出所有的metric文件，并按照指定时间戳进行检索，参考{@link MetricSearcher#find(long, int)}。
  * 会借助索引以提高检索效率，参考{@link MetricWriter}；还会在内部缓存上一次检索的文件指针，以便下一次顺序检索时
- * 减少读盘次数。
+ * 减少读盘次数。索引文件通过内存映射读取，文本及二进制格式（参考{@link BinaryMetricFormat}）的metric文件均可检索。
  *
  * @author leyou
  */
@@ -198,26 +198,20 @@ public class MetricSearcher {
             return -1;
         }
         long beginSecond = beginTime / 1000;
-        FileInputStream in = new FileInputStream(idxFileName);
-        in.getChannel().position(offsetInIndex);
-        DataInputStream indexIn = new DataInputStream(in);
-        long offset;
+        MetricFileWindow window = MetricIndex.open(idxFileName);
         try {
-            long second;
-            lastPosition.offsetInIndex = in.getChannel().position();
-            while ((second = indexIn.readLong()) < beginSecond) {
-                offset = indexIn.readLong();
-                lastPosition.offsetInIndex = in.getChannel().position();
+            ByteBuffer index = window.data();
+            int pos = MetricIndex.search(index, (int)offsetInIndex, beginSecond);
+            if (pos < 0) {
+                return -1;
             }
-            offset = indexIn.readLong();
             lastPosition.metricFileName = metricFileName;
             lastPosition.indexFileName = idxFileName;
-            lastPosition.second = second;
-            return offset;
-        } catch (EOFException ignore) {
-            return -1;
+            lastPosition.offsetInIndex = pos;
+            lastPosition.second = MetricIndex.secondAt(index, pos);
+            return MetricIndex.offsetAt(index, pos);
         } finally {
-            indexIn.close();
+            window.close();
         }
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Reusable snapshot of metric nodes of the recent seconds, grouped by second.</p>
+ * <p>
+ * Metric nodes are pooled and reused across snapshots: a node is borrowed via {@link #candidate()},
+ * and only kept in the snapshot after {@link #commit()}, otherwise it will be handed out again.
+ * The nodes of a snapshot are valid until next {@link #reset(long)}. The snapshot is not thread-safe,
+ * and is only used by the single-threaded {@link MetricTimerListener}.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class MetricSnapshot {
+
+    /**
+     * Metrics of the recent 60 seconds are kept in the minute-level sliding window of nodes.
+     */
+    static final int MAX_SECONDS = 60;
+
+    private final List<MetricNode> pool = new ArrayList<MetricNode>();
+    private int used;
+
+    @SuppressWarnings("unchecked")
+    private final List<MetricNode>[] groups = new List[MAX_SECONDS];
+    private final long[] groupTimes = new long[MAX_SECONDS];
+
+    private long currentTime = -1;
+
+    public MetricSnapshot() {
+        for (int i = 0; i < MAX_SECONDS; i++) {
+            groups[i] = new ArrayList<MetricNode>();
+            groupTimes[i] = -1;
+        }
+    }
+
+    /**
+     * Clear the snapshot and start a new one at given time. Nodes of previous snapshot will be reused.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    public void reset(long currentTime) {
+        this.currentTime = currentTime - currentTime % 1000;
+        this.used = 0;
+        for (int i = 0; i < MAX_SECONDS; i++) {
+            groups[i].clear();
+            groupTimes[i] = -1;
+        }
+    }
+
+    /**
+     * @return start time of current second (exclusive upper bound of the seconds in the snapshot)
+     */
+    public long currentTime() {
+        return currentTime;
+    }
+
+    /**
+     * @return start time of the oldest second that could be held in the snapshot
+     */
+    public long firstTime() {
+        return currentTime - (MAX_SECONDS - 1) * 1000L;
+    }
+
+    /**
+     * Borrow a reusable metric node, which will be handed out again unless {@link #commit()} is called.
+     *
+     * @return a reusable metric node
+     */
+    public MetricNode candidate() {
+        if (used == pool.size()) {
+            pool.add(new MetricNode());
+        }
+        return pool.get(used);
+    }
+
+    /**
+     * Keep the borrowed node (see {@link #candidate()}) in the snapshot, grouped by its timestamp,
+     * which must be in [{@link #firstTime()}, {@link #currentTime()}).
+     */
+    public void commit() {
+        MetricNode node = pool.get(used);
+        long time = node.getTimestamp();
+        if (time < firstTime() || time >= currentTime) {
+            return;
+        }
+        int idx = indexOf(time);
+        groups[idx].add(node);
+        groupTimes[idx] = time;
+        used++;
+    }
+
+    /**
+     * Get metric nodes of the provided second.
+     *
+     * @param time start time of the second
+     * @return metric nodes of the second, or empty list if absent
+     */
+    public List<MetricNode> nodesOf(long time) {
+        int idx = indexOf(time);
+        if (groupTimes[idx] != time) {
+            return Collections.emptyList();
+        }
+        return groups[idx];
+    }
+
+    /**
+     * @return count of metric nodes in the snapshot
+     */
+    public int size() {
+        return used;
+    }
+
+    private static int indexOf(long time) {
+        return (int)((time / 1000) % MAX_SECONDS);
+    }
+}
@@ -15,19 +15,21 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
+ * Writes metrics of the recently completed seconds to the metric log every second. Only the seconds that have
+ * not been written and are not empty are fetched from every {@link ClusterNode} (see
+ * {@link ClusterNode#fetchMetrics(String, MetricSnapshot)}), and the metric nodes are reused across runs.
+ *
  * @author jialiang.linjl
  */
 public class MetricTimerListener implements Runnable {
@@ -35,33 +37,26 @@ public class MetricTimerListener implements Runnable {
     private static final MetricWriter metricWriter = new MetricWriter(SentinelConfig.singleMetricFileSize(),
         SentinelConfig.totalMetricFileCount());
 
+    private final MetricSnapshot snapshot = new MetricSnapshot();
+
     @Override
     public void run() {
-        Map<Long, List<MetricNode>> maps = new TreeMap<Long, List<MetricNode>>();
-
+        snapshot.reset(TimeUtil.currentTimeMillis());
         for (Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
-            String name = e.getKey().getName();
-            ClusterNode node = e.getValue();
-            Map<Long, MetricNode> metrics = node.metrics();
-
-            for (Entry<Long, MetricNode> entry : metrics.entrySet()) {
-                long time = entry.getKey();
-                MetricNode metricNode = entry.getValue();
-                metricNode.setResource(name);
-                if (maps.get(time) == null) {
-                    maps.put(time, new ArrayList<MetricNode>());
-                }
-                List<MetricNode> nodes = maps.get(time);
-                nodes.add(entry.getValue());
-            }
+            e.getValue().fetchMetrics(e.getKey().getName(), snapshot);
+        }
+        if (snapshot.size() == 0) {
+            return;
         }
-        if (!maps.isEmpty()) {
-            for (Entry<Long, List<MetricNode>> entry : maps.entrySet()) {
-                try {
-                    metricWriter.write(entry.getKey(), entry.getValue());
-                } catch (Exception e) {
-                    RecordLog.warn("[MetricTimerListener] Write metric error", e);
-                }
+        for (long time = snapshot.firstTime(); time < snapshot.currentTime(); time += 1000) {
+            List<MetricNode> nodes = snapshot.nodesOf(time);
+            if (nodes.isEmpty()) {
+                continue;
+            }
+            try {
+                metricWriter.write(time, nodes);
+            } catch (Exception e) {
+                RecordLog.warn("[MetricTimerListener] Write metric error", e);
             }
         }
     }
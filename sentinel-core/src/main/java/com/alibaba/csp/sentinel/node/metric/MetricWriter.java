@@ -19,6 +19,12 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -41,6 +47,13 @@ import com.alibaba.csp.sentinel.log.RecordLog;
  * <li>metric of different day should in different file;</li>
  * <li>every metric file is accompanied with an index file, which file name is {@code ${metricFileName}.idx}</li>
  * </ol>
+ * <p>
+ * Metric files are written in pipe-delimited text (see {@link MetricNode#toFatString()}) by default. With the
+ * {@link #METRIC_FORMAT_BINARY} format (see {@link SentinelConfig#METRIC_FILE_FORMAT}), metrics are written in
+ * a compact binary format instead (see {@link BinaryMetricFormat}), and the index file is written through
+ * memory-mapped regions which are pre-allocated in chunks (zero-filled until written).
+ * The index of both formats consists of fixed-width {@code second(long) | offset(long)} entries.
+ * </p>
  *
  * @author leyou
  */
@@ -56,8 +69,17 @@ public class MetricWriter {
      */
     public static final String METRIC_FILE = "metrics.log";
     public static final String METRIC_FILE_INDEX_SUFFIX = ".idx";
+    public static final String METRIC_FORMAT_TEXT = "text";
+    public static final String METRIC_FORMAT_BINARY = "binary";
     public static final Comparator<String> METRIC_FILE_NAME_CMP = new MetricFileNameComparator();
 
+    /**
+     * Size of every memory-mapped region of the binary index file (4096 entries, more than an hour).
+     * The index file is only mapped on Linux, as a mapped file can't be deleted on other systems
+     * until the mapping is garbage collected (see {@link #removeMoreFiles()}).
+     */
+    private static final int INDEX_MAP_SIZE = MetricIndex.ENTRY_SIZE * 4096;
+
     private final DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     /**
      * 排除时差干扰
@@ -76,6 +98,13 @@ public class MetricWriter {
     private BufferedOutputStream outMetricBuf;
     private long singleFileSize;
     private int totalFileCount;
+    /**
+     * Present only when writing in binary format.
+     */
+    private final BinaryMetricEncoder binaryEncoder;
+    private FileChannel indexChannel;
+    private MappedByteBuffer indexMap;
+    private long indexMapBase;
     private boolean append = false;
     private final int pid = PidUtil.getPid();
 
@@ -89,12 +118,30 @@ public class MetricWriter {
     }
 
     public MetricWriter(long singleFileSize, int totalFileCount) {
+        this(singleFileSize, totalFileCount, SentinelConfig.metricFileFormat());
+    }
+
+    /**
+     * @param singleFileSize max size of a single metric file
+     * @param totalFileCount max count of metric files
+     * @param format         format of metric files, {@link #METRIC_FORMAT_TEXT} or {@link #METRIC_FORMAT_BINARY}
+     * @since 1.4.2
+     */
+    public MetricWriter(long singleFileSize, int totalFileCount, String format) {
         if (singleFileSize <= 0 || totalFileCount <= 0) {
             throw new IllegalArgumentException();
         }
         RecordLog.info(
             "[MetricWriter] Creating new MetricWriter, singleFileSize=" + singleFileSize + ", totalFileCount="
-                + totalFileCount);
+                + totalFileCount + ", format=" + format);
+        if (METRIC_FORMAT_BINARY.equalsIgnoreCase(format)) {
+            this.binaryEncoder = new BinaryMetricEncoder(Charset.forName(CHARSET));
+        } else {
+            if (format != null && !METRIC_FORMAT_TEXT.equalsIgnoreCase(format)) {
+                RecordLog.warn("[MetricWriter] Unknown metric file format <" + format + ">, use text format");
+            }
+            this.binaryEncoder = null;
+        }
         this.baseDir = METRIC_BASE_DIR;
         File dir = new File(baseDir);
         if (!dir.exists()) {
@@ -133,41 +180,32 @@ public class MetricWriter {
         // first write, should create file
         if (curMetricFile == null) {
             baseFileName = formMetricFileName(appName, pid);
-            closeAndNewFile(nextFileNameOfDay(time));
+            closeAndNewFile(nextFileNameOfDay(time), time);
         }
         if (!(curMetricFile.exists() && curMetricIndexFile.exists())) {
-            closeAndNewFile(nextFileNameOfDay(time));
+            closeAndNewFile(nextFileNameOfDay(time), time);
         }
 
         long second = time / 1000;
         if (second < lastSecond) {
             // 时间靠前的直接忽略，不应该发生。
         } else if (second == lastSecond) {
-            for (MetricNode node : nodes) {
-                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-            }
-            outMetricBuf.flush();
+            writeNodes(time, nodes);
             if (!validSize()) {
-                closeAndNewFile(nextFileNameOfDay(time));
+                closeAndNewFile(nextFileNameOfDay(time), time);
             }
         } else {
             writeIndex(second, outMetric.getChannel().position());
             if (isNewDay(lastSecond, second)) {
-                closeAndNewFile(nextFileNameOfDay(time));
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                closeAndNewFile(nextFileNameOfDay(time), time);
+                writeNodes(time, nodes);
                 if (!validSize()) {
-                    closeAndNewFile(nextFileNameOfDay(time));
+                    closeAndNewFile(nextFileNameOfDay(time), time);
                 }
             } else {
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(time, nodes);
                 if (!validSize()) {
-                    closeAndNewFile(nextFileNameOfDay(time));
+                    closeAndNewFile(nextFileNameOfDay(time), time);
                 }
             }
             lastSecond = second;
@@ -178,17 +216,52 @@ public class MetricWriter {
         if (outMetricBuf != null) {
             outMetricBuf.close();
         }
-        if (outIndex != null) {
-            outIndex.close();
+        closeIndex();
+    }
+
+    private void writeNodes(long time, List<MetricNode> nodes) throws Exception {
+        if (binaryEncoder != null) {
+            binaryEncoder.encode(time, nodes);
+            return;
         }
+        for (MetricNode node : nodes) {
+            outMetricBuf.write(node.toFatString().getBytes(CHARSET));
+        }
+        outMetricBuf.flush();
     }
 
     private void writeIndex(long time, long offset) throws Exception {
+        if (indexChannel != null) {
+            if (indexMap.remaining() < MetricIndex.ENTRY_SIZE) {
+                mapIndex(indexMapBase + indexMap.position());
+            }
+            indexMap.putLong(time).putLong(offset);
+            return;
+        }
         outIndex.writeLong(time);
         outIndex.writeLong(offset);
         outIndex.flush();
     }
 
+    private void mapIndex(long position) throws IOException {
+        indexMap = indexChannel.map(MapMode.READ_WRITE, position, INDEX_MAP_SIZE);
+        indexMapBase = position;
+    }
+
+    private void closeIndex() throws IOException {
+        if (outIndex != null) {
+            outIndex.close();
+            outIndex = null;
+        }
+        if (indexChannel != null) {
+            // The zero-filled tail of the last region is kept (readers may have mapped it)
+            // and ignored by readers.
+            indexChannel.close();
+            indexChannel = null;
+            indexMap = null;
+        }
+    }
+
     private String nextFileNameOfDay(long time) {
         List<String> list = new ArrayList<String>();
         File baseFile = new File(baseDir);
@@ -334,20 +407,27 @@ public class MetricWriter {
         }
     }
 
-    private void closeAndNewFile(String fileName) throws Exception {
+    private void closeAndNewFile(String fileName, long time) throws Exception {
         removeMoreFiles();
         if (outMetricBuf != null) {
             outMetricBuf.close();
         }
-        if (outIndex != null) {
-            outIndex.close();
-        }
+        closeIndex();
         outMetric = new FileOutputStream(fileName, append);
         outMetricBuf = new BufferedOutputStream(outMetric);
         curMetricFile = new File(fileName);
         String idxFile = formIndexFileName(fileName);
         curMetricIndexFile = new File(idxFile);
-        outIndex = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile, append)));
+        if (binaryEncoder != null) {
+            binaryEncoder.reset(outMetric.getChannel(), time);
+        }
+        if (binaryEncoder != null && MetricFileWindow.MAP_SUPPORTED) {
+            indexChannel = new RandomAccessFile(idxFile, "rw").getChannel();
+            indexChannel.truncate(0);
+            mapIndex(0);
+        } else {
+            outIndex = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile, append)));
+        }
         RecordLog.info("[MetricWriter] New metric file created: " + fileName);
         RecordLog.info("[MetricWriter] New metric index file created: " + idxFile);
     }
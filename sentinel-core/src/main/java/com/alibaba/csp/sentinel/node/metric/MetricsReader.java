@@ -43,16 +43,12 @@ class MetricsReader {
      */
     boolean readMetricsInOneFileByEndTime(List<MetricNode> list, String fileName, long offset,
                                           long beginTimeMs, long endTimeMs, String identity) throws Exception {
-        FileInputStream in = null;
         long beginSecond = beginTimeMs / 1000;
         long endSecond = endTimeMs / 1000;
+        NodeReader reader = openReader(fileName, offset);
         try {
-            in = new FileInputStream(fileName);
-            in.getChannel().position(offset);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                MetricNode node = MetricNode.fromFatString(line);
+            MetricNode node;
+            while ((node = reader.readNode()) != null) {
                 long currentSecond = node.getTimestamp() / 1000;
                 // currentSecond should >= beginSecond, otherwise a wrong metric file must occur
                 if (currentSecond < beginSecond) {
@@ -73,9 +69,7 @@ class MetricsReader {
                 }
             }
         } finally {
-            if (in != null) {
-                in.close();
-            }
+            reader.close();
         }
         return true;
     }
@@ -89,14 +83,10 @@ class MetricsReader {
         if (list.size() > 0) {
             lastSecond = list.get(list.size() - 1).getTimestamp() / 1000;
         }
-        FileInputStream in = null;
+        NodeReader reader = openReader(fileName, offset);
         try {
-            in = new FileInputStream(fileName);
-            in.getChannel().position(offset);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                MetricNode node = MetricNode.fromFatString(line);
+            MetricNode node;
+            while ((node = reader.readNode()) != null) {
                 long currentSecond = node.getTimestamp() / 1000;
 
                 if (list.size() < recommendLines) {
@@ -109,10 +99,64 @@ class MetricsReader {
                 lastSecond = currentSecond;
             }
         } finally {
-            if (in != null) {
-                in.close();
+            reader.close();
+        }
+    }
+
+    /**
+     * Open a reader of metric nodes in the file from given offset. Both text and binary
+     * (see {@link BinaryMetricFormat}) metric files are supported.
+     */
+    private NodeReader openReader(String fileName, long offset) throws Exception {
+        if (BinaryMetricFormat.isBinaryFile(fileName)) {
+            final BinaryMetricDecoder decoder = new BinaryMetricDecoder(fileName, charset);
+            try {
+                decoder.seek(offset);
+            } catch (Exception ex) {
+                decoder.close();
+                throw ex;
             }
+            return new NodeReader() {
+                @Override
+                public MetricNode readNode() throws Exception {
+                    return decoder.next();
+                }
+
+                @Override
+                public void close() throws Exception {
+                    decoder.close();
+                }
+            };
+        }
+        final FileInputStream in = new FileInputStream(fileName);
+        try {
+            in.getChannel().position(offset);
+        } catch (Exception ex) {
+            in.close();
+            throw ex;
         }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset));
+        return new NodeReader() {
+            @Override
+            public MetricNode readNode() throws Exception {
+                String line = reader.readLine();
+                return line == null ? null : MetricNode.fromFatString(line);
+            }
+
+            @Override
+            public void close() throws Exception {
+                in.close();
+            }
+        };
+    }
+
+    private interface NodeReader {
+        /**
+         * @return next metric node, or null if reaching the end of file
+         */
+        MetricNode readNode() throws Exception;
+
+        void close() throws Exception;
     }
 
     /**
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * Binding between a rule checking slot and the precompiled rules of its resource.
+ * </p>
+ * <p>
+ * Rule managers compile rules into an immutable table (resource name to compiled rules) when
+ * rules are updated, and the table is replaced as a whole on every update. As each slot chain
+ * has its own slot instances, a slot can keep the compiled rules of its resource and only look up
+ * the table again when the table has been replaced, so there is no map lookup in the common case.
+ * </p>
+ *
+ * @param <T> type of the compiled rules
+ * @author agent
+ * @since 1.4.2
+ */
+public final class CompiledRuleBinding<T> {
+
+    private final Map<String, T> table;
+    private final String resourceName;
+    private final T rules;
+
+    private CompiledRuleBinding(Map<String, T> table, String resourceName) {
+        this.table = table;
+        this.resourceName = resourceName;
+        this.rules = table.get(resourceName);
+    }
+
+    /**
+     * Get the binding of given resource to the compiled rule table.
+     *
+     * @param current      current binding of the slot, may be null
+     * @param table        current compiled rule table
+     * @param resourceName name of the resource
+     * @param <T>          type of the compiled rules
+     * @return the current binding if it's still valid, otherwise a new binding
+     */
+    public static <T> CompiledRuleBinding<T> bind(CompiledRuleBinding<T> current, /*@NonNull*/ Map<String, T> table,
+                                                  String resourceName) {
+        if (current != null && current.table == table && current.resourceName.equals(resourceName)) {
+            return current;
+        }
+        return new CompiledRuleBinding<T>(table, resourceName);
+    }
+
+    /**
+     * @return compiled rules of the resource, or null if the resource has no rules
+     */
+    public T getRules() {
+        return rules;
+    }
+}
@@ -35,6 +35,13 @@ public final class RuleConstant {
      * Degrade by biz exception count in the last 60 seconds.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_COUNT = 2;
+    /**
+     * Degrade by the response time at given percentile (e.g. p99) in the current
+     * {@link IntervalProperty#INTERVAL} second(s).
+     *
+     * @since 1.4.2
+     */
+    public static final int DEGRADE_GRADE_RT_PERCENTILE = 3;
 
     public static final int AUTHORITY_WHITE = 0;
     public static final int AUTHORITY_BLACK = 1;
@@ -47,6 +54,12 @@ public final class RuleConstant {
     public static final int CONTROL_BEHAVIOR_WARM_UP = 1;
     public static final int CONTROL_BEHAVIOR_RATE_LIMITER = 2;
     public static final int CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER = 3;
+    /**
+     * Adaptive concurrency limit (only for {@link #FLOW_GRADE_THREAD}), where {@code count} is the max limit.
+     *
+     * @since 1.4.2
+     */
+    public static final int CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY = 4;
 
     public static final String LIMIT_APP_DEFAULT = "default";
     public static final String LIMIT_APP_OTHER = "other";
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.block.authority;
 
+import java.util.Set;
+
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -64,5 +66,23 @@ final class AuthorityRuleChecker {
         return true;
     }
 
+    static boolean passCheck(/*@NonNull*/ CompiledAuthorityRule rule, Context context) {
+        String requester = context.getOrigin();
+        Set<String> apps = rule.getApps();
+
+        // Empty origin or empty limitApp will pass.
+        if (StringUtil.isEmpty(requester) || apps == null) {
+            return true;
+        }
+
+        boolean contain = apps.contains(requester);
+        int strategy = rule.getStrategy();
+        if (strategy == RuleConstant.AUTHORITY_BLACK && contain) {
+            return false;
+        }
+
+        return strategy != RuleConstant.AUTHORITY_WHITE || contain;
+    }
+
     private AuthorityRuleChecker() {}
 }
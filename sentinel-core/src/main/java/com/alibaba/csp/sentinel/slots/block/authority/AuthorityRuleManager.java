@@ -16,6 +16,8 @@
 package com.alibaba.csp.sentinel.slots.block.authority;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +40,11 @@ public final class AuthorityRuleManager {
 
     private static Map<String, List<AuthorityRule>> authorityRules
         = new ConcurrentHashMap<String, List<AuthorityRule>>();
+    /**
+     * Immutable table of precompiled rules (resource name to rule), which will be replaced as a whole
+     * once rules are updated.
+     */
+    private static volatile Map<String, CompiledAuthorityRule> compiledRules = Collections.emptyMap();
 
     final static RulePropertyListener listener = new RulePropertyListener();
 
@@ -92,13 +99,28 @@ public final class AuthorityRuleManager {
 
         @Override
         public void configUpdate(List<AuthorityRule> conf) {
-            Map<String, List<AuthorityRule>> rules = loadAuthorityConf(conf);
+            updateRules(loadAuthorityConf(conf));
+            RecordLog.info("[AuthorityRuleManager] Authority rules received: " + authorityRules);
+        }
 
+        private void updateRules(Map<String, List<AuthorityRule>> rules) {
             authorityRules.clear();
             if (rules != null) {
                 authorityRules.putAll(rules);
             }
-            RecordLog.info("[AuthorityRuleManager] Authority rules received: " + authorityRules);
+            compiledRules = compileRules(authorityRules);
+        }
+
+        private Map<String, CompiledAuthorityRule> compileRules(Map<String, List<AuthorityRule>> ruleMap) {
+            Map<String, CompiledAuthorityRule> table = new HashMap<String, CompiledAuthorityRule>(ruleMap.size() * 2);
+            for (Map.Entry<String, List<AuthorityRule>> entry : ruleMap.entrySet()) {
+                // One resource has at most one authority rule.
+                List<AuthorityRule> rules = entry.getValue();
+                if (!rules.isEmpty()) {
+                    table.put(entry.getKey(), new CompiledAuthorityRule(rules.get(0)));
+                }
+            }
+            return Collections.unmodifiableMap(table);
         }
 
         private Map<String, List<AuthorityRule>> loadAuthorityConf(List<AuthorityRule> list) {
@@ -136,12 +158,7 @@ public final class AuthorityRuleManager {
 
         @Override
         public void configLoad(List<AuthorityRule> value) {
-            Map<String, List<AuthorityRule>> rules = loadAuthorityConf(value);
-
-            authorityRules.clear();
-            if (rules != null) {
-                authorityRules.putAll(rules);
-            }
+            updateRules(loadAuthorityConf(value));
             RecordLog.info("[AuthorityRuleManager] Load authority rules: " + authorityRules);
         }
     }
@@ -150,6 +167,16 @@ public final class AuthorityRuleManager {
         return authorityRules;
     }
 
+    /**
+     * Get the precompiled rule table.
+     *
+     * @return current compiled rule table
+     * @since 1.4.2
+     */
+    static Map<String, CompiledAuthorityRule> getCompiledRuleTable() {
+        return compiledRules;
+    }
+
     static boolean isValidRule(AuthorityRule rule) {
         return rule != null && !StringUtil.isBlank(rule.getResource())
             && rule.getStrategy() >= 0 && StringUtil.isNotBlank(rule.getLimitApp());
@@ -15,14 +15,12 @@
  */
 package com.alibaba.csp.sentinel.slots.block.authority;
 
-import java.util.List;
-import java.util.Map;
-
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.CompiledRuleBinding;
 
 /**
  * A {@link ProcessorSlot} that dedicates to {@link AuthorityRule} checking.
@@ -32,6 +30,8 @@ import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
  */
 public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private volatile CompiledRuleBinding<CompiledAuthorityRule> ruleBinding;
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count, boolean prioritized, Object... args)
         throws Throwable {
@@ -45,21 +45,17 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
     }
 
     void checkBlackWhiteAuthority(ResourceWrapper resource, Context context) throws AuthorityException {
-        Map<String, List<AuthorityRule>> authorityRules = AuthorityRuleManager.getAuthorityRules();
-
-        if (authorityRules == null) {
-            return;
-        }
-
-        List<AuthorityRule> rules = authorityRules.get(resource.getName());
-        if (rules == null) {
-            return;
+        // Rules of the resource are bound to the slot, as each slot chain has its own slot instances.
+        CompiledRuleBinding<CompiledAuthorityRule> current = ruleBinding;
+        CompiledRuleBinding<CompiledAuthorityRule> binding = CompiledRuleBinding.bind(current,
+            AuthorityRuleManager.getCompiledRuleTable(), resource.getName());
+        if (binding != current) {
+            ruleBinding = binding;
         }
 
-        for (AuthorityRule rule : rules) {
-            if (!AuthorityRuleChecker.passCheck(rule, context)) {
-                throw new AuthorityException(context.getOrigin());
-            }
+        CompiledAuthorityRule rule = binding.getRules();
+        if (rule != null && !AuthorityRuleChecker.passCheck(rule, context)) {
+            throw new AuthorityException(context.getOrigin());
         }
     }
 }
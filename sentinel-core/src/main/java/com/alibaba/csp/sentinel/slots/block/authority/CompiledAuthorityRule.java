@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.authority;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * Precompiled {@link AuthorityRule}, whose comma-separated limit apps have been split into a set
+ * when rules are loaded.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class CompiledAuthorityRule {
+
+    private final AuthorityRule rule;
+    /**
+     * Apps in the black/white list, or null if the limit app is empty.
+     */
+    private final Set<String> apps;
+
+    CompiledAuthorityRule(/*@Valid*/ AuthorityRule rule) {
+        this.rule = rule;
+        String limitApp = rule.getLimitApp();
+        if (StringUtil.isEmpty(limitApp)) {
+            this.apps = null;
+        } else {
+            Set<String> set = new HashSet<String>();
+            Collections.addAll(set, limitApp.split(","));
+            this.apps = set;
+        }
+    }
+
+    AuthorityRule getRule() {
+        return rule;
+    }
+
+    int getStrategy() {
+        return rule.getStrategy();
+    }
+
+    /**
+     * @return apps in the black/white list, or null if the limit app is empty
+     */
+    Set<String> getApps() {
+        return apps;
+    }
+}
@@ -15,18 +15,17 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slots.block.AbstractRule;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * <p>
@@ -48,7 +47,19 @@ import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
  * success qps exceeds the threshold, access to the resource will be blocked in
  * the coming window.
  * </li>
+ * <li>
+ * Response time at percentile ({@code DEGRADE_GRADE_RT_PERCENTILE}): like the average RT mode,
+ * but the RT at given {@code percentile} (e.g. p99) is compared with the threshold. This mode requires
+ * RT histograms to be enabled ({@code csp.sentinel.statistic.rt.histogram=true}).
+ * </li>
  * </ul>
+ * <p>
+ * The rule works as a circuit breaker with three states ({@code CLOSED}, {@code OPEN} and {@code HALF_OPEN}),
+ * and all state transitions are done via CAS. When the time window of an {@code OPEN} breaker has elapsed,
+ * the breaker turns to {@code HALF_OPEN} and at most {@code halfOpenProbeCount} probe requests are allowed.
+ * The breaker will be closed if a probe request completes normally (see {@link #onRequestComplete(Context)}),
+ * otherwise it will be opened again for another time window.
+ * </p>
  *
  * @author jialiang.linjl
  */
@@ -56,8 +67,12 @@ public class DegradeRule extends AbstractRule {
 
     private static final int RT_MAX_EXCEED_N = 5;
 
-    private static ScheduledExecutorService pool = Executors.newScheduledThreadPool(
-        Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("sentinel-degrade-reset-task", true));
+    public static final int DEFAULT_HALF_OPEN_PROBE_COUNT = 1;
+    public static final double DEFAULT_PERCENTILE = 99;
+
+    static final int STATE_CLOSED = 0;
+    static final int STATE_OPEN = 1;
+    static final int STATE_HALF_OPEN = 2;
 
     public DegradeRule() {}
 
@@ -76,11 +91,49 @@ public class DegradeRule extends AbstractRule {
     private int timeWindow;
 
     /**
-     * Degrade strategy (0: average RT, 1: exception ratio).
+     * Degrade strategy (0: average RT, 1: exception ratio, 2: exception count, 3: RT at percentile).
      */
     private int grade = RuleConstant.DEGRADE_GRADE_RT;
 
-    private volatile boolean cut = false;
+    /**
+     * Percentile of response time in (0, 100], only for the {@code DEGRADE_GRADE_RT_PERCENTILE} grade.
+     *
+     * @since 1.4.2
+     */
+    private double percentile = DEFAULT_PERCENTILE;
+
+    /**
+     * Max number of probe requests allowed when the breaker is half-open.
+     *
+     * @since 1.4.2
+     */
+    private int halfOpenProbeCount = DEFAULT_HALF_OPEN_PROBE_COUNT;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_CLOSED);
+
+    /**
+     * Timestamp (in ms) after which the open breaker could turn to half-open.
+     */
+    private volatile long nextRetryTime;
+
+    /**
+     * Timestamp (in ms) when current half-open round begins.
+     */
+    private volatile long halfOpenSince;
+
+    /**
+     * Total exception count of the resource when the latest probe was admitted.
+     */
+    private volatile long probeExceptionBase;
+
+    private final AtomicInteger probes = new AtomicInteger(0);
+
+    /**
+     * Cluster node of the resource that is seen in latest check. It's replaced when the {@link DefaultNode}
+     * refers to another cluster node, as the node may be evicted (and re-created) when the resource
+     * has been idle for long.
+     */
+    private volatile ClusterNode clusterNode;
 
     public int getGrade() {
         return grade;
@@ -93,8 +146,6 @@ public class DegradeRule extends AbstractRule {
 
     private AtomicLong passCount = new AtomicLong(0);
 
-    private final Object lock = new Object();
-
     public double getCount() {
         return count;
     }
@@ -104,12 +155,33 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public DegradeRule setPercentile(double percentile) {
+        this.percentile = percentile;
+        return this;
+    }
+
+    public int getHalfOpenProbeCount() {
+        return halfOpenProbeCount;
+    }
+
+    public DegradeRule setHalfOpenProbeCount(int halfOpenProbeCount) {
+        this.halfOpenProbeCount = halfOpenProbeCount;
+        return this;
+    }
+
+    /**
+     * @return true if the breaker is not closed (open or half-open)
+     */
     public boolean isCut() {
-        return cut;
+        return state.get() != STATE_CLOSED;
     }
 
-    private void setCut(boolean cut) {
-        this.cut = cut;
+    boolean isHalfOpen() {
+        return state.get() == STATE_HALF_OPEN;
     }
 
     public AtomicLong getPassCount() {
@@ -148,7 +220,10 @@ public class DegradeRule extends AbstractRule {
         if (grade != that.grade) {
             return false;
         }
-        return true;
+        if (Double.compare(percentile, that.percentile) != 0) {
+            return false;
+        }
+        return halfOpenProbeCount == that.halfOpenProbeCount;
     }
 
     @Override
@@ -157,22 +232,26 @@ public class DegradeRule extends AbstractRule {
         result = 31 * result + new Double(count).hashCode();
         result = 31 * result + timeWindow;
         result = 31 * result + grade;
+        result = 31 * result + new Double(percentile).hashCode();
+        result = 31 * result + halfOpenProbeCount;
         return result;
     }
 
     @Override
     public boolean passCheck(Context context, DefaultNode node, int acquireCount, Object... args) {
-        if (cut) {
-            return false;
+        int currentState = state.get();
+        if (currentState != STATE_CLOSED) {
+            return tryPassProbe(currentState, node);
         }
 
-        ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(this.getResource());
+        ClusterNode clusterNode = resolveClusterNode(node);
         if (clusterNode == null) {
             return true;
         }
 
-        if (grade == RuleConstant.DEGRADE_GRADE_RT) {
-            double rt = clusterNode.avgRt();
+        if (grade == RuleConstant.DEGRADE_GRADE_RT || grade == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE) {
+            double rt = grade == RuleConstant.DEGRADE_GRADE_RT ? clusterNode.avgRt()
+                : clusterNode.percentileRt(percentile);
             if (rt < this.count) {
                 passCount.set(0);
                 return true;
@@ -206,16 +285,103 @@ public class DegradeRule extends AbstractRule {
             }
         }
 
-        synchronized (lock) {
-            if (!cut) {
-                // Automatically degrade.
-                cut = true;
-                ResetTask resetTask = new ResetTask(this);
-                pool.schedule(resetTask, timeWindow, TimeUnit.SECONDS);
+        // Automatically degrade.
+        open(STATE_CLOSED);
+        return false;
+    }
+
+    private boolean tryPassProbe(int currentState, DefaultNode node) {
+        long now = TimeUtil.currentTimeMillis();
+        if (currentState == STATE_OPEN) {
+            if (now < nextRetryTime) {
+                return false;
+            }
+            // The timestamp is written before the state is published, so it could be seen by other threads.
+            halfOpenSince = now;
+            if (!state.compareAndSet(STATE_OPEN, STATE_HALF_OPEN) && state.get() != STATE_HALF_OPEN) {
+                return state.get() == STATE_CLOSED;
+            }
+        } else if (now - halfOpenSince >= timeWindow * 1000L) {
+            // No probe has completed during the time window (e.g. the probes were blocked by other rules),
+            // so a new round of probes is allowed.
+            halfOpenSince = now;
+            probes.set(0);
+        }
+
+        int current;
+        do {
+            current = probes.get();
+            if (current >= halfOpenProbeCount) {
+                return false;
             }
+        } while (!probes.compareAndSet(current, current + 1));
 
-            return false;
+        ClusterNode clusterNode = resolveClusterNode(node);
+        if (clusterNode != null) {
+            probeExceptionBase = clusterNode.totalException();
         }
+        return true;
+    }
+
+    /**
+     * Judge the result of the probe request when the entry exits, which transits the half-open breaker
+     * to closed (if the probe completes normally) or open.
+     *
+     * @param context current context
+     */
+    void onRequestComplete(Context context) {
+        if (state.get() != STATE_HALF_OPEN) {
+            return;
+        }
+        Entry entry = context.getCurEntry();
+        if (entry == null || entry.getError() instanceof BlockException) {
+            // Blocked requests are not probes.
+            return;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        if (entry.getCreateTime() < halfOpenSince) {
+            // Requests passed before the breaker turned to half-open are ignored.
+            return;
+        }
+
+        boolean success = entry.getError() == null;
+        if (success) {
+            if (grade == RuleConstant.DEGRADE_GRADE_RT || grade == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE) {
+                success = now - entry.getCreateTime() < count;
+            } else {
+                // Business exceptions are recorded via the cluster node, so the probe fails
+                // if any exception has been traced after the probe was admitted (best effort).
+                // The cluster node has been resolved when the probe was admitted.
+                ClusterNode clusterNode = this.clusterNode;
+                success = clusterNode == null || clusterNode.totalException() <= probeExceptionBase;
+            }
+        }
+
+        if (success) {
+            passCount.set(0);
+            state.compareAndSet(STATE_HALF_OPEN, STATE_CLOSED);
+        } else {
+            open(STATE_HALF_OPEN);
+        }
+    }
+
+    private void open(int expectedState) {
+        // The retry timestamp is written before the state is published.
+        nextRetryTime = TimeUtil.currentTimeMillis() + timeWindow * 1000L;
+        if (state.compareAndSet(expectedState, STATE_OPEN)) {
+            probes.set(0);
+        }
+    }
+
+    private ClusterNode resolveClusterNode(DefaultNode node) {
+        ClusterNode current = node == null ? null : node.getClusterNode();
+        if (current != clusterNode) {
+            // The previous node has been evicted (the evicted resource gets brand new nodes), so the
+            // exception base recorded on it is stale and the new node counts from zero.
+            clusterNode = current;
+            probeExceptionBase = 0;
+        }
+        return current;
     }
 
     @Override
@@ -226,22 +392,8 @@ public class DegradeRule extends AbstractRule {
             ", count=" + count +
             ", limitApp=" + getLimitApp() +
             ", timeWindow=" + timeWindow +
+            ", percentile=" + percentile +
+            ", halfOpenProbeCount=" + halfOpenProbeCount +
             "}";
     }
-
-    private static final class ResetTask implements Runnable {
-
-        private DegradeRule rule;
-
-        ResetTask(DegradeRule rule) {
-            this.rule = rule;
-        }
-
-        @Override
-        public void run() {
-            rule.getPassCount().set(0);
-            rule.setCut(false);
-        }
-    }
 }
-
@@ -16,10 +16,13 @@
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
@@ -39,6 +42,11 @@ public class DegradeRuleManager {
 
     private static volatile Map<String, List<DegradeRule>> degradeRules
         = new ConcurrentHashMap<String, List<DegradeRule>>();
+    /**
+     * Immutable table of precompiled rules (resource name to rules), which will be replaced as a whole
+     * once rules are updated.
+     */
+    private static volatile Map<String, DegradeRule[]> compiledRules = Collections.emptyMap();
 
     final static RulePropertyListener listener = new RulePropertyListener();
     private static SentinelProperty<List<DegradeRule>> currentProperty
@@ -81,6 +89,25 @@ public class DegradeRuleManager {
         }
     }
 
+    static void checkDegrade(/*@NonNull*/ DegradeRule[] rules, Context context, DefaultNode node, int count)
+        throws BlockException {
+        for (DegradeRule rule : rules) {
+            if (!rule.passCheck(context, node, count)) {
+                throw new DegradeException(rule.getLimitApp());
+            }
+        }
+    }
+
+    /**
+     * Get the precompiled rule table.
+     *
+     * @return current compiled rule table
+     * @since 1.4.2
+     */
+    static Map<String, DegradeRule[]> getCompiledRuleTable() {
+        return compiledRules;
+    }
+
     public static boolean hasConfig(String resource) {
         return degradeRules.containsKey(resource);
     }
@@ -118,22 +145,31 @@ public class DegradeRuleManager {
 
         @Override
         public void configUpdate(List<DegradeRule> conf) {
-            Map<String, List<DegradeRule>> rules = loadDegradeConf(conf);
-            if (rules != null) {
-                degradeRules.clear();
-                degradeRules.putAll(rules);
-            }
+            updateRules(loadDegradeConf(conf));
             RecordLog.info("[DegradeRuleManager] Degrade rules received: " + degradeRules);
         }
 
         @Override
         public void configLoad(List<DegradeRule> conf) {
-            Map<String, List<DegradeRule>> rules = loadDegradeConf(conf);
+            updateRules(loadDegradeConf(conf));
+            RecordLog.info("[DegradeRuleManager] Degrade rules loaded: " + degradeRules);
+        }
+
+        private void updateRules(Map<String, List<DegradeRule>> rules) {
             if (rules != null) {
                 degradeRules.clear();
                 degradeRules.putAll(rules);
+                compiledRules = compileRules(rules);
             }
-            RecordLog.info("[DegradeRuleManager] Degrade rules loaded: " + degradeRules);
+        }
+
+        private Map<String, DegradeRule[]> compileRules(Map<String, List<DegradeRule>> ruleMap) {
+            Map<String, DegradeRule[]> table = new HashMap<String, DegradeRule[]>(ruleMap.size() * 2);
+            for (Map.Entry<String, List<DegradeRule>> entry : ruleMap.entrySet()) {
+                List<DegradeRule> rules = entry.getValue();
+                table.put(entry.getKey(), rules.toArray(new DegradeRule[rules.size()]));
+            }
+            return Collections.unmodifiableMap(table);
         }
 
         private Map<String, List<DegradeRule>> loadDegradeConf(List<DegradeRule> list) {
@@ -148,6 +184,11 @@ public class DegradeRuleManager {
                     RecordLog.warn("[DegradeRuleManager] Ignoring invalid degrade rule when loading new rules: " + rule);
                     continue;
                 }
+                if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE
+                    && !SentinelConfig.statisticRtHistogram()) {
+                    RecordLog.warn("[DegradeRuleManager] RT histogram is disabled (" + SentinelConfig.STATISTIC_RT_HISTOGRAM
+                        + "=false), so the RT percentile degrade rule won't take effect: " + rule);
+                }
 
                 if (StringUtil.isBlank(rule.getLimitApp())) {
                     rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
@@ -169,7 +210,7 @@ public class DegradeRuleManager {
 
     public static boolean isValidRule(DegradeRule rule) {
         boolean baseValid = rule != null && !StringUtil.isBlank(rule.getResource())
-            && rule.getCount() >= 0 && rule.getTimeWindow() > 0;
+            && rule.getCount() >= 0 && rule.getTimeWindow() > 0 && rule.getHalfOpenProbeCount() > 0;
         if (!baseValid) {
             return false;
         }
@@ -177,6 +218,11 @@ public class DegradeRuleManager {
         if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO && rule.getCount() > 1) {
             return false;
         }
+        // Check RT percentile mode.
+        if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE
+            && (rule.getPercentile() <= 0 || rule.getPercentile() > 100)) {
+            return false;
+        }
         return true;
     }
 }
@@ -20,6 +20,7 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.CompiledRuleBinding;
 
 /**
  * A {@link ProcessorSlot} dedicates to {@link DegradeRule} checking.
@@ -28,15 +29,37 @@ import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
  */
 public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private volatile CompiledRuleBinding<DegradeRule[]> ruleBinding;
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count, boolean prioritized, Object... args)
         throws Throwable {
-        DegradeRuleManager.checkDegrade(resourceWrapper, context, node, count);
+        // Rules of the resource are bound to the slot, as each slot chain has its own slot instances.
+        CompiledRuleBinding<DegradeRule[]> current = ruleBinding;
+        CompiledRuleBinding<DegradeRule[]> binding = CompiledRuleBinding.bind(current,
+            DegradeRuleManager.getCompiledRuleTable(), resourceWrapper.getName());
+        if (binding != current) {
+            ruleBinding = binding;
+        }
+        DegradeRule[] rules = binding.getRules();
+        if (rules != null) {
+            DegradeRuleManager.checkDegrade(rules, context, node, count);
+        }
         fireEntry(context, resourceWrapper, node, count, prioritized, args);
     }
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        CompiledRuleBinding<DegradeRule[]> binding = ruleBinding;
+        DegradeRule[] rules = binding == null ? null : binding.getRules();
+        if (rules != null) {
+            // Judge the probe requests of half-open breakers.
+            for (DegradeRule rule : rules) {
+                if (rule.isHalfOpen()) {
+                    rule.onRequestComplete(context);
+                }
+            }
+        }
         fireExit(context, resourceWrapper, count, args);
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>
+ * Precompiled form of {@link FlowRuleChecker#selectNodeByRequesterAndStrategy(FlowRule, Context, DefaultNode)}.
+ * The limit app and the strategy of the rule are resolved when rules are loaded,
+ * so that selecting the node only takes an origin match and a switch.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class FlowNodeSelector {
+
+    private static final int ORIGIN_SPECIFIC = 0;
+    private static final int ORIGIN_DEFAULT = 1;
+    private static final int ORIGIN_OTHER = 2;
+
+    private static final int TARGET_NONE = 0;
+    private static final int TARGET_ORIGIN_NODE = 1;
+    private static final int TARGET_CLUSTER_NODE = 2;
+    private static final int TARGET_RELATE = 3;
+    private static final int TARGET_CHAIN = 4;
+
+    private final int originMode;
+    private final String limitApp;
+    /**
+     * Limit apps of all rules of the resource, which are not regarded as `other` origin.
+     */
+    private final Set<String> specifiedOrigins;
+
+    private final int target;
+    private final String refResource;
+
+    private FlowNodeSelector(int originMode, String limitApp, Set<String> specifiedOrigins, int target,
+                             String refResource) {
+        this.originMode = originMode;
+        this.limitApp = limitApp;
+        this.specifiedOrigins = specifiedOrigins;
+        this.target = target;
+        this.refResource = refResource;
+    }
+
+    /**
+     * Compile the node selector of a flow rule.
+     *
+     * @param rule             valid flow rule with non-null limit app
+     * @param specifiedOrigins limit apps of all rules of the same resource
+     * @return compiled node selector
+     */
+    static FlowNodeSelector compile(/*@Valid*/ FlowRule rule, Set<String> specifiedOrigins) {
+        String limitApp = rule.getLimitApp();
+        int originMode;
+        if (RuleConstant.LIMIT_APP_DEFAULT.equals(limitApp)) {
+            originMode = ORIGIN_DEFAULT;
+        } else if (RuleConstant.LIMIT_APP_OTHER.equals(limitApp)) {
+            originMode = ORIGIN_OTHER;
+        } else {
+            originMode = ORIGIN_SPECIFIC;
+        }
+
+        int target;
+        String refResource = rule.getRefResource();
+        if (rule.getStrategy() == RuleConstant.STRATEGY_DIRECT) {
+            target = originMode == ORIGIN_DEFAULT ? TARGET_CLUSTER_NODE : TARGET_ORIGIN_NODE;
+        } else if (StringUtil.isEmpty(refResource)) {
+            target = TARGET_NONE;
+        } else if (rule.getStrategy() == RuleConstant.STRATEGY_RELATE) {
+            target = TARGET_RELATE;
+        } else if (rule.getStrategy() == RuleConstant.STRATEGY_CHAIN) {
+            target = TARGET_CHAIN;
+        } else {
+            target = TARGET_NONE;
+        }
+        return new FlowNodeSelector(originMode, limitApp, specifiedOrigins, target, refResource);
+    }
+
+    /**
+     * Select the node to check for current invocation.
+     *
+     * @param context current context
+     * @param node    current default node of the resource
+     * @return the selected node, or null if the rule does not apply to current invocation
+     */
+    Node select(Context context, DefaultNode node) {
+        if (target == TARGET_NONE || !matchOrigin(context.getOrigin())) {
+            return null;
+        }
+        switch (target) {
+            case TARGET_ORIGIN_NODE:
+                return context.getOriginNode();
+            case TARGET_CLUSTER_NODE:
+                return node.getClusterNode();
+            case TARGET_RELATE:
+                return ClusterBuilderSlot.getClusterNode(refResource);
+            case TARGET_CHAIN:
+                return refResource.equals(context.getName()) ? node : null;
+            default:
+                return null;
+        }
+    }
+
+    private boolean matchOrigin(String origin) {
+        switch (originMode) {
+            case ORIGIN_DEFAULT:
+                return true;
+            case ORIGIN_OTHER:
+                return StringUtil.isNotEmpty(origin) && !specifiedOrigins.contains(origin);
+            case ORIGIN_SPECIFIC:
+            default:
+                return limitApp.equals(origin);
+        }
+    }
+}
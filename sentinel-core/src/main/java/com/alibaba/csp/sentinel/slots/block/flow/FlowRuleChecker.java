@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import java.util.concurrent.TimeUnit;
+
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
@@ -26,6 +28,7 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingWaiter;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -56,12 +59,14 @@ final class FlowRuleChecker {
 
     private static boolean passLocalCheck(FlowRule rule, Context context, DefaultNode node, int acquireCount,
                                           boolean prioritized) {
-        Node selectedNode = selectNodeByRequesterAndStrategy(rule, context, node);
+        FlowNodeSelector selector = rule.getNodeSelector();
+        Node selectedNode = selector != null ? selector.select(context, node)
+            : selectNodeByRequesterAndStrategy(rule, context, node);
         if (selectedNode == null) {
             return true;
         }
 
-        return rule.getRater().canPass(selectedNode, acquireCount);
+        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -134,6 +139,9 @@ final class FlowRuleChecker {
             TokenResult result = clusterService.requestToken(flowId, acquireCount, prioritized);
             return applyTokenResult(result, rule, context, node, acquireCount, prioritized);
             // If client is absent, then fallback to local mode.
+        } catch (PriorityWaitException ex) {
+            // The prioritized request has waited in local fallback check.
+            throw ex;
         } catch (Throwable ex) {
             RecordLog.warn("[FlowRuleChecker] Request cluster token unexpected failed", ex);
         }
@@ -169,11 +177,7 @@ final class FlowRuleChecker {
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
                 // Wait for next tick.
-                try {
-                    Thread.sleep(result.getWaitInMs());
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+                PacingWaiter.await(TimeUnit.MILLISECONDS.toNanos(result.getWaitInMs()));
                 return true;
             case TokenResultStatus.NO_RULE_EXISTS:
             case TokenResultStatus.BAD_REQUEST:
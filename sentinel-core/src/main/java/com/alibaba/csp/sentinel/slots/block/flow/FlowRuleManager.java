@@ -16,8 +16,12 @@
 package com.alibaba.csp.sentinel.slots.block.flow;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -46,6 +50,11 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 public class FlowRuleManager {
 
     private static final Map<String, List<FlowRule>> flowRules = new ConcurrentHashMap<String, List<FlowRule>>();
+    /**
+     * Immutable table of precompiled rules (resource name to rules), which will be replaced as a whole
+     * once rules are updated.
+     */
+    private static volatile Map<String, FlowRule[]> compiledRules = Collections.emptyMap();
 
     private static final FlowPropertyListener LISTENER = new FlowPropertyListener();
     private static SentinelProperty<List<FlowRule>> currentProperty = new DynamicSentinelProperty<List<FlowRule>>();
@@ -99,6 +108,40 @@ public class FlowRuleManager {
         return flowRules;
     }
 
+    /**
+     * Get the precompiled rule table, whose node selectors of rules have been resolved.
+     *
+     * @return current compiled rule table
+     * @since 1.4.2
+     */
+    static Map<String, FlowRule[]> getCompiledRuleTable() {
+        return compiledRules;
+    }
+
+    private static Map<String, FlowRule[]> compileRules(Map<String, List<FlowRule>> ruleMap) {
+        Map<String, FlowRule[]> table = new HashMap<String, FlowRule[]>(ruleMap.size() * 2);
+        for (Map.Entry<String, List<FlowRule>> entry : ruleMap.entrySet()) {
+            List<FlowRule> rules = entry.getValue();
+            Set<String> specifiedOrigins = new HashSet<String>();
+            for (FlowRule rule : rules) {
+                specifiedOrigins.add(rule.getLimitApp());
+            }
+            for (FlowRule rule : rules) {
+                rule.setNodeSelector(FlowNodeSelector.compile(rule, specifiedOrigins));
+            }
+            table.put(entry.getKey(), rules.toArray(new FlowRule[rules.size()]));
+        }
+        return Collections.unmodifiableMap(table);
+    }
+
+    private static void updateRules(Map<String, List<FlowRule>> rules) {
+        if (rules != null) {
+            flowRules.clear();
+            flowRules.putAll(rules);
+            compiledRules = compileRules(rules);
+        }
+    }
+
     public static boolean hasConfig(String resource) {
         return flowRules.containsKey(resource);
     }
@@ -121,25 +164,29 @@ public class FlowRuleManager {
         return true;
     }
 
+    /**
+     * Check whether the origin is declared in {@code limitApp} of any flow rule of the resource.
+     *
+     * @param origin       the origin
+     * @param resourceName the resource name
+     * @return true if the origin is limited by flow rules of the resource specifically
+     * @since 1.4.2
+     */
+    public static boolean isLimitedOrigin(String origin, String resourceName) {
+        return StringUtil.isNotEmpty(origin) && !isOtherOrigin(origin, resourceName);
+    }
+
     private static final class FlowPropertyListener implements PropertyListener<List<FlowRule>> {
 
         @Override
         public void configUpdate(List<FlowRule> value) {
-            Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(value);
-            if (rules != null) {
-                flowRules.clear();
-                flowRules.putAll(rules);
-            }
+            updateRules(FlowRuleUtil.buildFlowRuleMap(value));
             RecordLog.info("[FlowRuleManager] Flow rules received: " + flowRules);
         }
 
         @Override
         public void configLoad(List<FlowRule> conf) {
-            Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(conf);
-            if (rules != null) {
-                flowRules.clear();
-                flowRules.putAll(rules);
-            }
+            updateRules(FlowRuleUtil.buildFlowRuleMap(conf));
             RecordLog.info("[FlowRuleManager] Flow rules loaded: " + flowRules);
         }
     }
@@ -25,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.AdaptiveConcurrencyController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.RateLimiterController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.WarmUpController;
@@ -145,6 +146,8 @@ public final class FlowRuleUtil {
                 default:
                     // Default mode or unknown mode: default traffic shaping controller (fast-reject).
             }
+        } else if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY) {
+            return new AdaptiveConcurrencyController(rule.getCount());
         }
         return new DefaultController(rule.getCount(), rule.getGrade());
     }
@@ -216,6 +219,8 @@ public final class FlowRuleUtil {
                 return rule.getMaxQueueingTimeMs() > 0;
             case RuleConstant.CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER:
                 return rule.getWarmUpPeriodSec() > 0 && rule.getMaxQueueingTimeMs() > 0;
+            case RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY:
+                return rule.getGrade() == RuleConstant.FLOW_GRADE_THREAD && rule.getCount() >= 1;
             default:
                 return true;
         }
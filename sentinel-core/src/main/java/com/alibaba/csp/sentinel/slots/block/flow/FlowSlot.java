@@ -15,14 +15,12 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
-import java.util.List;
-import java.util.Map;
-
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.CompiledRuleBinding;
 
 /**
  * <p>
@@ -135,6 +133,8 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  */
 public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private volatile CompiledRuleBinding<FlowRule[]> ruleBinding;
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
                       boolean prioritized, Object... args) throws Throwable {
@@ -144,10 +144,15 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
     }
 
     void checkFlow(ResourceWrapper resource, Context context, DefaultNode node, int count, boolean prioritized) throws BlockException {
-        // Flow rule map cannot be null.
-        Map<String, List<FlowRule>> flowRules = FlowRuleManager.getFlowRuleMap();
+        // Rules of the resource are bound to the slot, as each slot chain has its own slot instances.
+        CompiledRuleBinding<FlowRule[]> current = ruleBinding;
+        CompiledRuleBinding<FlowRule[]> binding = CompiledRuleBinding.bind(current,
+            FlowRuleManager.getCompiledRuleTable(), resource.getName());
+        if (binding != current) {
+            ruleBinding = binding;
+        }
 
-        List<FlowRule> rules = flowRules.get(resource.getName());
+        FlowRule[] rules = binding.getRules();
         if (rules != null) {
             for (FlowRule rule : rules) {
                 if (!canPassCheck(rule, context, node, count, prioritized)) {
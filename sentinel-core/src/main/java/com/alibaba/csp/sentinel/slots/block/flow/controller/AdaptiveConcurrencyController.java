@@ -0,0 +1,172 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * A throttling controller that limits the concurrency (in-flight requests) of the resource
+ * with a limit adjusted continuously by the gradient of response time, rather than a static threshold.
+ * </p>
+ * <p>
+ * Every {@code updateIntervalMs}, the limit is updated by:
+ * </p>
+ * <pre>
+ * gradient = clamp(tolerance * noLoadRt / avgRt, 0.5, 1)
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + newLimit * smoothing, bounded by [1, maxLimit]
+ * </pre>
+ * <p>
+ * When the response time is close to the no-load response time, the limit grows (by the {@code sqrt(limit)}
+ * queue allowance); when requests queue up in the backend and the response time increases, the limit
+ * shrinks until only about {@code sqrt(limit)} requests are queued (Little's law). The no-load response time
+ * is tracked from the {@code minRt} of the node, which follows a decrease immediately and an increase
+ * (e.g. the backend becomes slower permanently) gradually. The limit does not grow when the in-flight requests
+ * are less than half of the limit (i.e. the traffic is not limited by the concurrency).
+ * </p>
+ * <p>
+ * The check only reads the in-flight count and a volatile limit. The limit is updated by the single
+ * request that wins the CAS of the next update time, so no lock is needed.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class AdaptiveConcurrencyController implements TrafficShapingController {
+
+    static final int DEFAULT_INITIAL_LIMIT = 20;
+    static final long DEFAULT_UPDATE_INTERVAL_MS = 200;
+    static final double DEFAULT_RT_TOLERANCE = 1.5;
+    static final double DEFAULT_SMOOTHING = 0.2;
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double MIN_LIMIT = 1;
+    /**
+     * Rate of following an increased min RT for the no-load response time.
+     */
+    private static final double NO_LOAD_RT_DRIFT = 0.1;
+
+    private final double maxLimit;
+    private final long updateIntervalMs;
+    private final double rtTolerance;
+    private final double smoothing;
+
+    private final AtomicLong nextUpdateTime = new AtomicLong(0);
+
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    private volatile double noLoadRt = -1;
+
+    /**
+     * @param maxLimit max concurrency limit
+     */
+    public AdaptiveConcurrencyController(double maxLimit) {
+        this(maxLimit, Math.min(maxLimit, DEFAULT_INITIAL_LIMIT), DEFAULT_UPDATE_INTERVAL_MS, DEFAULT_RT_TOLERANCE,
+            DEFAULT_SMOOTHING);
+    }
+
+    /**
+     * @param maxLimit         max concurrency limit
+     * @param initialLimit     initial concurrency limit
+     * @param updateIntervalMs interval (in ms) between two limit updates
+     * @param rtTolerance      tolerated ratio of average RT to no-load RT before the limit decreases
+     * @param smoothing        smoothing factor of limit updates in (0, 1]
+     */
+    public AdaptiveConcurrencyController(double maxLimit, double initialLimit, long updateIntervalMs,
+                                         double rtTolerance, double smoothing) {
+        AssertUtil.isTrue(maxLimit >= MIN_LIMIT, "maxLimit should be >= 1");
+        AssertUtil.isTrue(updateIntervalMs > 0, "updateIntervalMs should be positive");
+        AssertUtil.isTrue(rtTolerance >= 1, "rtTolerance should be >= 1");
+        AssertUtil.isTrue(smoothing > 0 && smoothing <= 1, "smoothing should be in (0, 1]");
+        this.maxLimit = maxLimit;
+        this.updateIntervalMs = updateIntervalMs;
+        this.rtTolerance = rtTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(MIN_LIMIT, Math.min(initialLimit, maxLimit));
+        this.limit = (int)estimatedLimit;
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount) {
+        return canPass(node, acquireCount, false);
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        if (node == null) {
+            return true;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long next = nextUpdateTime.get();
+        if (now >= next && nextUpdateTime.compareAndSet(next, now + updateIntervalMs)) {
+            update(node);
+        }
+        return node.curThreadNum() + acquireCount <= limit;
+    }
+
+    private void update(Node node) {
+        if (node.successQps() <= 0) {
+            // No completed requests to measure.
+            return;
+        }
+        double minRt = Math.max(node.minRt(), 1);
+        double avgRt = Math.max(node.avgRt(), 1);
+        if (minRt >= Constants.TIME_DROP_VALVE) {
+            return;
+        }
+        double baseRt = noLoadRt;
+        if (baseRt < 0 || minRt < baseRt) {
+            baseRt = minRt;
+        } else {
+            baseRt += (minRt - baseRt) * NO_LOAD_RT_DRIFT;
+        }
+        noLoadRt = baseRt;
+
+        double current = estimatedLimit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, rtTolerance * baseRt / avgRt));
+        double newLimit = current * gradient + Math.sqrt(current);
+        if (newLimit > current && node.curThreadNum() < current / 2) {
+            // The traffic is not limited by the concurrency, so there's no evidence to grow the limit.
+            return;
+        }
+        newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        newLimit = Math.max(MIN_LIMIT, Math.min(newLimit, maxLimit));
+
+        estimatedLimit = newLimit;
+        limit = (int)newLimit;
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return tracked no-load response time; negative if not measured yet
+     */
+    public double getNoLoadRt() {
+        return noLoadRt;
+    }
+}
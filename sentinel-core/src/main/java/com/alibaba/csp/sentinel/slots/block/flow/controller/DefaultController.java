@@ -15,12 +15,18 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.PriorityWaitException;
 import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
- * Default throttling controller (immediately reject strategy).
+ * <p>Default throttling controller (immediately reject strategy).</p>
+ *
+ * <p>Prioritized requests (QPS mode) that exceed the threshold may occupy the tokens of upcoming windows
+ * and wait for them (no longer than {@code csp.sentinel.flow.occupy.timeout}), rather than being rejected.</p>
  *
  * @author jialiang.linjl
  */
@@ -43,6 +49,23 @@ public class DefaultController implements TrafficShapingController {
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
         int curCount = avgUsedTokens(node);
         if (curCount + acquireCount > count) {
+            if (prioritized && grade == RuleConstant.FLOW_GRADE_QPS) {
+                int occupyTimeout = SentinelConfig.flowOccupyTimeout();
+                if (occupyTimeout <= 0) {
+                    return false;
+                }
+                long currentTime = TimeUtil.currentTimeMillis();
+                long waitInMs = node.tryOccupyNext(currentTime, acquireCount, count);
+                if (waitInMs < occupyTimeout) {
+                    // Borrow the tokens of the upcoming window and wait for it.
+                    node.addWaitingRequest(currentTime + waitInMs, acquireCount);
+                    node.addOccupiedPass(acquireCount);
+                    sleep(waitInMs);
+
+                    // PriorityWaitException indicates that the request will pass after waiting for {@code waitInMs}.
+                    throw new PriorityWaitException(waitInMs);
+                }
+            }
             return false;
         }
 
@@ -56,7 +79,7 @@ public class DefaultController implements TrafficShapingController {
         return grade == RuleConstant.FLOW_GRADE_THREAD ? node.curThreadNum() : (int)node.passQps();
     }
 
-    private void sleep(int timeMillis) {
+    private void sleep(long timeMillis) {
         try {
             Thread.sleep(timeMillis);
         } catch (InterruptedException e) {
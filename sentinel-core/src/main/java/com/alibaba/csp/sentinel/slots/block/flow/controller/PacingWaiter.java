@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Waits for the pacing of traffic shaping controllers (e.g. {@link RateLimiterController}).
+ * </p>
+ * <p>
+ * By default the caller thread is parked until the expected pass time, with nanosecond precision.
+ * When the pacing is deferred on current thread (e.g. entering via
+ * {@link com.alibaba.csp.sentinel.SphU#asyncEntryNonBlocking(String)}), the thread won't be blocked.
+ * Instead the wait time is recorded and handed over to the caller, who is responsible for
+ * scheduling the actual invocation after the wait time.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class PacingWaiter {
+
+    private static final ThreadLocal<Deferral> DEFERRAL = new ThreadLocal<Deferral>() {
+        @Override
+        protected Deferral initialValue() {
+            return new Deferral();
+        }
+    };
+
+    /**
+     * Wait for given time, or record the wait time if pacing is deferred on current thread.
+     *
+     * @param waitNanos time to wait in nanoseconds
+     * @return true if the wait completes (or is deferred); false if the thread is interrupted when waiting
+     */
+    public static boolean await(long waitNanos) {
+        if (waitNanos <= 0) {
+            return true;
+        }
+        Deferral deferral = DEFERRAL.get();
+        if (deferral.active) {
+            // All waits are reserved at the same time, so the caller only needs to wait for the latest one.
+            deferral.waitNanos = Math.max(deferral.waitNanos, waitNanos);
+            return true;
+        }
+        return parkNanos(waitNanos);
+    }
+
+    /**
+     * Start deferring the pacing waits on current thread.
+     */
+    public static void beginDeferred() {
+        Deferral deferral = DEFERRAL.get();
+        deferral.active = true;
+        deferral.waitNanos = 0;
+    }
+
+    /**
+     * Stop deferring the pacing waits on current thread.
+     *
+     * @return the time (in nanoseconds) that the caller should wait before the actual invocation
+     */
+    public static long endDeferred() {
+        Deferral deferral = DEFERRAL.get();
+        long waitNanos = deferral.waitNanos;
+        deferral.active = false;
+        deferral.waitNanos = 0;
+        return waitNanos;
+    }
+
+    public static boolean isDeferred() {
+        return DEFERRAL.get().active;
+    }
+
+    private static boolean parkNanos(long waitNanos) {
+        long deadline = System.nanoTime() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            // Park may return spuriously, so check the deadline again.
+            remaining = deadline - System.nanoTime();
+        }
+        return true;
+    }
+
+    private static final class Deferral {
+        boolean active;
+        long waitNanos;
+    }
+
+    private PacingWaiter() {}
+}
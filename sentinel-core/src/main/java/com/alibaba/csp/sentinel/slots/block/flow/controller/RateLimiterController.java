@@ -15,25 +15,45 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
 
-import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
+ * <p>
+ * Traffic shaping controller that paces requests with uniform intervals (leaky bucket).
+ * </p>
+ * <p>
+ * The time is accounted in nanoseconds, so that the interval between requests is accurate
+ * even when the rate limit is above 1000 QPS. The wait is done by {@link PacingWaiter},
+ * which could also hand the wait time over to the caller instead of blocking the thread.
+ * </p>
+ *
  * @author jialiang.linjl
  */
 public class RateLimiterController implements TrafficShapingController {
 
-    private final int maxQueueingTimeMs;
+    /**
+     * Result of {@link #tryAcquire(int)} indicating that the request should be blocked.
+     */
+    public static final long BLOCKED = -1;
+
+    private static final long NO_PASSED = Long.MIN_VALUE;
+
+    private final long maxQueueingTimeNanos;
     private final double count;
 
-    private final AtomicLong latestPassedTime = new AtomicLong(-1);
+    /**
+     * Expected pass time (via {@link TimeUtil#nanoTime()}) of the latest passed request.
+     */
+    private final AtomicLong latestPassedTime = new AtomicLong(NO_PASSED);
 
     public RateLimiterController(int timeOut, double count) {
-        this.maxQueueingTimeMs = timeOut;
+        this.maxQueueingTimeNanos = TimeUnit.MILLISECONDS.toNanos(timeOut);
         this.count = count;
     }
 
@@ -44,40 +64,48 @@ public class RateLimiterController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
-        long currentTime = TimeUtil.currentTimeMillis();
-        // Calculate the interval between every two requests.
-        long costTime = Math.round(1.0 * (acquireCount) / count * 1000);
+        long waitNanos = tryAcquire(acquireCount);
+        if (waitNanos == BLOCKED) {
+            return false;
+        }
+        return PacingWaiter.await(waitNanos);
+    }
 
-        // Expected pass time of this request.
-        long expectedTime = costTime + latestPassedTime.get();
+    /**
+     * Try to reserve the pass time for the request without waiting.
+     *
+     * @param acquireCount count to acquire
+     * @return the time (in nanoseconds) to wait before the request could pass,
+     * or {@link #BLOCKED} if the request should be blocked
+     * @since 1.4.2
+     */
+    public long tryAcquire(int acquireCount) {
+        if (count <= 0) {
+            return BLOCKED;
+        }
+        // Calculate the interval between every two requests.
+        long costTime = Math.round(1.0 * acquireCount / count * TimeUnit.SECONDS.toNanos(1));
+        long currentTime = TimeUtil.nanoTime();
+        long latestTime = latestPassedTime.get();
 
-        if (expectedTime <= currentTime) {
+        // Expected pass time of this request (compared via subtraction as nano time may overflow).
+        if (latestTime == NO_PASSED || latestTime + costTime - currentTime <= 0) {
             // Contention may exist here, but it's okay.
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            // Calculate the time to wait.
-            long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
-            if (waitTime > maxQueueingTimeMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > maxQueueingTimeMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    // in race condition waitTime may <= 0
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return 0;
         }
-        return false;
+        // Calculate the time to wait.
+        long waitTime = latestTime + costTime - currentTime;
+        if (waitTime > maxQueueingTimeNanos) {
+            return BLOCKED;
+        }
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.nanoTime();
+        if (waitTime > maxQueueingTimeNanos) {
+            latestPassedTime.addAndGet(-costTime);
+            return BLOCKED;
+        }
+        // In race condition waitTime may <= 0.
+        return waitTime > 0 ? waitTime : 0;
     }
-
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.node.Node;
@@ -25,8 +26,15 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  */
 public class WarmUpRateLimiterController extends WarmUpController {
 
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NO_PASSED = Long.MIN_VALUE;
+
     final int timeOutInMs;
-    final AtomicLong latestPassedTime = new AtomicLong(-1);
+    final long timeOutInNanos;
+    /**
+     * Expected pass time (via {@link TimeUtil#nanoTime()}) of the latest passed request.
+     */
+    final AtomicLong latestPassedTime = new AtomicLong(NO_PASSED);
 
     /**
      * @param count
@@ -35,6 +43,7 @@ public class WarmUpRateLimiterController extends WarmUpController {
     public WarmUpRateLimiterController(double count, int warmUpPeriodSec, int timeOutMs, int coldFactor) {
         super(count, warmUpPeriodSec, coldFactor);
         this.timeOutInMs = timeOutMs;
+        this.timeOutInNanos = TimeUnit.MILLISECONDS.toNanos(timeOutMs);
     }
 
     @Override
@@ -47,46 +56,40 @@ public class WarmUpRateLimiterController extends WarmUpController {
         long previousQps = node.previousPassQps();
         syncToken(previousQps);
 
-        long currentTime = TimeUtil.currentTimeMillis();
+        long currentTime = TimeUtil.nanoTime();
 
         long restToken = storedTokens.get();
         long costTime = 0;
-        long expectedTime = 0;
         if (restToken >= warningToken) {
             long aboveToken = restToken - warningToken;
 
             // current interval = restToken*slope+1/count
             double warmingQps = Math.nextUp(1.0 / (aboveToken * slope + 1.0 / count));
-            costTime = Math.round(1.0 * (acquireCount) / warmingQps * 1000);
+            costTime = Math.round(1.0 * (acquireCount) / warmingQps * NANOS_PER_SECOND);
         } else {
-            costTime = Math.round(1.0 * (acquireCount) / count * 1000);
+            costTime = Math.round(1.0 * (acquireCount) / count * NANOS_PER_SECOND);
         }
-        expectedTime = costTime + latestPassedTime.get();
+        long latestTime = latestPassedTime.get();
 
-        if (expectedTime <= currentTime) {
+        // Compare via subtraction as nano time may overflow.
+        if (latestTime == NO_PASSED || latestTime + costTime - currentTime <= 0) {
             latestPassedTime.set(currentTime);
             return true;
         } else {
-            long waitTime = costTime + latestPassedTime.get() - currentTime;
-            if (waitTime > timeOutInMs) {
+            long waitTime = latestTime + costTime - currentTime;
+            if (waitTime > timeOutInNanos) {
                 return false;
             } else {
                 long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > timeOutInMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
+                waitTime = oldTime - TimeUtil.nanoTime();
+                if (waitTime > timeOutInNanos) {
+                    latestPassedTime.addAndGet(-costTime);
+                    return false;
                 }
+                // In race condition waitTime may <= 0.
+                return PacingWaiter.await(waitTime);
             }
         }
-        return false;
     }
 }
 
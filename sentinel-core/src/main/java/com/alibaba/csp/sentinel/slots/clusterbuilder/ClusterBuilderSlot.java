@@ -15,8 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.clusterbuilder;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.Env;
 import com.alibaba.csp.sentinel.EntryType;
@@ -65,8 +65,8 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * at the very beginning while concurrent map will hold the lock all the time.
      * </p>
      */
-    private static volatile Map<ResourceWrapper, ClusterNode> clusterNodeMap
-        = new HashMap<ResourceWrapper, ClusterNode>();
+    private static final Map<ResourceWrapper, ClusterNode> clusterNodeMap
+        = new ConcurrentHashMap<ResourceWrapper, ClusterNode>();
 
     private static final Object lock = new Object();
 
@@ -81,11 +81,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
                 if (clusterNode == null) {
                     // Create the cluster node.
                     clusterNode = Env.nodeBuilder.buildClusterNode();
-                    HashMap<ResourceWrapper, ClusterNode> newMap = new HashMap<ResourceWrapper, ClusterNode>(16);
-                    newMap.putAll(clusterNodeMap);
-                    newMap.put(node.getId(), clusterNode);
-
-                    clusterNodeMap = newMap;
+                    clusterNodeMap.put(node.getId(), clusterNode);
                 }
             }
         }
@@ -96,7 +92,8 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
          * the specific origin.
          */
         if (!"".equals(context.getOrigin())) {
-            Node originNode = node.getClusterNode().getOrCreateOriginNode(context.getOrigin());
+            Node originNode = node.getClusterNode().getOrCreateOriginNode(context.getOrigin(),
+                resourceWrapper.getName());
             context.getCurEntry().setOriginNode(originNode);
         }
 
@@ -161,4 +158,18 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
             node.reset();
         }
     }
+
+    /**
+     * Remove the {@link ClusterNode} of provided resource (e.g. when the resource has been evicted).
+     *
+     * @param resource the resource
+     * @return the removed cluster node, or null if absent
+     * @since 1.4.2
+     */
+    public static ClusterNode removeClusterNode(ResourceWrapper resource) {
+        if (resource == null) {
+            return null;
+        }
+        return clusterNodeMap.remove(resource);
+    }
 }
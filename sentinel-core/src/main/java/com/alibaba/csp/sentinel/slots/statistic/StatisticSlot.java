@@ -28,6 +28,7 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.PriorityWaitException;
 
 /**
  * <p>
@@ -71,6 +72,26 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             }
 
             // Handle pass event with registered entry callback handlers.
+            Collection<ProcessorSlotEntryCallback<DefaultNode>> entryCallbacks
+                = StatisticSlotCallbackRegistry.getEntryCallbacks();
+            // Avoid creating the iterator on the hot path when no callback is registered.
+            if (!entryCallbacks.isEmpty()) {
+                for (ProcessorSlotEntryCallback<DefaultNode> handler : entryCallbacks) {
+                    handler.onPass(context, resourceWrapper, node, count, args);
+                }
+            }
+        } catch (PriorityWaitException ex) {
+            // The request has occupied upcoming tokens and waited, whose pass count has been recorded
+            // in the occupied window, so only the thread count is added here.
+            node.increaseThreadNum();
+            if (context.getCurEntry().getOriginNode() != null) {
+                context.getCurEntry().getOriginNode().increaseThreadNum();
+            }
+
+            if (resourceWrapper.getType() == EntryType.IN) {
+                Constants.ENTRY_NODE.increaseThreadNum();
+            }
+
             for (ProcessorSlotEntryCallback<DefaultNode> handler : StatisticSlotCallbackRegistry.getEntryCallbacks()) {
                 handler.onPass(context, resourceWrapper, node, count, args);
             }
@@ -145,10 +166,12 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
         // Handle exit event with registered exit callback handlers.
         Collection<ProcessorSlotExitCallback> exitCallbacks = StatisticSlotCallbackRegistry.getExitCallbacks();
-        for (ProcessorSlotExitCallback handler : exitCallbacks) {
-            handler.onExit(context, resourceWrapper, count, args);
+        if (!exitCallbacks.isEmpty()) {
+            for (ProcessorSlotExitCallback handler : exitCallbacks) {
+                handler.onExit(context, resourceWrapper, count, args);
+            }
         }
 
-        fireExit(context, resourceWrapper, count);
+        fireExit(context, resourceWrapper, count, args);
     }
 }
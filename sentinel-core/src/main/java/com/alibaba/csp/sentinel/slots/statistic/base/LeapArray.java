@@ -51,6 +51,11 @@ public abstract class LeapArray<T> {
      */
     private final ReentrantLock updateLock = new ReentrantLock();
 
+    /**
+     * Whether deprecated buckets are rotated by a lock-free CAS swap rather than reset under the update lock.
+     */
+    private final boolean lockFreeRotation;
+
     /**
      * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
      *
@@ -58,6 +63,25 @@ public abstract class LeapArray<T> {
      * @param intervalInMs    the total time interval of this {@link LeapArray} in milliseconds
      */
     public LeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * <p>The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.</p>
+     * <p>
+     * In lock-free rotation mode, a deprecated bucket is not reset in place. Instead a fresh bucket stamped
+     * with the new window start is swapped into the slot via CAS, and threads that lose the race simply
+     * re-read the slot (no lock, no {@code Thread.yield()}). Subclasses whose {@link #resetWindowTo} has side
+     * effects other than clearing the bucket (e.g. transferring occupied counts) should apply the same effects
+     * in {@link #newEmptyBucket(long)}, otherwise they should not enable this mode.
+     * </p>
+     *
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval of this {@link LeapArray} in milliseconds
+     * @param lockFreeRotation whether to rotate deprecated buckets via lock-free CAS swap
+     * @since 1.4.2
+     */
+    public LeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
         AssertUtil.isTrue(sampleCount > 0, "bucket count is invalid: " + sampleCount);
         AssertUtil.isTrue(intervalInMs > 0, "total time interval of the sliding window should be positive");
         AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
@@ -65,6 +89,7 @@ public abstract class LeapArray<T> {
         this.windowLengthInMs = intervalInMs / sampleCount;
         this.intervalInMs = intervalInMs;
         this.sampleCount = sampleCount;
+        this.lockFreeRotation = lockFreeRotation;
 
         this.array = new AtomicReferenceArray<WindowWrap<T>>(sampleCount);
     }
@@ -85,6 +110,18 @@ public abstract class LeapArray<T> {
      */
     public abstract T newEmptyBucket();
 
+    /**
+     * Create a new statistic value for the bucket starting at provided time. Subclasses may override this
+     * to initialize the bucket with data that has been recorded in advance (e.g. occupied counts).
+     *
+     * @param windowStart the start time of the bucket in milliseconds
+     * @return the new empty bucket
+     * @since 1.4.2
+     */
+    protected T newEmptyBucket(long windowStart) {
+        return newEmptyBucket();
+    }
+
     /**
      * Reset given bucket to provided start time and reset the value.
      *
@@ -141,11 +178,11 @@ public abstract class LeapArray<T> {
                  * then try to update circular array via a CAS operation. Only one thread can
                  * succeed to update, while other threads yield its time slice.
                  */
-                WindowWrap<T> window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket());
+                WindowWrap<T> window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(windowStart));
                 if (array.compareAndSet(idx, null, window)) {
                     // Successfully updated, return the created bucket.
                     return window;
-                } else {
+                } else if (!lockFreeRotation) {
                     // Contention failed, the thread will yield its time slice to wait for bucket available.
                     Thread.yield();
                 }
@@ -179,8 +216,17 @@ public abstract class LeapArray<T> {
                  *
                  * The update lock is conditional (tiny scope) and will take effect only when
                  * bucket is deprecated, so in most cases it won't lead to performance loss.
+                 *
+                 * In lock-free rotation mode, the window start acts as the epoch stamp of the bucket:
+                 * a fresh bucket for the new epoch is swapped in via CAS. The losers of the race just
+                 * re-read the slot and will find the up-to-date bucket installed by the winner.
                  */
-                if (updateLock.tryLock()) {
+                if (lockFreeRotation) {
+                    WindowWrap<T> window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(windowStart));
+                    if (array.compareAndSet(idx, old, window)) {
+                        return window;
+                    }
+                } else if (updateLock.tryLock()) {
                     try {
                         // Successfully get the update lock, now we reset the bucket.
                         return resetWindowTo(old, windowStart);
@@ -253,6 +299,24 @@ public abstract class LeapArray<T> {
         return old.value();
     }
 
+    /**
+     * Get the bucket whose window starts exactly at provided timestamp.
+     *
+     * @param windowStart start timestamp of the window in milliseconds
+     * @return the bucket if it starts at provided timestamp and is up-to-date; otherwise null
+     * @since 1.4.2
+     */
+    public WindowWrap<T> getWindowAt(long windowStart) {
+        if (windowStart < 0) {
+            return null;
+        }
+        WindowWrap<T> windowWrap = array.get(calculateTimeIdx(windowStart));
+        if (windowWrap == null || windowWrap.windowStart() != windowStart || isWindowDeprecated(windowWrap)) {
+            return null;
+        }
+        return windowWrap;
+    }
+
     /**
      * Check if a bucket is deprecated, which means that the bucket
      * has been behind for at least an entire window time span.
@@ -333,6 +397,16 @@ public abstract class LeapArray<T> {
         return getValidHead(TimeUtil.currentTimeMillis());
     }
 
+    /**
+     * Check whether the lock-free rotation mode is enabled.
+     *
+     * @return true if deprecated buckets are rotated via lock-free CAS swap
+     * @since 1.4.2
+     */
+    public boolean isLockFreeRotation() {
+        return lockFreeRotation;
+    }
+
     /**
      * Get sample count (total amount of buckets).
      *
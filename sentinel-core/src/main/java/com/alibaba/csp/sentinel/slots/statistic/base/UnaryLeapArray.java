@@ -24,6 +24,10 @@ public class UnaryLeapArray extends LeapArray<LongAdder> {
         super(sampleCount, intervalInMs);
     }
 
+    public UnaryLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+    }
+
     @Override
     public LongAdder newEmptyBucket() {
         return new LongAdder();
@@ -0,0 +1,154 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * A fixed-memory, lock-free log-linear histogram of response time (in milliseconds).
+ * </p>
+ * <p>
+ * Values less than {@code 2^SUB_BUCKET_BITS} are counted exactly. Above that, every power-of-two range
+ * is split into {@code 2^SUB_BUCKET_BITS} linear sub-buckets, so the relative error of a recorded value
+ * is bounded by {@code 1 / 2^SUB_BUCKET_BITS} (12.5%). The counters are allocated once with the size
+ * resolved from the max value (e.g. 82 counters for the default max RT 4900 ms), and recording a value
+ * is a single atomic increment.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private final long maxValue;
+    private final AtomicIntegerArray counts;
+
+    /**
+     * @param maxValue max value to record, larger values will be recorded as the max value
+     */
+    public LatencyHistogram(long maxValue) {
+        AssertUtil.isTrue(maxValue > 0, "maxValue should be positive");
+        this.maxValue = maxValue;
+        this.counts = new AtomicIntegerArray(indexOf(maxValue) + 1);
+    }
+
+    public void record(long value) {
+        if (value > maxValue) {
+            value = maxValue;
+        }
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Get the value at given percentile, which is the highest value equivalent to the matched sub-bucket.
+     *
+     * @param percentile percentile in (0, 100], e.g. 99.9
+     * @return value at the percentile; 0 if there are no recorded values
+     */
+    public long valueAtPercentile(double percentile) {
+        return valueAtPercentile(counts.length(), maxValue, percentile, this);
+    }
+
+    /**
+     * Get the value at given percentile of the merged histograms (e.g. all valid buckets of a sliding window).
+     * The histograms should have the same max value.
+     *
+     * @param histograms histograms to merge
+     * @param percentile percentile in (0, 100], e.g. 99.9
+     * @return value at the percentile; 0 if there are no recorded values
+     */
+    public static long valueAtPercentile(List<LatencyHistogram> histograms, double percentile) {
+        if (histograms == null || histograms.isEmpty()) {
+            return 0;
+        }
+        int length = Integer.MAX_VALUE;
+        long maxValue = 0;
+        for (LatencyHistogram histogram : histograms) {
+            length = Math.min(length, histogram.counts.length());
+            maxValue = Math.max(maxValue, histogram.maxValue);
+        }
+        return valueAtPercentile(length, maxValue, percentile,
+            histograms.toArray(new LatencyHistogram[histograms.size()]));
+    }
+
+    private static long valueAtPercentile(int length, long maxValue, double percentile,
+                                          LatencyHistogram... histograms) {
+        long total = 0;
+        for (LatencyHistogram histogram : histograms) {
+            total += histogram.totalCount();
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double p = Math.min(Math.max(percentile, 0), 100);
+        long rank = Math.max(1, (long)Math.ceil(total * p / 100));
+        long accumulated = 0;
+        for (int i = 0; i < length; i++) {
+            for (LatencyHistogram histogram : histograms) {
+                accumulated += histogram.counts.get(i);
+            }
+            if (accumulated >= rank) {
+                return Math.min(highestValueOf(i), maxValue);
+            }
+        }
+        // Counters may be updated concurrently, so fall back to the max value.
+        return maxValue;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long)(SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
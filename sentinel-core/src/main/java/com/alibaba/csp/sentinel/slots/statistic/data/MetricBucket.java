@@ -31,6 +31,11 @@ public class MetricBucket {
 
     private volatile long minRt;
 
+    /**
+     * Histogram of response time, which is absent unless {@link #enableRtHistogram()} is invoked.
+     */
+    private LatencyHistogram rtHistogram;
+
     public MetricBucket() {
         MetricEvent[] events = MetricEvent.values();
         this.counters = new LongAdder[events.length];
@@ -40,10 +45,61 @@ public class MetricBucket {
         initMinRt();
     }
 
-    private void initMinRt() {
+    /**
+     * Constructor for subclasses that maintain their own counter storage
+     * (thus they should override {@link #get}, {@link #add} and {@link #reset}).
+     *
+     * @param counters the adders of the bucket, may be null
+     * @since 1.4.2
+     */
+    protected MetricBucket(LongAdder[] counters) {
+        this.counters = counters;
+        initMinRt();
+    }
+
+    protected void initMinRt() {
         this.minRt = Constants.TIME_DROP_VALVE;
     }
 
+    /**
+     * Keep a latency histogram of response time in this bucket. This should be invoked before the bucket
+     * is published to the sliding window.
+     *
+     * @return this bucket
+     * @since 1.4.2
+     */
+    public MetricBucket enableRtHistogram() {
+        if (rtHistogram == null) {
+            this.rtHistogram = new LatencyHistogram(Constants.TIME_DROP_VALVE);
+        }
+        return this;
+    }
+
+    /**
+     * @return latency histogram of response time in this bucket, or null if disabled
+     * @since 1.4.2
+     */
+    public LatencyHistogram rtHistogram() {
+        return rtHistogram;
+    }
+
+    /**
+     * Get the response time at given percentile in this bucket.
+     *
+     * @param percentile percentile in (0, 100], e.g. 99.9
+     * @return response time at the percentile; 0 if there are no samples or the histogram is disabled
+     * @since 1.4.2
+     */
+    public long rtPercentile(double percentile) {
+        return rtHistogram == null ? 0 : rtHistogram.valueAtPercentile(percentile);
+    }
+
+    protected void resetRtHistogram() {
+        if (rtHistogram != null) {
+            rtHistogram.reset();
+        }
+    }
+
     /**
      * Reset the adders.
      *
@@ -54,6 +110,7 @@ public class MetricBucket {
             counters[event.ordinal()].reset();
         }
         initMinRt();
+        resetRtHistogram();
         return this;
     }
 
@@ -108,6 +165,9 @@ public class MetricBucket {
 
     public void addRT(long rt) {
         add(MetricEvent.RT, rt);
+        if (rtHistogram != null) {
+            rtHistogram.record(rt);
+        }
 
         // Not thread-safe, but it's okay.
         if (rt < minRt) {
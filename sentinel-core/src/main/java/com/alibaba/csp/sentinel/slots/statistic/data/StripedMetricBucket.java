@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * A {@link MetricBucket} that keeps all event counters in one striped matrix
+ * instead of one {@code LongAdder} per {@link MetricEvent}.
+ * </p>
+ * <p>
+ * The matrix is a single {@code long} array indexed by (stripe, event). Each stripe holds
+ * the counters of all events in one cache-line aligned row, and rows are separated by a
+ * cache line of padding, so that threads mapped to different stripes never share a cache line.
+ * Summing up an event is a linear scan with fixed stride over the stripes.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class StripedMetricBucket extends MetricBucket {
+
+    /**
+     * Amount of {@code long} slots in a 64-byte cache line.
+     */
+    private static final int CACHE_LINE_LONGS = 8;
+
+    private static final int EVENT_COUNT = MetricEvent.values().length;
+
+    /**
+     * Distance between the same event of two adjacent stripes (counters row + padding).
+     */
+    private static final int ROW_STRIDE = roundToCacheLine(EVENT_COUNT) + CACHE_LINE_LONGS;
+
+    static final int MAX_STRIPES = 64;
+
+    private final AtomicLongArray cells;
+    private final int stripeMask;
+
+    /**
+     * @param stripes expected stripe count, which will be rounded up to the power of 2
+     */
+    public StripedMetricBucket(int stripes) {
+        super(null);
+        AssertUtil.isTrue(stripes > 0, "stripe count should be positive");
+        int n = ceilingPowerOfTwo(Math.min(stripes, MAX_STRIPES));
+        this.stripeMask = n - 1;
+        this.cells = new AtomicLongArray(CACHE_LINE_LONGS + n * ROW_STRIDE);
+    }
+
+    @Override
+    public MetricBucket reset() {
+        int length = cells.length();
+        for (int i = 0; i < length; i++) {
+            cells.set(i, 0);
+        }
+        initMinRt();
+        resetRtHistogram();
+        return this;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        long sum = 0;
+        int end = cells.length();
+        for (int i = CACHE_LINE_LONGS + event.ordinal(); i < end; i += ROW_STRIDE) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        cells.addAndGet(indexOf(currentStripe(), event), n);
+        return this;
+    }
+
+    public int getStripeCount() {
+        return stripeMask + 1;
+    }
+
+    private int indexOf(int stripe, MetricEvent event) {
+        return CACHE_LINE_LONGS + stripe * ROW_STRIDE + event.ordinal();
+    }
+
+    private int currentStripe() {
+        // Spread the thread id so that threads of one pool land in different stripes.
+        long id = Thread.currentThread().getId();
+        int h = (int)(id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x45d9f3b;
+        h ^= (h >>> 16);
+        return h & stripeMask;
+    }
+
+    private static int roundToCacheLine(int n) {
+        return (n + CACHE_LINE_LONGS - 1) / CACHE_LINE_LONGS * CACHE_LINE_LONGS;
+    }
+
+    private static int ceilingPowerOfTwo(int n) {
+        int r = 1;
+        while (r < n) {
+            r <<= 1;
+        }
+        return r;
+    }
+}
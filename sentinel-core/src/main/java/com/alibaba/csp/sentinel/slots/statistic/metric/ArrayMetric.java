@@ -19,7 +19,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.data.LatencyHistogram;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 
@@ -34,11 +37,17 @@ public class ArrayMetric implements Metric {
     private final MetricsLeapArray data;
 
     public ArrayMetric(int sampleCount, int intervalInMs) {
-        this.data = new MetricsLeapArray(sampleCount, intervalInMs);
+        this(sampleCount, intervalInMs, SentinelConfig.statisticLockFreeRotation());
+    }
+
+    public ArrayMetric(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        this.data = new MetricsLeapArray(sampleCount, intervalInMs, lockFreeRotation);
     }
 
     /**
-     * For unit test.
+     * Create a metric over the provided sliding window (e.g. an {@link OccupiableBucketLeapArray}).
+     *
+     * @param array the sliding window
      */
     public ArrayMetric(MetricsLeapArray array) {
         this.data = array;
@@ -129,6 +138,19 @@ public class ArrayMetric implements Metric {
         return Math.max(1, rt);
     }
 
+    @Override
+    public long percentileRt(double percentile) {
+        data.currentWindow();
+        List<MetricBucket> list = data.values();
+        List<LatencyHistogram> histograms = new ArrayList<LatencyHistogram>(list.size());
+        for (MetricBucket window : list) {
+            if (window.rtHistogram() != null) {
+                histograms.add(window.rtHistogram());
+            }
+        }
+        return LatencyHistogram.valueAtPercentile(histograms, percentile);
+    }
+
     @Override
     public List<MetricNode> details() {
         List<MetricNode> details = new ArrayList<MetricNode>();
@@ -138,23 +160,53 @@ public class ArrayMetric implements Metric {
                 continue;
             }
             MetricNode node = new MetricNode();
-            node.setBlockQps(window.value().block());
-            node.setExceptionQps(window.value().exception());
-            node.setPassQps(window.value().pass());
-            long passQps = window.value().success();
-            node.setSuccessQps(passQps);
-            if (passQps != 0) {
-                node.setRt(window.value().rt() / passQps);
-            } else {
-                node.setRt(window.value().rt());
-            }
-            node.setTimestamp(window.windowStart());
+            fillNode(node, window);
             details.add(node);
         }
 
         return details;
     }
 
+    @Override
+    public boolean fillDetail(long windowStart, MetricNode node) {
+        WindowWrap<MetricBucket> window = data.getWindowAt(windowStart);
+        if (window == null) {
+            return false;
+        }
+        MetricBucket bucket = window.value();
+        if (bucket.pass() == 0 && bucket.block() == 0 && bucket.success() == 0 && bucket.exception() == 0
+            && bucket.rt() == 0) {
+            return false;
+        }
+        fillNode(node, window);
+        return true;
+    }
+
+    private void fillNode(MetricNode node, WindowWrap<MetricBucket> window) {
+        node.setBlockQps(window.value().block());
+        node.setExceptionQps(window.value().exception());
+        node.setPassQps(window.value().pass());
+        long passQps = window.value().success();
+        node.setSuccessQps(passQps);
+        if (passQps != 0) {
+            node.setRt(window.value().rt() / passQps);
+        } else {
+            node.setRt(window.value().rt());
+        }
+        if (window.value().rtHistogram() != null) {
+            node.setRt50(window.value().rtPercentile(50));
+            node.setRt90(window.value().rtPercentile(90));
+            node.setRt99(window.value().rtPercentile(99));
+            node.setRt999(window.value().rtPercentile(99.9));
+        } else {
+            node.setRt50(0);
+            node.setRt90(0);
+            node.setRt99(0);
+            node.setRt999(0);
+        }
+        node.setTimestamp(window.windowStart());
+    }
+
     @Override
     public MetricBucket[] windows() {
         data.currentWindow();
@@ -226,6 +278,47 @@ public class ArrayMetric implements Metric {
         return wrap.value().pass();
     }
 
+    @Override
+    public long getWindowPass(long timeMillis) {
+        MetricBucket bucket = data.getWindowValue(timeMillis);
+        if (bucket == null) {
+            return 0L;
+        }
+        return bucket.pass();
+    }
+
+    @Override
+    public void addOccupiedPass(int acquireCount) {
+        WindowWrap<MetricBucket> wrap = data.currentWindow();
+        wrap.value().add(MetricEvent.OCCUPIED_PASS, acquireCount);
+    }
+
+    @Override
+    public long occupiedPass() {
+        data.currentWindow();
+        long pass = 0;
+        List<MetricBucket> list = data.values();
+        for (MetricBucket window : list) {
+            pass += window.get(MetricEvent.OCCUPIED_PASS);
+        }
+        return pass;
+    }
+
+    @Override
+    public void addWaiting(long futureTime, int acquireCount) {
+        if (data instanceof OccupiableBucketLeapArray) {
+            ((OccupiableBucketLeapArray)data).addWaiting(futureTime, acquireCount);
+        }
+    }
+
+    @Override
+    public long waiting() {
+        if (data instanceof OccupiableBucketLeapArray) {
+            return ((OccupiableBucketLeapArray)data).currentWaiting();
+        }
+        return 0L;
+    }
+
     @Override
     public double getWindowIntervalInSec() {
         return data.getIntervalInSecond();
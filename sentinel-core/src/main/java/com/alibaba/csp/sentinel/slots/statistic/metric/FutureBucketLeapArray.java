@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * A special {@link LeapArray} that only keeps the buckets in future, which records
+ * the requests that occupied (borrowed) the upcoming windows.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class FutureBucketLeapArray extends LeapArray<MetricBucket> {
+
+    public FutureBucketLeapArray(int sampleCount, int intervalInMs) {
+        super(sampleCount, intervalInMs);
+    }
+
+    @Override
+    public MetricBucket newEmptyBucket() {
+        return new MetricBucket();
+    }
+
+    @Override
+    protected WindowWrap<MetricBucket> resetWindowTo(WindowWrap<MetricBucket> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    @Override
+    protected boolean isWindowDeprecated(WindowWrap<MetricBucket> windowWrap) {
+        // Only the buckets in future are valid.
+        return TimeUtil.currentTimeMillis() >= windowWrap.windowStart();
+    }
+
+    /**
+     * Get the bucket that starts exactly at provided time, regardless of whether it's in future.
+     *
+     * @param windowStart start time of the bucket
+     * @return the bucket if present; otherwise null
+     */
+    public MetricBucket getBucketStartAt(long windowStart) {
+        WindowWrap<MetricBucket> wrap = array.get(calculateTimeIdx(windowStart));
+        if (wrap == null || wrap.windowStart() != windowStart) {
+            return null;
+        }
+        return wrap.value();
+    }
+}
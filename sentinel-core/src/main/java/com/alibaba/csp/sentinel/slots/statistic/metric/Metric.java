@@ -77,6 +77,16 @@ public interface Metric {
      */
     long minRt();
 
+    /**
+     * Get the RT at given percentile, which is calculated from the merged latency histograms
+     * of all valid buckets.
+     *
+     * @param percentile percentile in (0, 100], e.g. 99.9
+     * @return RT at the percentile; 0 if there are no samples or histograms are disabled
+     * @since 1.4.2
+     */
+    long percentileRt(double percentile);
+
     /**
      * Get aggregated metric nodes of all resources.
      *
@@ -84,6 +94,17 @@ public interface Metric {
      */
     List<MetricNode> details();
 
+    /**
+     * Fill the provided metric node with statistics of the bucket starting at given timestamp,
+     * so that the node can be reused. Nothing will be filled if the bucket is absent or empty.
+     *
+     * @param windowStart start timestamp of the bucket
+     * @param node        the metric node to fill
+     * @return true if the node has been filled, false if the bucket is absent or empty
+     * @since 1.4.2
+     */
+    boolean fillDetail(long windowStart, MetricNode node);
+
     /**
      * Get the raw window array.
      *
@@ -118,6 +139,49 @@ public interface Metric {
      */
     void addRT(long rt);
 
+    /**
+     * Get pass count of the bucket at provided timestamp.
+     *
+     * @param timeMillis a valid timestamp in milliseconds
+     * @return pass count of the bucket; 0 if the bucket is absent or deprecated
+     * @since 1.4.2
+     */
+    long getWindowPass(long timeMillis);
+
+    /**
+     * Add occupied pass count, which represents requests that have occupied upcoming windows.
+     *
+     * @param acquireCount count of the occupied requests
+     * @since 1.4.2
+     */
+    void addOccupiedPass(int acquireCount);
+
+    /**
+     * Get total occupied pass count.
+     *
+     * @return occupied pass count
+     * @since 1.4.2
+     */
+    long occupiedPass();
+
+    /**
+     * Occupy the bucket at provided future time. This takes effect only if the underlying
+     * sliding window supports occupying upcoming buckets.
+     *
+     * @param futureTime   the time of the bucket to occupy
+     * @param acquireCount count to occupy
+     * @since 1.4.2
+     */
+    void addWaiting(long futureTime, int acquireCount);
+
+    /**
+     * Get the amount of requests that have occupied upcoming buckets and are still waiting.
+     *
+     * @return current waiting count
+     * @since 1.4.2
+     */
+    long waiting();
+
     double getWindowIntervalInSec();
 
     int getSampleCount();
@@ -15,8 +15,10 @@
  */
 package com.alibaba.csp.sentinel.slots.statistic.metric;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.StripedMetricBucket;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 
 /**
@@ -28,13 +30,44 @@ import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
  */
 public class MetricsLeapArray extends LeapArray<MetricBucket> {
 
+    /**
+     * Stripe count of {@link StripedMetricBucket}. Non-positive value means normal {@link MetricBucket}.
+     */
+    private final int bucketStripes;
+
+    /**
+     * Whether the buckets keep latency histograms of response time.
+     */
+    private final boolean rtHistogram;
+
     public MetricsLeapArray(int sampleCount, int intervalInMs) {
-        super(sampleCount, intervalInMs);
+        this(sampleCount, intervalInMs, false);
+    }
+
+    public MetricsLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        this(sampleCount, intervalInMs, lockFreeRotation, SentinelConfig.statisticBucketStripes());
+    }
+
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param lockFreeRotation whether to rotate deprecated buckets via lock-free CAS swap
+     * @param bucketStripes    stripe count of {@link StripedMetricBucket}; non-positive for normal buckets
+     * @since 1.4.2
+     */
+    public MetricsLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation, int bucketStripes) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+        this.bucketStripes = bucketStripes;
+        this.rtHistogram = SentinelConfig.statisticRtHistogram();
     }
 
     @Override
     public MetricBucket newEmptyBucket() {
-        return new MetricBucket();
+        MetricBucket bucket = bucketStripes > 0 ? new StripedMetricBucket(bucketStripes) : new MetricBucket();
+        if (rtHistogram) {
+            bucket.enableRtHistogram();
+        }
+        return bucket;
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+
+/**
+ * <p>A {@link MetricsLeapArray} whose upcoming buckets can be occupied in advance.</p>
+ *
+ * <p>Requests that occupy (borrow) an upcoming bucket are recorded in a {@link FutureBucketLeapArray}.
+ * When the bucket comes (i.e. it's created or reset), the borrowed count will be transferred to
+ * the pass count of the bucket, so that the threshold of the upcoming window is respected.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class OccupiableBucketLeapArray extends MetricsLeapArray {
+
+    private final FutureBucketLeapArray borrowArray;
+
+    public OccupiableBucketLeapArray(int sampleCount, int intervalInMs) {
+        super(sampleCount, intervalInMs);
+        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs);
+    }
+
+    public OccupiableBucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs);
+    }
+
+    @Override
+    protected MetricBucket newEmptyBucket(long windowStart) {
+        MetricBucket bucket = newEmptyBucket();
+        transferBorrowed(bucket, windowStart);
+        return bucket;
+    }
+
+    @Override
+    protected WindowWrap<MetricBucket> resetWindowTo(WindowWrap<MetricBucket> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        transferBorrowed(w.value(), startTime);
+        return w;
+    }
+
+    private void transferBorrowed(MetricBucket bucket, long windowStart) {
+        MetricBucket borrowBucket = borrowArray.getBucketStartAt(windowStart);
+        if (borrowBucket != null) {
+            bucket.addPass((int)borrowBucket.pass());
+        }
+    }
+
+    /**
+     * Get the amount of requests that have occupied the upcoming buckets and are still waiting.
+     *
+     * @return current waiting count
+     */
+    public long currentWaiting() {
+        borrowArray.currentWindow();
+        long currentWaiting = 0;
+        List<MetricBucket> list = borrowArray.values();
+        for (MetricBucket window : list) {
+            currentWaiting += window.pass();
+        }
+        return currentWaiting;
+    }
+
+    /**
+     * Occupy the bucket at provided future time.
+     *
+     * @param futureTime   the time of the bucket to occupy
+     * @param acquireCount count to occupy
+     */
+    public void addWaiting(long futureTime, int acquireCount) {
+        WindowWrap<MetricBucket> window = borrowArray.currentWindow(futureTime);
+        window.value().addPass(acquireCount);
+    }
+}
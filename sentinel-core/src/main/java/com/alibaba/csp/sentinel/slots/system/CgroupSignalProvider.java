@@ -0,0 +1,464 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>
+ * Provides CPU and memory signals of the container (cgroup) that current process belongs to,
+ * which are read from the cgroup file system ({@code /sys/fs/cgroup} by default). Both cgroup v1
+ * and the unified hierarchy (v2) are supported.
+ * </p>
+ * <p>
+ * The cgroup of current process is resolved from {@code /proc/self/cgroup} (relative to the root of
+ * the mounted hierarchy, see {@code /proc/self/mountinfo}), so the signals are the process's own even if
+ * it runs in a child cgroup of the host (e.g. a systemd service). The root of the hierarchy is used
+ * if the cgroup directory cannot be resolved.
+ * </p>
+ * <p>
+ * The derived signals are:
+ * </p>
+ * <ul>
+ * <li>CPU usage: CPU time consumed by the cgroup between two refreshes, divided by the CPU
+ * quota ({@code cfs_quota / cfs_period}, or available processors if unlimited or the quota file
+ * is absent), in [0, 1]</li>
+ * <li>CPU throttled ratio: ratio of throttled CFS periods between two refreshes, in [0, 1]</li>
+ * <li>Memory usage: working set (usage excluding inactive page cache) divided by the memory limit</li>
+ * <li>Memory pressure: {@code some avg10} of the PSI memory pressure (only cgroup v2), in [0, 1]</li>
+ * </ul>
+ * <p>A signal will be negative if it's unavailable. This class is not thread-safe, and it should be
+ * refreshed by a single thread (i.e. the {@link SystemStatusListener}).</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+class CgroupSignalProvider {
+
+    static final String DEFAULT_CGROUP_ROOT = "/sys/fs/cgroup";
+    static final String PROC_SELF_CGROUP = "/proc/self/cgroup";
+    static final String PROC_SELF_MOUNTINFO = "/proc/self/mountinfo";
+
+    /**
+     * Key of the unified hierarchy (cgroup v2) in the maps of controllers.
+     */
+    private static final String UNIFIED = "";
+
+    static final int VERSION_NONE = 0;
+    static final int VERSION_1 = 1;
+    static final int VERSION_2 = 2;
+
+    /**
+     * Memory limit larger than this value indicates that the memory is unlimited in cgroup v1.
+     */
+    private static final long UNLIMITED_MEMORY = Long.MAX_VALUE / 2;
+
+    private final int version;
+
+    private final File cpuUsageFile;
+    private final File cpuStatFile;
+    private final File cpuQuotaFile;
+    private final File cpuPeriodFile;
+    private final File memoryUsageFile;
+    private final File memoryLimitFile;
+    private final File memoryStatFile;
+    private final File memoryPressureFile;
+
+    private long lastSampleNanos = -1;
+    private long lastCpuUsageNanos;
+    private long lastPeriods;
+    private long lastThrottledPeriods;
+
+    private double cpuUsage = -1;
+    private double cpuThrottledRatio = -1;
+    private double memoryUsage = -1;
+    private double memoryPressure = -1;
+
+    /**
+     * Whether the failure of reading signals has been logged, so that it won't be logged on every refresh.
+     */
+    private boolean cpuFailureLogged = false;
+    private boolean memoryFailureLogged = false;
+
+    CgroupSignalProvider() {
+        this(DEFAULT_CGROUP_ROOT, PROC_SELF_CGROUP, PROC_SELF_MOUNTINFO);
+    }
+
+    /**
+     * @param rootPath the cgroup directory of the process (or the root of the hierarchy)
+     */
+    CgroupSignalProvider(String rootPath) {
+        this(rootPath, null, null);
+    }
+
+    /**
+     * @param rootPath      mount point of the cgroup file system
+     * @param cgroupPath    path of the cgroup file of the process (e.g. {@code /proc/self/cgroup}),
+     *                      or null to read signals from the root directly
+     * @param mountInfoPath path of the mount info file of the process (e.g. {@code /proc/self/mountinfo}),
+     *                      or null if the hierarchies are mounted at the root of cgroup file system
+     */
+    CgroupSignalProvider(String rootPath, String cgroupPath, String mountInfoPath) {
+        File root = new File(rootPath);
+        Map<String, String> processPaths = readProcessCgroups(cgroupPath);
+        Map<String, String> mountRoots = readMountRoots(mountInfoPath);
+        if (new File(root, "cgroup.controllers").exists()) {
+            this.version = VERSION_2;
+            File dir = resolveDir(root, mountRoots.get(UNIFIED), processPaths.get(UNIFIED));
+            this.cpuUsageFile = new File(dir, "cpu.stat");
+            this.cpuStatFile = cpuUsageFile;
+            this.cpuQuotaFile = new File(dir, "cpu.max");
+            this.cpuPeriodFile = null;
+            this.memoryUsageFile = new File(dir, "memory.current");
+            this.memoryLimitFile = new File(dir, "memory.max");
+            this.memoryStatFile = new File(dir, "memory.stat");
+            this.memoryPressureFile = new File(dir, "memory.pressure");
+        } else {
+            File cpuDir = resolveDir(firstExisting(root, "cpu,cpuacct", "cpuacct,cpu", "cpu"),
+                mountRoots.get("cpu"), processPaths.get("cpu"));
+            File cpuacctDir = resolveDir(firstExisting(root, "cpu,cpuacct", "cpuacct,cpu", "cpuacct"),
+                mountRoots.get("cpuacct"), processPaths.get("cpuacct"));
+            File memoryDir = resolveDir(new File(root, "memory"), mountRoots.get("memory"),
+                processPaths.get("memory"));
+            this.cpuUsageFile = cpuacctDir == null ? null : new File(cpuacctDir, "cpuacct.usage");
+            this.version = cpuUsageFile != null && cpuUsageFile.exists() ? VERSION_1 : VERSION_NONE;
+            this.cpuStatFile = cpuDir == null ? null : new File(cpuDir, "cpu.stat");
+            this.cpuQuotaFile = cpuDir == null ? null : new File(cpuDir, "cpu.cfs_quota_us");
+            this.cpuPeriodFile = cpuDir == null ? null : new File(cpuDir, "cpu.cfs_period_us");
+            this.memoryUsageFile = new File(memoryDir, "memory.usage_in_bytes");
+            this.memoryLimitFile = new File(memoryDir, "memory.limit_in_bytes");
+            this.memoryStatFile = new File(memoryDir, "memory.stat");
+            this.memoryPressureFile = null;
+        }
+        if (version != VERSION_NONE) {
+            RecordLog.info("[CgroupSignalProvider] Reading container signals from cgroup v" + version
+                + " at " + cpuUsageFile.getParent());
+        }
+    }
+
+    /**
+     * Resolve the cgroup directory of the process in the hierarchy mounted at {@code mountPoint}.
+     *
+     * @param mountPoint  mount point of the hierarchy
+     * @param mountRoot   the root of the mount in the hierarchy (e.g. {@code /docker/<id>} without cgroup namespace)
+     * @param processPath the cgroup path of the process in the hierarchy
+     * @return the cgroup directory of the process, or the mount point if it cannot be resolved
+     */
+    static File resolveDir(File mountPoint, String mountRoot, String processPath) {
+        if (mountPoint == null || processPath == null) {
+            return mountPoint;
+        }
+        String relativePath = processPath;
+        if (mountRoot != null && !"/".equals(mountRoot)) {
+            if (!processPath.startsWith(mountRoot)) {
+                return mountPoint;
+            }
+            relativePath = processPath.substring(mountRoot.length());
+        }
+        File dir = new File(mountPoint, relativePath);
+        return dir.isDirectory() ? dir : mountPoint;
+    }
+
+    /**
+     * Parse the cgroup file of the process, whose lines are like {@code 4:cpu,cpuacct:/user.slice}
+     * (cgroup v1) or {@code 0::/system.slice/app.service} (cgroup v2).
+     *
+     * @return cgroup paths of the process keyed by controller (empty key for the unified hierarchy)
+     */
+    static Map<String, String> readProcessCgroups(String cgroupPath) {
+        Map<String, String> map = new HashMap<String, String>();
+        if (cgroupPath == null) {
+            return map;
+        }
+        try {
+            for (String line : readLines(new File(cgroupPath))) {
+                String[] parts = line.split(":", 3);
+                if (parts.length < 3) {
+                    continue;
+                }
+                if (parts[1].length() == 0) {
+                    map.put(UNIFIED, parts[2]);
+                } else {
+                    for (String controller : parts[1].split(",")) {
+                        map.put(controller, parts[2]);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // Not in Linux or the file is not accessible, read signals from the root then.
+        }
+        return map;
+    }
+
+    /**
+     * Parse the mount info of the process, whose lines are like
+     * {@code 30 25 0:26 /docker/abc /sys/fs/cgroup/memory ro,nosuid - cgroup cgroup rw,memory}.
+     *
+     * @return roots of the mounted cgroup hierarchies keyed by controller (empty key for the unified hierarchy)
+     */
+    static Map<String, String> readMountRoots(String mountInfoPath) {
+        Map<String, String> map = new HashMap<String, String>();
+        if (mountInfoPath == null) {
+            return map;
+        }
+        try {
+            for (String line : readLines(new File(mountInfoPath))) {
+                int separator = line.indexOf(" - ");
+                if (separator < 0) {
+                    continue;
+                }
+                String[] fields = line.substring(0, separator).split(" ");
+                String[] fsFields = line.substring(separator + 3).split(" ");
+                if (fields.length < 5 || fsFields.length < 3) {
+                    continue;
+                }
+                if ("cgroup2".equals(fsFields[0])) {
+                    map.put(UNIFIED, fields[3]);
+                } else if ("cgroup".equals(fsFields[0])) {
+                    for (String option : fsFields[2].split(",")) {
+                        map.put(option, fields[3]);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // Not in Linux or the file is not accessible, regard the hierarchies as mounted at the root.
+        }
+        return map;
+    }
+
+    boolean isAvailable() {
+        return version != VERSION_NONE;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sample the cgroup counters and update the derived signals.
+     *
+     * @param nowNanos current monotonic time in nanoseconds
+     */
+    void refresh(long nowNanos) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            refreshCpu(nowNanos);
+            cpuFailureLogged = false;
+        } catch (Throwable ex) {
+            cpuUsage = -1;
+            cpuThrottledRatio = -1;
+            if (!cpuFailureLogged) {
+                cpuFailureLogged = true;
+                RecordLog.warn("[CgroupSignalProvider] Failed to read CPU signals of cgroup", ex);
+            }
+        }
+        try {
+            refreshMemory();
+            memoryFailureLogged = false;
+        } catch (Throwable ex) {
+            memoryUsage = -1;
+            memoryPressure = -1;
+            if (!memoryFailureLogged) {
+                memoryFailureLogged = true;
+                RecordLog.warn("[CgroupSignalProvider] Failed to read memory signals of cgroup", ex);
+            }
+        }
+    }
+
+    private void refreshCpu(long nowNanos) throws IOException {
+        long usageNanos;
+        long periods;
+        long throttledPeriods;
+        if (version == VERSION_2 && !cpuStatFile.exists()) {
+            throw new FileNotFoundException(cpuStatFile.getPath());
+        }
+        Map<String, Long> cpuStat = readKeyValues(cpuStatFile);
+        if (version == VERSION_2) {
+            usageNanos = valueOf(cpuStat, "usage_usec") * 1000;
+        } else {
+            usageNanos = Long.parseLong(readFirstLine(cpuUsageFile));
+        }
+        periods = valueOf(cpuStat, "nr_periods");
+        throttledPeriods = valueOf(cpuStat, "nr_throttled");
+
+        if (lastSampleNanos >= 0 && nowNanos > lastSampleNanos) {
+            double cpuTime = (double)(nowNanos - lastSampleNanos) * cpuLimit();
+            cpuUsage = clamp((usageNanos - lastCpuUsageNanos) / cpuTime);
+            long periodDelta = periods - lastPeriods;
+            cpuThrottledRatio = periodDelta > 0 ? clamp((double)(throttledPeriods - lastThrottledPeriods) / periodDelta)
+                : 0;
+        }
+        lastSampleNanos = nowNanos;
+        lastCpuUsageNanos = usageNanos;
+        lastPeriods = periods;
+        lastThrottledPeriods = throttledPeriods;
+    }
+
+    /**
+     * @return CPU cores that the cgroup is allowed to use (available processors if there is no quota)
+     */
+    double cpuLimit() throws IOException {
+        long quota = -1;
+        long period = -1;
+        if (version == VERSION_2 && cpuQuotaFile.exists()) {
+            // The file is absent in the root cgroup.
+            // Format: $MAX $PERIOD, where $MAX may be "max".
+            String[] parts = readFirstLine(cpuQuotaFile).split("\\s+");
+            if (parts.length == 2 && !"max".equals(parts[0])) {
+                quota = Long.parseLong(parts[0]);
+                period = Long.parseLong(parts[1]);
+            }
+        } else if (version == VERSION_1 && cpuQuotaFile != null && cpuQuotaFile.exists()
+            && cpuPeriodFile.exists()) {
+            quota = Long.parseLong(readFirstLine(cpuQuotaFile));
+            period = Long.parseLong(readFirstLine(cpuPeriodFile));
+        }
+        if (quota > 0 && period > 0) {
+            return (double)quota / period;
+        }
+        return SystemStatusListener.processor;
+    }
+
+    private void refreshMemory() throws IOException {
+        if (!memoryUsageFile.exists() || !memoryLimitFile.exists()) {
+            return;
+        }
+        String limitValue = readFirstLine(memoryLimitFile);
+        long limit = "max".equals(limitValue) ? -1 : Long.parseLong(limitValue);
+        if (limit > 0 && limit < UNLIMITED_MEMORY) {
+            long usage = Long.parseLong(readFirstLine(memoryUsageFile));
+            Map<String, Long> stat = readKeyValues(memoryStatFile);
+            long inactiveFile = valueOf(stat, version == VERSION_2 ? "inactive_file" : "total_inactive_file");
+            memoryUsage = clamp((double)Math.max(usage - inactiveFile, 0) / limit);
+        } else {
+            memoryUsage = -1;
+        }
+        if (memoryPressureFile != null && memoryPressureFile.exists()) {
+            memoryPressure = parsePressure(readFirstLine(memoryPressureFile));
+        }
+    }
+
+    /**
+     * Parse the {@code avg10} percentage of the first line of PSI file,
+     * e.g. {@code some avg10=0.31 avg60=0.12 avg300=0.05 total=1234}.
+     */
+    static double parsePressure(String line) {
+        if (line == null) {
+            return -1;
+        }
+        for (String part : line.split("\\s+")) {
+            if (part.startsWith("avg10=")) {
+                return clamp(Double.parseDouble(part.substring("avg10=".length())) / 100);
+            }
+        }
+        return -1;
+    }
+
+    double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    double getCpuThrottledRatio() {
+        return cpuThrottledRatio;
+    }
+
+    double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    double getMemoryPressure() {
+        return memoryPressure;
+    }
+
+    private static File firstExisting(File root, String... names) {
+        for (String name : names) {
+            File dir = new File(root, name);
+            if (dir.isDirectory()) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    private static long valueOf(Map<String, Long> map, String key) {
+        Long value = map.get(key);
+        return value == null ? 0 : value;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(value, 1));
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    private static String readFirstLine(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line = reader.readLine();
+            return line == null ? null : line.trim();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Map<String, Long> readKeyValues(File file) throws IOException {
+        Map<String, Long> map = new HashMap<String, Long>();
+        if (file == null || !file.exists()) {
+            return map;
+        }
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length == 2) {
+                    try {
+                        map.put(parts[0], Long.parseLong(parts[1]));
+                    } catch (NumberFormatException ex) {
+                        // Ignore the non-numeric entries.
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return map;
+    }
+}
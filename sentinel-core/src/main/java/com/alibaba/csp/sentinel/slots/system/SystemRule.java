@@ -45,6 +45,12 @@ public class SystemRule extends AbstractRule {
     private double qps = -1;
     private long avgRt = -1;
     private long maxThread = -1;
+    /**
+     * Max CPU usage of the process container (or the system) in [0, 1].
+     *
+     * @since 1.4.2
+     */
+    private double highestCpuUsage = -1;
 
     public double getQps() {
         return qps;
@@ -110,6 +116,14 @@ public class SystemRule extends AbstractRule {
         this.highestSystemLoad = highestSystemLoad;
     }
 
+    public double getHighestCpuUsage() {
+        return highestCpuUsage;
+    }
+
+    public void setHighestCpuUsage(double highestCpuUsage) {
+        this.highestCpuUsage = highestCpuUsage;
+    }
+
     @Override
     public boolean passCheck(Context context, DefaultNode node, int count, Object... args) {
         return true;
@@ -140,6 +154,9 @@ public class SystemRule extends AbstractRule {
         if (avgRt != that.avgRt) {
             return false;
         }
+        if (Double.compare(that.highestCpuUsage, highestCpuUsage) != 0) {
+            return false;
+        }
         return maxThread == that.maxThread;
     }
 
@@ -155,6 +172,9 @@ public class SystemRule extends AbstractRule {
 
         result = 31 * result + (int)(avgRt ^ (avgRt >>> 32));
         result = 31 * result + (int)(maxThread ^ (maxThread >>> 32));
+
+        temp = Double.doubleToLongBits(highestCpuUsage);
+        result = 31 * result + (int)(temp ^ (temp >>> 32));
         return result;
     }
 
@@ -165,6 +185,7 @@ public class SystemRule extends AbstractRule {
             ", qps=" + qps +
             ", avgRt=" + avgRt +
             ", maxThread=" + maxThread +
+            ", highestCpuUsage=" + highestCpuUsage +
             "}";
     }
 }
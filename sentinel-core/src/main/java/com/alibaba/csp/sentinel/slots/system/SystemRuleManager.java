@@ -25,6 +25,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
@@ -56,6 +57,15 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * Referring to BBR algorithm to learn more.
  * </p>
  * <p>
+ * The CPU usage rule limits the inbound traffic when the CPU usage of the process container
+ * (read from cgroup, see {@link CgroupSignalProvider}) or the system exceeds the threshold.
+ * </p>
+ * <p>
+ * The system signals and the statistics of inbound traffic (except the thread count) are sampled
+ * at sub-second resolution and published as a {@link SystemStatusSnapshot}, so checking each inbound
+ * entry only reads the snapshot.
+ * </p>
+ * <p>
  * Note that {@link SystemRule} only effect on inbound requests, outbound traffic
  * will not limit by {@link SystemRule}
  * </p>
@@ -69,6 +79,7 @@ public class SystemRuleManager {
     private static volatile double qps = Double.MAX_VALUE;
     private static volatile long maxRt = Long.MAX_VALUE;
     private static volatile long maxThread = Long.MAX_VALUE;
+    private static volatile double highestCpuUsage = Double.MAX_VALUE;
     /**
      * mark whether the threshold are set by user.
      */
@@ -76,6 +87,7 @@ public class SystemRuleManager {
     private static volatile boolean qpsIsSet = false;
     private static volatile boolean maxRtIsSet = false;
     private static volatile boolean maxThreadIsSet = false;
+    private static volatile boolean highestCpuUsageIsSet = false;
 
     private static AtomicBoolean checkSystemStatus = new AtomicBoolean(false);
 
@@ -89,7 +101,8 @@ public class SystemRuleManager {
     static {
         checkSystemStatus.set(false);
         statusListener = new SystemStatusListener();
-        scheduler.scheduleAtFixedRate(statusListener, 5, 1, TimeUnit.SECONDS);
+        long interval = SentinelConfig.systemStatusIntervalMs();
+        scheduler.scheduleAtFixedRate(statusListener, interval, interval, TimeUnit.MILLISECONDS);
         currentProperty.addListener(listener);
     }
 
@@ -134,6 +147,12 @@ public class SystemRuleManager {
             result.add(loadRule);
         }
 
+        if (highestCpuUsageIsSet) {
+            SystemRule cpuRule = new SystemRule();
+            cpuRule.setHighestCpuUsage(highestCpuUsage);
+            result.add(cpuRule);
+        }
+
         if (maxRtIsSet) {
             SystemRule rtRule = new SystemRule();
             rtRule.setAvgRt(maxRt);
@@ -184,10 +203,15 @@ public class SystemRuleManager {
             } else {
                 checkSystemStatus.set(false);
             }
+            if (checkSystemStatus.get()) {
+                // Publish the snapshot immediately rather than waiting for the next sampling.
+                statusListener.run();
+            }
 
 
             RecordLog.info(String.format("[SystemRuleManager] Current system check status: %s, highestSystemLoad: "
-                + highestSystemLoad + ", " + "maxRt: %d, maxThread: %d, maxQps: " + qps, checkSystemStatus.get(), maxRt, maxThread));
+                + highestSystemLoad + ", highestCpuUsage: " + highestCpuUsage + ", "
+            + "maxRt: %d, maxThread: %d, maxQps: " + qps, checkSystemStatus.get(), maxRt, maxThread));
         }
 
         protected void restoreSetting() {
@@ -198,8 +222,10 @@ public class SystemRuleManager {
             maxRt = Long.MAX_VALUE;
             maxThread = Long.MAX_VALUE;
             qps = Double.MAX_VALUE;
+            highestCpuUsage = Double.MAX_VALUE;
 
             highestSystemLoadIsSet = false;
+            highestCpuUsageIsSet = false;
             maxRtIsSet = false;
             maxThreadIsSet = false;
             qpsIsSet = false;
@@ -219,6 +245,10 @@ public class SystemRuleManager {
         SystemRuleManager.highestSystemLoad = highestSystemLoad;
     }
 
+    public static double getHighestCpuUsage() {
+        return highestCpuUsage;
+    }
+
     public static void loadSystemConf(SystemRule rule) {
         boolean checkStatus = false;
         // Check if it's valid.
@@ -229,6 +259,17 @@ public class SystemRuleManager {
             checkStatus = true;
         }
 
+        if (rule.getHighestCpuUsage() >= 0) {
+            if (rule.getHighestCpuUsage() > 1) {
+                RecordLog.warn(String.format("[SystemRuleManager] Ignoring invalid highestCpuUsage %.2f, "
+                    + "which should be in [0, 1]", rule.getHighestCpuUsage()));
+            } else {
+                highestCpuUsage = Math.min(highestCpuUsage, rule.getHighestCpuUsage());
+                highestCpuUsageIsSet = true;
+                checkStatus = true;
+            }
+        }
+
         if (rule.getAvgRt() >= 0) {
             maxRt = Math.min(maxRt, rule.getAvgRt());
             maxRtIsSet = true;
@@ -267,8 +308,10 @@ public class SystemRuleManager {
             return;
         }
 
+        SystemStatusSnapshot snapshot = statusListener.getSnapshot();
+
         // total qps
-        double currentQps = Constants.ENTRY_NODE == null ? 0.0 : Constants.ENTRY_NODE.successQps();
+        double currentQps = snapshot.getSuccessQps();
         if (currentQps > qps) {
             throw new SystemBlockException(resourceWrapper.getName(), "qps");
         }
@@ -279,22 +322,58 @@ public class SystemRuleManager {
             throw new SystemBlockException(resourceWrapper.getName(), "thread");
         }
 
-        double rt = Constants.ENTRY_NODE == null ? 0 : Constants.ENTRY_NODE.avgRt();
+        double rt = snapshot.getAvgRt();
         if (rt > maxRt) {
             throw new SystemBlockException(resourceWrapper.getName(), "rt");
         }
 
         // BBR algorithm.
-        if (highestSystemLoadIsSet && getCurrentSystemAvgLoad() > highestSystemLoad) {
-            if (currentThread > 1 &&
-                currentThread > Constants.ENTRY_NODE.maxSuccessQps() * Constants.ENTRY_NODE.minRt() / 1000) {
+        if (highestSystemLoadIsSet && snapshot.getLoad() > highestSystemLoad) {
+            if (currentThread > 1 && currentThread > snapshot.getMaxConcurrency()) {
                 throw new SystemBlockException(resourceWrapper.getName(), "load");
             }
         }
 
+        if (highestCpuUsageIsSet && snapshot.getCpuUsage() > highestCpuUsage) {
+            throw new SystemBlockException(resourceWrapper.getName(), "cpu");
+        }
+
     }
 
     public static double getCurrentSystemAvgLoad() {
         return statusListener.getSystemAverageLoad();
     }
+
+    /**
+     * @return current CPU usage in [0, 1] of the process container (or the system); negative if unavailable
+     * @since 1.4.2
+     */
+    public static double getCurrentCpuUsage() {
+        return statusListener.getSnapshot().getCpuUsage();
+    }
+
+    /**
+     * @return ratio of throttled CFS periods of the process container; negative if unavailable
+     * @since 1.4.2
+     */
+    public static double getCurrentCpuThrottledRatio() {
+        return statusListener.getSnapshot().getCpuThrottledRatio();
+    }
+
+    /**
+     * @return ratio of memory working set to memory limit of the process container; negative if unavailable
+     * @since 1.4.2
+     */
+    public static double getCurrentMemoryUsage() {
+        return statusListener.getSnapshot().getMemoryUsage();
+    }
+
+    /**
+     * @return memory pressure ({@code some avg10} of PSI) in [0, 1] of the process container;
+     * negative if unavailable
+     * @since 1.4.2
+     */
+    public static double getCurrentMemoryPressure() {
+        return statusListener.getSnapshot().getMemoryPressure();
+    }
 }
@@ -19,50 +19,113 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.Constants;
 
 /**
+ * <p>
+ * Samples the system signals periodically (at sub-second resolution, see
+ * {@link com.alibaba.csp.sentinel.config.SentinelConfig#systemStatusIntervalMs()}) and publishes
+ * them with the derived inbound statistics as an immutable {@link SystemStatusSnapshot}.
+ * </p>
+ * <p>
+ * The CPU usage is read from cgroup (see {@link CgroupSignalProvider}) if available,
+ * otherwise (or if the cgroup CPU usage is unreadable) the system CPU load of the
+ * {@code OperatingSystemMXBean} is used.
+ * </p>
+ *
  * @author jialiang.linjl
  */
 public class SystemStatusListener implements Runnable {
 
+    private static final long LOG_INTERVAL_MS = 1000;
+
     volatile double currentLoad = -1;
 
     volatile String reason = StringUtil.EMPTY;
 
     static final int processor = ManagementFactory.getOperatingSystemMXBean().getAvailableProcessors();
 
+    private final CgroupSignalProvider cgroupSignalProvider;
+
+    private volatile SystemStatusSnapshot snapshot = SystemStatusSnapshot.EMPTY;
+
+    private long lastLogTime = -1;
+
+    public SystemStatusListener() {
+        this(new CgroupSignalProvider());
+    }
+
+    SystemStatusListener(CgroupSignalProvider cgroupSignalProvider) {
+        this.cgroupSignalProvider = cgroupSignalProvider;
+    }
+
     public double getSystemAverageLoad() {
         return currentLoad;
     }
 
+    SystemStatusSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     @Override
     public void run() {
         try {
             if (!SystemRuleManager.getCheckSystemStatus()) {
                 return;
             }
+            refresh();
+        } catch (Throwable e) {
+            RecordLog.info("could not get system error ", e);
+        }
+    }
+
+    synchronized void refresh() {
+        // system average load
+        OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        currentLoad = operatingSystemMXBean.getSystemLoadAverage();
 
-            // system average load
-            OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
-            currentLoad = operatingSystemMXBean.getSystemLoadAverage();
-
-            StringBuilder sb = new StringBuilder();
-            if (currentLoad > SystemRuleManager.getHighestSystemLoad()) {
-                sb.append("load:").append(currentLoad).append(";");
-                sb.append("qps:").append(Constants.ENTRY_NODE.passQps()).append(";");
-                sb.append("rt:").append(Constants.ENTRY_NODE.avgRt()).append(";");
-                sb.append("thread:").append(Constants.ENTRY_NODE.curThreadNum()).append(";");
-                sb.append("success:").append(Constants.ENTRY_NODE.successQps()).append(";");
-                sb.append("minRt:").append(Constants.ENTRY_NODE.minRt()).append(";");
-                sb.append("maxSuccess:").append(Constants.ENTRY_NODE.maxSuccessQps()).append(";");
+        double cpuUsage = -1;
+        if (cgroupSignalProvider.isAvailable()) {
+            cgroupSignalProvider.refresh(TimeUtil.nanoTime());
+            cpuUsage = cgroupSignalProvider.getCpuUsage();
+        }
+        if (cpuUsage < 0) {
+            cpuUsage = hostCpuUsage(operatingSystemMXBean);
+        }
+
+        Node entryNode = Constants.ENTRY_NODE;
+        double successQps = entryNode == null ? 0 : entryNode.successQps();
+        double avgRt = entryNode == null ? 0 : entryNode.avgRt();
+        double maxConcurrency = entryNode == null ? Double.MAX_VALUE
+            : (double)entryNode.maxSuccessQps() * entryNode.minRt() / 1000;
+        SystemStatusSnapshot current = new SystemStatusSnapshot(currentLoad, cpuUsage,
+            cgroupSignalProvider.getCpuThrottledRatio(), cgroupSignalProvider.getMemoryUsage(),
+            cgroupSignalProvider.getMemoryPressure(), successQps, avgRt, maxConcurrency);
+        snapshot = current;
+
+        if (currentLoad > SystemRuleManager.getHighestSystemLoad()
+            || cpuUsage > SystemRuleManager.getHighestCpuUsage()) {
+            long now = TimeUtil.currentTimeMillis();
+            if (now - lastLogTime >= LOG_INTERVAL_MS) {
+                lastLogTime = now;
+                StringBuilder sb = new StringBuilder(current.toString());
+                sb.append("thread:").append(entryNode == null ? 0 : entryNode.curThreadNum()).append(";");
                 RecordLog.info(sb.toString());
             }
-
-        } catch (Throwable e) {
-            RecordLog.info("could not get system error ", e);
         }
     }
 
+    private static double hostCpuUsage(OperatingSystemMXBean operatingSystemMXBean) {
+        try {
+            if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+                return ((com.sun.management.OperatingSystemMXBean)operatingSystemMXBean).getSystemCpuLoad();
+            }
+        } catch (Throwable ex) {
+            // The method is absent in the JVM (e.g. JDK 1.6).
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+/**
+ * An immutable snapshot of system signals and the inbound statistics derived from them,
+ * which is precomputed and published by {@link SystemStatusListener}, so that checking
+ * system rules for each inbound entry only needs to read the snapshot.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class SystemStatusSnapshot {
+
+    static final SystemStatusSnapshot EMPTY = new SystemStatusSnapshot(-1, -1, -1, -1, -1, 0, 0, Double.MAX_VALUE);
+
+    private final double load;
+    private final double cpuUsage;
+    private final double cpuThrottledRatio;
+    private final double memoryUsage;
+    private final double memoryPressure;
+
+    private final double successQps;
+    private final double avgRt;
+    /**
+     * Estimated max concurrency of the system ({@code maxSuccessQps * minRt / 1000}).
+     */
+    private final double maxConcurrency;
+
+    SystemStatusSnapshot(double load, double cpuUsage, double cpuThrottledRatio, double memoryUsage,
+                         double memoryPressure, double successQps, double avgRt, double maxConcurrency) {
+        this.load = load;
+        this.cpuUsage = cpuUsage;
+        this.cpuThrottledRatio = cpuThrottledRatio;
+        this.memoryUsage = memoryUsage;
+        this.memoryPressure = memoryPressure;
+        this.successQps = successQps;
+        this.avgRt = avgRt;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    double getLoad() {
+        return load;
+    }
+
+    double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    double getCpuThrottledRatio() {
+        return cpuThrottledRatio;
+    }
+
+    double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    double getMemoryPressure() {
+        return memoryPressure;
+    }
+
+    double getSuccessQps() {
+        return successQps;
+    }
+
+    double getAvgRt() {
+        return avgRt;
+    }
+
+    double getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public String toString() {
+        return "load:" + load + ";cpu:" + cpuUsage + ";throttled:" + cpuThrottledRatio + ";memory:" + memoryUsage
+            + ";memoryPressure:" + memoryPressure + ";qps:" + successQps + ";rt:" + avgRt
+            + ";maxConcurrency:" + maxConcurrency + ";";
+    }
+}
@@ -15,38 +15,97 @@
  */
 package com.alibaba.csp.sentinel.util;
 
-import java.util.concurrent.TimeUnit;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.clock.AdaptiveTickerClock;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.NanoClock;
+import com.alibaba.csp.sentinel.util.clock.SystemClock;
 
 /**
+ * <p>
  * Provides millisecond-level time of OS.
+ * </p>
+ * <p>
+ * The time source is a {@link Clock}, which is resolved via SPI first. If there's no custom clock,
+ * the clock is chosen by {@link SentinelConfig#CLOCK_MODE}:
+ * <ul>
+ * <li>{@code ticker} (default): time cached by a ticker thread, which stops when the time is not read</li>
+ * <li>{@code nano}: time based on {@link System#nanoTime()}, without any background thread</li>
+ * <li>{@code system}: directly reads {@link System#currentTimeMillis()}</li>
+ * </ul>
+ * </p>
  *
  * @author qinan.qn
  */
 public final class TimeUtil {
 
-    private static volatile long currentTimeMillis;
-
-    static {
-        currentTimeMillis = System.currentTimeMillis();
-        Thread daemon = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (true) {
-                    currentTimeMillis = System.currentTimeMillis();
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1);
-                    } catch (Throwable e) {
-
-                    }
-                }
-            }
-        });
-        daemon.setDaemon(true);
-        daemon.setName("sentinel-time-tick-thread");
-        daemon.start();
-    }
+    public static final String CLOCK_MODE_TICKER = "ticker";
+    public static final String CLOCK_MODE_NANO = "nano";
+    public static final String CLOCK_MODE_SYSTEM = "system";
+
+    private static volatile Clock clock = resolveClock();
 
     public static long currentTimeMillis() {
-        return currentTimeMillis;
+        return clock.currentTimeMillis();
+    }
+
+    /**
+     * Get current value of the high-resolution time source in nanoseconds,
+     * which can only be used to measure elapsed time.
+     *
+     * @return current value of the time source in nanoseconds
+     * @since 1.4.2
+     */
+    public static long nanoTime() {
+        return clock.nanoTime();
     }
+
+    /**
+     * @return the clock in use
+     * @since 1.4.2
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Replace the clock in use (e.g. with a deterministic clock in tests).
+     *
+     * @param clock new clock, should not be null
+     * @since 1.4.2
+     */
+    public static void setClock(Clock clock) {
+        AssertUtil.notNull(clock, "clock cannot be null");
+        TimeUtil.clock = clock;
+    }
+
+    static Clock newClock(String mode) {
+        if (CLOCK_MODE_NANO.equalsIgnoreCase(mode)) {
+            return new NanoClock();
+        }
+        if (CLOCK_MODE_SYSTEM.equalsIgnoreCase(mode)) {
+            return new SystemClock();
+        }
+        if (!CLOCK_MODE_TICKER.equalsIgnoreCase(mode)) {
+            RecordLog.warn("[TimeUtil] Unknown clock mode <" + mode + ">, using " + CLOCK_MODE_TICKER);
+        }
+        return new AdaptiveTickerClock();
+    }
+
+    private static Clock resolveClock() {
+        Clock custom = null;
+        try {
+            custom = SpiLoader.loadFirstInstance(Clock.class);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TimeUtil] Failed to load custom clock, using the default", ex);
+        }
+        if (custom != null) {
+            RecordLog.info("[TimeUtil] Using custom clock: " + custom.getClass().getName());
+            return custom;
+        }
+        return newClock(SentinelConfig.clockMode());
+    }
+
+    private TimeUtil() {}
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Clock that caches {@link System#currentTimeMillis()} in a field updated by a ticker thread every millisecond,
+ * so reading the time is only a volatile read.
+ * </p>
+ * <p>
+ * Unlike a plain ticker thread, the ticker stops (parks) once the time has not been read for a while
+ * (e.g. the application is idle), and it will be woken up by the next read. While the ticker is stopped,
+ * and until it has stored the first tick after waking up, the time is read from
+ * {@link System#currentTimeMillis()} directly, so no stale time could be read.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class AdaptiveTickerClock implements Clock {
+
+    static final long DEFAULT_IDLE_TIMEOUT_MS = 1000;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long idleTimeoutMs;
+    private final Thread ticker;
+
+    private volatile long currentTimeMillis;
+    private volatile boolean ticking;
+    /**
+     * Whether the ticker has stored the time since it's (re-)started.
+     */
+    private volatile boolean ticked;
+    /**
+     * Whether the time has been read since last idle check.
+     */
+    private volatile boolean accessed;
+
+    public AdaptiveTickerClock() {
+        this(DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    /**
+     * @param idleTimeoutMs the ticker stops if the time has not been read for the given time
+     */
+    public AdaptiveTickerClock(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.currentTimeMillis = System.currentTimeMillis();
+        this.ticked = false;
+        this.ticking = true;
+        this.accessed = true;
+        this.ticker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        });
+        ticker.setDaemon(true);
+        ticker.setName("sentinel-time-tick-thread");
+        ticker.start();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        if (ticking) {
+            // Avoid writing the shared field when it's already marked.
+            if (!accessed) {
+                accessed = true;
+            }
+            return ticked ? currentTimeMillis : System.currentTimeMillis();
+        }
+        return wakeUp();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    public boolean isTicking() {
+        return ticking;
+    }
+
+    private long wakeUp() {
+        // Reset the flag before marking as ticking, so that no stale time could be read before the first tick.
+        ticked = false;
+        accessed = true;
+        ticking = true;
+        LockSupport.unpark(ticker);
+        return System.currentTimeMillis();
+    }
+
+    private void tick() {
+        long lastIdleCheck = System.currentTimeMillis();
+        while (true) {
+            if (!ticking) {
+                LockSupport.park(this);
+                lastIdleCheck = System.currentTimeMillis();
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            currentTimeMillis = now;
+            if (!ticked) {
+                ticked = true;
+            }
+            if (now - lastIdleCheck >= idleTimeoutMs) {
+                lastIdleCheck = now;
+                if (accessed) {
+                    accessed = false;
+                } else {
+                    ticking = false;
+                    continue;
+                }
+            }
+            LockSupport.parkNanos(this, TICK_NANOS);
+        }
+    }
+}
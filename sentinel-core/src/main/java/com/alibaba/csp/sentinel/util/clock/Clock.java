@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+/**
+ * <p>
+ * Time source of Sentinel, which could be provided via SPI.
+ * </p>
+ * <p>
+ * Implementations should be thread-safe and as cheap as possible, as the time is read
+ * several times for every entry.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public interface Clock {
+
+    /**
+     * Get current time in milliseconds, with the same epoch as {@link System#currentTimeMillis()}.
+     *
+     * @return current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Get current value of the high-resolution time source in nanoseconds, which can only be used
+     * to measure elapsed time (just like {@link System#nanoTime()}).
+     *
+     * @return current value of the time source in nanoseconds
+     */
+    long nanoTime();
+}
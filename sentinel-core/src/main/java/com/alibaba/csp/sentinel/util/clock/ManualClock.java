@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic clock which only moves when being told to, mainly for testing.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class ManualClock implements Clock {
+
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong nanos;
+
+    /**
+     * @param currentTimeMillis initial time in milliseconds
+     */
+    public ManualClock(long currentTimeMillis) {
+        this.nanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(currentTimeMillis));
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return nanos.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos.get();
+    }
+
+    public ManualClock setCurrentTimeMillis(long currentTimeMillis) {
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(currentTimeMillis));
+        return this;
+    }
+
+    public ManualClock advance(long duration, TimeUnit unit) {
+        nanos.addAndGet(unit.toNanos(duration));
+        return this;
+    }
+}
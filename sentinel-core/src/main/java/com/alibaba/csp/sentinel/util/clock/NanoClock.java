@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Clock based on {@link System#nanoTime()}. The wall-clock time is only read once when the clock
+ * is created, and then the time moves forward according to {@link System#nanoTime()}.
+ * </p>
+ * <p>
+ * The time is monotonic and has sub-millisecond precision, and there's no background thread.
+ * However the time will not follow any adjustment of the system time.
+ * </p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class NanoClock implements Clock {
+
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long baseMillis;
+    private final long baseNanos;
+
+    public NanoClock() {
+        this.baseMillis = System.currentTimeMillis();
+        this.baseNanos = System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return baseMillis + (System.nanoTime() - baseNanos) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
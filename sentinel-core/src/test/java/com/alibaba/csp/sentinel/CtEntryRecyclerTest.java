@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CtEntryRecycler} and cached resource wrappers of {@link CtSph}.
+ *
+ * @author agent
+ */
+public class CtEntryRecyclerTest {
+
+    private final CtSph ctSph = new CtSph();
+
+    @Before
+    public void setUp() {
+        CtEntryRecycler.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        CtEntryRecycler.setEnabled(false);
+    }
+
+    @Test
+    public void testCachedStringResource() {
+        String name = "testCachedStringResource";
+        assertSame(CtSph.stringResource(name, EntryType.IN), CtSph.stringResource(name, EntryType.IN));
+        assertSame(CtSph.stringResource(name, EntryType.OUT), CtSph.stringResource(name, EntryType.OUT));
+        assertNotSame(CtSph.stringResource(name, EntryType.IN), CtSph.stringResource(name, EntryType.OUT));
+        assertEquals(EntryType.IN, CtSph.stringResource(name, EntryType.IN).getType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCachedStringResourceWithNullName() {
+        CtSph.stringResource(null, EntryType.IN);
+    }
+
+    @Test
+    public void testEntryRecycledAfterExit() throws BlockException {
+        String resourceName = "testEntryRecycledAfterExit";
+        Entry e1 = ctSph.entry(resourceName);
+        e1.exit();
+        assertNull(ContextUtil.getContext());
+
+        Entry e2 = ctSph.entry(resourceName, EntryType.IN);
+        assertSame(e1, e2);
+        assertEquals(EntryType.IN, e2.getResourceWrapper().getType());
+        assertNotNull(e2.getCurNode());
+        assertNull(e2.getError());
+        e2.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testNestedEntriesRecycled() throws BlockException {
+        Entry outer = ctSph.entry("testNestedEntriesRecycledOuter");
+        Entry inner = ctSph.entry("testNestedEntriesRecycledInner");
+        assertNotSame(outer, inner);
+        assertSame(outer, ((CtEntry)inner).parent);
+        inner.exit();
+        assertSame(outer, ContextUtil.getContext().getCurEntry());
+
+        Entry inner2 = ctSph.entry("testNestedEntriesRecycledInner2");
+        assertSame(inner, inner2);
+        assertSame(outer, ((CtEntry)inner2).parent);
+        assertSame(inner2, ((CtEntry)outer).child);
+        inner2.exit();
+        outer.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testAsyncEntryNotRecycled() throws BlockException {
+        AsyncEntry entry = ctSph.asyncEntry("testAsyncEntryNotRecycled", EntryType.OUT, 1);
+        entry.exit();
+        assertFalse(entry.recyclable);
+    }
+
+    @Test
+    public void testEntryNotRecycledWhenDisabled() throws BlockException {
+        CtEntryRecycler.setEnabled(false);
+        String resourceName = "testEntryNotRecycledWhenDisabled";
+        Entry e1 = ctSph.entry(resourceName);
+        e1.exit();
+        Entry e2 = ctSph.entry(resourceName);
+        e2.exit();
+        assertNotSame(e1, e2);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.ContextTestUtil;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link IdleResourceEvictor}.
+ *
+ * @author agent
+ */
+public class IdleResourceEvictorTest {
+
+    private final CtSph ctSph = new CtSph();
+
+    @Before
+    public void setUp() {
+        CtSph.resetChainMap();
+    }
+
+    @After
+    public void tearDown() {
+        CtSph.resetChainMap();
+        ContextTestUtil.cleanUpContext();
+    }
+
+    @Test
+    public void testDisabled() {
+        IdleResourceEvictor evictor = new IdleResourceEvictor(0);
+        assertFalse(evictor.isEnabled());
+        ctSph.lookProcessChain(new StringResourceWrapper("testEvictorDisabled", EntryType.IN));
+        assertEquals(0, evictor.evictIdleResources(System.currentTimeMillis() + 1000 * 3600));
+        assertEquals(1, CtSph.entrySize());
+    }
+
+    @Test
+    public void testEvictIdleResources() throws Exception {
+        long timeout = 60 * 1000;
+        IdleResourceEvictor evictor = new IdleResourceEvictor(timeout);
+
+        ResourceWrapper idle = new StringResourceWrapper("testEvictIdleResource", EntryType.IN);
+        ctSph.lookProcessChain(idle);
+
+        String busyName = "testEvictBusyResource";
+        // The entry is not exited, so the resource should never be evicted.
+        Entry entry = SphU.entry(busyName);
+        ResourceWrapper busy = entry.getResourceWrapper();
+        DefaultNode busyNode = (DefaultNode)entry.getCurNode();
+        DefaultNode entranceNode = ContextUtil.getContext().getEntranceNode();
+        assertNotNull(ClusterBuilderSlot.getClusterNode(busyName));
+
+        long now = System.currentTimeMillis();
+        // First found idle, just mark it.
+        assertEquals(0, evictor.evictIdleResources(now));
+        assertEquals(0, evictor.evictIdleResources(now + timeout - 1));
+        assertEquals(1, evictor.evictIdleResources(now + timeout));
+
+        assertFalse(CtSph.getChainMap().containsKey(idle));
+        assertTrue(CtSph.getChainMap().containsKey(busy));
+        assertTrue(containsNode(entranceNode, busyNode));
+
+        entry.exit();
+        // The busy resource will be evicted only after its statistics turns idle.
+        assertEquals(0, evictor.evictIdleResources(now + timeout * 2));
+        assertTrue(CtSph.getChainMap().containsKey(busy));
+    }
+
+    @Test
+    public void testEvictRemovesNodesOfResource() throws Exception {
+        long timeout = 60 * 1000;
+        IdleResourceEvictor evictor = new IdleResourceEvictor(timeout);
+        String resourceName = "testEvictRemovesNodesOfResource";
+
+        // Prepare the chain and nodes of an idle resource (with no statistics).
+        ResourceWrapper resource = new StringResourceWrapper(resourceName, EntryType.OUT);
+        ctSph.lookProcessChain(resource);
+        ClusterNode clusterNode = new ClusterNode();
+        ClusterBuilderSlot.getClusterNodeMap().put(resource, clusterNode);
+        DefaultNode node = new DefaultNode(resource, clusterNode);
+        Constants.ROOT.addChild(node);
+        assertTrue(containsNode(Constants.ROOT, node));
+
+        long now = System.currentTimeMillis();
+        assertEquals(0, evictor.evictIdleResources(now));
+        assertEquals(1, evictor.evictIdleResources(now + timeout));
+
+        assertFalse(CtSph.getChainMap().containsKey(resource));
+        assertNull(ClusterBuilderSlot.getClusterNode(resourceName));
+        assertFalse(containsNode(Constants.ROOT, node));
+
+        // The resource should work again with new chain and nodes.
+        Entry entry = SphU.entry(resourceName);
+        assertNotSame(node, entry.getCurNode());
+        entry.exit();
+        assertNotNull(ClusterBuilderSlot.getClusterNode(resourceName));
+    }
+
+    private boolean containsNode(DefaultNode parent, Node target) {
+        for (Node child : parent.getChildList()) {
+            if (child == target || (child != parent && containsNode((DefaultNode)child, target))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
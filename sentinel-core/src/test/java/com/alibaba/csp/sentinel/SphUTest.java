@@ -18,12 +18,22 @@ package com.alibaba.csp.sentinel;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.node.IntervalProperty;
+import com.alibaba.csp.sentinel.node.SampleCountProperty;
 import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 
 /**
  * Test cases for {@link SphU}.
@@ -157,4 +167,46 @@ public class SphUTest {
 
         e.exit(2, arg0, arg1);
     }
+
+    @Test
+    public void testEntryWithPriorityWaitsForNextWindow() throws BlockException {
+        String resourceName = "testEntryWithPriorityWaitsForNextWindow";
+        Clock originalClock = TimeUtil.getClock();
+        // Start at the beginning of a bucket.
+        ManualClock clock = new ManualClock(System.currentTimeMillis() / 1000 * 1000);
+        TimeUtil.setClock(clock);
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(resourceName).setCount(2)));
+        Entry e1 = null;
+        Entry e2 = null;
+        try {
+            e1 = SphU.entry(resourceName);
+            e2 = SphU.entry(resourceName);
+
+            // The passed requests will be released when the next bucket comes.
+            clock.advance(IntervalProperty.INTERVAL / SampleCountProperty.SAMPLE_COUNT + 100, TimeUnit.MILLISECONDS);
+            try {
+                SphU.entry(resourceName);
+                fail("Normal entry should be blocked when the threshold is reached");
+            } catch (BlockException ex) {
+                // Expected.
+            }
+
+            // The prioritized entry borrows tokens of the upcoming bucket and passes after waiting.
+            long start = System.currentTimeMillis();
+            Entry prioritized = SphU.entryWithPriority(resourceName);
+            assertNotNull(prioritized);
+            assertTrue(System.currentTimeMillis() - start > 0);
+            assertNull(prioritized.getError());
+            prioritized.exit();
+        } finally {
+            if (e2 != null) {
+                e2.exit();
+            }
+            if (e1 != null) {
+                e1.exit();
+            }
+            FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+            TimeUtil.setClock(originalClock);
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class TokenResultFutureTest {
+
+    @Test
+    public void testCompleteAndNotifyListeners() throws Exception {
+        TokenResultFuture future = new TokenResultFuture();
+        final AtomicInteger notified = new AtomicInteger(0);
+        TokenResultFuture.Listener listener = new TokenResultFuture.Listener() {
+            @Override
+            public void onComplete(TokenResult result) {
+                assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+                notified.incrementAndGet();
+            }
+        };
+        future.addListener(listener);
+        assertFalse(future.isDone());
+        assertNull(future.getNow(null));
+
+        assertTrue(future.complete(new TokenResult(TokenResultStatus.OK)));
+        assertFalse(future.complete(new TokenResult(TokenResultStatus.BLOCKED)));
+        assertTrue(future.isDone());
+        assertEquals(1, notified.get());
+        assertEquals(TokenResultStatus.OK, (int)future.get().getStatus());
+
+        // Listeners added after completion should be notified immediately.
+        future.addListener(listener);
+        assertEquals(2, notified.get());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testGetTimeout() throws Exception {
+        new TokenResultFuture().get(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testCompleted() throws Exception {
+        TokenResultFuture future = TokenResultFuture.completed(new TokenResult(TokenResultStatus.FAIL));
+        assertTrue(future.isDone());
+        assertFalse(future.cancel(true));
+        assertEquals(TokenResultStatus.FAIL, (int)future.get(0, TimeUnit.MILLISECONDS).getStatus());
+    }
+}
@@ -18,6 +18,9 @@ public class SentinelConfigTest {
         assertEquals(SentinelConfig.DEFAULT_TOTAL_METRIC_FILE_COUNT, SentinelConfig.totalMetricFileCount());
         assertEquals(SentinelConfig.DEFAULT_COLD_FACTOR, SentinelConfig.coldFactor());
         assertEquals(SentinelConfig.DEFAULT_STATISTIC_MAX_RT, SentinelConfig.statisticMaxRt());
+        assertEquals(SentinelConfig.DEFAULT_STATISTIC_LOCK_FREE_ROTATION, SentinelConfig.statisticLockFreeRotation());
+        assertEquals(SentinelConfig.DEFAULT_STATISTIC_BUCKET_STRIPES, SentinelConfig.statisticBucketStripes());
+        assertEquals(SentinelConfig.DEFAULT_CLOCK_MODE, SentinelConfig.clockMode());
     }
 
 //    add JVM parameter
@@ -82,6 +82,28 @@ public class ContextTest {
         ContextTestUtil.resetContextMap();
     }
 
+    @Test
+    public void testRecycleDefaultContext() {
+        ContextUtil.setRecycleDefaultContext(true);
+        try {
+            Context c1 = ContextUtil.trueEnter(Constants.CONTEXT_DEFAULT_NAME, "a");
+            ContextUtil.exit();
+            assertNull(ContextUtil.getContext());
+
+            Context c2 = ContextUtil.trueEnter(Constants.CONTEXT_DEFAULT_NAME, "b");
+            assertSame(c1, c2);
+            assertEquals("b", c2.getOrigin());
+            ContextUtil.exit();
+
+            // Custom contexts should never be recycled.
+            Context c3 = ContextUtil.enter("testRecycleDefaultContext");
+            ContextUtil.exit();
+            assertNotSame(c3, ContextUtil.enter("testRecycleDefaultContext"));
+        } finally {
+            ContextUtil.setRecycleDefaultContext(false);
+        }
+    }
+
     @Test
     public void testEnterContext() {
         final String contextName = "contextA";
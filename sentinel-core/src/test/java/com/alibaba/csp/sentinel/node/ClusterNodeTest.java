@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterNodeTest {
+
+    @Test
+    public void testOverflowOriginNode() {
+        ClusterNode clusterNode = new ClusterNode(2);
+        Node a = clusterNode.getOrCreateOriginNode("a");
+        Node b = clusterNode.getOrCreateOriginNode("b");
+        // Active origins will not be evicted.
+        a.increaseThreadNum();
+        b.addPassRequest(1);
+        assertNull(clusterNode.getOverflowOriginNode());
+
+        Node c = clusterNode.getOrCreateOriginNode("c");
+        assertSame(clusterNode.getOverflowOriginNode(), c);
+        assertSame(c, clusterNode.getOrCreateOriginNode("d"));
+        assertSame(a, clusterNode.getOrCreateOriginNode("a"));
+        assertEquals(2, clusterNode.getOriginCountMap().size());
+        assertFalse(clusterNode.getOriginCountMap().containsKey("c"));
+    }
+
+    @Test
+    public void testLimitedOriginNotOverflowed() {
+        String resourceName = "testLimitedOriginNotOverflowed";
+        FlowRule rule = new FlowRule(resourceName).setCount(10);
+        rule.setLimitApp("vip");
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        try {
+            ClusterNode clusterNode = new ClusterNode(1);
+            clusterNode.getOrCreateOriginNode("a", resourceName).increaseThreadNum();
+            assertSame(clusterNode.getOrCreateOriginNode("b", resourceName), clusterNode.getOverflowOriginNode());
+
+            Node vip = clusterNode.getOrCreateOriginNode("vip", resourceName);
+            assertNotSame(clusterNode.getOverflowOriginNode(), vip);
+            assertSame(vip, clusterNode.getOriginCountMap().get("vip"));
+        } finally {
+            FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        }
+    }
+
+    @Test
+    public void testEvictIdleOriginNodes() {
+        Clock originalClock = TimeUtil.getClock();
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+        try {
+            ClusterNode clusterNode = new ClusterNode(1);
+            Node a = clusterNode.getOrCreateOriginNode("a");
+            // Origin "a" has just been created, so it won't be evicted even if it's idle.
+            Node overflowed = clusterNode.getOrCreateOriginNode("b");
+            assertSame(clusterNode.getOverflowOriginNode(), overflowed);
+            assertSame(a, clusterNode.getOriginCountMap().get("a"));
+
+            // Idle origin "a" is evicted to make room for "b" after the grace period.
+            clock.advance(ClusterNode.ORIGIN_IDLE_GRACE_MS, TimeUnit.MILLISECONDS);
+            Node b = clusterNode.getOrCreateOriginNode("b");
+            assertNotSame(overflowed, b);
+            assertFalse(clusterNode.getOriginCountMap().containsKey("a"));
+            assertSame(b, clusterNode.getOriginCountMap().get("b"));
+
+            b.addPassRequest(1);
+            clock.advance(ClusterNode.ORIGIN_IDLE_GRACE_MS, TimeUnit.MILLISECONDS);
+            clusterNode.getOrCreateOriginNode("c").addPassRequest(1);
+            assertEquals(0, clusterNode.evictIdleOriginNodes());
+            assertEquals(1, clusterNode.getOverflowOriginNode().totalRequest());
+        } finally {
+            TimeUtil.setClock(originalClock);
+        }
+    }
+
+    @Test
+    public void testUnboundedOriginNodes() {
+        ClusterNode clusterNode = new ClusterNode(0);
+        for (int i = 0; i < 100; i++) {
+            clusterNode.getOrCreateOriginNode("origin" + i);
+        }
+        assertEquals(100, clusterNode.getOriginCountMap().size());
+        assertNull(clusterNode.getOverflowOriginNode());
+    }
+}
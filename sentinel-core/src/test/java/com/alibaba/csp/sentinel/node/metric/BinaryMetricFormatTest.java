@@ -0,0 +1,198 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class BinaryMetricFormatTest {
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEncodeAndDecode() throws IOException {
+        File file = folder.newFile("app-metrics.log.2018-12-24");
+        long base = 1545609600000L;
+        FileOutputStream out = new FileOutputStream(file);
+        BinaryMetricEncoder encoder = new BinaryMetricEncoder(CHARSET);
+        encoder.reset(out.getChannel(), base);
+        encoder.encode(base, Arrays.asList(newNode("a", 10), newNode("b|c", 20)));
+        long secondOffset = out.getChannel().position();
+        encoder.encode(base + 1000, Arrays.asList(newNode("b|c", 30), newNode("测试", 40)));
+        out.close();
+
+        assertTrue(BinaryMetricFormat.isBinaryFile(file.getAbsolutePath()));
+
+        BinaryMetricDecoder decoder = new BinaryMetricDecoder(file.getAbsolutePath(), CHARSET);
+        assertNode(decoder.next(), base, "a", 10);
+        assertNode(decoder.next(), base, "b|c", 20);
+        assertNode(decoder.next(), base + 1000, "b|c", 30);
+        assertNode(decoder.next(), base + 1000, "测试", 40);
+        assertNull(decoder.next());
+        decoder.close();
+
+        // Resources interned before the offset should be restored.
+        decoder = new BinaryMetricDecoder(file.getAbsolutePath(), CHARSET);
+        decoder.seek(secondOffset);
+        assertNode(decoder.next(), base + 1000, "b|c", 30);
+        assertNode(decoder.next(), base + 1000, "测试", 40);
+        assertNull(decoder.next());
+        decoder.close();
+    }
+
+    @Test
+    public void testDecodeWithoutMapping() throws IOException {
+        File file = folder.newFile("app-metrics.log.2018-12-23");
+        long base = 1545523200000L;
+        FileOutputStream out = new FileOutputStream(file);
+        BinaryMetricEncoder encoder = new BinaryMetricEncoder(CHARSET);
+        encoder.reset(out.getChannel(), base);
+        // The records are larger than the initial buffer of the window.
+        List<MetricNode> nodes = new ArrayList<MetricNode>();
+        for (int i = 0; i < 2000; i++) {
+            nodes.add(newNode("r" + i, i));
+        }
+        encoder.encode(base, nodes);
+        long secondOffset = out.getChannel().position();
+        encoder.encode(base + 1000, nodes);
+        out.close();
+
+        BinaryMetricDecoder decoder = new BinaryMetricDecoder(file.getAbsolutePath(), CHARSET, false);
+        try {
+            for (int i = 0; i < nodes.size() * 2; i++) {
+                assertNode(decoder.next(), base + i / nodes.size() * 1000, "r" + i % nodes.size(), i % nodes.size());
+            }
+            assertNull(decoder.next());
+        } finally {
+            decoder.close();
+        }
+
+        decoder = new BinaryMetricDecoder(file.getAbsolutePath(), CHARSET, false);
+        try {
+            decoder.seek(secondOffset);
+            assertNode(decoder.next(), base + 1000, "r0", 0);
+        } finally {
+            decoder.close();
+        }
+    }
+
+    @Test
+    public void testIncompleteTailIgnored() throws IOException {
+        File file = folder.newFile("app-metrics.log.2018-12-25");
+        long base = 1545696000000L;
+        FileOutputStream out = new FileOutputStream(file);
+        BinaryMetricEncoder encoder = new BinaryMetricEncoder(CHARSET);
+        encoder.reset(out.getChannel(), base);
+        encoder.encode(base, Arrays.asList(newNode("a", 1)));
+        encoder.encode(base + 1000, Arrays.asList(newNode("a", 2), newNode("b", 3)));
+        out.close();
+
+        // Cut the last record in the middle, as if it is being written.
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        FileChannel channel = raf.getChannel();
+        channel.truncate(channel.size() - 7);
+        raf.close();
+
+        BinaryMetricDecoder decoder = new BinaryMetricDecoder(file.getAbsolutePath(), CHARSET);
+        assertNode(decoder.next(), base, "a", 1);
+        assertNull(decoder.next());
+        decoder.close();
+    }
+
+    @Test
+    public void testReadBothFormats() throws Exception {
+        long base = 1545782400000L;
+        File textFile = folder.newFile("app-metrics.log.2018-12-26");
+        FileOutputStream textOut = new FileOutputStream(textFile);
+        MetricNode textNode = newNode("a", 5);
+        textNode.setTimestamp(base);
+        textOut.write(textNode.toFatString().getBytes(CHARSET));
+        textOut.close();
+
+        File binaryFile = folder.newFile("app-metrics.log.2018-12-26.1");
+        FileOutputStream binaryOut = new FileOutputStream(binaryFile);
+        BinaryMetricEncoder encoder = new BinaryMetricEncoder(CHARSET);
+        encoder.reset(binaryOut.getChannel(), base + 1000);
+        encoder.encode(base + 1000, Arrays.asList(newNode("a", 6), newNode("b", 7)));
+        encoder.encode(base + 2000, Arrays.asList(newNode("a", 8)));
+        binaryOut.close();
+        assertFalse(BinaryMetricFormat.isBinaryFile(textFile.getAbsolutePath()));
+
+        List<String> fileNames = new ArrayList<String>();
+        fileNames.add(textFile.getAbsolutePath());
+        fileNames.add(binaryFile.getAbsolutePath());
+        MetricsReader reader = new MetricsReader(CHARSET);
+
+        List<MetricNode> nodes = reader.readMetrics(fileNames, 0, 0, 100);
+        assertEquals(4, nodes.size());
+        assertNode(nodes.get(0), base, "a", 5);
+        assertNode(nodes.get(2), base + 1000, "b", 7);
+        assertNode(nodes.get(3), base + 2000, "a", 8);
+
+        nodes = reader.readMetricsByEndTime(fileNames, 0, 0, base, base + 1000, "a");
+        assertEquals(2, nodes.size());
+        assertNode(nodes.get(1), base + 1000, "a", 6);
+    }
+
+    private static void assertNode(MetricNode node, long timestamp, String resource, long passQps) {
+        assertNotNull(node);
+        assertEquals(timestamp, node.getTimestamp());
+        assertEquals(resource, node.getResource());
+        assertEquals(passQps, node.getPassQps());
+        assertEquals(passQps + 1, node.getBlockQps());
+        assertEquals(passQps + 2, node.getSuccessQps());
+        assertEquals(passQps + 3, node.getExceptionQps());
+        assertEquals(passQps + 4, node.getRt());
+        assertEquals(passQps + 5, node.getRt50());
+        assertEquals(passQps + 6, node.getRt90());
+        assertEquals(passQps + 7, node.getRt99());
+        assertEquals(passQps + 8, node.getRt999());
+    }
+
+    private static MetricNode newNode(String resource, long passQps) {
+        MetricNode node = new MetricNode();
+        node.setResource(resource);
+        node.setPassQps(passQps);
+        node.setBlockQps(passQps + 1);
+        node.setSuccessQps(passQps + 2);
+        node.setExceptionQps(passQps + 3);
+        node.setRt(passQps + 4);
+        node.setRt50(passQps + 5);
+        node.setRt90(passQps + 6);
+        node.setRt99(passQps + 7);
+        node.setRt999(passQps + 8);
+        return node;
+    }
+}
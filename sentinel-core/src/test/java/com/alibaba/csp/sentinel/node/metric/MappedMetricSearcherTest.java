@@ -0,0 +1,221 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class MappedMetricSearcherTest {
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+    private static final String BASE_FILE_NAME = "app-metrics.log";
+    private static final long BASE_TIME = 1545609600000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedMetricSearcher searcher;
+
+    @Before
+    public void setUp() throws IOException {
+        // Seconds [0, 10) in text file, and [10, 20) in binary file.
+        writeTextFile(BASE_FILE_NAME + ".2018-12-24", 0, 10);
+        writeBinaryFile(BASE_FILE_NAME + ".2018-12-24.1", 10, 20);
+        searcher = new MappedMetricSearcher(folder.getRoot().getAbsolutePath(), BASE_FILE_NAME, CHARSET);
+    }
+
+    @Test
+    public void testIndexSearch() throws IOException {
+        File idx = folder.newFile("test.idx");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(idx));
+        for (int i = 1; i <= 5; i++) {
+            out.writeLong(i * 10);
+            out.writeLong(i * 100);
+        }
+        // Pre-allocated tail.
+        out.write(new byte[MetricIndex.ENTRY_SIZE * 3]);
+        out.close();
+
+        MetricFileWindow window = MetricIndex.open(idx.getAbsolutePath());
+        try {
+            ByteBuffer index = window.data();
+            assertEquals(0, MetricIndex.search(index, 0, 5));
+            assertEquals(0, MetricIndex.search(index, 0, 10));
+            assertEquals(MetricIndex.ENTRY_SIZE * 2, MetricIndex.search(index, 0, 21));
+            assertEquals(300, MetricIndex.offsetAt(index, MetricIndex.search(index, 0, 30)));
+            assertEquals(MetricIndex.ENTRY_SIZE * 4, MetricIndex.search(index, MetricIndex.ENTRY_SIZE * 3, 50));
+            assertEquals(-1, MetricIndex.search(index, 0, 51));
+        } finally {
+            window.close();
+        }
+    }
+
+    @Test
+    public void testFileWindowWithoutMapping() throws IOException {
+        File file = folder.newFile("window.log");
+        // Larger than the initial buffer.
+        byte[] bytes = new byte[200 * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte)i;
+        }
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(bytes);
+        out.close();
+
+        MetricFileWindow window = MetricFileWindow.open(file.getAbsolutePath(), 100, false);
+        int read = 100;
+        while (window.fill()) {
+            ByteBuffer data = window.data();
+            assertEquals(read, window.fileOffset());
+            // Consume half of the bytes, and the remaining should be kept by next fill.
+            int consumed = data.remaining() / 2;
+            for (int i = 0; i < consumed; i++) {
+                assertEquals(bytes[read + i], data.get());
+            }
+            read += consumed;
+        }
+        ByteBuffer data = window.data();
+        assertEquals(bytes.length - read, data.remaining());
+        assertEquals(bytes[bytes.length - 1], data.get(data.limit() - 1));
+        window.close();
+        // The file is not held after closed.
+        assertTrue(file.delete());
+
+        File idx = folder.newFile("window.idx");
+        out = new FileOutputStream(idx);
+        out.write(bytes);
+        out.close();
+        window = MetricFileWindow.open(idx.getAbsolutePath(), 0, false);
+        // Grows to hold the whole file.
+        window.fillToEnd();
+        assertEquals(bytes.length, window.data().remaining());
+        assertEquals(bytes[bytes.length / 2], window.data().get(bytes.length / 2));
+        window.close();
+        assertTrue(idx.delete());
+    }
+
+    @Test
+    public void testAppendMetrics() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        // 2 resources per second, and metrics of the same second are not split.
+        assertEquals(6, searcher.appendMetrics(BASE_TIME + 8000, 5, sb));
+        List<MetricNode> nodes = parse(sb);
+        assertEquals(BASE_TIME + 8000, nodes.get(0).getTimestamp());
+        assertEquals(BASE_TIME + 10000, nodes.get(4).getTimestamp());
+        assertEquals("b_c", nodes.get(5).getResource());
+        assertEquals(10 * 2 + 1, nodes.get(5).getPassQps());
+        assertEquals(10 * 2 + 1 + 8, nodes.get(5).getRt999());
+
+        sb = new StringBuilder();
+        assertEquals(-1, searcher.appendMetrics(BASE_TIME + 20000, 5, sb));
+        assertEquals(0, sb.length());
+    }
+
+    @Test
+    public void testAppendMetricsByTimeAndResource() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        assertEquals(4, searcher.appendMetricsByTimeAndResource(BASE_TIME + 8000, BASE_TIME + 11999, "a", sb));
+        List<MetricNode> nodes = parse(sb);
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals("a", nodes.get(i).getResource());
+            assertEquals(BASE_TIME + (8 + i) * 1000, nodes.get(i).getTimestamp());
+            assertEquals((8 + i) * 2, nodes.get(i).getPassQps());
+        }
+
+        sb = new StringBuilder();
+        assertEquals(2, searcher.appendMetricsByTimeAndResource(BASE_TIME + 9000, BASE_TIME + 10000, "b_c", sb));
+        nodes = parse(sb);
+        assertEquals(BASE_TIME + 10000, nodes.get(1).getTimestamp());
+        assertEquals(10 * 2 + 1, nodes.get(1).getPassQps());
+    }
+
+    private static List<MetricNode> parse(StringBuilder sb) {
+        List<MetricNode> nodes = new ArrayList<MetricNode>();
+        for (String line : sb.toString().split("\n")) {
+            nodes.add(MetricNode.fromThinString(line));
+        }
+        return nodes;
+    }
+
+    private void writeTextFile(String fileName, int fromSecond, int toSecond) throws IOException {
+        FileOutputStream out = new FileOutputStream(new File(folder.getRoot(), fileName));
+        DataOutputStream index = new DataOutputStream(
+            new FileOutputStream(new File(folder.getRoot(), MetricWriter.formIndexFileName(fileName))));
+        for (int second = fromSecond; second < toSecond; second++) {
+            long time = BASE_TIME + second * 1000;
+            index.writeLong(time / 1000);
+            index.writeLong(out.getChannel().position());
+            for (MetricNode node : nodesOf(second)) {
+                node.setTimestamp(time);
+                out.write(node.toFatString().getBytes(CHARSET));
+            }
+        }
+        // Incomplete line being written.
+        out.write(String.valueOf(BASE_TIME + toSecond * 1000).getBytes(CHARSET));
+        out.close();
+        index.close();
+    }
+
+    private void writeBinaryFile(String fileName, int fromSecond, int toSecond) throws IOException {
+        FileOutputStream out = new FileOutputStream(new File(folder.getRoot(), fileName));
+        DataOutputStream index = new DataOutputStream(
+            new FileOutputStream(new File(folder.getRoot(), MetricWriter.formIndexFileName(fileName))));
+        BinaryMetricEncoder encoder = new BinaryMetricEncoder(CHARSET);
+        encoder.reset(out.getChannel(), BASE_TIME + fromSecond * 1000);
+        for (int second = fromSecond; second < toSecond; second++) {
+            long time = BASE_TIME + second * 1000;
+            index.writeLong(time / 1000);
+            index.writeLong(out.getChannel().position());
+            encoder.encode(time, nodesOf(second));
+        }
+        // Pre-allocated tail of the index.
+        index.write(new byte[MetricIndex.ENTRY_SIZE * 4]);
+        out.close();
+        index.close();
+    }
+
+    private static List<MetricNode> nodesOf(int second) {
+        List<MetricNode> nodes = new ArrayList<MetricNode>();
+        nodes.add(newNode("a", second * 2));
+        nodes.add(newNode("b|c", second * 2 + 1));
+        return nodes;
+    }
+
+    private static MetricNode newNode(String resource, long passQps) {
+        MetricNode node = new MetricNode();
+        node.setResource(resource);
+        node.setPassQps(passQps);
+        node.setRt(passQps + 4);
+        node.setRt999(passQps + 8);
+        return node;
+    }
+}
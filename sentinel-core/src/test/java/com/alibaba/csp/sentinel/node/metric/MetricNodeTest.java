@@ -0,0 +1,74 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class MetricNodeTest {
+
+    @Test
+    public void testThinStringWithPercentiles() {
+        MetricNode node = newNode();
+        MetricNode parsed = MetricNode.fromThinString(node.toThinString());
+        assertEquals(node.getRt(), parsed.getRt());
+        assertEquals(node.getRt50(), parsed.getRt50());
+        assertEquals(node.getRt90(), parsed.getRt90());
+        assertEquals(node.getRt99(), parsed.getRt99());
+        assertEquals(node.getRt999(), parsed.getRt999());
+    }
+
+    @Test
+    public void testFatStringWithPercentiles() {
+        MetricNode node = newNode();
+        String line = node.toFatString();
+        MetricNode parsed = MetricNode.fromFatString(line.substring(0, line.length() - 1));
+        assertEquals(node.getResource(), parsed.getResource());
+        assertEquals(node.getRt99(), parsed.getRt99());
+        assertEquals(node.getRt999(), parsed.getRt999());
+    }
+
+    @Test
+    public void testParseLegacyFormat() {
+        MetricNode parsed = MetricNode.fromThinString("1543220000000|abc|10|1|9|0|12");
+        assertEquals(12, parsed.getRt());
+        assertEquals(0, parsed.getRt99());
+
+        parsed = MetricNode.fromFatString("1543220000000|2018-11-26 16:13:20|abc|10|1|9|0|12");
+        assertEquals("abc", parsed.getResource());
+        assertEquals(12, parsed.getRt());
+        assertEquals(0, parsed.getRt99());
+    }
+
+    private MetricNode newNode() {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(1543220000000L);
+        node.setResource("abc");
+        node.setPassQps(10);
+        node.setSuccessQps(9);
+        node.setBlockQps(1);
+        node.setRt(12);
+        node.setRt50(7);
+        node.setRt90(15);
+        node.setRt99(159);
+        node.setRt999(639);
+        return node;
+    }
+}
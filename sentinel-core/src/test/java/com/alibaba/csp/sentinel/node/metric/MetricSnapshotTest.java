@@ -0,0 +1,121 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class MetricSnapshotTest {
+
+    private Clock originalClock;
+    private ManualClock clock;
+
+    @Before
+    public void setUp() {
+        originalClock = TimeUtil.getClock();
+        long now = System.currentTimeMillis();
+        clock = new ManualClock(now - now % 1000 + 100);
+        TimeUtil.setClock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        TimeUtil.setClock(originalClock);
+    }
+
+    @Test
+    public void testFetchIncrementally() {
+        StatisticNode node = new StatisticNode();
+        long second0 = TimeUtil.currentTimeMillis() / 1000 * 1000;
+        node.addPassRequest(3);
+        clock.advance(1, TimeUnit.SECONDS);
+        node.increaseBlockQps(2);
+        // Second 2 is empty, and second 3 is not complete.
+        clock.advance(2, TimeUnit.SECONDS);
+        node.addPassRequest(1);
+
+        MetricSnapshot snapshot = new MetricSnapshot();
+        snapshot.reset(TimeUtil.currentTimeMillis());
+        node.fetchMetrics("abc", snapshot);
+        assertEquals(2, snapshot.size());
+        List<MetricNode> nodes = snapshot.nodesOf(second0);
+        assertEquals(1, nodes.size());
+        MetricNode first = nodes.get(0);
+        assertEquals("abc", first.getResource());
+        assertEquals(second0, first.getTimestamp());
+        assertEquals(3, first.getPassQps());
+        assertEquals(2, snapshot.nodesOf(second0 + 1000).get(0).getBlockQps());
+        assertTrue(snapshot.nodesOf(second0 + 2000).isEmpty());
+        assertTrue(snapshot.nodesOf(second0 + 3000).isEmpty());
+
+        // Fetched seconds will not be fetched again.
+        snapshot.reset(TimeUtil.currentTimeMillis());
+        node.fetchMetrics("abc", snapshot);
+        assertEquals(0, snapshot.size());
+
+        clock.advance(1, TimeUnit.SECONDS);
+        snapshot.reset(TimeUtil.currentTimeMillis());
+        node.fetchMetrics("abc", snapshot);
+        assertEquals(1, snapshot.size());
+        nodes = snapshot.nodesOf(second0 + 3000);
+        assertEquals(1, nodes.get(0).getPassQps());
+        assertEquals(0, nodes.get(0).getBlockQps());
+        // Metric nodes are reused.
+        assertSame(first, nodes.get(0));
+    }
+
+    @Test
+    public void testGroupBySecond() {
+        MetricSnapshot snapshot = new MetricSnapshot();
+        snapshot.reset(TimeUtil.currentTimeMillis());
+        long current = snapshot.currentTime();
+        assertEquals(current - 59 * 1000, snapshot.firstTime());
+
+        MetricNode node = snapshot.candidate();
+        // Not committed, so it will be handed out again.
+        assertSame(node, snapshot.candidate());
+        node.setTimestamp(current - 2000);
+        snapshot.commit();
+        MetricNode another = snapshot.candidate();
+        assertNotSame(node, another);
+        another.setTimestamp(current - 2000);
+        snapshot.commit();
+        // Out of range.
+        MetricNode outOfRange = snapshot.candidate();
+        outOfRange.setTimestamp(current);
+        snapshot.commit();
+
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.nodesOf(current - 2000).size());
+        // The slot of the same index (60 seconds ago) is not mixed up.
+        assertTrue(snapshot.nodesOf(current - 62000).isEmpty());
+        assertSame(outOfRange, snapshot.candidate());
+    }
+}
@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.ClusterNode;
@@ -30,6 +31,9 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
 
 /**
  * @author jialiang.linjl
@@ -65,6 +69,36 @@ public class DegradeTest {
         assertTrue(rule.passCheck(context, node, 1));
     }
 
+    @Test
+    public void testPercentileRtDegrade() {
+        String key = "test_degrade_percentile_rt";
+        ClusterNode cn = mock(ClusterNode.class);
+        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+
+        Context context = mock(Context.class);
+        DefaultNode node = mock(DefaultNode.class);
+        when(node.getClusterNode()).thenReturn(cn);
+        when(cn.avgRt()).thenReturn(5L);
+        when(cn.percentileRt(99.9)).thenReturn(20L);
+        when(cn.percentileRt(99)).thenReturn(200L);
+
+        DegradeRule rule = new DegradeRule(key)
+            .setCount(100)
+            .setTimeWindow(5)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setPercentile(99.9);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rule.passCheck(context, node, 1));
+        }
+
+        rule.setPercentile(99);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rule.passCheck(context, node, 1));
+        }
+        assertFalse(rule.passCheck(context, node, 1));
+        assertTrue(rule.isCut());
+    }
+
     @Test
     public void testExceptionRatioModeDegrade() throws Throwable {
         String key = "test_degrade_exception_ratio";
@@ -127,4 +161,108 @@ public class DegradeTest {
         assertTrue(rule.passCheck(context, node, 1));
     }
 
+    @Test
+    public void testHalfOpenProbe() {
+        Clock originalClock = TimeUtil.getClock();
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+        try {
+            String key = "test_degrade_half_open_probe";
+            ClusterNode cn = mock(ClusterNode.class);
+            ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+
+            Context context = mock(Context.class);
+            DefaultNode node = mock(DefaultNode.class);
+            when(node.getClusterNode()).thenReturn(cn);
+
+            DegradeRule rule = new DegradeRule(key)
+                .setCount(4)
+                .setTimeWindow(2)
+                .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+                .setHalfOpenProbeCount(2);
+            when(cn.totalException()).thenReturn(4L);
+
+            assertFalse(rule.passCheck(context, node, 1));
+            assertTrue(rule.isCut());
+            clock.advance(1, TimeUnit.SECONDS);
+            assertFalse(rule.passCheck(context, node, 1));
+
+            // Half-open: only limited probes are allowed.
+            clock.advance(1, TimeUnit.SECONDS);
+            assertTrue(rule.passCheck(context, node, 1));
+            assertTrue(rule.isHalfOpen());
+            assertTrue(rule.passCheck(context, node, 1));
+            assertFalse(rule.passCheck(context, node, 1));
+
+            // A probe fails with traced exceptions, then the breaker opens again.
+            Entry probe = mock(Entry.class);
+            when(probe.getCreateTime()).thenReturn(TimeUtil.currentTimeMillis());
+            when(context.getCurEntry()).thenReturn(probe);
+            when(cn.totalException()).thenReturn(5L);
+            rule.onRequestComplete(context);
+            assertTrue(rule.isCut());
+            assertFalse(rule.isHalfOpen());
+            assertFalse(rule.passCheck(context, node, 1));
+
+            // The next probe completes normally, then the breaker is closed.
+            clock.advance(2, TimeUnit.SECONDS);
+            assertTrue(rule.passCheck(context, node, 1));
+            when(probe.getCreateTime()).thenReturn(TimeUtil.currentTimeMillis());
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            rule.onRequestComplete(context);
+            assertFalse(rule.isCut());
+
+            when(cn.totalException()).thenReturn(0L);
+            assertTrue(rule.passCheck(context, node, 1));
+        } finally {
+            TimeUtil.setClock(originalClock);
+        }
+    }
+
+    @Test
+    public void testDegradeAfterClusterNodeEvicted() {
+        Clock originalClock = TimeUtil.getClock();
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+        try {
+            String key = "test_degrade_cluster_node_evicted";
+            StringResourceWrapper resource = new StringResourceWrapper(key, EntryType.IN);
+            ClusterNode cn = mock(ClusterNode.class);
+            ClusterBuilderSlot.getClusterNodeMap().put(resource, cn);
+
+            Context context = mock(Context.class);
+            DefaultNode node = mock(DefaultNode.class);
+            when(node.getClusterNode()).thenReturn(cn);
+
+            DegradeRule rule = new DegradeRule(key)
+                .setCount(4)
+                .setTimeWindow(2)
+                .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+            when(cn.totalException()).thenReturn(4L);
+            assertFalse(rule.passCheck(context, node, 1));
+
+            // The probe completes normally, then the breaker is closed.
+            clock.advance(2, TimeUnit.SECONDS);
+            when(cn.totalException()).thenReturn(0L);
+            assertTrue(rule.passCheck(context, node, 1));
+            Entry probe = mock(Entry.class);
+            when(probe.getCreateTime()).thenReturn(TimeUtil.currentTimeMillis());
+            when(context.getCurEntry()).thenReturn(probe);
+            rule.onRequestComplete(context);
+            assertFalse(rule.isCut());
+
+            // The idle resource is evicted, and it gets brand new nodes when it's accessed again.
+            ClusterBuilderSlot.removeClusterNode(resource);
+            ClusterNode newClusterNode = mock(ClusterNode.class);
+            ClusterBuilderSlot.getClusterNodeMap().put(resource, newClusterNode);
+            DefaultNode newNode = mock(DefaultNode.class);
+            when(newNode.getClusterNode()).thenReturn(newClusterNode);
+
+            when(newClusterNode.totalException()).thenReturn(4L);
+            assertFalse(rule.passCheck(context, newNode, 1));
+            assertTrue(rule.isCut());
+        } finally {
+            TimeUtil.setClock(originalClock);
+        }
+    }
 }
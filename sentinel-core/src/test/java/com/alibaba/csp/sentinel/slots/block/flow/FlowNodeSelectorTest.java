@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class FlowNodeSelectorTest {
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(null);
+    }
+
+    @Test
+    public void testDefaultAndCustomOrigin() {
+        String origin = "appA";
+        DefaultNode node = mock(DefaultNode.class);
+        DefaultNode originNode = mock(DefaultNode.class);
+        ClusterNode cn = mock(ClusterNode.class);
+        when(node.getClusterNode()).thenReturn(cn);
+        Context context = mock(Context.class);
+        when(context.getOrigin()).thenReturn(origin);
+        when(context.getOriginNode()).thenReturn(originNode);
+
+        Set<String> origins = new HashSet<String>(Arrays.asList(RuleConstant.LIMIT_APP_DEFAULT, origin, "appB"));
+        FlowRule rule = new FlowRule("testDefaultAndCustomOrigin").setCount(1);
+        rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
+        assertSame(cn, FlowNodeSelector.compile(rule, origins).select(context, node));
+
+        rule.setLimitApp(origin);
+        assertSame(originNode, FlowNodeSelector.compile(rule, origins).select(context, node));
+
+        rule.setLimitApp("appB");
+        assertNull(FlowNodeSelector.compile(rule, origins).select(context, node));
+    }
+
+    @Test
+    public void testOtherOrigin() {
+        DefaultNode node = mock(DefaultNode.class);
+        DefaultNode originNode = mock(DefaultNode.class);
+        Context context = mock(Context.class);
+        when(context.getOriginNode()).thenReturn(originNode);
+
+        FlowRule rule = new FlowRule("testOtherOrigin").setCount(1);
+        rule.setLimitApp(RuleConstant.LIMIT_APP_OTHER);
+        FlowNodeSelector selector = FlowNodeSelector.compile(rule,
+            new HashSet<String>(Arrays.asList("appA", RuleConstant.LIMIT_APP_OTHER)));
+
+        when(context.getOrigin()).thenReturn("appB");
+        assertSame(originNode, selector.select(context, node));
+        when(context.getOrigin()).thenReturn("appA");
+        assertNull(selector.select(context, node));
+        when(context.getOrigin()).thenReturn("");
+        assertNull(selector.select(context, node));
+    }
+
+    @Test
+    public void testRelateAndChainStrategy() {
+        String refResource = "testRelateAndChainStrategy_refResource";
+        DefaultNode node = mock(DefaultNode.class);
+        ClusterNode refCn = mock(ClusterNode.class);
+        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(refResource, EntryType.IN), refCn);
+        Context context = mock(Context.class);
+        Set<String> origins = Collections.singleton(RuleConstant.LIMIT_APP_DEFAULT);
+
+        FlowRule rule = new FlowRule("testRelateAndChainStrategy").setCount(1)
+            .setStrategy(RuleConstant.STRATEGY_RELATE)
+            .setRefResource(refResource);
+        assertSame(refCn, FlowNodeSelector.compile(rule, origins).select(context, node));
+
+        rule.setStrategy(RuleConstant.STRATEGY_CHAIN);
+        FlowNodeSelector chainSelector = FlowNodeSelector.compile(rule, origins);
+        when(context.getName()).thenReturn(refResource);
+        assertSame(node, chainSelector.select(context, node));
+        when(context.getName()).thenReturn("other_context");
+        assertNull(chainSelector.select(context, node));
+
+        // Empty reference resource.
+        rule.setRefResource(null);
+        assertNull(FlowNodeSelector.compile(rule, origins).select(context, node));
+    }
+
+    @Test
+    public void testCompiledWhenRulesLoaded() {
+        String resourceName = "testCompiledWhenRulesLoaded";
+        FlowRule ruleA = new FlowRule(resourceName).setCount(1);
+        ruleA.setLimitApp("appA");
+        FlowRule ruleB = new FlowRule(resourceName).setCount(2);
+        FlowRuleManager.loadRules(Arrays.asList(ruleA, ruleB));
+
+        Map<String, FlowRule[]> table = FlowRuleManager.getCompiledRuleTable();
+        FlowRule[] rules = table.get(resourceName);
+        assertNotNull(rules);
+        assertEquals(2, rules.length);
+        for (FlowRule rule : rules) {
+            assertNotNull(rule.getNodeSelector());
+        }
+
+        // The table should be replaced as a whole once rules are updated.
+        FlowRuleManager.loadRules(Collections.singletonList(ruleB));
+        assertNotSame(table, FlowRuleManager.getCompiledRuleTable());
+        assertEquals(1, FlowRuleManager.getCompiledRuleTable().get(resourceName).length);
+    }
+}
@@ -0,0 +1,110 @@
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class AdaptiveConcurrencyControllerTest {
+
+    private Clock originalClock;
+    private ManualClock clock;
+
+    @Before
+    public void setUp() {
+        originalClock = TimeUtil.getClock();
+        clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        TimeUtil.setClock(originalClock);
+    }
+
+    @Test
+    public void testCanPassByLimit() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(100, 10, 200, 1.5, 0.2);
+        Node node = mock(Node.class);
+        when(node.curThreadNum()).thenReturn(9).thenReturn(10);
+
+        assertTrue(controller.canPass(node, 1));
+        assertFalse(controller.canPass(node, 1));
+        assertEquals(10, controller.getLimit());
+    }
+
+    @Test
+    public void testLimitDecreasesWhenRtIncreases() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(100, 50, 200, 1.5, 0.2);
+        Node node = mockNode(10, 10, 50);
+        controller.canPass(node, 1);
+        assertEquals(10, controller.getNoLoadRt(), 0.01);
+        int limit = controller.getLimit();
+
+        // Requests queue up in the backend.
+        when(node.avgRt()).thenReturn(60L);
+        for (int i = 0; i < 20; i++) {
+            clock.advance(200, TimeUnit.MILLISECONDS);
+            controller.canPass(node, 1);
+        }
+        assertTrue(controller.getLimit() < limit);
+        // Converge to the point where about sqrt(limit) requests are queued.
+        assertTrue(controller.getLimit() < 20);
+        assertTrue(controller.getLimit() >= 1);
+    }
+
+    @Test
+    public void testLimitGrowsOnlyWhenConcurrencyLimited() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(40, 10, 200, 1.5, 0.2);
+        // Few in-flight requests (app-limited).
+        Node node = mockNode(10, 10, 2);
+        for (int i = 0; i < 10; i++) {
+            clock.advance(200, TimeUnit.MILLISECONDS);
+            controller.canPass(node, 1);
+        }
+        assertEquals(10, controller.getLimit());
+
+        when(node.curThreadNum()).thenReturn(10);
+        for (int i = 0; i < 100; i++) {
+            clock.advance(200, TimeUnit.MILLISECONDS);
+            controller.canPass(node, 1);
+            when(node.curThreadNum()).thenReturn(controller.getLimit());
+        }
+        // Bounded by the max limit.
+        assertEquals(40, controller.getLimit());
+    }
+
+    @Test
+    public void testUpdateOncePerInterval() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(100, 50, 200, 1.5, 1);
+        Node node = mockNode(10, 100, 50);
+        controller.canPass(node, 1);
+        int limit = controller.getLimit();
+        // Within the same interval, the limit will not be updated again.
+        controller.canPass(node, 1);
+        controller.canPass(node, 1);
+        assertEquals(limit, controller.getLimit());
+        verify(node, times(1)).avgRt();
+    }
+
+    private Node mockNode(long minRt, long avgRt, int threads) {
+        Node node = mock(Node.class);
+        when(node.successQps()).thenReturn(100L);
+        when(node.minRt()).thenReturn(minRt);
+        when(node.avgRt()).thenReturn(avgRt);
+        when(node.curThreadNum()).thenReturn(threads);
+        return node;
+    }
+}
@@ -1,7 +1,9 @@
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.PriorityWaitException;
 import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
 
 import org.junit.Test;
@@ -38,6 +40,32 @@ public class DefaultControllerTest {
         assertFalse(controller.canPass(node, 1));
     }
 
+    @Test
+    public void testPrioritizedCanPassByOccupyingNextWindow() {
+        long threshold = 10;
+        TrafficShapingController controller = new DefaultController(threshold, RuleConstant.FLOW_GRADE_QPS);
+        Node node = mock(Node.class);
+        when(node.passQps()).thenReturn(threshold);
+        when(node.tryOccupyNext(anyLong(), eq(1), eq((double) threshold))).thenReturn(10L);
+
+        try {
+            controller.canPass(node, 1, true);
+            fail("PriorityWaitException should be thrown");
+        } catch (PriorityWaitException ex) {
+            assertEquals(10L, ex.getWaitInMs());
+        }
+        verify(node).addWaitingRequest(anyLong(), eq(1));
+        verify(node).addOccupiedPass(1);
+
+        // Cannot occupy within the timeout.
+        when(node.tryOccupyNext(anyLong(), eq(1), eq((double) threshold)))
+            .thenReturn((long) SentinelConfig.flowOccupyTimeout());
+        assertFalse(controller.canPass(node, 1, true));
+        // Non-prioritized requests never occupy.
+        assertFalse(controller.canPass(node, 1, false));
+        verify(node, times(2)).tryOccupyNext(anyLong(), anyInt(), anyDouble());
+    }
+
     @Test
     public void testCanPassForQpsMultiThread() {
     }
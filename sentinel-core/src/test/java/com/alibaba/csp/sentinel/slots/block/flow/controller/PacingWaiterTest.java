@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextTestUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class PacingWaiterTest {
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(null);
+        ContextTestUtil.cleanUpContext();
+    }
+
+    @Test
+    public void testAwait() {
+        long start = System.nanoTime();
+        assertTrue(PacingWaiter.await(TimeUnit.MILLISECONDS.toNanos(20)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(PacingWaiter.await(0));
+    }
+
+    @Test
+    public void testAwaitInterrupted() {
+        Thread.currentThread().interrupt();
+        try {
+            assertFalse(PacingWaiter.await(TimeUnit.SECONDS.toNanos(1)));
+        } finally {
+            // Clear the interrupted flag.
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testDeferredAwait() {
+        PacingWaiter.beginDeferred();
+        assertTrue(PacingWaiter.isDeferred());
+        long start = System.nanoTime();
+        assertTrue(PacingWaiter.await(TimeUnit.SECONDS.toNanos(2)));
+        assertTrue(PacingWaiter.await(TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(TimeUnit.SECONDS.toNanos(2), PacingWaiter.endDeferred());
+        assertFalse(PacingWaiter.isDeferred());
+        assertEquals(0, PacingWaiter.endDeferred());
+    }
+
+    @Test
+    public void testAsyncEntryNonBlocking() throws BlockException {
+        String resourceName = "testAsyncEntryNonBlocking";
+        FlowRule rule = new FlowRule(resourceName)
+            .setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+
+        long start = System.nanoTime();
+        AsyncEntry first = SphU.asyncEntryNonBlocking(resourceName);
+        AsyncEntry second = SphU.asyncEntryNonBlocking(resourceName);
+        AsyncEntry third = SphU.asyncEntryNonBlocking(resourceName);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(0, first.getWaitInNanos());
+        assertTrue(second.getWaitInNanos() > TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(third.getWaitInNanos() > second.getWaitInNanos());
+        assertFalse(PacingWaiter.isDeferred());
+
+        first.exit();
+        second.exit();
+        third.exit();
+    }
+}
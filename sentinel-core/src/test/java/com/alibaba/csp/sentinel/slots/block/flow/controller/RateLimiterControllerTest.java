@@ -15,10 +15,12 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -85,4 +87,37 @@ public class RateLimiterControllerTest {
 
     }
 
+    @Test
+    public void testPaceControllerAboveThousandQps() {
+        RateLimiterController paceController = new RateLimiterController(500, 4000d);
+        Node node = mock(Node.class);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 101; i++) {
+            assertTrue(paceController.canPass(node, 1));
+        }
+        long cost = System.nanoTime() - start;
+        // 100 intervals of 250 microseconds.
+        assertTrue(cost >= TimeUnit.MILLISECONDS.toNanos(24));
+    }
+
+    @Test
+    public void testTryAcquireWithoutWaiting() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+
+        assertEquals(0, paceController.tryAcquire(1));
+        long start = System.nanoTime();
+        long lastWait = 0;
+        for (int i = 1; i <= 5; i++) {
+            long wait = paceController.tryAcquire(1);
+            assertTrue(wait > lastWait);
+            lastWait = wait;
+        }
+        // Nothing should be blocked.
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(lastWait > TimeUnit.MILLISECONDS.toNanos(400));
+        // The queueing time exceeds 500 ms.
+        assertEquals(RateLimiterController.BLOCKED, paceController.tryAcquire(1));
+    }
+
 }
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -33,6 +34,8 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
 import com.alibaba.csp.sentinel.slots.system.SystemRule;
 
+import static org.junit.Assert.*;
+
 /**
  * @author jialiang.linjl
  */
@@ -63,4 +66,27 @@ public class SystemRuleTest {
 
     }
 
+    @Test
+    public void testSystemRule_cpuUsage() throws BlockException {
+        SystemRule invalidRule = new SystemRule();
+        invalidRule.setHighestCpuUsage(1.5);
+        SystemRuleManager.loadRules(Collections.singletonList(invalidRule));
+        assertFalse(SystemRuleManager.getCheckSystemStatus());
+
+        SystemRule rule = new SystemRule();
+        rule.setHighestCpuUsage(1);
+        SystemRuleManager.loadRules(Collections.singletonList(rule));
+        try {
+            assertTrue(SystemRuleManager.getCheckSystemStatus());
+            assertEquals(1, SystemRuleManager.getHighestCpuUsage(), 0.001);
+            List<SystemRule> rules = SystemRuleManager.getRules();
+            assertEquals(1, rules.size());
+            assertEquals(rule, rules.get(0));
+
+            // CPU usage never exceeds 1, so the request passes.
+            SystemRuleManager.checkSystem(new StringResourceWrapper("testSystemRule_cpuUsage", EntryType.IN));
+        } finally {
+            SystemRuleManager.loadRules(Collections.<SystemRule>emptyList());
+        }
+    }
 }
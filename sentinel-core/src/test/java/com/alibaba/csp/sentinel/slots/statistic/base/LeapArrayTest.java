@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.statistic.base;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -59,6 +61,58 @@ public class LeapArrayTest {
         assertSame(expected2, leapArray.getValidHead());
     }
 
+    @Test
+    public void testLockFreeRotation() throws Exception {
+        int windowLengthInMs = 100;
+        int intervalInMs = 1000;
+        int sampleCount = intervalInMs / windowLengthInMs;
+        final LeapArray<AtomicInteger> leapArray = new LeapArray<AtomicInteger>(sampleCount, intervalInMs, true) {
+            @Override
+            public AtomicInteger newEmptyBucket() {
+                return new AtomicInteger(0);
+            }
+
+            @Override
+            protected WindowWrap<AtomicInteger> resetWindowTo(WindowWrap<AtomicInteger> windowWrap, long startTime) {
+                throw new UnsupportedOperationException("should not reset in place in lock-free mode");
+            }
+        };
+        assertTrue(leapArray.isLockFreeRotation());
+
+        long time = 1000;
+        WindowWrap<AtomicInteger> w1 = leapArray.currentWindow(time);
+        w1.value().addAndGet(5);
+        assertSame(w1, leapArray.currentWindow(time + 50));
+
+        // The same slot one interval later should be rotated to a fresh bucket.
+        final long rotatedTime = time + intervalInMs;
+        final int threadCount = 8;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        leapArray.currentWindow(rotatedTime).value().incrementAndGet();
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        startLatch.countDown();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        WindowWrap<AtomicInteger> w2 = leapArray.currentWindow(rotatedTime);
+        assertNotSame(w1, w2);
+        assertEquals(rotatedTime, w2.windowStart());
+        assertEquals(threadCount, w2.value().get());
+        assertEquals(time, w1.windowStart());
+    }
+
     private void sleep(int t) {
         try {
             Thread.sleep(t);
@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LatencyHistogram}.
+ *
+ * @author agent
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testIndexBounds() {
+        for (long v = 0; v < 5000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            long highest = LatencyHistogram.highestValueOf(index);
+            assertTrue(highest >= v);
+            // Relative error is bounded by the sub-bucket precision.
+            assertTrue(highest - v <= Math.max(0, v >> LatencyHistogram.SUB_BUCKET_BITS));
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueOf(index - 1) < v);
+            }
+        }
+    }
+
+    @Test
+    public void testValueAtPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram(4900);
+        assertEquals(0, histogram.valueAtPercentile(99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i < 990 ? 5 : 800);
+        }
+        assertEquals(1000, histogram.totalCount());
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(5, histogram.valueAtPercentile(90));
+        long p99 = histogram.valueAtPercentile(99);
+        assertTrue(p99 >= 800 && p99 <= 800 * 1.125);
+
+        histogram.reset();
+        assertEquals(0, histogram.totalCount());
+    }
+
+    @Test
+    public void testRecordOverMaxValue() {
+        LatencyHistogram histogram = new LatencyHistogram(4900);
+        histogram.record(100000);
+        assertEquals(4900, histogram.valueAtPercentile(50));
+    }
+
+    @Test
+    public void testMergedPercentile() {
+        LatencyHistogram h1 = new LatencyHistogram(4900);
+        LatencyHistogram h2 = new LatencyHistogram(4900);
+        for (int i = 0; i < 50; i++) {
+            h1.record(10);
+            h2.record(1000);
+        }
+        assertEquals(10, LatencyHistogram.valueAtPercentile(Arrays.asList(h1, h2), 50));
+        long p90 = LatencyHistogram.valueAtPercentile(Arrays.asList(h1, h2), 90);
+        assertTrue(p90 >= 1000 && p90 <= 1000 * 1.125);
+    }
+
+    @Test
+    public void testMetricBucketHistogram() {
+        MetricBucket bucket = new MetricBucket();
+        bucket.addRT(10);
+        assertNull(bucket.rtHistogram());
+        assertEquals(0, bucket.rtPercentile(99));
+
+        bucket.enableRtHistogram();
+        bucket.addRT(10);
+        bucket.addRT(10);
+        assertEquals(10, bucket.rtPercentile(99));
+        bucket.reset();
+        assertEquals(0, bucket.rtPercentile(99));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link StripedMetricBucket}.
+ *
+ * @author agent
+ */
+public class StripedMetricBucketTest {
+
+    @Test
+    public void testStripeCountRoundedToPowerOfTwo() {
+        assertEquals(1, new StripedMetricBucket(1).getStripeCount());
+        assertEquals(4, new StripedMetricBucket(3).getStripeCount());
+        assertEquals(8, new StripedMetricBucket(8).getStripeCount());
+        assertEquals(StripedMetricBucket.MAX_STRIPES, new StripedMetricBucket(1000).getStripeCount());
+    }
+
+    @Test
+    public void testAddAndReset() {
+        StripedMetricBucket bucket = new StripedMetricBucket(4);
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addSuccess(1);
+        bucket.addException(4);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.success());
+        assertEquals(4, bucket.exception());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+        assertEquals(0, bucket.get(MetricEvent.OCCUPIED_PASS));
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(Constants.TIME_DROP_VALVE, bucket.minRt());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final StripedMetricBucket bucket = new StripedMetricBucket(4);
+        final int threadCount = 16;
+        final int loop = 10000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < loop; j++) {
+                        bucket.addPass(1);
+                        bucket.addBlock(2);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(threadCount * loop, bucket.pass());
+        assertEquals(threadCount * loop * 2, bucket.block());
+    }
+}
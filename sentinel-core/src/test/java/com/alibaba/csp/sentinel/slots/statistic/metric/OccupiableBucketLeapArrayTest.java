@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class OccupiableBucketLeapArrayTest {
+
+    private Clock originClock;
+    private ManualClock clock;
+
+    @Before
+    public void setUp() {
+        originClock = TimeUtil.getClock();
+        // Start at the beginning of a second.
+        clock = new ManualClock(1000L * 1000);
+        TimeUtil.setClock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        TimeUtil.setClock(originClock);
+    }
+
+    @Test
+    public void testBorrowedPassTransferredToUpcomingWindow() {
+        OccupiableBucketLeapArray array = new OccupiableBucketLeapArray(2, 1000);
+        ArrayMetric metric = new ArrayMetric(array);
+        metric.addPass(3);
+
+        long futureTime = clock.currentTimeMillis() + 500;
+        metric.addWaiting(futureTime, 2);
+        assertEquals(2, metric.waiting());
+        assertEquals(3, metric.pass());
+
+        clock.advance(500, TimeUnit.MILLISECONDS);
+        // The waiting requests become the pass count of the current window.
+        assertEquals(0, metric.waiting());
+        assertEquals(5, metric.pass());
+        assertEquals(2, metric.getWindowPass(futureTime));
+
+        clock.advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(2, metric.pass());
+    }
+
+    @Test
+    public void testTryOccupyNext() {
+        StatisticNode node = new StatisticNode();
+        double threshold = 10;
+        node.addPassRequest(10);
+
+        clock.advance(600, TimeUnit.MILLISECONDS);
+        long currentTime = clock.currentTimeMillis();
+        // The first window (10 passed) will slide out after 400 ms.
+        long waitInMs = node.tryOccupyNext(currentTime, 5, threshold);
+        assertEquals(400, waitInMs);
+        node.addWaitingRequest(currentTime + waitInMs, 5);
+        node.addOccupiedPass(5);
+        assertEquals(5, node.waitingRequests());
+
+        // Exceeds the threshold of the upcoming window.
+        assertEquals(SentinelConfig.flowOccupyTimeout(), node.tryOccupyNext(currentTime, 6, threshold));
+
+        clock.advance(400, TimeUnit.MILLISECONDS);
+        assertEquals(0, node.waitingRequests());
+        assertEquals(5, node.passQps());
+    }
+}
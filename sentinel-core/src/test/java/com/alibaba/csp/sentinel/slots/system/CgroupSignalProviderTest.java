@@ -0,0 +1,196 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CgroupSignalProvider}.
+ *
+ * @author agent
+ */
+public class CgroupSignalProviderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCgroupV1() throws IOException {
+        File root = folder.getRoot();
+        write(root, "cpu,cpuacct/cpu.cfs_quota_us", "200000");
+        write(root, "cpu,cpuacct/cpu.cfs_period_us", "100000");
+        write(root, "cpu,cpuacct/cpuacct.usage", "1000000000");
+        write(root, "cpu,cpuacct/cpu.stat", "nr_periods 100\nnr_throttled 10\nthrottled_time 12345\n");
+        write(root, "memory/memory.usage_in_bytes", "600");
+        write(root, "memory/memory.limit_in_bytes", "1000");
+        write(root, "memory/memory.stat", "cache 300\ntotal_inactive_file 100\n");
+
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath());
+        assertEquals(CgroupSignalProvider.VERSION_1, provider.getVersion());
+        assertEquals(2.0, provider.cpuLimit(), 0.001);
+
+        long now = TimeUnit.SECONDS.toNanos(100);
+        provider.refresh(now);
+        // No CPU usage before the second sampling.
+        assertTrue(provider.getCpuUsage() < 0);
+        assertEquals(0.5, provider.getMemoryUsage(), 0.001);
+
+        // 1 CPU second in 1 second with quota of 2 cores.
+        write(root, "cpu,cpuacct/cpuacct.usage", "2000000000");
+        write(root, "cpu,cpuacct/cpu.stat", "nr_periods 110\nnr_throttled 15\nthrottled_time 22345\n");
+        provider.refresh(now + TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0.5, provider.getCpuUsage(), 0.001);
+        assertEquals(0.5, provider.getCpuThrottledRatio(), 0.001);
+        assertTrue(provider.getMemoryPressure() < 0);
+    }
+
+    @Test
+    public void testCgroupV2() throws IOException {
+        File root = folder.getRoot();
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "cpu.max", "max 100000");
+        write(root, "cpu.stat", "usage_usec 1000000\nnr_periods 0\nnr_throttled 0\nthrottled_usec 0\n");
+        write(root, "memory.current", "800");
+        write(root, "memory.max", "max");
+        write(root, "memory.stat", "inactive_file 100\n");
+        write(root, "memory.pressure", "some avg10=12.50 avg60=1.00 avg300=0.00 total=100\n"
+            + "full avg10=0.00 avg60=0.00 avg300=0.00 total=0");
+
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath());
+        assertEquals(CgroupSignalProvider.VERSION_2, provider.getVersion());
+        assertEquals(SystemStatusListener.processor, provider.cpuLimit(), 0.001);
+
+        long now = TimeUnit.SECONDS.toNanos(100);
+        provider.refresh(now);
+        // Memory is unlimited.
+        assertTrue(provider.getMemoryUsage() < 0);
+        assertEquals(0.125, provider.getMemoryPressure(), 0.001);
+
+        write(root, "cpu.max", "50000 100000");
+        write(root, "cpu.stat", "usage_usec 1100000\nnr_periods 5\nnr_throttled 0\nthrottled_usec 0\n");
+        write(root, "memory.max", "1000");
+        provider.refresh(now + TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1.0, provider.getCpuUsage(), 0.001);
+        assertEquals(0, provider.getCpuThrottledRatio(), 0.001);
+        assertEquals(0.7, provider.getMemoryUsage(), 0.001);
+    }
+
+    @Test
+    public void testCgroupV2RootWithoutQuota() throws IOException {
+        File root = folder.getRoot();
+        // The root cgroup of a host has no cpu.max and memory.current.
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "cpu.stat", "usage_usec 1000000\n");
+        write(root, "memory.pressure", "some avg10=0.00 avg60=0.00 avg300=0.00 total=0");
+
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath());
+        assertEquals(SystemStatusListener.processor, provider.cpuLimit(), 0.001);
+
+        long now = TimeUnit.SECONDS.toNanos(100);
+        provider.refresh(now);
+        write(root, "cpu.stat", "usage_usec 1100000\n");
+        provider.refresh(now + TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(Math.min(1.0, 1.0 / SystemStatusListener.processor), provider.getCpuUsage(), 0.001);
+        assertTrue(provider.getMemoryUsage() < 0);
+    }
+
+    @Test
+    public void testCgroupV2UnreadableCpu() throws IOException {
+        File root = folder.getRoot();
+        write(root, "cgroup.controllers", "cpu memory");
+
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath());
+        long now = TimeUnit.SECONDS.toNanos(100);
+        provider.refresh(now);
+        provider.refresh(now + TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(provider.getCpuUsage() < 0);
+    }
+
+    @Test
+    public void testResolveProcessCgroupV2() throws IOException {
+        File root = folder.newFolder("cgroup");
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "memory.current", "100");
+        write(root, "memory.max", "1000");
+        write(root, "system.slice/app.service/memory.current", "300");
+        write(root, "system.slice/app.service/memory.max", "1000");
+        File proc = folder.newFolder("proc");
+        write(proc, "cgroup", "0::/system.slice/app.service\n");
+        write(proc, "mountinfo", "30 25 0:26 / /sys/fs/cgroup rw,nosuid - cgroup2 cgroup2 rw,nsdelegate\n");
+
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath(),
+            new File(proc, "cgroup").getPath(), new File(proc, "mountinfo").getPath());
+        provider.refresh(System.nanoTime());
+        assertEquals(0.3, provider.getMemoryUsage(), 0.001);
+    }
+
+    @Test
+    public void testResolveProcessCgroupV1() throws IOException {
+        File root = folder.newFolder("cgroup");
+        write(root, "cpu,cpuacct/cpuacct.usage", "0");
+        write(root, "memory/memory.usage_in_bytes", "100");
+        write(root, "memory/memory.limit_in_bytes", "1000");
+        write(root, "memory/user.slice/memory.usage_in_bytes", "200");
+        write(root, "memory/user.slice/memory.limit_in_bytes", "1000");
+        File proc = folder.newFolder("proc");
+        write(proc, "cgroup", "4:cpu,cpuacct:/docker/abc\n9:memory:/user.slice\n1:name=systemd:/user.slice\n");
+        write(proc, "mountinfo",
+            "31 25 0:27 /docker/abc /sys/fs/cgroup/cpu,cpuacct rw,nosuid - cgroup cgroup rw,cpu,cpuacct\n"
+            + "32 25 0:28 / /sys/fs/cgroup/memory rw,nosuid - cgroup cgroup rw,memory\n");
+
+        assertEquals(new File(root, "cpu,cpuacct"), CgroupSignalProvider.resolveDir(new File(root, "cpu,cpuacct"),
+            "/docker/abc", "/docker/abc"));
+        CgroupSignalProvider provider = new CgroupSignalProvider(root.getPath(),
+            new File(proc, "cgroup").getPath(), new File(proc, "mountinfo").getPath());
+        assertEquals(CgroupSignalProvider.VERSION_1, provider.getVersion());
+        provider.refresh(System.nanoTime());
+        assertEquals(0.2, provider.getMemoryUsage(), 0.001);
+    }
+
+    @Test
+    public void testCgroupAbsent() {
+        CgroupSignalProvider provider = new CgroupSignalProvider(new File(folder.getRoot(), "absent").getPath());
+        assertFalse(provider.isAvailable());
+        provider.refresh(System.nanoTime());
+        assertTrue(provider.getCpuUsage() < 0);
+    }
+
+    @Test
+    public void testParsePressure() {
+        assertEquals(0.0031, CgroupSignalProvider.parsePressure("some avg10=0.31 avg60=0.12 total=1"), 0.00001);
+        assertTrue(CgroupSignalProvider.parsePressure("some total=1") < 0);
+    }
+
+    private void write(File root, String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
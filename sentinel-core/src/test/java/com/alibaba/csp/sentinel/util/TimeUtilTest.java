@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.RateLimiterController;
+import com.alibaba.csp.sentinel.util.clock.AdaptiveTickerClock;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
+import com.alibaba.csp.sentinel.util.clock.NanoClock;
+import com.alibaba.csp.sentinel.util.clock.SystemClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent
+ */
+public class TimeUtilTest {
+
+    @Test
+    public void testNewClockByMode() {
+        assertTrue(TimeUtil.newClock("ticker") instanceof AdaptiveTickerClock);
+        assertTrue(TimeUtil.newClock("NANO") instanceof NanoClock);
+        assertTrue(TimeUtil.newClock("system") instanceof SystemClock);
+        assertTrue(TimeUtil.newClock("bad") instanceof AdaptiveTickerClock);
+        assertTrue(TimeUtil.newClock(null) instanceof AdaptiveTickerClock);
+    }
+
+    @Test
+    public void testRateLimiterWithManualClock() {
+        Clock origin = TimeUtil.getClock();
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+        try {
+            RateLimiterController controller = new RateLimiterController(1000, 2000);
+            Node node = mock(Node.class);
+
+            assertEquals(0, controller.tryAcquire(1));
+            // 500 microseconds for each request.
+            assertEquals(TimeUnit.MICROSECONDS.toNanos(500), controller.tryAcquire(1));
+            assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), controller.tryAcquire(1));
+
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            assertTrue(controller.canPass(node, 1));
+            assertEquals(TimeUnit.MICROSECONDS.toNanos(500), controller.tryAcquire(1));
+        } finally {
+            TimeUtil.setClock(origin);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class AdaptiveTickerClockTest {
+
+    @Test
+    public void testTickerStopsWhenIdleAndWakesUp() throws Exception {
+        AdaptiveTickerClock clock = new AdaptiveTickerClock(50);
+        assertTrue(clock.isTicking());
+        long now = System.currentTimeMillis();
+        assertTrue(Math.abs(clock.currentTimeMillis() - now) <= 20);
+
+        // No reads for a while, the ticker should stop.
+        long deadline = System.currentTimeMillis() + 2000;
+        while (clock.isTicking() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertFalse(clock.isTicking());
+
+        // The time should not be stale after the ticker stops.
+        TimeUnit.MILLISECONDS.sleep(100);
+        now = System.currentTimeMillis();
+        assertTrue(clock.currentTimeMillis() >= now);
+        assertTrue(clock.isTicking());
+        TimeUnit.MILLISECONDS.sleep(10);
+        assertTrue(clock.currentTimeMillis() > now);
+    }
+
+    @Test
+    public void testManualClock() {
+        ManualClock clock = new ManualClock(1000);
+        assertEquals(1000, clock.currentTimeMillis());
+        clock.advance(1500, TimeUnit.MICROSECONDS);
+        assertEquals(1001, clock.currentTimeMillis());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1001500), clock.nanoTime());
+        clock.setCurrentTimeMillis(5000);
+        assertEquals(5000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void testNanoClock() throws Exception {
+        NanoClock clock = new NanoClock();
+        long start = clock.currentTimeMillis();
+        assertTrue(Math.abs(start - System.currentTimeMillis()) <= 20);
+        TimeUnit.MILLISECONDS.sleep(20);
+        assertTrue(clock.currentTimeMillis() - start >= 20);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.demo.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+/**
+ * <p>
+ * This demo demonstrates how to use {@link RuleConstant#CONTROL_BEHAVIOR_RATE_LIMITER} without
+ * blocking the caller thread (e.g. Netty event loop or async servlet thread).
+ * </p>
+ * <p>
+ * {@link SphU#asyncEntryNonBlocking(String)} checks the rules without waiting, and the pacing wait
+ * is carried by {@link AsyncEntry#getWaitInNanos()}. The invocation is then scheduled after the wait
+ * and exposed as a {@link CompletableFuture}.
+ * </p>
+ *
+ * @author agent
+ */
+public class NonBlockingPaceFlowDemo {
+
+    private static final String KEY = "abc";
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1);
+
+    public static void main(String[] args) {
+        initPaceFlowRule();
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int index = i;
+            futures.add(pacedAsync(KEY, () -> "request " + index + " done at "
+                + (System.currentTimeMillis() - start) + " ms"));
+        }
+        System.out.println("All requests submitted in " + (System.currentTimeMillis() - start) + " ms");
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, ex) -> {
+            futures.forEach(f -> System.out.println(f.getNow("blocked")));
+            SCHEDULER.shutdown();
+        });
+    }
+
+    /**
+     * Run the task after the pacing wait of the resource, without blocking current thread.
+     */
+    private static <T> CompletableFuture<T> pacedAsync(String resource, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        final AsyncEntry entry;
+        try {
+            entry = SphU.asyncEntryNonBlocking(resource);
+        } catch (BlockException ex) {
+            future.completeExceptionally(ex);
+            return future;
+        }
+        Runnable invocation = () -> ContextUtil.runOnContext(entry.getAsyncContext(), () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                entry.exit();
+            }
+        });
+        long waitInNanos = entry.getWaitInNanos();
+        if (waitInNanos > 0) {
+            SCHEDULER.schedule(invocation, waitInNanos, TimeUnit.NANOSECONDS);
+        } else {
+            CompletableFuture.runAsync(invocation);
+        }
+        return future;
+    }
+
+    private static void initPaceFlowRule() {
+        FlowRule rule = new FlowRule();
+        rule.setResource(KEY);
+        rule.setCount(10);
+        rule.setGrade(RuleConstant.FLOW_GRADE_QPS);
+        rule.setLimitApp("default");
+        rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        rule.setMaxQueueingTimeMs(20 * 1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+    }
+}
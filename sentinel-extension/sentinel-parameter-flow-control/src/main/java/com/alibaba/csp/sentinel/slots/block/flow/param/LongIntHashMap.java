@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+/**
+ * Read-mostly open addressing hash map with primitive {@code long} keys and {@code int} values,
+ * so that looking up primitive parameter values creates no garbage (no boxing).
+ * It should be fully populated before being published to other threads.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+final class LongIntHashMap {
+
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] used;
+    private final int mask;
+    private int size = 0;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = 2;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    void put(long key, int value) {
+        int i = indexOf(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= mask) {
+            // Keep at least one empty slot, so that the probing of absent keys terminates.
+            throw new IllegalStateException("LongIntHashMap is full");
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * @param key          key to look up
+     * @param defaultValue value to return if the key is absent
+     * @return value of the key, or the default value if absent
+     */
+    int get(long key, int defaultValue) {
+        if (size == 0) {
+            return defaultValue;
+        }
+        int i = indexOf(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+}
@@ -15,12 +15,9 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
-import java.lang.reflect.Array;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.TokenService;
@@ -31,6 +28,8 @@ import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvide
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * Rule checker for parameter flow control.
@@ -67,23 +66,7 @@ final class ParamFlowChecker {
     private static boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count,
                                           Object value) {
         try {
-            if (Collection.class.isAssignableFrom(value.getClass())) {
-                for (Object param : ((Collection)value)) {
-                    if (!passSingleValueCheck(resourceWrapper, rule, count, param)) {
-                        return false;
-                    }
-                }
-            } else if (value.getClass().isArray()) {
-                int length = Array.getLength(value);
-                for (int i = 0; i < length; i++) {
-                    Object param = Array.get(value, i);
-                    if (!passSingleValueCheck(resourceWrapper, rule, count, param)) {
-                        return false;
-                    }
-                }
-            } else {
-                return passSingleValueCheck(resourceWrapper, rule, count, value);
-            }
+            return rule.extractorOf(value).passLocalCheck(resourceWrapper, rule, count, value);
         } catch (Throwable e) {
             RecordLog.warn("[ParamFlowChecker] Unexpected error", e);
         }
@@ -92,14 +75,34 @@ final class ParamFlowChecker {
     }
 
     static boolean passSingleValueCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object value) {
-        Set<Object> exclusionItems = rule.getParsedHotItems().keySet();
+        Integer itemThreshold = rule.getParsedHotItems().get(value);
+        return passValueCheck(resourceWrapper, rule, count, value,
+            itemThreshold == null ? ParamFlowRule.NO_HOT_ITEM : itemThreshold);
+    }
+
+    static boolean passIntValueCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, int value) {
+        // Look up the exception items without boxing. The value is only boxed for the metric.
+        return passValueCheck(resourceWrapper, rule, count, value, rule.getIntHotItem(value));
+    }
+
+    static boolean passLongValueCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, long value) {
+        return passValueCheck(resourceWrapper, rule, count, value, rule.getLongHotItem(value));
+    }
+
+    private static boolean passValueCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count,
+                                          Object value, int itemThreshold) {
+        if (value == null) {
+            return true;
+        }
         if (rule.getGrade() == RuleConstant.FLOW_GRADE_QPS) {
+            if (rule.isTokenBucketMode()) {
+                return passTokenBucketCheck(resourceWrapper, rule, count, value, itemThreshold);
+            }
             double curCount = getHotParameters(resourceWrapper).getPassParamQps(rule.getParamIdx(), value);
 
-            if (exclusionItems.contains(value)) {
+            if (itemThreshold != ParamFlowRule.NO_HOT_ITEM) {
                 // Pass check for exclusion items.
-                int itemQps = rule.getParsedHotItems().get(value);
-                return curCount + count <= itemQps;
+                return curCount + count <= itemThreshold;
             } else if (curCount + count > rule.getCount()) {
                 if ((curCount - rule.getCount()) < 1 && (curCount - rule.getCount()) > 0) {
                     return true;
@@ -111,39 +114,73 @@ final class ParamFlowChecker {
         return true;
     }
 
+    /**
+     * <p>Acquire tokens from the token bucket of the parameter value, which is refilled lazily.</p>
+     * <p>
+     * The state of the bucket is compacted into a single timestamp (generic cell rate algorithm):
+     * the theoretical arrival time (TAT) when the bucket would be full again. With the emission interval
+     * {@code t = durationInSec / threshold}, the amount of available tokens at {@code now} is
+     * {@code capacity - (max(TAT, now) - now) / t}. So acquiring tokens is a single CAS of the TAT,
+     * and no refill task or sliding window traversal is needed.
+     * </p>
+     */
+    private static boolean passTokenBucketCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count,
+                                                Object value, int itemThreshold) {
+        ParameterMetric metric = getHotParameters(resourceWrapper);
+        CacheMap<Object, AtomicLong> buckets = metric == null ? null : metric.getRuleTokenBuckets(rule);
+        if (buckets == null) {
+            return true;
+        }
+        double threshold = itemThreshold != ParamFlowRule.NO_HOT_ITEM ? itemThreshold : rule.getCount();
+        if (threshold <= 0) {
+            return false;
+        }
+        double capacity = threshold + rule.getBurstCount();
+        if (count > capacity) {
+            return false;
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(rule.getDurationInSec()) / threshold;
+        long tolerance = (long)(capacity * intervalNanos);
+        long cost = (long)(count * intervalNanos);
+
+        long now = TimeUtil.nanoTime();
+        AtomicLong tat = buckets.get(value);
+        if (tat == null) {
+            // A new bucket is full.
+            buckets.putIfAbsent(value, new AtomicLong(now));
+            tat = buckets.get(value);
+            if (tat == null) {
+                return true;
+            }
+        }
+        while (true) {
+            long current = tat.get();
+            long newTat = (current - now > 0 ? current : now) + cost;
+            if (newTat - now > tolerance) {
+                return false;
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return true;
+            }
+        }
+    }
+
     private static ParameterMetric getHotParameters(ResourceWrapper resourceWrapper) {
         // Should not be null.
         return ParamFlowSlot.getParamMetric(resourceWrapper);
     }
 
-    @SuppressWarnings("unchecked")
-    private static Collection<Object> toCollection(Object value) {
-        if (value instanceof Collection) {
-            return (Collection<Object>)value;
-        } else if (value.getClass().isArray()) {
-            List<Object> params = new ArrayList<Object>();
-            int length = Array.getLength(value);
-            for (int i = 0; i < length; i++) {
-                Object param = Array.get(value, i);
-                params.add(param);
-            }
-            return params;
-        } else {
-            return Collections.singletonList(value);
-        }
-    }
-
     private static boolean passClusterCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count,
                                             Object value) {
         try {
-            Collection<Object> params = toCollection(value);
-
             TokenService clusterService = pickClusterService();
             if (clusterService == null) {
                 // No available cluster client or server, fallback to local or pass in need.
-                return fallbackToLocalOrPass(resourceWrapper, rule, count, params);
+                return fallbackToLocalOrPass(resourceWrapper, rule, count, value);
             }
 
+            Collection<Object> params = rule.extractorOf(value).toCollection(value);
+
             TokenResult result = clusterService.requestParamToken(rule.getClusterConfig().getFlowId(), count, params);
             switch (result.getStatus()) {
                 case TokenResultStatus.OK:
@@ -151,7 +188,7 @@ final class ParamFlowChecker {
                 case TokenResultStatus.BLOCKED:
                     return false;
                 default:
-                    return fallbackToLocalOrPass(resourceWrapper, rule, count, params);
+                    return fallbackToLocalOrPass(resourceWrapper, rule, count, value);
             }
         } catch (Throwable ex) {
             RecordLog.warn("[ParamFlowChecker] Request cluster token for parameter unexpected failed", ex);
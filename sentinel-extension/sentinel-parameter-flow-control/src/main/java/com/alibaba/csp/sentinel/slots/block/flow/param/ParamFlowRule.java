@@ -34,6 +34,11 @@ import com.alibaba.csp.sentinel.slots.block.RuleConstant;
  */
 public class ParamFlowRule extends AbstractRule {
 
+    /**
+     * Indicates that there is no exception item for a value.
+     */
+    static final int NO_HOT_ITEM = Integer.MIN_VALUE;
+
     public ParamFlowRule() {}
 
     public ParamFlowRule(String resourceName) {
@@ -64,6 +69,16 @@ public class ParamFlowRule extends AbstractRule {
      * Parsed exclusion items of parameters. Only for internal use.
      */
     private Map<Object, Integer> hotItems = new HashMap<Object, Integer>();
+    /**
+     * Parsed exclusion items of int and long values, for lookup without boxing. Only for internal use.
+     */
+    private LongIntHashMap intHotItems = new LongIntHashMap(0);
+    private LongIntHashMap longHotItems = new LongIntHashMap(0);
+
+    /**
+     * Cached extractor resolved by the type of the latest parameter argument. Only for internal use.
+     */
+    private volatile ParamValueExtractor extractor;
 
     /**
      * Indicating whether the rule is for cluster mode.
@@ -74,6 +89,28 @@ public class ParamFlowRule extends AbstractRule {
      */
     private ParamFlowClusterConfig clusterConfig;
 
+    /**
+     * <p>Whether to check each parameter value against its own token bucket, rather than the pass QPS
+     * of the sliding window. The bucket refills {@code count} tokens per {@code durationInSec} lazily
+     * when accessed, with capacity of {@code count + burstCount} tokens.</p>
+     * <p>Only available for QPS grade in local mode.</p>
+     *
+     * @since 1.4.2
+     */
+    private boolean tokenBucketMode = false;
+    /**
+     * Extra tokens allowed for burst requests (token bucket mode only).
+     *
+     * @since 1.4.2
+     */
+    private int burstCount = 0;
+    /**
+     * Duration (in second) to refill {@code count} tokens (token bucket mode only).
+     *
+     * @since 1.4.2
+     */
+    private long durationInSec = 1;
+
     public int getGrade() {
         return grade;
     }
@@ -123,9 +160,60 @@ public class ParamFlowRule extends AbstractRule {
 
     ParamFlowRule setParsedHotItems(Map<Object, Integer> hotItems) {
         this.hotItems = hotItems;
+        this.intHotItems = buildPrimitiveHotItems(hotItems, Integer.class);
+        this.longHotItems = buildPrimitiveHotItems(hotItems, Long.class);
         return this;
     }
 
+    private static LongIntHashMap buildPrimitiveHotItems(Map<Object, Integer> hotItems, Class<?> type) {
+        if (hotItems == null) {
+            return new LongIntHashMap(0);
+        }
+        int size = 0;
+        for (Object key : hotItems.keySet()) {
+            if (type.isInstance(key)) {
+                size++;
+            }
+        }
+        LongIntHashMap map = new LongIntHashMap(size);
+        for (Map.Entry<Object, Integer> e : hotItems.entrySet()) {
+            if (type.isInstance(e.getKey()) && e.getValue() != null) {
+                map.put(((Number)e.getKey()).longValue(), e.getValue());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * @return threshold of the exception item of provided int value, or {@link #NO_HOT_ITEM} if absent
+     */
+    int getIntHotItem(int value) {
+        return intHotItems.get(value, NO_HOT_ITEM);
+    }
+
+    /**
+     * @return threshold of the exception item of provided long value, or {@link #NO_HOT_ITEM} if absent
+     */
+    int getLongHotItem(long value) {
+        return longHotItems.get(value, NO_HOT_ITEM);
+    }
+
+    /**
+     * Get the extractor of parameter values for the argument. The extractor is resolved by the type of
+     * the argument only if the type differs from the previous one.
+     *
+     * @param arg non-null argument
+     * @return the extractor for the argument
+     */
+    ParamValueExtractor extractorOf(Object arg) {
+        ParamValueExtractor extractor = this.extractor;
+        if (extractor == null || !extractor.accepts(arg)) {
+            extractor = ParamValueExtractor.of(arg);
+            this.extractor = extractor;
+        }
+        return extractor;
+    }
+
     public boolean isClusterMode() {
         return clusterMode;
     }
@@ -144,6 +232,33 @@ public class ParamFlowRule extends AbstractRule {
         return this;
     }
 
+    public boolean isTokenBucketMode() {
+        return tokenBucketMode;
+    }
+
+    public ParamFlowRule setTokenBucketMode(boolean tokenBucketMode) {
+        this.tokenBucketMode = tokenBucketMode;
+        return this;
+    }
+
+    public int getBurstCount() {
+        return burstCount;
+    }
+
+    public ParamFlowRule setBurstCount(int burstCount) {
+        this.burstCount = burstCount;
+        return this;
+    }
+
+    public long getDurationInSec() {
+        return durationInSec;
+    }
+
+    public ParamFlowRule setDurationInSec(long durationInSec) {
+        this.durationInSec = durationInSec;
+        return this;
+    }
+
     @Override
     @Deprecated
     public boolean passCheck(Context context, DefaultNode node, int count, Object... args) {
@@ -161,6 +276,9 @@ public class ParamFlowRule extends AbstractRule {
         if (grade != rule.grade) { return false; }
         if (Double.compare(rule.count, count) != 0) { return false; }
         if (clusterMode != rule.clusterMode) { return false; }
+        if (tokenBucketMode != rule.tokenBucketMode) { return false; }
+        if (burstCount != rule.burstCount) { return false; }
+        if (durationInSec != rule.durationInSec) { return false; }
         if (paramIdx != null ? !paramIdx.equals(rule.paramIdx) : rule.paramIdx != null) { return false; }
         if (paramFlowItemList != null ? !paramFlowItemList.equals(rule.paramFlowItemList)
             : rule.paramFlowItemList != null) { return false; }
@@ -178,6 +296,9 @@ public class ParamFlowRule extends AbstractRule {
         result = 31 * result + (paramFlowItemList != null ? paramFlowItemList.hashCode() : 0);
         result = 31 * result + (clusterMode ? 1 : 0);
         result = 31 * result + (clusterConfig != null ? clusterConfig.hashCode() : 0);
+        result = 31 * result + (tokenBucketMode ? 1 : 0);
+        result = 31 * result + burstCount;
+        result = 31 * result + (int)(durationInSec ^ (durationInSec >>> 32));
         return result;
     }
 
@@ -190,6 +311,9 @@ public class ParamFlowRule extends AbstractRule {
             ", paramFlowItemList=" + paramFlowItemList +
             ", clusterMode=" + clusterMode +
             ", clusterConfig=" + clusterConfig +
+            ", tokenBucketMode=" + tokenBucketMode +
+            ", burstCount=" + burstCount +
+            ", durationInSec=" + durationInSec +
             '}';
     }
 }
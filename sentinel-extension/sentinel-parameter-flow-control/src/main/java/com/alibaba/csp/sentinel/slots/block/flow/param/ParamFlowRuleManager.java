@@ -158,6 +158,13 @@ public final class ParamFlowRuleManager {
                     ParamFlowSlot.clearHotParamMetricForName(resource);
                 }
             }
+            // Clear token bucket state of removed rules.
+            for (Map.Entry<String, List<ParamFlowRule>> entry : newRuleMap.entrySet()) {
+                ParameterMetric metric = ParamFlowSlot.getHotParamMetricForName(entry.getKey());
+                if (metric != null) {
+                    metric.retainTokenBuckets(entry.getValue());
+                }
+            }
 
             return newRuleMap;
         }
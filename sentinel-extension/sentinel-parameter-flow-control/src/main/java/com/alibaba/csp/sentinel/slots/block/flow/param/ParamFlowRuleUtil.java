@@ -31,7 +31,8 @@ public final class ParamFlowRuleUtil {
 
     public static boolean isValidRule(ParamFlowRule rule) {
         return rule != null && !StringUtil.isBlank(rule.getResource()) && rule.getCount() >= 0
-            && rule.getParamIdx() != null && rule.getParamIdx() >= 0 && checkCluster(rule);
+            && rule.getParamIdx() != null && rule.getParamIdx() >= 0
+            && rule.getBurstCount() >= 0 && rule.getDurationInSec() > 0 && checkCluster(rule);
     }
 
     private static boolean checkCluster(/*@PreChecked*/ ParamFlowRule rule) {
@@ -74,7 +74,7 @@ public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
             for (ParamFlowRule rule : rules) {
                 // Initialize the parameter metrics.
-                initHotParamMetricsFor(resourceWrapper, rule.getParamIdx());
+                initHotParamMetricsFor(resourceWrapper, rule);
 
                 if (!ParamFlowChecker.passCheck(resourceWrapper, rule, count, args)) {
 
@@ -100,6 +100,19 @@ public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         }
     }
 
+    /**
+     * Init the parameter metric for given resource and rule.
+     *
+     * @param resourceWrapper resource to init
+     * @param rule            valid rule of the resource
+     */
+    void initHotParamMetricsFor(ResourceWrapper resourceWrapper, /*@Valid*/ ParamFlowRule rule) {
+        initHotParamMetricsFor(resourceWrapper, rule.getParamIdx());
+        if (rule.isTokenBucketMode()) {
+            metricsMap.get(resourceWrapper).initializeForRule(rule);
+        }
+    }
+
     /**
      * Init the parameter metric and index map for given resource.
      * Package-private for test.
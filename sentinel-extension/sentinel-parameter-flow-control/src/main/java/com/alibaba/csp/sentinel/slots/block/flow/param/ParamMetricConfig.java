@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.statistic.data.ParamMapBucket;
+
+/**
+ * <p>Configuration of frequent parameter statistics.</p>
+ *
+ * <p>In {@code map} mode (default), exact counts are kept in a LRU map for each bucket.
+ * In {@code sketch} mode, approximate counts are kept in a Count-Min Sketch and frequent values are
+ * tracked by a Space-Saving top-K tracker for each bucket, so that the memory is fixed regardless of the
+ * amount of distinct values (e.g. user IDs), and hot values will not be evicted by cold values.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public final class ParamMetricConfig {
+
+    public static final String PARAM_METRIC_MODE = "csp.sentinel.param.metric.mode";
+    /**
+     * Max overestimated count of a value relative to the total count of a bucket.
+     */
+    public static final String SKETCH_EPSILON = "csp.sentinel.param.sketch.epsilon";
+    /**
+     * Probability that the overestimated count exceeds the error bound.
+     */
+    public static final String SKETCH_DELTA = "csp.sentinel.param.sketch.delta";
+    public static final String SKETCH_TOP_K = "csp.sentinel.param.sketch.topk";
+    /**
+     * Max amount of parameter values whose token bucket is kept for each rule (LRU).
+     */
+    public static final String TOKEN_BUCKET_CAPACITY = "csp.sentinel.param.token.bucket.capacity";
+
+    public static final String MODE_MAP = "map";
+    public static final String MODE_SKETCH = "sketch";
+
+    static final double DEFAULT_SKETCH_EPSILON = 0.002;
+    static final double DEFAULT_SKETCH_DELTA = 0.01;
+    static final int DEFAULT_SKETCH_TOP_K = ParamMapBucket.DEFAULT_MAX_CAPACITY;
+    static final int DEFAULT_TOKEN_BUCKET_CAPACITY = 4000;
+
+    public static boolean isSketchMode() {
+        return MODE_SKETCH.equalsIgnoreCase(SentinelConfig.getConfig(PARAM_METRIC_MODE));
+    }
+
+    public static double sketchEpsilon() {
+        return parseProbability(SKETCH_EPSILON, DEFAULT_SKETCH_EPSILON);
+    }
+
+    public static double sketchDelta() {
+        return parseProbability(SKETCH_DELTA, DEFAULT_SKETCH_DELTA);
+    }
+
+    public static int sketchTopK() {
+        return parsePositiveInt(SKETCH_TOP_K, DEFAULT_SKETCH_TOP_K);
+    }
+
+    public static int tokenBucketCapacity() {
+        return parsePositiveInt(TOKEN_BUCKET_CAPACITY, DEFAULT_TOKEN_BUCKET_CAPACITY);
+    }
+
+    private static int parsePositiveInt(String key, int defaultValue) {
+        String value = SentinelConfig.getConfig(key);
+        try {
+            if (value != null) {
+                int v = Integer.parseInt(value);
+                if (v > 0) {
+                    return v;
+                }
+            }
+        } catch (Exception ex) {
+            RecordLog.warn("[ParamMetricConfig] Failed to parse " + key + ": " + value);
+        }
+        return defaultValue;
+    }
+
+    private static double parseProbability(String key, double defaultValue) {
+        String value = SentinelConfig.getConfig(key);
+        try {
+            if (value != null) {
+                double v = Double.parseDouble(value);
+                if (v > 0 && v < 1) {
+                    return v;
+                }
+            }
+        } catch (Exception ex) {
+            RecordLog.warn("[ParamMetricConfig] Failed to parse " + key + ": " + value);
+        }
+        return defaultValue;
+    }
+
+    private ParamMetricConfig() {}
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.statistic.metric.HotParameterStatistic;
+
+/**
+ * <p>Typed extraction of parameter values from an argument, which may be a single value,
+ * an array or a collection.</p>
+ *
+ * <p>The extractor is resolved once by the type of the argument, and cached by the rule
+ * (or the parameter index of the metric). Later arguments of the same type only need
+ * a class identity check, rather than {@code isAssignableFrom} and reflective array access.
+ * Primitive arrays ({@code int[]} and {@code long[]}) have dedicated paths
+ * that don't box the elements for exception item lookup.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+abstract class ParamValueExtractor {
+
+    private final Class<?> type;
+
+    ParamValueExtractor(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * @param arg non-null argument
+     * @return whether the argument could be handled by this extractor
+     */
+    final boolean accepts(Object arg) {
+        return arg.getClass() == type;
+    }
+
+    /**
+     * Check every parameter value of the argument against the rule in local mode.
+     *
+     * @return true if all values pass the check
+     */
+    abstract boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg);
+
+    /**
+     * Add event count for every non-null parameter value of the argument.
+     */
+    abstract void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg);
+
+    /**
+     * @return parameter values of the argument (e.g. for cluster requests)
+     */
+    abstract Collection<Object> toCollection(Object arg);
+
+    /**
+     * Resolve the extractor by the type of the argument.
+     *
+     * @param arg non-null argument
+     * @return the extractor for the type of the argument
+     */
+    static ParamValueExtractor of(Object arg) {
+        Class<?> type = arg.getClass();
+        if (type == int[].class) {
+            return INT_ARRAY;
+        }
+        if (type == long[].class) {
+            return LONG_ARRAY;
+        }
+        if (type == String.class) {
+            return STRING;
+        }
+        if (arg instanceof Collection) {
+            return new CollectionExtractor(type);
+        }
+        if (arg instanceof Object[]) {
+            return new ObjectArrayExtractor(type);
+        }
+        if (type.isArray()) {
+            return new PrimitiveArrayExtractor(type);
+        }
+        return new SingleValueExtractor(type);
+    }
+
+    private static final ParamValueExtractor STRING = new SingleValueExtractor(String.class);
+    private static final ParamValueExtractor INT_ARRAY = new IntArrayExtractor();
+    private static final ParamValueExtractor LONG_ARRAY = new LongArrayExtractor();
+
+    private static class SingleValueExtractor extends ParamValueExtractor {
+
+        SingleValueExtractor(Class<?> type) {
+            super(type);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            return ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, count, arg);
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            statistic.addValue(event, count, arg);
+        }
+
+        @Override
+        Collection<Object> toCollection(Object arg) {
+            return Collections.singletonList(arg);
+        }
+    }
+
+    private static class IntArrayExtractor extends ParamValueExtractor {
+
+        IntArrayExtractor() {
+            super(int[].class);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            for (int value : (int[])arg) {
+                if (!ParamFlowChecker.passIntValueCheck(resourceWrapper, rule, count, value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            for (int value : (int[])arg) {
+                statistic.addValue(event, count, value);
+            }
+        }
+
+        @Override
+        Collection<Object> toCollection(Object arg) {
+            int[] values = (int[])arg;
+            List<Object> params = new ArrayList<Object>(values.length);
+            for (int value : values) {
+                params.add(value);
+            }
+            return params;
+        }
+    }
+
+    private static class LongArrayExtractor extends ParamValueExtractor {
+
+        LongArrayExtractor() {
+            super(long[].class);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            for (long value : (long[])arg) {
+                if (!ParamFlowChecker.passLongValueCheck(resourceWrapper, rule, count, value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            for (long value : (long[])arg) {
+                statistic.addValue(event, count, value);
+            }
+        }
+
+        @Override
+        Collection<Object> toCollection(Object arg) {
+            long[] values = (long[])arg;
+            List<Object> params = new ArrayList<Object>(values.length);
+            for (long value : values) {
+                params.add(value);
+            }
+            return params;
+        }
+    }
+
+    private static class ObjectArrayExtractor extends ParamValueExtractor {
+
+        ObjectArrayExtractor(Class<?> type) {
+            super(type);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            for (Object value : (Object[])arg) {
+                if (!ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, count, value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            for (Object value : (Object[])arg) {
+                if (value != null) {
+                    statistic.addValue(event, count, value);
+                }
+            }
+        }
+
+        @Override
+        Collection<Object> toCollection(Object arg) {
+            Object[] values = (Object[])arg;
+            List<Object> params = new ArrayList<Object>(values.length);
+            Collections.addAll(params, values);
+            return params;
+        }
+    }
+
+    private static class CollectionExtractor extends ParamValueExtractor {
+
+        CollectionExtractor(Class<?> type) {
+            super(type);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            for (Object value : (Collection<?>)arg) {
+                if (!ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, count, value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            for (Object value : (Collection<?>)arg) {
+                if (value != null) {
+                    statistic.addValue(event, count, value);
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Collection<Object> toCollection(Object arg) {
+            return (Collection<Object>)arg;
+        }
+    }
+
+    /**
+     * Arrays of other primitive types, which are rarely used as parameters.
+     */
+    private static class PrimitiveArrayExtractor extends ParamValueExtractor {
+
+        PrimitiveArrayExtractor(Class<?> type) {
+            super(type);
+        }
+
+        @Override
+        boolean passLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int count, Object arg) {
+            int length = Array.getLength(arg);
+            for (int i = 0; i < length; i++) {
+                if (!ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, count, Array.get(arg, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void addValues(HotParameterStatistic statistic, RollingParamEvent event, int count, Object arg) {
+            int length = Array.getLength(arg);
+            for (int i = 0; i < length; i++) {
+                statistic.addValue(event, count, Array.get(arg, i));
+            }
+        }
+
+        @Override
+        Collection<Object> toCollection(Object arg) {
+            int length = Array.getLength(arg);
+            List<Object> params = new ArrayList<Object>(length);
+            for (int i = 0; i < length; i++) {
+                params.add(Array.get(arg, i));
+            }
+            return params;
+        }
+    }
+}
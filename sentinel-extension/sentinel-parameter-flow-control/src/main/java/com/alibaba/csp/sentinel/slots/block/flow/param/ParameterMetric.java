@@ -15,20 +15,27 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
-import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.IntervalProperty;
 import com.alibaba.csp.sentinel.node.SampleCountProperty;
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
 import com.alibaba.csp.sentinel.slots.statistic.metric.HotParameterLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.HotParameterSketchLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.HotParameterStatistic;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 /**
- * Metrics for frequent ("hot spot") parameters.
+ * <p>Metrics for frequent ("hot spot") parameters.</p>
+ *
+ * <p>In sketch mode (see {@link ParamMetricConfig}), approximate statistics with fixed memory
+ * are used instead of LRU maps.</p>
  *
  * @author Eric Zhao
  * @since 0.2.0
@@ -37,31 +44,119 @@ public class ParameterMetric {
 
     private final int sampleCount;
     private final int intervalMs;
+    private final boolean sketchMode;
 
     public ParameterMetric() {
         this(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
     }
 
     public ParameterMetric(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, ParamMetricConfig.isSketchMode());
+    }
+
+    /**
+     * @param sampleCount  bucket count of the sliding window
+     * @param intervalInMs interval of the sliding window
+     * @param sketchMode   whether to use approximate statistics (Count-Min Sketch and Space-Saving top-K)
+     * @since 1.4.2
+     */
+    public ParameterMetric(int sampleCount, int intervalInMs, boolean sketchMode) {
         AssertUtil.isTrue(sampleCount > 0, "sampleCount should be positive");
         AssertUtil.isTrue(intervalInMs > 0, "window interval should be positive");
         AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
         this.sampleCount = sampleCount;
         this.intervalMs = intervalInMs;
+        this.sketchMode = sketchMode;
     }
 
     private Map<Integer, HotParameterLeapArray> rollingParameters =
         new ConcurrentHashMap<Integer, HotParameterLeapArray>();
+    private Map<Integer, HotParameterSketchLeapArray> sketchParameters =
+        new ConcurrentHashMap<Integer, HotParameterSketchLeapArray>();
+
+    /**
+     * Token bucket state of parameter values for rules in token bucket mode. The state of a value is
+     * the theoretical arrival time (in nanoseconds) of the next request (see {@link ParamFlowChecker}).
+     */
+    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenBuckets =
+        new ConcurrentHashMap<ParamFlowRule, CacheMap<Object, AtomicLong>>();
+
+    /**
+     * Extractors of parameter values resolved by the type of latest argument of each index.
+     */
+    private final Map<Integer, ParamValueExtractor> extractors = new ConcurrentHashMap<Integer, ParamValueExtractor>();
 
     public Map<Integer, HotParameterLeapArray> getRollingParameters() {
         return rollingParameters;
     }
 
+    /**
+     * @return approximate statistics of parameters (only available in sketch mode)
+     * @since 1.4.2
+     */
+    public Map<Integer, HotParameterSketchLeapArray> getSketchParameters() {
+        return sketchParameters;
+    }
+
+    public boolean isSketchMode() {
+        return sketchMode;
+    }
+
+    /**
+     * @param rule parameter flow rule in token bucket mode
+     * @return token bucket state of parameter values for the rule, or null if not initialized
+     * @since 1.4.2
+     */
+    public CacheMap<Object, AtomicLong> getRuleTokenBuckets(ParamFlowRule rule) {
+        return ruleTokenBuckets.get(rule);
+    }
+
     public synchronized void clear() {
         rollingParameters.clear();
+        sketchParameters.clear();
+        ruleTokenBuckets.clear();
+    }
+
+    /**
+     * Initialize the token bucket state for provided rule if the rule is in token bucket mode.
+     *
+     * @param rule valid parameter flow rule
+     * @since 1.4.2
+     */
+    public void initializeForRule(ParamFlowRule rule) {
+        if (!rule.isTokenBucketMode() || ruleTokenBuckets.containsKey(rule)) {
+            return;
+        }
+        synchronized (this) {
+            if (ruleTokenBuckets.get(rule) == null) {
+                ruleTokenBuckets.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(
+                    ParamMetricConfig.tokenBucketCapacity()));
+            }
+        }
+    }
+
+    /**
+     * Remove the token bucket state of rules that are no longer present.
+     *
+     * @param rules current rules of the resource
+     * @since 1.4.2
+     */
+    public synchronized void retainTokenBuckets(Collection<ParamFlowRule> rules) {
+        ruleTokenBuckets.keySet().retainAll(rules);
+    }
+
+    private HotParameterStatistic getStatistic(int index) {
+        if (sketchMode) {
+            return sketchParameters.get(index);
+        }
+        return rollingParameters.get(index);
     }
 
     public void initializeForIndex(int index) {
+        if (sketchMode) {
+            initializeSketchForIndex(index);
+            return;
+        }
         if (!rollingParameters.containsKey(index)) {
             synchronized (this) {
                 // putIfAbsent
@@ -72,6 +167,18 @@ public class ParameterMetric {
         }
     }
 
+    private void initializeSketchForIndex(int index) {
+        if (!sketchParameters.containsKey(index)) {
+            synchronized (this) {
+                if (sketchParameters.get(index) == null) {
+                    sketchParameters.put(index, new HotParameterSketchLeapArray(sampleCount, intervalMs,
+                        ParamMetricConfig.sketchEpsilon(), ParamMetricConfig.sketchDelta(),
+                        ParamMetricConfig.sketchTopK()));
+                }
+            }
+        }
+    }
+
     public void addPass(int count, Object... args) {
         add(RollingParamEvent.REQUEST_PASSED, count, args);
     }
@@ -80,14 +187,13 @@ public class ParameterMetric {
         add(RollingParamEvent.REQUEST_BLOCKED, count, args);
     }
 
-    @SuppressWarnings("rawtypes")
     private void add(RollingParamEvent event, int count, Object... args) {
         if (args == null) {
             return;
         }
         try {
             for (int index = 0; index < args.length; index++) {
-                HotParameterLeapArray param = rollingParameters.get(index);
+                HotParameterStatistic param = getStatistic(index);
                 if (param == null) {
                     continue;
                 }
@@ -96,19 +202,7 @@ public class ParameterMetric {
                 if (arg == null) {
                     continue;
                 }
-                if (Collection.class.isAssignableFrom(arg.getClass())) {
-                    for (Object value : ((Collection)arg)) {
-                        param.addValue(event, count, value);
-                    }
-                } else if (arg.getClass().isArray()) {
-                    int length = Array.getLength(arg);
-                    for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        param.addValue(event, count, value);
-                    }
-                } else {
-                    param.addValue(event, count, arg);
-                }
+                extractorOf(index, arg).addValues(param, event, count, arg);
 
             }
         } catch (Throwable e) {
@@ -116,9 +210,18 @@ public class ParameterMetric {
         }
     }
 
+    private ParamValueExtractor extractorOf(int index, Object arg) {
+        ParamValueExtractor extractor = extractors.get(index);
+        if (extractor == null || !extractor.accepts(arg)) {
+            extractor = ParamValueExtractor.of(arg);
+            extractors.put(index, extractor);
+        }
+        return extractor;
+    }
+
     public double getPassParamQps(int index, Object value) {
         try {
-            HotParameterLeapArray parameter = rollingParameters.get(index);
+            HotParameterStatistic parameter = getStatistic(index);
             if (parameter == null || value == null) {
                 return -1;
             }
@@ -132,12 +235,12 @@ public class ParameterMetric {
 
     public long getBlockParamQps(int index, Object value) {
         try {
-            HotParameterLeapArray parameter = rollingParameters.get(index);
+            HotParameterStatistic parameter = getStatistic(index);
             if (parameter == null || value == null) {
                 return -1;
             }
 
-            return (long)rollingParameters.get(index).getRollingAvg(RollingParamEvent.REQUEST_BLOCKED, value);
+            return (long)parameter.getRollingAvg(RollingParamEvent.REQUEST_BLOCKED, value);
         } catch (Throwable e) {
             RecordLog.info(e.getMessage(), e);
         }
@@ -147,7 +250,7 @@ public class ParameterMetric {
 
     public Map<Object, Double> getTopPassParamCount(int index, int number) {
         try {
-            HotParameterLeapArray parameter = rollingParameters.get(index);
+            HotParameterStatistic parameter = getStatistic(index);
             if (parameter == null) {
                 return new HashMap<Object, Double>();
             }
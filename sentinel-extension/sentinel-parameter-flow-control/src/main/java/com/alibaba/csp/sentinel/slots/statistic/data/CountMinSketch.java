@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A concurrent Count-Min Sketch with fixed memory ({@code width * depth} int counters).</p>
+ *
+ * <p>The estimated count never underestimates. With probability {@code 1 - delta}, it overestimates
+ * by at most {@code epsilon * N}, where {@code N} is the total count added to the sketch,
+ * {@code width = ceil(e / epsilon)} and {@code depth = ceil(ln(1 / delta))}.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicIntegerArray counters;
+
+    public CountMinSketch(int width, int depth) {
+        AssertUtil.isTrue(width > 0, "width should be positive");
+        AssertUtil.isTrue(depth > 0, "depth should be positive");
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicIntegerArray(width * depth);
+    }
+
+    public static int widthOf(double epsilon) {
+        AssertUtil.isTrue(epsilon > 0 && epsilon < 1, "epsilon should be in (0, 1)");
+        return (int)Math.ceil(Math.E / epsilon);
+    }
+
+    public static int depthOf(double delta) {
+        AssertUtil.isTrue(delta > 0 && delta < 1, "delta should be in (0, 1)");
+        return (int)Math.ceil(Math.log(1 / delta));
+    }
+
+    /**
+     * Add count for provided value.
+     *
+     * @param value non-null value
+     * @param count count to add
+     * @return estimated count of the value after adding
+     */
+    public int add(Object value, int count) {
+        int h1 = spread(value.hashCode());
+        int h2 = spread(h1 ^ 0x9E3779B9);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int c = counters.addAndGet(indexOf(i, h1, h2), count);
+            if (c < min) {
+                min = c;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @param value non-null value
+     * @return estimated count of the value
+     */
+    public int estimate(Object value) {
+        int h1 = spread(value.hashCode());
+        int h2 = spread(h1 ^ 0x9E3779B9);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int c = counters.get(indexOf(i, h1, h2));
+            if (c < min) {
+                min = c;
+            }
+        }
+        return min;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int indexOf(int row, int h1, int h2) {
+        // Double hashing: h(i) = h1 + i * h2.
+        int h = (h1 + row * h2) & Integer.MAX_VALUE;
+        return row * width + h % width;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, so that poor hash codes (e.g. of integers) are well distributed.
+     */
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+}
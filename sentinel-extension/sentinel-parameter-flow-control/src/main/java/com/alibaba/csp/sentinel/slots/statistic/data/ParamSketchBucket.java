@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.slots.block.flow.param.RollingParamEvent;
+
+/**
+ * <p>Approximate metric bucket of frequent parameters in a period of time window.</p>
+ *
+ * <p>Unlike {@link ParamMapBucket}, the memory is fixed regardless of the amount of distinct values:
+ * counts are kept in a {@link CountMinSketch} and frequent values are tracked by a {@link SpaceSavingTopK}
+ * for each {@link RollingParamEvent}.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class ParamSketchBucket {
+
+    private final CountMinSketch[] sketches;
+    private final SpaceSavingTopK[] topValues;
+
+    public ParamSketchBucket(int width, int depth, int topK) {
+        RollingParamEvent[] events = RollingParamEvent.values();
+        this.sketches = new CountMinSketch[events.length];
+        this.topValues = new SpaceSavingTopK[events.length];
+        for (RollingParamEvent event : events) {
+            sketches[event.ordinal()] = new CountMinSketch(width, depth);
+            topValues[event.ordinal()] = new SpaceSavingTopK(topK);
+        }
+    }
+
+    public void reset() {
+        for (RollingParamEvent event : RollingParamEvent.values()) {
+            sketches[event.ordinal()].reset();
+            topValues[event.ordinal()].reset();
+        }
+    }
+
+    public int get(RollingParamEvent event, Object value) {
+        return sketches[event.ordinal()].estimate(value);
+    }
+
+    public ParamSketchBucket add(RollingParamEvent event, int count, Object value) {
+        int estimate = sketches[event.ordinal()].add(value, count);
+        topValues[event.ordinal()].offer(value, estimate);
+        return this;
+    }
+
+    public Set<Object> topKeySet(RollingParamEvent event) {
+        return topValues[event.ordinal()].keySet();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Space-Saving top-K tracker of frequent values with fixed capacity.</p>
+ *
+ * <p>Counts of the tracked values are the estimates of an accompanying {@link CountMinSketch}.
+ * When the tracker is full, a new value replaces the value with the minimum count only if
+ * its estimate is larger, so any value more frequent than the minimum of the tracked values
+ * will be tracked. Values that cannot beat the current minimum don't take the lock.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class SpaceSavingTopK {
+
+    private final int capacity;
+    private final Map<Object, AtomicInteger> counters;
+
+    private volatile int minCount = 0;
+
+    public SpaceSavingTopK(int capacity) {
+        AssertUtil.isTrue(capacity > 0, "capacity should be positive");
+        this.capacity = capacity;
+        this.counters = new ConcurrentHashMap<Object, AtomicInteger>(capacity * 2);
+    }
+
+    /**
+     * Offer the latest estimated count of provided value.
+     *
+     * @param value    non-null value
+     * @param estimate latest estimated count of the value
+     */
+    public void offer(Object value, int estimate) {
+        AtomicInteger counter = counters.get(value);
+        if (counter != null) {
+            if (estimate > counter.get()) {
+                counter.set(estimate);
+            }
+            return;
+        }
+        if (counters.size() >= capacity && estimate <= minCount) {
+            return;
+        }
+        synchronized (this) {
+            counter = counters.get(value);
+            if (counter != null) {
+                if (estimate > counter.get()) {
+                    counter.set(estimate);
+                }
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(value, new AtomicInteger(estimate));
+                return;
+            }
+            Object minValue = null;
+            int min = Integer.MAX_VALUE;
+            for (Entry<Object, AtomicInteger> e : counters.entrySet()) {
+                int c = e.getValue().get();
+                if (c < min) {
+                    min = c;
+                    minValue = e.getKey();
+                }
+            }
+            if (minValue != null && estimate > min) {
+                counters.remove(minValue);
+                counters.put(value, new AtomicInteger(estimate));
+            }
+            this.minCount = min;
+        }
+    }
+
+    public int get(Object value) {
+        AtomicInteger counter = counters.get(value);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public Set<Object> keySet() {
+        return counters.keySet();
+    }
+
+    public synchronized void reset() {
+        counters.clear();
+        this.minCount = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
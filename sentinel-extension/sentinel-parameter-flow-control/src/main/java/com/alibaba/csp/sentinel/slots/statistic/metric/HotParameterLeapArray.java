@@ -35,7 +35,7 @@ import com.alibaba.csp.sentinel.slots.statistic.data.ParamMapBucket;
  * @author Eric Zhao
  * @since 0.2.0
  */
-public class HotParameterLeapArray extends LeapArray<ParamMapBucket> {
+public class HotParameterLeapArray extends LeapArray<ParamMapBucket> implements HotParameterStatistic {
 
     public HotParameterLeapArray(int sampleCount, int intervalInMs) {
         super(sampleCount, intervalInMs);
@@ -60,6 +60,7 @@ public class HotParameterLeapArray extends LeapArray<ParamMapBucket> {
      * @param count count to add
      * @param value parameter value
      */
+    @Override
     public void addValue(RollingParamEvent event, int count, Object value) {
         currentWindow().value().add(event, count, value);
     }
@@ -71,6 +72,7 @@ public class HotParameterLeapArray extends LeapArray<ParamMapBucket> {
      * @param number max number of values
      * @return "top-N" value map
      */
+    @Override
     public Map<Object, Double> getTopValues(RollingParamEvent event, int number) {
         currentWindow();
         List<ParamMapBucket> buckets = this.values();
@@ -115,6 +117,7 @@ public class HotParameterLeapArray extends LeapArray<ParamMapBucket> {
         return doubleResult;
     }
 
+    @Override
     public long getRollingSum(RollingParamEvent event, Object value) {
         currentWindow();
 
@@ -128,6 +131,7 @@ public class HotParameterLeapArray extends LeapArray<ParamMapBucket> {
         return sum;
     }
 
+    @Override
     public double getRollingAvg(RollingParamEvent event, Object value) {
         return ((double) getRollingSum(event, value)) / getIntervalInSecond();
     }
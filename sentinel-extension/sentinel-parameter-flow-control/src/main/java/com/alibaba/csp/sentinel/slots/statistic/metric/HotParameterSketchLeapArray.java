@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.slots.block.flow.param.RollingParamEvent;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.CountMinSketch;
+import com.alibaba.csp.sentinel.slots.statistic.data.ParamSketchBucket;
+
+/**
+ * <p>Approximate frequent parameters statistics in a time window, where each bucket keeps
+ * a Count-Min Sketch and a Space-Saving top-K tracker (see {@link ParamSketchBucket}).</p>
+ *
+ * <p>The memory is fixed and known in advance: {@code sampleCount * events * (width * depth * 4 + topK entries)}
+ * bytes approximately, regardless of the amount of distinct parameter values. The rolling count of a value
+ * may be overestimated by at most {@code epsilon} times the total count of the window (with probability
+ * {@code 1 - delta}), but never underestimated.</p>
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class HotParameterSketchLeapArray extends LeapArray<ParamSketchBucket> implements HotParameterStatistic {
+
+    private final int width;
+    private final int depth;
+    private final int topK;
+
+    public HotParameterSketchLeapArray(int sampleCount, int intervalInMs, double epsilon, double delta, int topK) {
+        super(sampleCount, intervalInMs);
+        this.width = CountMinSketch.widthOf(epsilon);
+        this.depth = CountMinSketch.depthOf(delta);
+        this.topK = topK;
+    }
+
+    @Override
+    public ParamSketchBucket newEmptyBucket() {
+        return new ParamSketchBucket(width, depth, topK);
+    }
+
+    @Override
+    protected WindowWrap<ParamSketchBucket> resetWindowTo(WindowWrap<ParamSketchBucket> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    @Override
+    public void addValue(RollingParamEvent event, int count, Object value) {
+        currentWindow().value().add(event, count, value);
+    }
+
+    @Override
+    public Map<Object, Double> getTopValues(RollingParamEvent event, int number) {
+        currentWindow();
+        List<ParamSketchBucket> buckets = this.values();
+
+        // Candidates are the values tracked by any of the buckets.
+        Set<Object> candidates = new HashSet<Object>();
+        for (ParamSketchBucket b : buckets) {
+            candidates.addAll(b.topKeySet(event));
+        }
+
+        List<Entry<Object, Long>> list = new ArrayList<Entry<Object, Long>>(candidates.size());
+        for (Object o : candidates) {
+            long count = 0;
+            for (ParamSketchBucket b : buckets) {
+                count += b.get(event, o);
+            }
+            list.add(new SimpleEntry<Object, Long>(o, count));
+        }
+        Collections.sort(list, new Comparator<Entry<Object, Long>>() {
+            @Override
+            public int compare(Entry<Object, Long> a, Entry<Object, Long> b) {
+                return b.getValue().compareTo(a.getValue());
+            }
+        });
+
+        Map<Object, Double> doubleResult = new HashMap<Object, Double>();
+        int size = list.size() > number ? number : list.size();
+        for (int i = 0; i < size; i++) {
+            Entry<Object, Long> x = list.get(i);
+            if (x.getValue() == 0) {
+                break;
+            }
+            doubleResult.put(x.getKey(), ((double)x.getValue()) / getIntervalInSecond());
+        }
+        return doubleResult;
+    }
+
+    @Override
+    public long getRollingSum(RollingParamEvent event, Object value) {
+        currentWindow();
+
+        long sum = 0;
+        List<ParamSketchBucket> buckets = this.values();
+        for (ParamSketchBucket b : buckets) {
+            sum += b.get(event, value);
+        }
+        return sum;
+    }
+
+    @Override
+    public double getRollingAvg(RollingParamEvent event, Object value) {
+        return ((double)getRollingSum(event, value)) / getIntervalInSecond();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.slots.block.flow.param.RollingParamEvent;
+
+/**
+ * Sliding window statistics of frequent parameter values.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public interface HotParameterStatistic {
+
+    /**
+     * Add event count for specific parameter value.
+     *
+     * @param event target event
+     * @param count count to add
+     * @param value parameter value
+     */
+    void addValue(RollingParamEvent event, int count, Object value);
+
+    /**
+     * Get "top-N" value-QPS map of provided event.
+     *
+     * @param event  target event
+     * @param number max number of values
+     * @return "top-N" value map
+     */
+    Map<Object, Double> getTopValues(RollingParamEvent event, int number);
+
+    long getRollingSum(RollingParamEvent event, Object value);
+
+    double getRollingAvg(RollingParamEvent event, Object value);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LongIntHashMap}.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        LongIntHashMap map = new LongIntHashMap(100);
+        for (long i = -50; i < 50; i++) {
+            map.put(i * 1024, (int)i + 1000);
+        }
+        assertEquals(100, map.size());
+        for (long i = -50; i < 50; i++) {
+            assertEquals((int)i + 1000, map.get(i * 1024, -1));
+        }
+        assertEquals(-1, map.get(1, -1));
+        assertEquals(-1, map.get(Long.MAX_VALUE, -1));
+
+        map.put(0, 7);
+        assertEquals(100, map.size());
+        assertEquals(7, map.get(0, -1));
+    }
+
+    @Test
+    public void testEmptyMap() {
+        LongIntHashMap map = new LongIntHashMap(0);
+        assertEquals(ParamFlowRule.NO_HOT_ITEM, map.get(0, ParamFlowRule.NO_HOT_ITEM));
+    }
+}
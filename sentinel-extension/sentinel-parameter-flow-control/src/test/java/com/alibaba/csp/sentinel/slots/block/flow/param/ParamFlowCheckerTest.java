@@ -19,10 +19,14 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.ManualClock;
 
 import org.junit.After;
 import org.junit.Before;
@@ -181,6 +185,56 @@ public class ParamFlowCheckerTest {
         assertFalse(ParamFlowChecker.passCheck(resourceWrapper, rule, 1, arr));
     }
 
+    @Test
+    public void testSingleValueCheckTokenBucket() {
+        final String resourceName = "testSingleValueCheckTokenBucket";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        int paramIdx = 0;
+
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setParamIdx(paramIdx)
+            .setCount(4)
+            .setBurstCount(2)
+            .setTokenBucketMode(true);
+        Map<Object, Integer> map = new HashMap<Object, Integer>();
+        String valueB = "valueB";
+        map.put(valueB, 1);
+        rule.setParsedHotItems(map);
+
+        Clock originClock = TimeUtil.getClock();
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        TimeUtil.setClock(clock);
+        try {
+            ParameterMetric metric = new ParameterMetric();
+            ParamFlowSlot.getMetricsMap().put(resourceWrapper, metric);
+            metric.initializeForRule(rule);
+
+            String valueA = "valueA";
+            // Capacity = count + burstCount.
+            for (int i = 0; i < 6; i++) {
+                assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+            }
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+            // Exception item has its own threshold (capacity = 1 + burstCount).
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 4, valueB));
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 3, valueB));
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueB));
+
+            // Refill lazily: 4 tokens per second.
+            clock.advance(250, TimeUnit.MILLISECONDS);
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+
+            // The bucket won't exceed its capacity after a long idle time.
+            clock.advance(10, TimeUnit.SECONDS);
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 7, valueA));
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 6, valueA));
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        } finally {
+            TimeUtil.setClock(originClock);
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         ParamFlowSlot.getMetricsMap().clear();
@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.statistic.metric.HotParameterStatistic;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for {@link ParamValueExtractor}.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class ParamValueExtractorTest {
+
+    @Test
+    public void testExtractorCachedByType() {
+        ParamFlowRule rule = new ParamFlowRule("abc").setParamIdx(0);
+        ParamValueExtractor stringExtractor = rule.extractorOf("a");
+        assertSame(stringExtractor, rule.extractorOf("b"));
+        assertTrue(stringExtractor.accepts("c"));
+
+        ParamValueExtractor intArrayExtractor = rule.extractorOf(new int[] {1, 2});
+        assertNotSame(stringExtractor, intArrayExtractor);
+        assertSame(intArrayExtractor, rule.extractorOf(new int[0]));
+        assertFalse(intArrayExtractor.accepts(new long[0]));
+
+        ParamValueExtractor listExtractor = rule.extractorOf(new ArrayList<Object>());
+        assertFalse(listExtractor.accepts(new HashSet<Object>()));
+    }
+
+    @Test
+    public void testToCollection() {
+        assertEquals(Arrays.<Object>asList(1, 2, 3), ParamValueExtractor.of(new int[] {1, 2, 3})
+            .toCollection(new int[] {1, 2, 3}));
+        assertEquals(Arrays.<Object>asList(4L, 5L), ParamValueExtractor.of(new long[] {4L, 5L})
+            .toCollection(new long[] {4L, 5L}));
+        assertEquals(Arrays.<Object>asList("a", "b"), ParamValueExtractor.of(new String[] {"a", "b"})
+            .toCollection(new String[] {"a", "b"}));
+        assertEquals(Arrays.<Object>asList(1.5d, 2.5d), ParamValueExtractor.of(new double[] {1.5d, 2.5d})
+            .toCollection(new double[] {1.5d, 2.5d}));
+        List<Object> list = Arrays.<Object>asList("x", "y");
+        assertSame(list, ParamValueExtractor.of(list).toCollection(list));
+        assertEquals(Arrays.<Object>asList("z"), ParamValueExtractor.of("z").toCollection("z"));
+    }
+
+    @Test
+    public void testAddValues() {
+        HotParameterStatistic statistic = mock(HotParameterStatistic.class);
+        RollingParamEvent event = RollingParamEvent.REQUEST_PASSED;
+
+        ParamValueExtractor.of(new int[0]).addValues(statistic, event, 2, new int[] {7, 7, 8});
+        verify(statistic, times(2)).addValue(event, 2, 7);
+        verify(statistic).addValue(event, 2, 8);
+
+        // Null values are skipped.
+        ParamValueExtractor.of(new Object[0]).addValues(statistic, event, 1, new Object[] {"a", null});
+        verify(statistic).addValue(event, 1, "a");
+    }
+
+    @Test
+    public void testIntArrayCheckWithExceptionItems() {
+        final String resourceName = "testIntArrayCheckWithExceptionItems";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        int paramIdx = 0;
+
+        ParamFlowRule rule = new ParamFlowRule(resourceName).setParamIdx(paramIdx).setCount(5);
+        Map<Object, Integer> map = new HashMap<Object, Integer>();
+        map.put(2, 1);
+        // Long item should not match the int value.
+        map.put(3L, 1);
+        rule.setParsedHotItems(map);
+        assertEquals(1, rule.getIntHotItem(2));
+        assertEquals(ParamFlowRule.NO_HOT_ITEM, rule.getIntHotItem(3));
+        assertEquals(1, rule.getLongHotItem(3L));
+
+        ParameterMetric metric = mock(ParameterMetric.class);
+        when(metric.getPassParamQps(paramIdx, 1)).thenReturn(3d);
+        when(metric.getPassParamQps(paramIdx, 2)).thenReturn(3d);
+        when(metric.getPassParamQps(paramIdx, 3)).thenReturn(3d);
+        ParamFlowSlot.getMetricsMap().put(resourceWrapper, metric);
+
+        ParamValueExtractor extractor = rule.extractorOf(new int[0]);
+        assertTrue(extractor.passLocalCheck(resourceWrapper, rule, 1, new int[] {1, 3}));
+        assertFalse(extractor.passLocalCheck(resourceWrapper, rule, 1, new int[] {1, 2}));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ParamFlowSlot.getMetricsMap().clear();
+    }
+}
@@ -69,6 +69,34 @@ public class ParameterMetricTest {
         assertEquals(0, metric.getRollingParameters().size());
     }
 
+    @Test
+    public void testSketchModeHotValuesRetained() {
+        // Long window, so that the window will not roll during the test.
+        int intervalInSec = 3600;
+        ParameterMetric metric = new ParameterMetric(1, intervalInSec * 1000, true);
+        int index = 0;
+        metric.initializeForIndex(index);
+        assertTrue(metric.getRollingParameters().isEmpty());
+        assertNotNull(metric.getSketchParameters().get(index));
+
+        // Many distinct cold values should not evict the hot ones.
+        for (int i = 0; i < 100000; i++) {
+            metric.addPass(1, "cold-" + i);
+            if (i % 100 == 0) {
+                metric.addPass(1, "hot-a");
+                metric.addPass(2, "hot-b");
+            }
+        }
+        assertTrue(metric.getPassParamQps(index, "hot-a") * intervalInSec >= 1000);
+        assertTrue(metric.getPassParamQps(index, "hot-b") * intervalInSec >= 2000);
+        Map<Object, Double> top = metric.getTopPassParamCount(index, 2);
+        assertTrue(top.containsKey("hot-a"));
+        assertTrue(top.containsKey("hot-b"));
+
+        metric.clear();
+        assertEquals(0, metric.getSketchParameters().size());
+    }
+
     private static final int PARAM_TYPE_NORMAL = 0;
     private static final int PARAM_TYPE_ARRAY = 1;
     private static final int PARAM_TYPE_COLLECTION = 2;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CountMinSketch}.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testDimensions() {
+        assertEquals(1360, CountMinSketch.widthOf(0.002));
+        assertEquals(5, CountMinSketch.depthOf(0.01));
+    }
+
+    @Test
+    public void testEstimateWithinErrorBound() {
+        double epsilon = 0.01;
+        CountMinSketch sketch = new CountMinSketch(CountMinSketch.widthOf(epsilon), CountMinSketch.depthOf(0.01));
+        int distinct = 10000;
+        long total = 0;
+        for (int i = 0; i < distinct; i++) {
+            int count = i % 10 + 1;
+            sketch.add(i, count);
+            total += count;
+        }
+        int exceeded = 0;
+        for (int i = 0; i < distinct; i++) {
+            int actual = i % 10 + 1;
+            int estimate = sketch.estimate(i);
+            // Never underestimates.
+            assertTrue(estimate >= actual);
+            if (estimate - actual > epsilon * total) {
+                exceeded++;
+            }
+        }
+        assertTrue(exceeded <= distinct * 0.01);
+    }
+
+    @Test
+    public void testAddReturnsEstimateAndReset() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        assertEquals(3, sketch.add("a", 3));
+        assertEquals(5, sketch.add("a", 2));
+        assertEquals(5, sketch.estimate("a"));
+
+        sketch.reset();
+        assertEquals(0, sketch.estimate("a"));
+    }
+}
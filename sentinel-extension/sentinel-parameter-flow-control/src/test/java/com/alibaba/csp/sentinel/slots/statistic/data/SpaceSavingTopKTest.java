@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link SpaceSavingTopK}.
+ *
+ * @author agent
+ * @since 1.4.2
+ */
+public class SpaceSavingTopKTest {
+
+    @Test
+    public void testReplaceMinimumOnlyIfLarger() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(2);
+        topK.offer("a", 5);
+        topK.offer("b", 2);
+        assertEquals(2, topK.keySet().size());
+
+        // Not larger than the minimum.
+        topK.offer("c", 2);
+        assertFalse(topK.keySet().contains("c"));
+
+        topK.offer("c", 3);
+        assertTrue(topK.keySet().contains("c"));
+        assertFalse(topK.keySet().contains("b"));
+        assertEquals(2, topK.keySet().size());
+
+        // Tracked values are updated with latest estimate.
+        topK.offer("a", 8);
+        assertEquals(8, topK.get("a"));
+
+        topK.reset();
+        assertTrue(topK.keySet().isEmpty());
+    }
+
+    @Test
+    public void testHotValuesRetainedAmongColdValues() {
+        CountMinSketch sketch = new CountMinSketch(CountMinSketch.widthOf(0.002), CountMinSketch.depthOf(0.01));
+        SpaceSavingTopK topK = new SpaceSavingTopK(10);
+        for (int i = 0; i < 50000; i++) {
+            Object cold = "cold-" + i;
+            topK.offer(cold, sketch.add(cold, 1));
+            if (i % 50 == 0) {
+                topK.offer("hot", sketch.add("hot", 1));
+            }
+        }
+        assertTrue(topK.keySet().contains("hot"));
+        assertTrue(topK.keySet().size() <= 10);
+    }
+}
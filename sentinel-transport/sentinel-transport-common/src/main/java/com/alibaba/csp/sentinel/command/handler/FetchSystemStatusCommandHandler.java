@@ -23,6 +23,7 @@ import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
 import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
 import com.alibaba.fastjson.JSONObject;
 
 /**
@@ -41,6 +42,11 @@ public class FetchSystemStatusCommandHandler implements CommandHandler<String> {
         systemStatus.put("b", Constants.ENTRY_NODE.blockQps());
         systemStatus.put("r", Constants.ENTRY_NODE.avgRt());
         systemStatus.put("t", Constants.ENTRY_NODE.curThreadNum());
+        // System signals (negative if unavailable or system rules are absent).
+        systemStatus.put("load", SystemRuleManager.getCurrentSystemAvgLoad());
+        systemStatus.put("cpu", SystemRuleManager.getCurrentCpuUsage());
+        systemStatus.put("throttled", SystemRuleManager.getCurrentCpuThrottledRatio());
+        systemStatus.put("memory", SystemRuleManager.getCurrentMemoryUsage());
 
         return CommandResponse.ofSuccess(JSONObject.toJSONString(systemStatus));
     }
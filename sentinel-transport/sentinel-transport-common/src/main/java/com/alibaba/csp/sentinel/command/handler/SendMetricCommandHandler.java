@@ -15,8 +15,6 @@
  */
 package com.alibaba.csp.sentinel.command.handler;
 
-import java.util.List;
-
 import com.alibaba.csp.sentinel.command.CommandHandler;
 import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
@@ -25,7 +23,7 @@ import com.alibaba.csp.sentinel.util.PidUtil;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
-import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
+import com.alibaba.csp.sentinel.node.metric.MappedMetricSearcher;
 import com.alibaba.csp.sentinel.node.metric.MetricWriter;
 
 /**
@@ -37,13 +35,12 @@ import com.alibaba.csp.sentinel.node.metric.MetricWriter;
 @CommandMapping(name = "metric")
 public class SendMetricCommandHandler implements CommandHandler<String> {
 
-    private MetricSearcher searcher;
+    private volatile MappedMetricSearcher searcher;
 
     private final Object lock = new Object();
 
     @Override
     public CommandResponse<String> handle(CommandRequest request) {
-        // Note: not thread-safe.
         if (searcher == null) {
             synchronized (lock) {
                 String appName = SentinelConfig.getAppName();
@@ -51,7 +48,7 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
                     appName = "";
                 }
                 if (searcher == null) {
-                    searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR,
+                    searcher = new MappedMetricSearcher(MetricWriter.METRIC_BASE_DIR,
                         MetricWriter.formMetricFileName(appName, PidUtil.getPid()));
                 }
             }
@@ -67,30 +64,28 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         } else {
             return CommandResponse.ofSuccess("");
         }
-        List<MetricNode> list;
+        // Metrics are appended to the response directly, and the searcher can be shared by concurrent requests.
+        StringBuilder sb = new StringBuilder();
+        int lines;
         try {
             // Find by end time if set.
             if (StringUtil.isNotBlank(endTimeStr)) {
                 long endTime = Long.parseLong(endTimeStr);
-                list = searcher.findByTimeAndResource(startTime, endTime, identity);
+                lines = searcher.appendMetricsByTimeAndResource(startTime, endTime, identity, sb);
             } else {
                 if (StringUtil.isNotBlank(maxLinesStr)) {
                     maxLines = Integer.parseInt(maxLinesStr);
                 }
                 maxLines = Math.min(maxLines, 12000);
-                list = searcher.find(startTime, maxLines);
+                lines = searcher.appendMetrics(startTime, maxLines, sb);
             }
         } catch (Exception ex) {
             return CommandResponse.ofFailure(new RuntimeException("Error when retrieving metrics", ex));
         }
 
-        if (list == null) {
+        if (lines < 0) {
             return CommandResponse.ofSuccess("No metrics");
         }
-        StringBuilder sb = new StringBuilder();
-        for (MetricNode node : list) {
-            sb.append(node.toThinString()).append("\n");
-        }
         return CommandResponse.ofSuccess(sb.toString());
     }
 }